@@ -1,3 +1,5 @@
+import org.jetbrains.intellij.platform.gradle.TestFrameworkType
+
 plugins {
     id("java")
     id("org.jetbrains.intellij.platform") version "2.2.1"
@@ -16,10 +18,15 @@ repositories {
 dependencies {
     intellijPlatform {
         intellijIdeaCommunity(providers.gradleProperty("platformVersion").get())
+        bundledPlugin("com.intellij.modules.json")
         instrumentationTools()
         pluginVerifier()
+        testFramework(TestFrameworkType.Platform)
+        testFramework(TestFrameworkType.Metrics)
     }
-    implementation("com.google.code.gson:gson:2.11.0")
+    implementation(project(":molang-core"))
+    testImplementation("junit:junit:4.13.2")
+    testImplementation("org.opentest4j:opentest4j:1.3.0")
 }
 
 java {
@@ -52,4 +59,11 @@ tasks {
     wrapper {
         gradleVersion = "8.11.1"
     }
+
+    test {
+        maxHeapSize = "2g"
+        listOf("molang.perf.budgetScale", "molang.perf.files", "molang.schema.stressSeconds").forEach { name ->
+            providers.gradleProperty(name).orNull?.let { systemProperty(name, it) }
+        }
+    }
 }
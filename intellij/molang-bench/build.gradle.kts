@@ -0,0 +1,27 @@
+plugins {
+    java
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+group = providers.gradleProperty("pluginGroup").get()
+version = providers.gradleProperty("pluginVersion").get()
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    jmh(project(":molang-core"))
+    jmh(project(":molang-lsp"))
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_21
+    targetCompatibility = JavaVersion.VERSION_21
+}
+
+jmh {
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results-${project.version}.json")
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes = listOf(it) }
+}
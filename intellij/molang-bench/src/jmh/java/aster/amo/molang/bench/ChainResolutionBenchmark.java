@@ -0,0 +1,51 @@
+package aster.amo.molang.bench;
+
+import aster.amo.molang.ide.schema.MoLangSchema;
+import aster.amo.molang.ide.schema.SchemaEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ChainResolutionBenchmark {
+    @Param({"1", "2", "3", "5"})
+    public int depth;
+
+    private MoLangSchema schema;
+    private List<MoLangCorpus.Chain> chains;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        schema = MoLangSchema.loadBundled();
+        chains = new MoLangCorpus(schema).chains(depth);
+    }
+
+    @Benchmark
+    public MoLangSchema.SchemaResolution resolveChain() {
+        return schema.resolveChain(MoLangCorpus.RUNTIME, chains.get(next++ % chains.size()).names());
+    }
+
+    @Benchmark
+    public SchemaEntry resolveFunction() {
+        return schema.resolveFunction(MoLangCorpus.RUNTIME, chains.get(next++ % chains.size()).names());
+    }
+}
@@ -0,0 +1,58 @@
+package aster.amo.molang.bench;
+
+import aster.amo.molang.ide.schema.MoLangSchema;
+import aster.amo.molang.lsp.MoLangCompletions;
+import aster.amo.molang.lsp.TextDocument;
+import aster.amo.molang.lsp.WorkspaceIndex;
+import org.eclipse.lsp4j.CompletionItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CompletionBenchmark {
+    @Param({"1", "2", "3"})
+    public int depth;
+
+    private MoLangCompletions completions;
+    private TextDocument document;
+    private int offset;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        MoLangSchema schema = MoLangSchema.loadBundled();
+        MoLangCorpus corpus = new MoLangCorpus(schema);
+        completions = new MoLangCompletions(schema, new WorkspaceIndex());
+        List<MoLangCorpus.Chain> chains = corpus.chains(depth);
+        String body = corpus.script(0, MoLangCorpus.Shape.MEDIUM);
+        String prefix = chains.get(chains.size() / 2).source() + ".";
+        String text = body + "t.x = " + prefix;
+        Path path = Path.of("/pack/data/bench/molang/callbacks", MoLangCorpus.RUNTIME_FOLDER, "s0.molang");
+        document = new TextDocument(path.toUri().toString(), path, 1, text);
+        offset = text.length();
+    }
+
+    @Benchmark
+    public List<CompletionItem> complete() {
+        return completions.complete(document, offset, () -> {});
+    }
+}
@@ -0,0 +1,52 @@
+package aster.amo.molang.bench;
+
+import aster.amo.molang.ide.analysis.MoLangFunctionExtractor;
+import aster.amo.molang.ide.schema.MoLangSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FunctionIndexBenchmark {
+    private static final int FILES = 64;
+
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    private String[] texts;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        MoLangCorpus corpus = new MoLangCorpus(MoLangSchema.loadBundled());
+        MoLangCorpus.Shape shape = MoLangCorpus.Shape.named(size);
+        texts = new String[FILES];
+        for (int i = 0; i < FILES; i++) {
+            texts[i] = i % 8 == 0 ? corpus.library(i) : corpus.script(i, shape);
+        }
+    }
+
+    @Benchmark
+    public Map<String, List<Integer>> extract() {
+        return MoLangFunctionExtractor.extract(texts[next++ % FILES]);
+    }
+}
@@ -0,0 +1,65 @@
+package aster.amo.molang.bench;
+
+import aster.amo.molang.ide.lexer.MoLangScanner;
+import aster.amo.molang.ide.schema.MoLangSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LexerBenchmark {
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    @Param({"1", "4"})
+    public int nesting;
+
+    private String text;
+    private final MoLangScanner scanner = new MoLangScanner();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        MoLangCorpus.Shape base = MoLangCorpus.Shape.named(size);
+        MoLangCorpus corpus = new MoLangCorpus(MoLangSchema.loadBundled());
+        text = corpus.script(0, new MoLangCorpus.Shape(base.statements(), nesting, base.chainDepth(), true));
+    }
+
+    @Benchmark
+    public int scan() {
+        scanner.reset(text, 0, text.length());
+        int tokens = 0;
+        while (scanner.getTokenType() != null) {
+            tokens++;
+            scanner.advance();
+        }
+        return tokens;
+    }
+
+    @Benchmark
+    public int scanFromScratch() {
+        MoLangScanner fresh = new MoLangScanner(text);
+        int end = 0;
+        while (fresh.getTokenType() != null) {
+            end = fresh.getTokenEnd();
+            fresh.advance();
+        }
+        return end;
+    }
+}
@@ -0,0 +1,148 @@
+package aster.amo.molang.bench;
+
+import aster.amo.molang.ide.schema.MoLangSchema;
+import aster.amo.molang.ide.schema.SchemaEntry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public final class MoLangCorpus {
+    public static final String RUNTIME = "event:POKEMON_LEVEL_UP";
+    public static final String RUNTIME_FOLDER = "pokemon_level_up";
+    public static final String NAMESPACE = "bench";
+    public static final int LIBRARIES = 25;
+    private static final int FILES_PER_DIRECTORY = 200;
+    private static final int MEMBERS_PER_LEVEL = 6;
+    private static final int MAX_CHAIN_DEPTH = 6;
+
+    private final MoLangSchema schema;
+    private final List<List<Chain>> chainsByDepth = new ArrayList<>();
+
+    public MoLangCorpus(MoLangSchema schema) {
+        this.schema = schema;
+        for (int i = 0; i <= MAX_CHAIN_DEPTH; i++) chainsByDepth.add(new ArrayList<>());
+        collect(new ArrayList<>(), "q", schema.getQueryVariables(RUNTIME));
+    }
+
+    public record Shape(int statements, int nesting, int chainDepth, boolean contextHeader) {
+        public static final Shape SMALL = new Shape(8, 1, 2, true);
+        public static final Shape MEDIUM = new Shape(60, 3, 3, true);
+        public static final Shape LARGE = new Shape(600, 5, 4, true);
+
+        public static Shape named(String name) {
+            return switch (name) {
+                case "small" -> SMALL;
+                case "medium" -> MEDIUM;
+                case "large" -> LARGE;
+                default -> throw new IllegalArgumentException("Unknown shape " + name);
+            };
+        }
+    }
+
+    public record Chain(String[] names, String source) {}
+
+    public List<Chain> chains(int depth) {
+        int clamped = Math.max(1, Math.min(depth, MAX_CHAIN_DEPTH));
+        while (clamped > 1 && chainsByDepth.get(clamped).isEmpty()) clamped--;
+        return chainsByDepth.get(clamped);
+    }
+
+    public String script(int index, Shape shape) {
+        Random random = new Random(index * 31L + shape.hashCode());
+        StringBuilder sb = new StringBuilder(shape.statements() * 64);
+        if (shape.contextHeader()) sb.append("// @context ").append(RUNTIME).append('\n');
+        sb.append("import('").append(NAMESPACE).append(":lib/l").append(index % LIBRARIES).append("');\n");
+        sb.append("fn('score").append(index).append("', (level) -> {\n")
+                .append("    return level * 2 + math.clamp(").append(chain(random, shape.chainDepth())).append(", 0, 100);\n")
+                .append("});\n");
+        int written = 0;
+        while (written < shape.statements()) {
+            written += block(sb, random, shape, shape.nesting(), 1, index);
+        }
+        sb.append("return t.s").append(index % 4).append(";\n");
+        return sb.toString();
+    }
+
+    public String library(int index) {
+        return "fn('lib" + index + "', (a) -> { return a * " + (index + 1) + "; });\n"
+                + "fn('lib" + index + "_clamp', (a, lo, hi) -> { return math.clamp(a, lo, hi); });\n";
+    }
+
+    public int writeDatapack(Path root, int files, Shape shape) throws IOException {
+        Path molang = root.resolve("data").resolve(NAMESPACE).resolve("molang");
+        Path lib = molang.resolve("lib");
+        Files.createDirectories(lib);
+        for (int i = 0; i < LIBRARIES; i++) {
+            Files.writeString(lib.resolve("l" + i + ".molang"), library(i));
+        }
+        for (int i = 0; i < files; i++) {
+            Path dir = molang.resolve("callbacks").resolve(RUNTIME_FOLDER).resolve("g" + (i / FILES_PER_DIRECTORY));
+            if (i % FILES_PER_DIRECTORY == 0) Files.createDirectories(dir);
+            Files.writeString(dir.resolve("s" + i + ".molang"), script(i, shape));
+        }
+        return files + LIBRARIES;
+    }
+
+    private int block(StringBuilder sb, Random random, Shape shape, int nesting, int depth, int index) {
+        String indent = "    ".repeat(depth - 1);
+        if (nesting > 1 && random.nextInt(3) == 0) {
+            sb.append(indent).append("if (").append(chain(random, shape.chainDepth())).append(" > ").append(random.nextInt(50)).append(") {\n");
+            int written = 1;
+            int body = 1 + random.nextInt(3);
+            for (int i = 0; i < body; i++) written += block(sb, random, shape, nesting - 1, depth + 1, index);
+            sb.append(indent).append("}\n");
+            return written;
+        }
+        switch (random.nextInt(5)) {
+            case 0 -> sb.append(indent).append("t.s").append(random.nextInt(4)).append(" = ")
+                    .append(chain(random, shape.chainDepth())).append(" * ").append(random.nextInt(9) + 1).append(";\n");
+            case 1 -> sb.append(indent).append("v.counter_").append(random.nextInt(50)).append(" = (v.counter_")
+                    .append(random.nextInt(50)).append(" ?? 0) + 1;\n");
+            case 2 -> sb.append(indent).append("t.s").append(random.nextInt(4)).append(" = f.score").append(index)
+                    .append("(").append(chain(random, shape.chainDepth())).append(") + f.lib").append(index % LIBRARIES).append("(2);\n");
+            case 3 -> sb.append(indent).append("t.m = math.sin(t.s0) * math.cos(").append(random.nextInt(360))
+                    .append(") + math.pow(2, ").append(random.nextInt(8)).append(");\n");
+            default -> sb.append(indent).append("t.flag = ").append(chain(random, shape.chainDepth())).append(" == '")
+                    .append((char) ('a' + random.nextInt(26))).append("' ? 1 : 0; // compare\n");
+        }
+        return 1;
+    }
+
+    private String chain(Random random, int depth) {
+        List<Chain> chains = chains(depth);
+        if (chains.isEmpty()) return "q.pokemon.level";
+        return chains.get(random.nextInt(chains.size())).source();
+    }
+
+    private void collect(List<String> prefix, String source, Map<String, SchemaEntry> members) {
+        int leaves = 0;
+        int structs = 0;
+        for (Map.Entry<String, SchemaEntry> member : members.entrySet()) {
+            boolean struct = MoLangSchema.isStructEntry(member.getValue());
+            if (struct ? structs++ >= MEMBERS_PER_LEVEL : leaves++ >= MEMBERS_PER_LEVEL) continue;
+            List<String> names = new ArrayList<>(prefix);
+            names.add(member.getKey());
+            String[] array = names.toArray(String[]::new);
+            String memberSource = source + "." + member.getKey() + arguments(member.getValue());
+            chainsByDepth.get(names.size()).add(new Chain(array, memberSource));
+            if (!struct || names.size() >= MAX_CHAIN_DEPTH) continue;
+            MoLangSchema.SchemaResolution resolution = schema.resolveChain(RUNTIME, array);
+            if (resolution != null && !resolution.functions().isEmpty()) {
+                collect(names, memberSource, resolution.functions());
+            }
+        }
+    }
+
+    private static String arguments(SchemaEntry entry) {
+        int params = entry.params() != null ? entry.params().size() : 0;
+        if (params == 0) return "";
+        StringBuilder sb = new StringBuilder("(");
+        for (int p = 0; p < params; p++) sb.append(p == 0 ? "" : ", ").append(p + 1);
+        return sb.append(')').toString();
+    }
+}
@@ -0,0 +1,75 @@
+package aster.amo.molang.bench;
+
+import aster.amo.molang.ide.schema.MoLangSchema;
+import aster.amo.molang.ide.schema.SchemaEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SchemaBenchmark {
+    private byte[] bundled;
+    private MoLangSchema schema;
+    private String[] structs;
+    private String script;
+    private String path;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        try (InputStream in = MoLangSchema.class.getResourceAsStream(MoLangSchema.BUNDLED_RESOURCE)) {
+            if (in == null) throw new IOException("Bundled schema missing");
+            bundled = in.readAllBytes();
+        }
+        schema = MoLangSchema.loadBundled();
+        structs = schema.getStructNames().toArray(String[]::new);
+        MoLangCorpus corpus = new MoLangCorpus(schema);
+        script = corpus.script(0, new MoLangCorpus.Shape(40, 2, 3, false));
+        path = "/pack/data/bench/molang/callbacks/" + MoLangCorpus.RUNTIME_FOLDER + "/g0/s0.molang";
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public MoLangSchema load() {
+        return MoLangSchema.load(new InputStreamReader(new ByteArrayInputStream(bundled), StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Map<String, SchemaEntry> allFunctionsForType() {
+        return schema.getAllFunctionsForType(structs[next++ % structs.length]);
+    }
+
+    @Benchmark
+    public String inferRuntimeFromContent() {
+        return schema.inferRuntimeFromContent(script);
+    }
+
+    @Benchmark
+    public String inferRuntimeFromPath() {
+        return schema.inferRuntimeFromPath(path);
+    }
+}
@@ -0,0 +1,79 @@
+package aster.amo.molang.ide.runtime;
+
+import aster.amo.molang.ide.ast.MoLangParser;
+import aster.amo.molang.ide.ast.Node;
+import aster.amo.molang.ide.schema.MoLangSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+    private static final Map<String, String> SCRIPTS = Map.of(
+            "arithmetic", """
+                    t.x = 1;
+                    loop(100, {
+                        t.x = t.x + math.sin(t.x) * 2.5 - math.clamp(t.x / 3, 0, 10);
+                        (t.x > 50) ? { t.x = t.x % 7; };
+                    });
+                    return t.x;
+                    """,
+            "queries", """
+                    t.level = q.pokemon.level;
+                    t.total = 0;
+                    for (t.i = 0; t.i < 50; t.i += 1) {
+                        t.total += q.pokemon.level * 2 + q.pokemon.friendship;
+                        if (q.pokemon.species.name == 'pikachu') { t.total += 1; }
+                    }
+                    return t.total + t.level;
+                    """,
+            "functions", """
+                    fn('fib', (n) -> { return n < 2 ? n : f.fib(n - 1) + f.fib(n - 2); });
+                    fn('scale', (value, factor) -> { return value * factor; });
+                    return f.scale(f.fib(12), 1.5);
+                    """
+    );
+
+    @Param({"arithmetic", "queries", "functions"})
+    public String script;
+
+    private Node.Block root;
+    private MoLangInterpreter interpreter;
+    private CompiledMoLangScript compiled;
+
+    @Setup
+    public void setUp() throws IOException {
+        MoLangSchema schema = MoLangSchema.loadBundled();
+        MockRuntime runtime = new MockRuntime(schema, "event:POKEMON_LEVEL_UP", null);
+        root = MoLangParser.parse(SCRIPTS.get(script)).root();
+        interpreter = new MoLangInterpreter(runtime, ImportResolver.NONE, null);
+        compiled = MoLangCompiler.compile(root, runtime, ImportResolver.NONE);
+    }
+
+    @Benchmark
+    public MoValue interpreted() {
+        return interpreter.run(root);
+    }
+
+    @Benchmark
+    public MoValue compiled() {
+        return compiled.run();
+    }
+}
@@ -0,0 +1,82 @@
+package aster.amo.molang.lsp;
+
+import aster.amo.molang.bench.MoLangCorpus;
+import aster.amo.molang.ide.schema.MoLangSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@Fork(1)
+public class WorkspaceIndexBenchmark {
+    @Param({"10000", "50000"})
+    public int files;
+
+    @Param({"small", "medium"})
+    public String size;
+
+    private String[] edits;
+    private Path root;
+    private WorkspaceIndex index;
+    private Path edited;
+    private int edit;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("molang-index");
+        MoLangCorpus corpus = new MoLangCorpus(MoLangSchema.loadBundled());
+        MoLangCorpus.Shape shape = MoLangCorpus.Shape.named(size);
+        corpus.writeDatapack(root, files, shape);
+        edits = new String[16];
+        for (int i = 0; i < edits.length; i++) {
+            edits[i] = corpus.script(i, shape) + "\nfn('edit" + (i % 4) + "', () -> { v.edit_" + (i % 8) + " = 1; });\n";
+        }
+        index = new WorkspaceIndex();
+        index.index(List.of(root));
+        edited = root.resolve("data/" + MoLangCorpus.NAMESPACE + "/molang/callbacks/" + MoLangCorpus.RUNTIME_FOLDER + "/g0/s0.molang").toAbsolutePath().normalize();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) Files.delete(path);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public int coldIndex() throws IOException {
+        return new WorkspaceIndex().index(List.of(root));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public IndexSnapshot documentEdit() {
+        index.update(edited, edits[edit++ % edits.length]);
+        return index.snapshot();
+    }
+}
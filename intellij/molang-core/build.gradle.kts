@@ -0,0 +1,41 @@
+plugins {
+    `java-library`
+}
+
+group = providers.gradleProperty("pluginGroup").get()
+version = providers.gradleProperty("pluginVersion").get()
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    api("com.google.code.gson:gson:2.11.0")
+    implementation("org.ow2.asm:asm:9.7.1")
+    compileOnlyApi("org.jetbrains:annotations:26.0.1")
+
+    testImplementation("junit:junit:4.13.2")
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_21
+    targetCompatibility = JavaVersion.VERSION_21
+}
+
+tasks {
+    register<JavaExec>("runMoLang") {
+        group = "molang"
+        description = "Runs a MoLang script against the schema-backed mock runtime. Pass arguments with --args."
+        classpath = sourceSets.main.get().runtimeClasspath
+        workingDir = rootDir
+        mainClass = "aster.amo.molang.ide.runtime.MoLangRunner"
+    }
+
+    register<JavaExec>("lintMoLang") {
+        group = "molang"
+        description = "Validates every .molang file under a directory against the schema. Pass arguments with --args."
+        classpath = sourceSets.main.get().runtimeClasspath
+        workingDir = rootDir
+        mainClass = "aster.amo.molang.ide.lint.MoLangLint"
+    }
+}
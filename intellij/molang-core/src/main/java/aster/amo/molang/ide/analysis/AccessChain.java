@@ -0,0 +1,43 @@
+package aster.amo.molang.ide.analysis;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+public record AccessChain(@NotNull String prefix, @NotNull List<Segment> segments) {
+
+    public int getStart() {
+        return segments.get(0).start();
+    }
+
+    public int getEnd() {
+        return segments.get(segments.size() - 1).end();
+    }
+
+    @NotNull
+    public String[] names() {
+        String[] names = new String[segments.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = segments.get(i).name();
+        }
+        return names;
+    }
+
+    @NotNull
+    public String signature() {
+        StringBuilder sb = new StringBuilder(prefix);
+        for (Segment segment : segments) {
+            sb.append('.').append(segment.name());
+            if (segment.isCall()) {
+                sb.append('(').append(segment.argCount()).append(')');
+            }
+        }
+        return sb.toString();
+    }
+
+    public record Segment(@NotNull String name, int start, int end, int argCount) {
+        public boolean isCall() {
+            return argCount >= 0;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package aster.amo.molang.ide.analysis;
+
+import aster.amo.molang.ide.schema.MoLangSchema;
+import aster.amo.molang.ide.schema.SchemaEntry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class ChainChecker {
+    private static final int MAX_CACHED_CHAINS = 20_000;
+    private static final Set<String> SCALAR_TYPES = Set.of("Number", "String", "Boolean", "Unit", "Void");
+
+    private final MoLangSchema schema;
+    private final Map<String, List<ChainProblem>> cache = new ConcurrentHashMap<>();
+
+    public ChainChecker(@NotNull MoLangSchema schema) {
+        this.schema = schema;
+    }
+
+    @NotNull
+    public List<ChainProblem> validate(@Nullable String runtimeName, @NotNull AccessChain chain) {
+        String key = runtimeName + "|" + chain.signature();
+        List<ChainProblem> cached = cache.get(key);
+        if (cached != null) return cached;
+
+        List<ChainProblem> problems = switch (chain.prefix()) {
+            case "q" -> validateQuery(runtimeName, chain.segments());
+            case "math" -> validateMath(chain.segments());
+            default -> Collections.emptyList();
+        };
+        if (cache.size() >= MAX_CACHED_CHAINS) {
+            cache.clear();
+        }
+        cache.put(key, problems);
+        return problems;
+    }
+
+    private List<ChainProblem> validateQuery(@Nullable String runtimeName, List<AccessChain.Segment> segments) {
+        List<ChainProblem> problems = new ArrayList<>(1);
+        String first = segments.get(0).name();
+
+        SchemaEntry entry;
+        Map<String, SchemaEntry> members = null;
+        Map<String, SchemaEntry> queryVars = schema.getQueryVariables(runtimeName);
+        if (queryVars.containsKey(first)) {
+            entry = queryVars.get(first);
+        } else if (schema.getGeneralFunctions().containsKey(first)) {
+            entry = schema.getGeneralFunctions().get(first);
+        } else if (schema.getStructNames().contains(first)) {
+            entry = null;
+            members = schema.getAllFunctionsForType(first);
+        } else if (runtimeName != null && schema.getQueryVariables(null).containsKey(first)) {
+            problems.add(new ChainProblem(0, ChainProblem.Kind.WRONG_RUNTIME,
+                    "'q." + first + "' is not available in runtime " + runtimeName));
+            return problems;
+        } else {
+            problems.add(new ChainProblem(0, ChainProblem.Kind.UNKNOWN_MEMBER,
+                    "Unknown query variable '" + first + "'"));
+            return problems;
+        }
+        checkArity(problems, 0, segments.get(0), entry);
+
+        for (int i = 1; i < segments.size(); i++) {
+            AccessChain.Segment segment = segments.get(i);
+            if (members == null) {
+                members = schema.getMembers(entry);
+            }
+            if (members == null) {
+                String type = entry != null ? entry.string("type") : null;
+                if (type != null && SCALAR_TYPES.contains(type) && !MoLangSchema.isStructEntry(entry)) {
+                    problems.add(new ChainProblem(i, ChainProblem.Kind.UNKNOWN_MEMBER,
+                            "'" + segments.get(i - 1).name() + "' is a " + type + " and has no member '" + segment.name() + "'"));
+                }
+                return problems;
+            }
+
+            entry = members.get(segment.name());
+            if (entry == null) {
+                problems.add(new ChainProblem(i, ChainProblem.Kind.UNKNOWN_MEMBER,
+                        "Unknown member '" + segment.name() + "' on '" + segments.get(i - 1).name() + "'"));
+                return problems;
+            }
+            members = null;
+            checkArity(problems, i, segment, entry);
+        }
+        return problems;
+    }
+
+    private List<ChainProblem> validateMath(List<AccessChain.Segment> segments) {
+        AccessChain.Segment segment = segments.get(0);
+        SchemaEntry func = schema.getMathFunctions().get(segment.name());
+        if (func == null) {
+            return List.of(new ChainProblem(0, ChainProblem.Kind.UNKNOWN_MEMBER,
+                    "Unknown math function '" + segment.name() + "'"));
+        }
+        List<ChainProblem> problems = new ArrayList<>(1);
+        checkArity(problems, 0, segment, func);
+        return problems;
+    }
+
+    private static void checkArity(List<ChainProblem> problems, int index, AccessChain.Segment segment, @Nullable SchemaEntry func) {
+        if (func == null || !segment.isCall()) return;
+        List<SchemaEntry> params = func.params();
+        if (params == null) return;
+
+        int required = 0;
+        boolean variadic = false;
+        for (SchemaEntry param : params) {
+            if (!param.flag("optional")) required++;
+            if (param.flag("variadic")) variadic = true;
+        }
+
+        int args = segment.argCount();
+        if (args < required || (!variadic && args > params.size())) {
+            String expected = variadic ? "at least " + required
+                    : required == params.size() ? String.valueOf(required)
+                    : required + " to " + params.size();
+            problems.add(new ChainProblem(index, ChainProblem.Kind.WRONG_ARITY,
+                    "'" + segment.name() + "' expects " + expected + " argument(s) but got " + args));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package aster.amo.molang.ide.analysis;
+
+import org.jetbrains.annotations.NotNull;
+
+public record ChainProblem(int segment, @NotNull Kind kind, @NotNull String message) {
+
+    public enum Kind {
+        UNKNOWN_MEMBER,
+        WRONG_RUNTIME,
+        WRONG_ARITY
+    }
+}
@@ -0,0 +1,99 @@
+package aster.amo.molang.ide.analysis;
+
+import aster.amo.molang.ide.ast.Node;
+import aster.amo.molang.ide.ast.Nodes;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class FunctionCallEdges {
+
+    private FunctionCallEdges() {
+    }
+
+    public record Call(@NotNull String callee, int offset, boolean guarded) {}
+
+    @NotNull
+    public static Map<String, List<Call>> extract(@NotNull Node.Block root) {
+        Map<String, List<Call>> result = new LinkedHashMap<>();
+        for (Node.FnDef def : Nodes.functionDefinitions(root)) {
+            List<Call> calls = result.computeIfAbsent(def.name(), k -> new ArrayList<>());
+            Node body = def.body() instanceof Node.Lambda lambda ? lambda.body() : def.body();
+            collect(body, false, calls);
+        }
+        return result;
+    }
+
+    private static void collect(Node node, boolean guarded, List<Call> calls) {
+        switch (node) {
+            case Node.FnDef f -> {
+            }
+            case Node.Chain chain -> {
+                if (chain.prefix().equals("f") && !chain.segments().isEmpty()) {
+                    Node.Segment callee = chain.segments().get(0);
+                    calls.add(new Call(callee.name(), callee.start(), guarded));
+                }
+                for (Node child : Nodes.children(chain)) {
+                    collect(child, guarded, calls);
+                }
+            }
+            case Node.If i -> {
+                collect(i.condition(), guarded, calls);
+                collect(i.then(), true, calls);
+                if (i.otherwise() != null) collect(i.otherwise(), true, calls);
+            }
+            case Node.Ternary t -> {
+                collect(t.condition(), guarded, calls);
+                collect(t.then(), true, calls);
+                if (t.otherwise() != null) collect(t.otherwise(), true, calls);
+            }
+            case Node.Switch s -> {
+                collect(s.subject(), guarded, calls);
+                for (Node.Case c : s.cases()) {
+                    if (c.match() != null) collect(c.match(), true, calls);
+                    collect(c.body(), true, calls);
+                }
+            }
+            case Node.Binary b when b.op().equals("&&") || b.op().equals("||") || b.op().equals("??") -> {
+                collect(b.left(), guarded, calls);
+                collect(b.right(), true, calls);
+            }
+            case Node.While w -> {
+                collect(w.condition(), guarded, calls);
+                collect(w.body(), true, calls);
+            }
+            case Node.For f -> {
+                if (f.init() != null) collect(f.init(), guarded, calls);
+                if (f.condition() != null) collect(f.condition(), guarded, calls);
+                if (f.step() != null) collect(f.step(), true, calls);
+                collect(f.body(), true, calls);
+            }
+            case Node.Block b -> {
+                boolean afterConditionalExit = guarded;
+                for (Node statement : b.statements()) {
+                    collect(statement, afterConditionalExit, calls);
+                    if (!afterConditionalExit && exitsConditionally(statement)) afterConditionalExit = true;
+                }
+            }
+            default -> {
+                for (Node child : Nodes.children(node)) {
+                    collect(child, guarded, calls);
+                }
+            }
+        }
+    }
+
+    private static boolean exitsConditionally(Node statement) {
+        if (!(statement instanceof Node.If || statement instanceof Node.Ternary || statement instanceof Node.Switch)) {
+            return false;
+        }
+        boolean[] exits = new boolean[1];
+        Nodes.walk(statement, node -> {
+            if (node instanceof Node.Return || node instanceof Node.Break) exits[0] = true;
+        });
+        return exits[0];
+    }
+}
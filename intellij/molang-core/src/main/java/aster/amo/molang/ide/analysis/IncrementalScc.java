@@ -0,0 +1,247 @@
+package aster.amo.molang.ide.analysis;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Strongly connected components of a directed multigraph, kept up to date as edges are added and removed.
+ * Adding an edge only merges the components on paths back to its source; removing one only re-splits the
+ * component that contained it.
+ */
+public final class IncrementalScc<N> {
+    private final Map<N, Map<N, Integer>> out = new HashMap<>();
+    private final Map<N, Map<N, Integer>> in = new HashMap<>();
+    private final Map<N, Set<N>> components = new HashMap<>();
+    private long visitedNodes;
+
+    public void addEdge(@NotNull N from, @NotNull N to) {
+        addNode(from);
+        addNode(to);
+        int count = out.get(from).merge(to, 1, Integer::sum);
+        in.get(to).merge(from, 1, Integer::sum);
+        if (count > 1 || components.get(from) == components.get(to)) return;
+
+        Set<N> forward = reach(to, from, out);
+        if (!forward.contains(from)) return;
+        Set<N> backward = reach(from, to, in);
+        Set<N> merged = new LinkedHashSet<>();
+        for (N node : forward) {
+            if (backward.contains(node)) merged.addAll(components.get(node));
+        }
+        for (N node : merged) {
+            components.put(node, merged);
+        }
+    }
+
+    public void removeEdge(@NotNull N from, @NotNull N to) {
+        Map<N, Integer> targets = out.get(from);
+        if (targets == null || !targets.containsKey(to)) return;
+        if (targets.merge(to, -1, Integer::sum) > 0) {
+            in.get(to).merge(from, -1, Integer::sum);
+            return;
+        }
+        targets.remove(to);
+        in.get(to).remove(from);
+
+        Set<N> component = components.get(from);
+        if (component == components.get(to) && !from.equals(to)) {
+            split(component);
+        }
+        removeIfIsolated(from);
+        removeIfIsolated(to);
+    }
+
+    public void removeNode(@NotNull N node) {
+        Map<N, Integer> targets = out.get(node);
+        if (targets == null) return;
+        for (Map.Entry<N, Integer> edge : Map.copyOf(targets).entrySet()) {
+            for (int i = edge.getValue(); i > 0; i--) removeEdge(node, edge.getKey());
+        }
+        Map<N, Integer> sources = in.get(node);
+        if (sources == null) return;
+        for (Map.Entry<N, Integer> edge : Map.copyOf(sources).entrySet()) {
+            for (int i = edge.getValue(); i > 0; i--) removeEdge(edge.getKey(), node);
+        }
+    }
+
+    @NotNull
+    public Set<N> component(@NotNull N node) {
+        Set<N> component = components.get(node);
+        return component != null ? Collections.unmodifiableSet(component) : Set.of(node);
+    }
+
+    public boolean isCyclic(@NotNull N node) {
+        Set<N> component = components.get(node);
+        if (component == null) return false;
+        return component.size() > 1 || out.get(node).containsKey(node);
+    }
+
+    public boolean sameCycle(@NotNull N from, @NotNull N to) {
+        if (from.equals(to)) return isCyclic(from);
+        Set<N> component = components.get(from);
+        return component != null && component == components.get(to);
+    }
+
+    /** The shortest cycle that uses the edge {@code from -> to}, starting and ending at {@code from}, or an empty list. */
+    @NotNull
+    public List<N> cycle(@NotNull N from, @NotNull N to) {
+        if (!successors(from).contains(to)) return List.of();
+        if (from.equals(to)) return List.of(from, to);
+        Set<N> component = components.get(from);
+        if (component != components.get(to)) return List.of();
+
+        Map<N, N> parent = new HashMap<>();
+        Deque<N> queue = new ArrayDeque<>();
+        parent.put(to, to);
+        queue.add(to);
+        while (!queue.isEmpty() && !parent.containsKey(from)) {
+            N node = queue.poll();
+            for (N next : out.get(node).keySet()) {
+                if (component.contains(next) && !parent.containsKey(next)) {
+                    parent.put(next, node);
+                    queue.add(next);
+                }
+            }
+        }
+        List<N> path = new ArrayList<>();
+        for (N node = from; !node.equals(to); node = parent.get(node)) {
+            path.add(node);
+        }
+        path.add(to);
+        path.add(from);
+        Collections.reverse(path);
+        return path;
+    }
+
+    @NotNull
+    public Set<N> successors(@NotNull N node) {
+        Map<N, Integer> targets = out.get(node);
+        return targets != null ? Collections.unmodifiableSet(targets.keySet()) : Set.of();
+    }
+
+    @NotNull
+    public Set<N> predecessors(@NotNull N node) {
+        Map<N, Integer> sources = in.get(node);
+        return sources != null ? Collections.unmodifiableSet(sources.keySet()) : Set.of();
+    }
+
+    public int nodeCount() {
+        return out.size();
+    }
+
+    /** Total nodes visited by incremental updates so far. */
+    public long visitedNodes() {
+        return visitedNodes;
+    }
+
+    private void addNode(N node) {
+        if (out.containsKey(node)) return;
+        out.put(node, new HashMap<>());
+        in.put(node, new HashMap<>());
+        Set<N> component = new LinkedHashSet<>();
+        component.add(node);
+        components.put(node, component);
+    }
+
+    private void removeIfIsolated(N node) {
+        if (!out.containsKey(node) || !out.get(node).isEmpty() || !in.get(node).isEmpty()) return;
+        out.remove(node);
+        in.remove(node);
+        components.remove(node);
+    }
+
+    private Set<N> reach(N start, N stopAt, Map<N, Map<N, Integer>> edges) {
+        Set<N> seen = new HashSet<>();
+        Deque<N> queue = new ArrayDeque<>();
+        seen.add(start);
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            N node = queue.poll();
+            visitedNodes++;
+            if (node.equals(stopAt)) continue;
+            for (N next : edges.get(node).keySet()) {
+                if (seen.add(next)) queue.add(next);
+            }
+        }
+        return seen;
+    }
+
+    private void split(Set<N> component) {
+        visitedNodes += component.size();
+        Tarjan tarjan = new Tarjan(component);
+        for (N node : component) {
+            if (!tarjan.index.containsKey(node)) tarjan.visit(node);
+        }
+        for (Set<N> part : tarjan.result) {
+            for (N node : part) {
+                components.put(node, part);
+            }
+        }
+    }
+
+    private final class Tarjan {
+        final Set<N> scope;
+        final Map<N, Integer> index = new HashMap<>();
+        final Map<N, Integer> low = new HashMap<>();
+        final Deque<N> stack = new ArrayDeque<>();
+        final Set<N> onStack = new HashSet<>();
+        final List<Set<N>> result = new ArrayList<>();
+
+        Tarjan(Set<N> scope) {
+            this.scope = scope;
+        }
+
+        void visit(N root) {
+            Deque<Map.Entry<N, Iterator<N>>> work = new ArrayDeque<>();
+            enter(root, work);
+            while (!work.isEmpty()) {
+                Map.Entry<N, Iterator<N>> frame = work.peek();
+                N node = frame.getKey();
+                if (frame.getValue().hasNext()) {
+                    N next = frame.getValue().next();
+                    if (!scope.contains(next)) continue;
+                    if (!index.containsKey(next)) {
+                        enter(next, work);
+                    } else if (onStack.contains(next)) {
+                        low.put(node, Math.min(low.get(node), index.get(next)));
+                    }
+                    continue;
+                }
+                work.pop();
+                if (!work.isEmpty()) {
+                    N parent = work.peek().getKey();
+                    low.put(parent, Math.min(low.get(parent), low.get(node)));
+                }
+                if (low.get(node).equals(index.get(node))) {
+                    Set<N> part = new LinkedHashSet<>();
+                    N member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        part.add(member);
+                    } while (!member.equals(node));
+                    result.add(part);
+                }
+            }
+        }
+
+        private void enter(N node, Deque<Map.Entry<N, Iterator<N>>> work) {
+            index.put(node, index.size());
+            low.put(node, index.get(node));
+            stack.push(node);
+            onStack.add(node);
+            work.push(Map.entry(node, out.get(node).keySet().iterator()));
+        }
+    }
+}
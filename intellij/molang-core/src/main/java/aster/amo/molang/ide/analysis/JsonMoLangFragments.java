@@ -0,0 +1,201 @@
+package aster.amo.molang.ide.analysis;
+
+import aster.amo.molang.ide.schema.JsonInjectionRule;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Finds the MoLang string values in a JSON document without building a tree. Keys are decoded to track the
+ * field path, but a string value is only decoded when its path matches one of the rules.
+ */
+public final class JsonMoLangFragments {
+
+    private JsonMoLangFragments() {
+    }
+
+    /** A decoded string value; {@code offsets[i]} is the position in the JSON text of decoded character {@code i}. */
+    public record Fragment(@NotNull String text, int @NotNull [] offsets) {
+        public int toSource(int offset) {
+            return offsets[Math.min(Math.max(offset, 0), offsets.length - 1)];
+        }
+
+        public int start() {
+            return offsets[0];
+        }
+
+        public int end() {
+            return offsets[offsets.length - 1];
+        }
+    }
+
+    @NotNull
+    public static List<Fragment> extract(@NotNull CharSequence json, @NotNull List<JsonInjectionRule> rules) {
+        List<Fragment> fragments = new ArrayList<>();
+        if (rules.isEmpty()) return fragments;
+
+        List<Frame> stack = new ArrayList<>();
+        int n = json.length();
+        int i = 0;
+        while (i < n) {
+            char c = json.charAt(i);
+            switch (c) {
+                case '{' -> {
+                    stack.add(new Frame(true));
+                    i++;
+                }
+                case '[' -> {
+                    stack.add(new Frame(false));
+                    i++;
+                }
+                case '}', ']' -> {
+                    if (!stack.isEmpty()) stack.remove(stack.size() - 1);
+                    i++;
+                }
+                case ':' -> {
+                    if (!stack.isEmpty()) stack.get(stack.size() - 1).expectingKey = false;
+                    i++;
+                }
+                case ',' -> {
+                    if (!stack.isEmpty()) {
+                        Frame frame = stack.get(stack.size() - 1);
+                        if (frame.object) frame.expectingKey = true;
+                        else frame.index++;
+                    }
+                    i++;
+                }
+                case '"' -> {
+                    Frame frame = stack.isEmpty() ? null : stack.get(stack.size() - 1);
+                    if (frame != null && frame.object && frame.expectingKey) {
+                        StringBuilder key = new StringBuilder();
+                        i = decode(json, i, key, null);
+                        frame.key = key.toString();
+                    } else {
+                        JsonInjectionRule rule = match(rules, stack);
+                        if (rule == null) {
+                            i = skip(json, i);
+                        } else {
+                            StringBuilder text = new StringBuilder();
+                            List<Integer> offsets = new ArrayList<>();
+                            i = decode(json, i, text, offsets);
+                            Fragment fragment = fragment(text, offsets, rule.prefix());
+                            if (fragment != null) fragments.add(fragment);
+                        }
+                    }
+                }
+                default -> i++;
+            }
+        }
+        return fragments;
+    }
+
+    /** Runs {@code extractor} on every fragment and maps the offsets it returns back into the JSON text. */
+    @NotNull
+    public static <K> Map<K, List<Integer>> collect(@NotNull List<Fragment> fragments,
+                                                    @NotNull Function<CharSequence, Map<K, List<Integer>>> extractor) {
+        Map<K, List<Integer>> result = new HashMap<>();
+        for (Fragment fragment : fragments) {
+            for (Map.Entry<K, List<Integer>> entry : extractor.apply(fragment.text()).entrySet()) {
+                List<Integer> offsets = result.computeIfAbsent(entry.getKey(), k -> new ArrayList<>());
+                for (int offset : entry.getValue()) {
+                    offsets.add(fragment.toSource(offset));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Nullable
+    private static JsonInjectionRule match(List<JsonInjectionRule> rules, List<Frame> stack) {
+        List<String> path = new ArrayList<>(stack.size());
+        for (Frame frame : stack) {
+            path.add(frame.object ? frame.key : Integer.toString(frame.index));
+        }
+        for (JsonInjectionRule rule : rules) {
+            if (rule.matchesField(path)) return rule;
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Fragment fragment(StringBuilder text, List<Integer> offsets, @Nullable String prefix) {
+        int from = 0;
+        if (prefix != null) {
+            if (text.length() < prefix.length() || !text.substring(0, prefix.length()).equals(prefix)) return null;
+            from = prefix.length();
+        }
+        int[] mapped = new int[offsets.size() - from];
+        for (int j = 0; j < mapped.length; j++) {
+            mapped[j] = offsets.get(from + j);
+        }
+        return new Fragment(text.substring(from), mapped);
+    }
+
+    private static int skip(CharSequence json, int quote) {
+        int i = quote + 1;
+        while (i < json.length()) {
+            char c = json.charAt(i);
+            if (c == '\\') i += 2;
+            else if (c == '"') return i + 1;
+            else i++;
+        }
+        return i;
+    }
+
+    private static int decode(CharSequence json, int quote, StringBuilder out, @Nullable List<Integer> offsets) {
+        int i = quote + 1;
+        int n = json.length();
+        while (i < n) {
+            char c = json.charAt(i);
+            if (c == '"') {
+                if (offsets != null) offsets.add(i);
+                return i + 1;
+            }
+            if (offsets != null) offsets.add(i);
+            if (c != '\\' || i + 1 >= n) {
+                out.append(c);
+                i++;
+                continue;
+            }
+            char escaped = json.charAt(i + 1);
+            switch (escaped) {
+                case 'n' -> out.append('\n');
+                case 't' -> out.append('\t');
+                case 'r' -> out.append('\r');
+                case 'b' -> out.append('\b');
+                case 'f' -> out.append('\f');
+                case 'u' -> {
+                    if (i + 6 <= n) {
+                        try {
+                            out.append((char) Integer.parseInt(json.subSequence(i + 2, i + 6).toString(), 16));
+                            i += 6;
+                            continue;
+                        } catch (NumberFormatException ignored) {
+                        }
+                    }
+                    out.append('u');
+                }
+                default -> out.append(escaped);
+            }
+            i += 2;
+        }
+        if (offsets != null) offsets.add(n);
+        return n;
+    }
+
+    private static final class Frame {
+        final boolean object;
+        boolean expectingKey = true;
+        String key = "";
+        int index;
+
+        Frame(boolean object) {
+            this.object = object;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package aster.amo.molang.ide.analysis;
+
+import aster.amo.molang.ide.lexer.MoLangScanner;
+import aster.amo.molang.ide.lexer.MoLangTokenKind;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+public final class MoLangChainExtractor {
+
+    private static final Set<MoLangTokenKind> MEMBER_NAMES = EnumSet.of(
+            MoLangTokenKind.IDENTIFIER, MoLangTokenKind.KEYWORD, MoLangTokenKind.BOOLEAN,
+            MoLangTokenKind.PREFIX_Q, MoLangTokenKind.PREFIX_V, MoLangTokenKind.PREFIX_T,
+            MoLangTokenKind.PREFIX_F, MoLangTokenKind.PREFIX_C, MoLangTokenKind.PREFIX_MATH
+    );
+
+    private MoLangChainExtractor() {
+    }
+
+    @NotNull
+    public static List<AccessChain> extract(@NotNull CharSequence text, @NotNull Set<MoLangTokenKind> prefixes) {
+        TokenBuffer tokens = TokenBuffer.lex(text);
+        List<AccessChain> chains = new ArrayList<>();
+        for (int i = 0; i < tokens.size; i++) {
+            if (!prefixes.contains(tokens.types[i])) continue;
+            if (i > 0 && tokens.types[i - 1] == MoLangTokenKind.DOT) continue;
+            AccessChain chain = readChain(text, tokens, i);
+            if (chain != null) chains.add(chain);
+        }
+        return chains;
+    }
+
+    private static AccessChain readChain(CharSequence text, TokenBuffer tokens, int prefixIndex) {
+        String prefix = normalizePrefix(tokens.text(text, prefixIndex));
+        List<AccessChain.Segment> segments = new ArrayList<>();
+        int i = prefixIndex + 1;
+        while (i + 1 < tokens.size
+                && tokens.types[i] == MoLangTokenKind.DOT
+                && MEMBER_NAMES.contains(tokens.types[i + 1])) {
+            int nameIndex = i + 1;
+            int argCount = -1;
+            i = nameIndex + 1;
+
+            int paren = skipTrivia(tokens, i);
+            if (paren < tokens.size && tokens.types[paren] == MoLangTokenKind.LPAREN) {
+                int close = findClosingParen(tokens, paren);
+                argCount = countArguments(tokens, paren, close);
+                i = close + 1;
+            }
+
+            segments.add(new AccessChain.Segment(
+                    tokens.text(text, nameIndex), tokens.starts[nameIndex], tokens.ends[nameIndex], argCount));
+        }
+        return segments.isEmpty() ? null : new AccessChain(prefix, List.copyOf(segments));
+    }
+
+    private static int skipTrivia(TokenBuffer tokens, int i) {
+        while (i < tokens.size && tokens.types[i].isTrivia()) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int findClosingParen(TokenBuffer tokens, int open) {
+        int depth = 0;
+        for (int i = open; i < tokens.size; i++) {
+            MoLangTokenKind type = tokens.types[i];
+            if (type == MoLangTokenKind.LPAREN) depth++;
+            else if (type == MoLangTokenKind.RPAREN && --depth == 0) return i;
+        }
+        return tokens.size - 1;
+    }
+
+    private static int countArguments(TokenBuffer tokens, int open, int close) {
+        int depth = 0;
+        int commas = 0;
+        boolean sawContent = false;
+        for (int i = open + 1; i < close; i++) {
+            MoLangTokenKind type = tokens.types[i];
+            if (type.isTrivia()) continue;
+            sawContent = true;
+            if (type == MoLangTokenKind.LPAREN || type == MoLangTokenKind.LBRACE || type == MoLangTokenKind.LBRACKET) {
+                depth++;
+            } else if (type == MoLangTokenKind.RPAREN || type == MoLangTokenKind.RBRACE || type == MoLangTokenKind.RBRACKET) {
+                depth--;
+            } else if (type == MoLangTokenKind.COMMA && depth == 0) {
+                commas++;
+            }
+        }
+        return sawContent ? commas + 1 : 0;
+    }
+
+    private static String normalizePrefix(String raw) {
+        return switch (raw) {
+            case "query" -> "q";
+            case "variable" -> "v";
+            case "temp" -> "t";
+            case "function" -> "f";
+            case "context" -> "c";
+            default -> raw;
+        };
+    }
+
+    private static final class TokenBuffer {
+        MoLangTokenKind[] types = new MoLangTokenKind[256];
+        int[] starts = new int[256];
+        int[] ends = new int[256];
+        int size;
+
+        static TokenBuffer lex(CharSequence text) {
+            TokenBuffer buffer = new TokenBuffer();
+            MoLangScanner scanner = new MoLangScanner(text);
+            MoLangTokenKind type;
+            while ((type = scanner.getTokenType()) != null) {
+                buffer.add(type, scanner.getTokenStart(), scanner.getTokenEnd());
+                scanner.advance();
+            }
+            return buffer;
+        }
+
+        void add(MoLangTokenKind type, int start, int end) {
+            if (size == types.length) {
+                int capacity = size * 2;
+                types = Arrays.copyOf(types, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+            }
+            types[size] = type;
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+
+        String text(CharSequence text, int index) {
+            return text.subSequence(starts[index], ends[index]).toString();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package aster.amo.molang.ide.analysis;
+
+import aster.amo.molang.ide.lexer.MoLangScanner;
+import aster.amo.molang.ide.lexer.MoLangTokenKind;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class MoLangFunctionExtractor {
+    private static final Pattern FN_PATTERN = Pattern.compile("fn\\s*\\(\\s*'([^']+)'");
+    private static final Pattern NAME_PATTERN = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
+
+    private MoLangFunctionExtractor() {
+    }
+
+    @NotNull
+    public static Map<String, List<Integer>> extract(@NotNull CharSequence text) {
+        Map<String, List<Integer>> result = new HashMap<>();
+        Matcher m = FN_PATTERN.matcher(text);
+        while (m.find()) {
+            result.computeIfAbsent(m.group(1), k -> new ArrayList<>()).add(m.start());
+        }
+        return result;
+    }
+
+    @NotNull
+    public static Map<String, List<Integer>> callSites(@NotNull CharSequence text) {
+        Map<String, List<Integer>> result = new HashMap<>();
+        MoLangScanner scanner = new MoLangScanner(text);
+        MoLangTokenKind previous = null;
+        MoLangTokenKind beforePrevious = null;
+        boolean afterFunctionPrefix = false;
+        MoLangTokenKind type;
+        while ((type = scanner.getTokenType()) != null) {
+            if (!type.isTrivia()) {
+                if (afterFunctionPrefix && previous == MoLangTokenKind.DOT
+                        && (type == MoLangTokenKind.IDENTIFIER || type == MoLangTokenKind.KEYWORD)) {
+                    String name = text.subSequence(scanner.getTokenStart(), scanner.getTokenEnd()).toString();
+                    result.computeIfAbsent(name, k -> new ArrayList<>()).add(scanner.getTokenStart());
+                }
+                afterFunctionPrefix = previous == MoLangTokenKind.PREFIX_F && beforePrevious != MoLangTokenKind.DOT;
+                beforePrevious = previous;
+                previous = type;
+            }
+            scanner.advance();
+        }
+        return result;
+    }
+
+    @Nullable
+    public static FunctionName functionNameAt(@NotNull CharSequence text, int offset) {
+        Matcher m = FN_PATTERN.matcher(text);
+        while (m.find()) {
+            if (m.start() > offset) break;
+            if (offset >= m.start(1) && offset <= m.end(1)) {
+                return new FunctionName(m.group(1), m.start(1), m.end(1), true);
+            }
+        }
+        for (var entry : callSites(text).entrySet()) {
+            for (int start : entry.getValue()) {
+                int end = start + entry.getKey().length();
+                if (offset >= start && offset <= end) return new FunctionName(entry.getKey(), start, end, false);
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    public static FunctionName definitionName(@NotNull CharSequence text, int definitionOffset) {
+        Matcher m = FN_PATTERN.matcher(text);
+        if (definitionOffset < 0 || !m.find(definitionOffset) || m.start() != definitionOffset) return null;
+        return new FunctionName(m.group(1), m.start(1), m.end(1), true);
+    }
+
+    public static boolean isValidName(@NotNull String name) {
+        return NAME_PATTERN.matcher(name).matches();
+    }
+
+    public record FunctionName(@NotNull String name, int start, int end, boolean definition) {}
+}
@@ -0,0 +1,61 @@
+package aster.amo.molang.ide.analysis;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class MoLangImports {
+    private static final Pattern IMPORT_PATTERN = Pattern.compile("import\\s*\\(\\s*'([^']+)'\\s*\\)");
+    private static final String DATA_DIR = "/data/";
+    private static final String MOLANG_DIR = "/molang/";
+    private static final String EXTENSION = ".molang";
+
+    private MoLangImports() {
+    }
+
+    @NotNull
+    public static Map<String, List<Integer>> extract(@NotNull CharSequence text) {
+        Map<String, List<Integer>> result = new HashMap<>();
+        Matcher m = IMPORT_PATTERN.matcher(text);
+        while (m.find()) {
+            result.computeIfAbsent(m.group(1), k -> new ArrayList<>()).add(m.start(1));
+        }
+        return result;
+    }
+
+    @Nullable
+    public static String importPath(@NotNull String filePath) {
+        String path = filePath.replace('\\', '/');
+        if (!path.endsWith(EXTENSION)) return null;
+        int data = path.lastIndexOf(DATA_DIR);
+        while (data >= 0) {
+            int namespaceStart = data + DATA_DIR.length();
+            int namespaceEnd = path.indexOf('/', namespaceStart);
+            if (namespaceEnd > namespaceStart && path.startsWith(MOLANG_DIR, namespaceEnd)) {
+                String namespace = path.substring(namespaceStart, namespaceEnd);
+                String script = path.substring(namespaceEnd + MOLANG_DIR.length(), path.length() - EXTENSION.length());
+                return script.isEmpty() ? null : namespace + ":" + script;
+            }
+            data = path.lastIndexOf(DATA_DIR, data - 1);
+        }
+        return null;
+    }
+
+    @Nullable
+    public static String relativePath(@NotNull String importPath) {
+        int colon = importPath.indexOf(':');
+        if (colon <= 0 || colon == importPath.length() - 1) return null;
+        return "data/" + importPath.substring(0, colon) + "/molang/" + importPath.substring(colon + 1) + EXTENSION;
+    }
+
+    @NotNull
+    public static String fileName(@NotNull String importPath) {
+        return importPath.substring(Math.max(importPath.lastIndexOf('/'), importPath.indexOf(':')) + 1) + EXTENSION;
+    }
+}
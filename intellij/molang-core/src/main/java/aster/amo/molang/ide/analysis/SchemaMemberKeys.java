@@ -0,0 +1,97 @@
+package aster.amo.molang.ide.analysis;
+
+import aster.amo.molang.ide.lexer.MoLangTokenKind;
+import aster.amo.molang.ide.schema.MoLangSchema;
+import aster.amo.molang.ide.schema.SchemaEntry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+public final class SchemaMemberKeys {
+    public static final String QUERY_OWNER = "q";
+    public static final String MATH_OWNER = "math";
+
+    private static final Set<MoLangTokenKind> PREFIXES = EnumSet.of(MoLangTokenKind.PREFIX_Q, MoLangTokenKind.PREFIX_MATH);
+
+    private SchemaMemberKeys() {
+    }
+
+    @NotNull
+    public static Map<String, List<Integer>> extract(@NotNull MoLangSchema schema, @Nullable String runtimeName, @NotNull CharSequence text) {
+        Map<String, List<Integer>> result = new HashMap<>();
+        for (AccessChain chain : MoLangChainExtractor.extract(text, PREFIXES)) {
+            List<String> keys = keys(schema, runtimeName, chain.prefix(), chain.names());
+            for (int i = 0; i < keys.size(); i++) {
+                result.computeIfAbsent(keys.get(i), k -> new ArrayList<>()).add(chain.segments().get(i).start());
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    public static List<String> keys(@NotNull MoLangSchema schema, @Nullable String runtimeName, @NotNull String prefix, @NotNull String[] names) {
+        List<String> keys = new ArrayList<>();
+        if (names.length == 0) return keys;
+        if (MATH_OWNER.equals(prefix)) {
+            if (schema.getMathFunctions().containsKey(names[0])) keys.add(MATH_OWNER + "." + names[0]);
+            return keys;
+        }
+        if (!QUERY_OWNER.equals(prefix)) return keys;
+
+        SchemaEntry entry = schema.getQueryVariables(runtimeName).get(names[0]);
+        if (entry == null) return keys;
+        String key = QUERY_OWNER + "." + names[0];
+        keys.add(key);
+        for (int i = 1; i < names.length; i++) {
+            Map<String, SchemaEntry> members = schema.getMembers(entry);
+            if (members == null || !members.containsKey(names[i])) break;
+            String structType = structType(entry);
+            boolean inherited = structType != null && schema.getAllFunctionsForType(structType).containsKey(names[i]);
+            key = (inherited ? structType : key) + "." + names[i];
+            entry = members.get(names[i]);
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    @Nullable
+    public static SchemaEntry resolve(@NotNull MoLangSchema schema, @NotNull String key) {
+        String[] parts = key.split("\\.");
+        if (parts.length < 2) return null;
+        SchemaEntry entry;
+        int next = 2;
+        switch (parts[0]) {
+            case QUERY_OWNER -> entry = schema.getQueryVariables(null).get(parts[1]);
+            case MATH_OWNER -> entry = schema.getMathFunctions().get(parts[1]);
+            default -> {
+                if (!schema.isKnownStructType(parts[0])) return null;
+                entry = schema.getAllFunctionsForType(parts[0]).get(parts[1]);
+            }
+        }
+        for (int i = next; i < parts.length && entry != null; i++) {
+            Map<String, SchemaEntry> members = schema.getMembers(entry);
+            entry = members != null ? members.get(parts[i]) : null;
+        }
+        return entry;
+    }
+
+    public static boolean sameSignature(@Nullable SchemaEntry before, @Nullable SchemaEntry after) {
+        if (before == null || after == null) return before == after;
+        return Objects.equals(before.string("returns"), after.string("returns"))
+                && Objects.equals(before.string("type"), after.string("type"))
+                && Objects.equals(structType(before), structType(after))
+                && before.sameParams(after);
+    }
+
+    @Nullable
+    private static String structType(SchemaEntry entry) {
+        return entry.string("struct_type");
+    }
+}
@@ -0,0 +1,554 @@
+package aster.amo.molang.ide.ast;
+
+import aster.amo.molang.ide.lexer.MoLangScanner;
+import aster.amo.molang.ide.lexer.MoLangTokenKind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class MoLangParser {
+    private static final String[][] BINARY_LEVELS = {
+            {"??"},
+            {"||"},
+            {"&&"},
+            {"==", "!="},
+            {"<", ">", "<=", ">="},
+            {"+", "-"},
+            {"*", "/", "%"},
+    };
+
+    private final CharSequence text;
+    private MoLangTokenKind[] kinds = new MoLangTokenKind[256];
+    private int[] starts = new int[256];
+    private int[] ends = new int[256];
+    private int size;
+    private int pos;
+    private int lastEnd;
+    private final List<ParseError> errors = new ArrayList<>();
+
+    private MoLangParser(CharSequence text) {
+        this.text = text;
+        MoLangScanner scanner = new MoLangScanner(text);
+        MoLangTokenKind kind;
+        while ((kind = scanner.getTokenType()) != null) {
+            if (!kind.isTrivia()) {
+                add(kind, scanner.getTokenStart(), scanner.getTokenEnd());
+            }
+            scanner.advance();
+        }
+    }
+
+    public static ParseResult parse(CharSequence text) {
+        MoLangParser parser = new MoLangParser(text);
+        List<Node> statements = parser.parseStatements(false);
+        Node.Block root = new Node.Block(List.copyOf(statements), 0, text.length());
+        return new ParseResult(root, List.copyOf(parser.errors));
+    }
+
+    private List<Node> parseStatements(boolean inBlock) {
+        List<Node> statements = new ArrayList<>();
+        while (!eof() && !(inBlock && at(MoLangTokenKind.RBRACE))) {
+            if (at(MoLangTokenKind.SEMICOLON)) {
+                advance();
+                continue;
+            }
+            int before = pos;
+            Node statement = parseExpression();
+            statements.add(statement);
+            if (at(MoLangTokenKind.SEMICOLON)) {
+                advance();
+            } else if (!eof() && !(inBlock && at(MoLangTokenKind.RBRACE)) && !endsWithBlock(statement)) {
+                error("Expected ';'");
+            }
+            if (pos == before) {
+                advance();
+            }
+        }
+        return statements;
+    }
+
+    private static boolean endsWithBlock(Node node) {
+        return switch (node) {
+            case Node.Block b -> true;
+            case Node.If i -> endsWithBlock(i.otherwise() != null ? i.otherwise() : i.then());
+            case Node.While w -> endsWithBlock(w.body());
+            case Node.For f -> endsWithBlock(f.body());
+            case Node.Switch s -> true;
+            case Node.FnDef f -> true;
+            case Node.Error e -> true;
+            default -> false;
+        };
+    }
+
+    private Node parseExpression() {
+        return parseAssignment();
+    }
+
+    private Node parseAssignment() {
+        int start = currentStart();
+        Node left = parseTernary();
+        if (atAssignmentOperator()) {
+            String op = tokenText(pos);
+            advance();
+            Node value = parseAssignment();
+            return new Node.Assign(left, op, value, start, lastEnd);
+        }
+        return left;
+    }
+
+    private Node parseTernary() {
+        int start = currentStart();
+        Node condition = parseBinary(0);
+        if (!at(MoLangTokenKind.QUESTION)) return condition;
+        advance();
+        Node then = parseAssignment();
+        Node otherwise = null;
+        if (at(MoLangTokenKind.COLON)) {
+            advance();
+            otherwise = parseAssignment();
+        }
+        return new Node.Ternary(condition, then, otherwise, start, lastEnd);
+    }
+
+    private Node parseBinary(int level) {
+        if (level >= BINARY_LEVELS.length) return parseUnary();
+        int start = currentStart();
+        Node left = parseBinary(level + 1);
+        while (atBinaryOperator(BINARY_LEVELS[level])) {
+            String op = tokenText(pos);
+            advance();
+            Node right = parseBinary(level + 1);
+            left = new Node.Binary(op, left, right, start, lastEnd);
+        }
+        return left;
+    }
+
+    private Node parseUnary() {
+        if (at(MoLangTokenKind.OPERATOR)) {
+            String op = tokenText(pos);
+            if (op.equals("!") || op.equals("-") || op.equals("+")) {
+                int start = starts[pos];
+                advance();
+                Node operand = parseUnary();
+                return new Node.Unary(op, operand, start, lastEnd);
+            }
+        }
+        int start = currentStart();
+        return parsePostfix(parsePrimary(), start);
+    }
+
+    private Node parsePostfix(Node node, int start) {
+        while (!eof()) {
+            if (at(MoLangTokenKind.DOT) && pos + 1 < size && isMemberName(pos + 1)) {
+                advance();
+                Node.Segment segment = parseSegment(tokenText(pos), starts[pos]);
+                node = node instanceof Node.Chain chain && chain.end() == segment.start() - 1
+                        ? appendSegment(chain, segment)
+                        : new Node.Member(node, segment, start, segment.end());
+            } else if (at(MoLangTokenKind.NUMBER) && text.charAt(starts[pos]) == '.' && starts[pos] == lastEnd) {
+                Node.Segment segment = parseSegment(tokenText(pos).substring(1), starts[pos] + 1);
+                node = node instanceof Node.Chain chain && chain.end() == segment.start() - 1
+                        ? appendSegment(chain, segment)
+                        : new Node.Member(node, segment, start, segment.end());
+            } else if (at(MoLangTokenKind.LBRACKET)) {
+                advance();
+                Node index = parseExpression();
+                expect(MoLangTokenKind.RBRACKET, "']'");
+                node = new Node.Index(node, index, start, lastEnd);
+            } else {
+                break;
+            }
+        }
+        return node;
+    }
+
+    private static Node.Chain appendSegment(Node.Chain chain, Node.Segment segment) {
+        List<Node.Segment> segments = new ArrayList<>(chain.segments().size() + 1);
+        segments.addAll(chain.segments());
+        segments.add(segment);
+        return new Node.Chain(chain.prefix(), List.copyOf(segments), chain.start(), segment.end());
+    }
+
+    private Node.Segment parseSegment(String name, int nameStart) {
+        advance();
+        if (at(MoLangTokenKind.LPAREN)) {
+            List<Node> args = parseArguments();
+            return new Node.Segment(name, args, true, nameStart, lastEnd);
+        }
+        return new Node.Segment(name, List.of(), false, nameStart, lastEnd);
+    }
+
+    private Node parsePrimary() {
+        if (eof()) {
+            error("Unexpected end of script");
+            return new Node.Error(text.length(), text.length());
+        }
+        int start = starts[pos];
+        MoLangTokenKind kind = kinds[pos];
+        switch (kind) {
+            case NUMBER -> {
+                String raw = tokenText(pos);
+                advance();
+                return new Node.NumberLit(parseNumber(raw), start, lastEnd);
+            }
+            case STRING -> {
+                String raw = tokenText(pos);
+                advance();
+                return new Node.StringLit(unquote(raw), start, lastEnd);
+            }
+            case BOOLEAN -> {
+                boolean value = tokenText(pos).equals("true");
+                advance();
+                return new Node.BoolLit(value, start, lastEnd);
+            }
+            case PREFIX_Q, PREFIX_V, PREFIX_T, PREFIX_F, PREFIX_C, PREFIX_MATH -> {
+                String prefix = normalizePrefix(tokenText(pos));
+                advance();
+                Node chain = parsePostfix(new Node.Chain(prefix, List.of(), start, lastEnd), start);
+                if (chain instanceof Node.Chain c && c.segments().isEmpty()) {
+                    error("Expected member name after '" + prefix + ".'");
+                }
+                return chain;
+            }
+            case IDENTIFIER -> {
+                String name = tokenText(pos);
+                advance();
+                if (at(MoLangTokenKind.ARROW)) {
+                    advance();
+                    Node body = parseExpression();
+                    return new Node.Lambda(List.of(name), body, start, body.end());
+                }
+                if (at(MoLangTokenKind.LPAREN)) {
+                    List<Node> args = parseArguments();
+                    return new Node.Call(name, args, start, lastEnd);
+                }
+                return new Node.Identifier(name, start, lastEnd);
+            }
+            case LPAREN -> {
+                if (isLambdaAhead()) {
+                    return parseLambda();
+                }
+                advance();
+                Node inner = parseExpression();
+                expect(MoLangTokenKind.RPAREN, "')'");
+                return inner;
+            }
+            case LBRACE -> {
+                return parseBlock();
+            }
+            case KEYWORD -> {
+                return parseKeyword(tokenText(pos));
+            }
+            default -> {
+                error("Unexpected '" + tokenText(pos) + "'");
+                advance();
+                return new Node.Error(start, lastEnd);
+            }
+        }
+    }
+
+    private Node parseKeyword(String keyword) {
+        int start = starts[pos];
+        advance();
+        switch (keyword) {
+            case "if" -> {
+                expect(MoLangTokenKind.LPAREN, "'('");
+                Node condition = parseExpression();
+                expect(MoLangTokenKind.RPAREN, "')'");
+                Node then = parseExpression();
+                Node otherwise = null;
+                if (atKeyword("else")) {
+                    advance();
+                    otherwise = parseExpression();
+                }
+                return new Node.If(condition, then, otherwise, start, lastEnd);
+            }
+            case "while" -> {
+                expect(MoLangTokenKind.LPAREN, "'('");
+                Node condition = parseExpression();
+                expect(MoLangTokenKind.RPAREN, "')'");
+                Node body = parseExpression();
+                return new Node.While(condition, body, start, lastEnd);
+            }
+            case "for" -> {
+                expect(MoLangTokenKind.LPAREN, "'('");
+                Node init = at(MoLangTokenKind.SEMICOLON) ? null : parseExpression();
+                expect(MoLangTokenKind.SEMICOLON, "';'");
+                Node condition = at(MoLangTokenKind.SEMICOLON) ? null : parseExpression();
+                expect(MoLangTokenKind.SEMICOLON, "';'");
+                Node step = at(MoLangTokenKind.RPAREN) ? null : parseExpression();
+                expect(MoLangTokenKind.RPAREN, "')'");
+                Node body = parseExpression();
+                return new Node.For(init, condition, step, body, start, lastEnd);
+            }
+            case "switch" -> {
+                expect(MoLangTokenKind.LPAREN, "'('");
+                Node subject = parseExpression();
+                expect(MoLangTokenKind.RPAREN, "')'");
+                expect(MoLangTokenKind.LBRACE, "'{'");
+                List<Node.Case> cases = new ArrayList<>();
+                while (!eof() && !at(MoLangTokenKind.RBRACE)) {
+                    if (at(MoLangTokenKind.SEMICOLON)) {
+                        advance();
+                        continue;
+                    }
+                    int before = pos;
+                    Node match = null;
+                    if (atKeyword("default")) {
+                        advance();
+                    } else {
+                        match = parseBinary(0);
+                    }
+                    expect(MoLangTokenKind.COLON, "':'");
+                    Node body = parseExpression();
+                    cases.add(new Node.Case(match, body));
+                    if (pos == before) advance();
+                }
+                expect(MoLangTokenKind.RBRACE, "'}'");
+                return new Node.Switch(subject, List.copyOf(cases), start, lastEnd);
+            }
+            case "struct" -> {
+                expect(MoLangTokenKind.LBRACE, "'{'");
+                List<Node.Field> fields = new ArrayList<>();
+                while (!eof() && !at(MoLangTokenKind.RBRACE)) {
+                    int before = pos;
+                    String key = at(MoLangTokenKind.STRING) ? unquote(tokenText(pos)) : tokenText(pos);
+                    advance();
+                    expect(MoLangTokenKind.COLON, "':'");
+                    fields.add(new Node.Field(key, parseExpression()));
+                    if (at(MoLangTokenKind.COMMA) || at(MoLangTokenKind.SEMICOLON)) {
+                        advance();
+                    } else if (!at(MoLangTokenKind.RBRACE)) {
+                        error("Expected ',' or '}'");
+                    }
+                    if (pos == before) advance();
+                }
+                expect(MoLangTokenKind.RBRACE, "'}'");
+                return new Node.StructLit(List.copyOf(fields), start, lastEnd);
+            }
+            case "fn" -> {
+                expect(MoLangTokenKind.LPAREN, "'('");
+                String name = "";
+                int nameStart = at(MoLangTokenKind.STRING) ? starts[pos] + 1 : lastEnd;
+                if (at(MoLangTokenKind.STRING)) {
+                    name = unquote(tokenText(pos));
+                    advance();
+                } else {
+                    error("Expected function name string");
+                }
+                int nameEnd = nameStart + name.length();
+                Node body = new Node.Error(lastEnd, lastEnd);
+                if (at(MoLangTokenKind.COMMA)) {
+                    advance();
+                    body = parseExpression();
+                } else {
+                    error("Expected ','");
+                }
+                expect(MoLangTokenKind.RPAREN, "')'");
+                return new Node.FnDef(name, nameStart, nameEnd, body, start, lastEnd);
+            }
+            case "import" -> {
+                expect(MoLangTokenKind.LPAREN, "'('");
+                String path = "";
+                if (at(MoLangTokenKind.STRING)) {
+                    path = unquote(tokenText(pos));
+                    advance();
+                } else {
+                    error("Expected import path string");
+                }
+                expect(MoLangTokenKind.RPAREN, "')'");
+                return new Node.Import(path, start, lastEnd);
+            }
+            case "return" -> {
+                Node value = null;
+                if (!eof() && !at(MoLangTokenKind.SEMICOLON) && !at(MoLangTokenKind.RBRACE)) {
+                    value = parseExpression();
+                }
+                return new Node.Return(value, start, lastEnd);
+            }
+            case "break" -> {
+                return new Node.Break(start, lastEnd);
+            }
+            case "continue" -> {
+                return new Node.Continue(start, lastEnd);
+            }
+            default -> {
+                error("Unexpected '" + keyword + "'");
+                return new Node.Error(start, lastEnd);
+            }
+        }
+    }
+
+    private Node parseBlock() {
+        int start = starts[pos];
+        advance();
+        List<Node> statements = parseStatements(true);
+        expect(MoLangTokenKind.RBRACE, "'}'");
+        return new Node.Block(List.copyOf(statements), start, lastEnd);
+    }
+
+    private Node parseLambda() {
+        int start = starts[pos];
+        advance();
+        List<String> params = new ArrayList<>();
+        while (at(MoLangTokenKind.IDENTIFIER)) {
+            params.add(tokenText(pos));
+            advance();
+            if (at(MoLangTokenKind.COMMA)) advance();
+        }
+        expect(MoLangTokenKind.RPAREN, "')'");
+        expect(MoLangTokenKind.ARROW, "'->'");
+        Node body = parseExpression();
+        return new Node.Lambda(List.copyOf(params), body, start, body.end());
+    }
+
+    private List<Node> parseArguments() {
+        advance();
+        List<Node> args = new ArrayList<>();
+        if (at(MoLangTokenKind.RPAREN)) {
+            advance();
+            return List.of();
+        }
+        while (!eof()) {
+            int before = pos;
+            args.add(parseExpression());
+            if (at(MoLangTokenKind.COMMA)) {
+                advance();
+                continue;
+            }
+            if (pos == before) advance();
+            break;
+        }
+        expect(MoLangTokenKind.RPAREN, "')'");
+        return List.copyOf(args);
+    }
+
+    private boolean isLambdaAhead() {
+        int i = pos + 1;
+        while (i < size && kinds[i] == MoLangTokenKind.IDENTIFIER) {
+            i++;
+            if (i < size && kinds[i] == MoLangTokenKind.COMMA) {
+                i++;
+            } else {
+                break;
+            }
+        }
+        return i + 1 < size && kinds[i] == MoLangTokenKind.RPAREN && kinds[i + 1] == MoLangTokenKind.ARROW;
+    }
+
+    private boolean isMemberName(int index) {
+        MoLangTokenKind kind = kinds[index];
+        return kind == MoLangTokenKind.IDENTIFIER
+                || kind == MoLangTokenKind.KEYWORD
+                || kind == MoLangTokenKind.BOOLEAN
+                || kind.isPrefix();
+    }
+
+    private boolean atAssignmentOperator() {
+        if (eof()) return false;
+        if (kinds[pos] == MoLangTokenKind.OPERATOR) return tokenText(pos).equals("=");
+        if (kinds[pos] != MoLangTokenKind.COMPOUND_OP) return false;
+        String op = tokenText(pos);
+        return op.equals("+=") || op.equals("-=") || op.equals("*=") || op.equals("/=");
+    }
+
+    private boolean atBinaryOperator(String[] ops) {
+        if (eof()) return false;
+        if (kinds[pos] != MoLangTokenKind.OPERATOR && kinds[pos] != MoLangTokenKind.COMPOUND_OP) return false;
+        String op = tokenText(pos);
+        for (String candidate : ops) {
+            if (candidate.equals(op)) return true;
+        }
+        return false;
+    }
+
+    private boolean atKeyword(String keyword) {
+        return at(MoLangTokenKind.KEYWORD) && tokenText(pos).equals(keyword);
+    }
+
+    private boolean at(MoLangTokenKind kind) {
+        return pos < size && kinds[pos] == kind;
+    }
+
+    private int currentStart() {
+        return pos < size ? starts[pos] : text.length();
+    }
+
+    private boolean eof() {
+        return pos >= size;
+    }
+
+    private void advance() {
+        if (pos < size) {
+            lastEnd = ends[pos];
+            pos++;
+        }
+    }
+
+    private void expect(MoLangTokenKind kind, String description) {
+        if (at(kind)) {
+            advance();
+        } else {
+            error("Expected " + description);
+        }
+    }
+
+    private void error(String message) {
+        int start = pos < size ? starts[pos] : text.length();
+        int end = pos < size ? ends[pos] : text.length();
+        if (!errors.isEmpty() && errors.get(errors.size() - 1).start() == start) return;
+        errors.add(new ParseError(message, start, end));
+    }
+
+    private String tokenText(int index) {
+        return text.subSequence(starts[index], ends[index]).toString();
+    }
+
+    private void add(MoLangTokenKind kind, int start, int end) {
+        if (size == kinds.length) {
+            int capacity = size * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+        }
+        kinds[size] = kind;
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+
+    private static double parseNumber(String raw) {
+        try {
+            return Double.parseDouble(raw);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String unquote(String raw) {
+        int end = raw.length() > 1 && raw.endsWith("'") ? raw.length() - 1 : raw.length();
+        String inner = raw.substring(1, end);
+        if (inner.indexOf('\\') < 0) return inner;
+        StringBuilder sb = new StringBuilder(inner.length());
+        for (int i = 0; i < inner.length(); i++) {
+            char c = inner.charAt(i);
+            if (c == '\\' && i + 1 < inner.length()) {
+                c = inner.charAt(++i);
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static String normalizePrefix(String raw) {
+        return switch (raw) {
+            case "query" -> "q";
+            case "variable" -> "v";
+            case "temp" -> "t";
+            case "function" -> "f";
+            case "context" -> "c";
+            default -> raw;
+        };
+    }
+}
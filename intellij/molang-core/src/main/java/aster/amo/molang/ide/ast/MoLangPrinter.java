@@ -0,0 +1,267 @@
+package aster.amo.molang.ide.ast;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public final class MoLangPrinter {
+    private static final String INDENT = "    ";
+
+    private static final int ASSIGNMENT = 0;
+    private static final int TERNARY = 1;
+    private static final int UNARY = 9;
+    private static final int POSTFIX = 10;
+    private static final int PRIMARY = 11;
+
+    private final CharSequence source;
+    private final StringBuilder out = new StringBuilder();
+    private int depth;
+
+    private MoLangPrinter(CharSequence source) {
+        this.source = source;
+    }
+
+    public static String print(Node.Block root, CharSequence source) {
+        MoLangPrinter printer = new MoLangPrinter(source);
+        printer.statements(root.statements());
+        return printer.out.toString();
+    }
+
+    public static String printExpression(Node node, CharSequence source) {
+        MoLangPrinter printer = new MoLangPrinter(source);
+        printer.expression(node, ASSIGNMENT);
+        return printer.out.toString();
+    }
+
+    public static String formatNumber(double value) {
+        if (!Double.isFinite(value)) return Double.toString(value);
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+
+    private void statements(List<Node> statements) {
+        for (Node statement : statements) {
+            out.append(INDENT.repeat(depth));
+            expression(statement, ASSIGNMENT);
+            if (!endsWithBlock(statement)) out.append(';');
+            out.append('\n');
+        }
+    }
+
+    private void expression(Node node, int minPrecedence) {
+        boolean parens = precedence(node) < minPrecedence;
+        if (parens) out.append('(');
+        switch (node) {
+            case Node.NumberLit n -> out.append(formatNumber(n.value()));
+            case Node.StringLit s -> out.append(quote(s.value()));
+            case Node.BoolLit b -> out.append(b.value());
+            case Node.Identifier i -> out.append(i.name());
+            case Node.Chain c -> {
+                out.append(c.prefix());
+                for (Node.Segment segment : c.segments()) {
+                    segment(segment);
+                }
+            }
+            case Node.Member m -> {
+                expression(m.target(), POSTFIX);
+                segment(m.segment());
+            }
+            case Node.Index i -> {
+                expression(i.target(), POSTFIX);
+                out.append('[');
+                expression(i.index(), ASSIGNMENT);
+                out.append(']');
+            }
+            case Node.Call c -> {
+                out.append(c.callee());
+                arguments(c.args());
+            }
+            case Node.Unary u -> {
+                out.append(u.op());
+                if (u.operand() instanceof Node.Unary || u.operand() instanceof Node.NumberLit n && n.value() < 0) {
+                    out.append('(');
+                    expression(u.operand(), ASSIGNMENT);
+                    out.append(')');
+                } else {
+                    expression(u.operand(), UNARY);
+                }
+            }
+            case Node.Binary b -> {
+                int level = binaryPrecedence(b.op());
+                expression(b.left(), level);
+                out.append(' ').append(b.op()).append(' ');
+                expression(b.right(), level + 1);
+            }
+            case Node.Ternary t -> {
+                expression(t.condition(), TERNARY + 1);
+                out.append(" ? ");
+                expression(t.then(), ASSIGNMENT);
+                if (t.otherwise() != null) {
+                    out.append(" : ");
+                    expression(t.otherwise(), ASSIGNMENT);
+                }
+            }
+            case Node.Assign a -> {
+                expression(a.target(), POSTFIX);
+                out.append(' ').append(a.op()).append(' ');
+                expression(a.value(), ASSIGNMENT);
+            }
+            case Node.Block b -> block(b.statements());
+            case Node.If i -> {
+                out.append("if (");
+                expression(i.condition(), ASSIGNMENT);
+                out.append(") ");
+                expression(i.then(), ASSIGNMENT);
+                if (i.otherwise() != null) {
+                    out.append(" else ");
+                    expression(i.otherwise(), ASSIGNMENT);
+                }
+            }
+            case Node.While w -> {
+                out.append("while (");
+                expression(w.condition(), ASSIGNMENT);
+                out.append(") ");
+                expression(w.body(), ASSIGNMENT);
+            }
+            case Node.For f -> {
+                out.append("for (");
+                if (f.init() != null) expression(f.init(), ASSIGNMENT);
+                out.append("; ");
+                if (f.condition() != null) expression(f.condition(), ASSIGNMENT);
+                out.append("; ");
+                if (f.step() != null) expression(f.step(), ASSIGNMENT);
+                out.append(") ");
+                expression(f.body(), ASSIGNMENT);
+            }
+            case Node.Switch s -> {
+                out.append("switch (");
+                expression(s.subject(), ASSIGNMENT);
+                out.append(") {\n");
+                depth++;
+                for (Node.Case c : s.cases()) {
+                    out.append(INDENT.repeat(depth));
+                    if (c.match() != null) {
+                        expression(c.match(), TERNARY + 1);
+                    } else {
+                        out.append("default");
+                    }
+                    out.append(" : ");
+                    expression(c.body(), ASSIGNMENT);
+                    out.append(";\n");
+                }
+                depth--;
+                out.append(INDENT.repeat(depth)).append('}');
+            }
+            case Node.StructLit s -> {
+                out.append("struct { ");
+                for (int i = 0; i < s.fields().size(); i++) {
+                    Node.Field field = s.fields().get(i);
+                    if (i > 0) out.append(", ");
+                    out.append(isIdentifier(field.key()) ? field.key() : quote(field.key())).append(" : ");
+                    expression(field.value(), ASSIGNMENT);
+                }
+                out.append(" }");
+            }
+            case Node.Lambda l -> {
+                out.append('(').append(String.join(", ", l.params())).append(") -> ");
+                expression(l.body(), ASSIGNMENT);
+            }
+            case Node.FnDef f -> {
+                out.append("fn(").append(quote(f.name())).append(", ");
+                expression(f.body(), ASSIGNMENT);
+                out.append(')');
+            }
+            case Node.Import i -> out.append("import(").append(quote(i.path())).append(')');
+            case Node.Return r -> {
+                out.append("return");
+                if (r.value() != null) {
+                    out.append(' ');
+                    expression(r.value(), ASSIGNMENT);
+                }
+            }
+            case Node.Break b -> out.append("break");
+            case Node.Continue c -> out.append("continue");
+            case Node.Error e -> out.append(source, Math.min(e.start(), source.length()), Math.min(e.end(), source.length()));
+        }
+        if (parens) out.append(')');
+    }
+
+    private void segment(Node.Segment segment) {
+        out.append('.').append(segment.name());
+        if (segment.call()) arguments(segment.args());
+    }
+
+    private void arguments(List<Node> args) {
+        out.append('(');
+        for (int i = 0; i < args.size(); i++) {
+            if (i > 0) out.append(", ");
+            expression(args.get(i), ASSIGNMENT);
+        }
+        out.append(')');
+    }
+
+    private void block(List<Node> statements) {
+        if (statements.isEmpty()) {
+            out.append("{}");
+            return;
+        }
+        out.append("{\n");
+        depth++;
+        statements(statements);
+        depth--;
+        out.append(INDENT.repeat(depth)).append('}');
+    }
+
+    private static int precedence(Node node) {
+        return switch (node) {
+            case Node.Assign a -> ASSIGNMENT;
+            case Node.Lambda l -> ASSIGNMENT;
+            case Node.Ternary t -> TERNARY;
+            case Node.Binary b -> binaryPrecedence(b.op());
+            case Node.Unary u -> UNARY;
+            case Node.NumberLit n -> n.value() < 0 ? UNARY : PRIMARY;
+            case Node.Member m -> POSTFIX;
+            case Node.Index i -> POSTFIX;
+            case Node.Chain c -> POSTFIX;
+            default -> PRIMARY;
+        };
+    }
+
+    private static int binaryPrecedence(String op) {
+        return switch (op) {
+            case "??" -> 2;
+            case "||" -> 3;
+            case "&&" -> 4;
+            case "==", "!=" -> 5;
+            case "<", ">", "<=", ">=" -> 6;
+            case "+", "-" -> 7;
+            default -> 8;
+        };
+    }
+
+    private static boolean endsWithBlock(Node node) {
+        return switch (node) {
+            case Node.Block b -> true;
+            case Node.If i -> endsWithBlock(i.otherwise() != null ? i.otherwise() : i.then());
+            case Node.While w -> endsWithBlock(w.body());
+            case Node.For f -> endsWithBlock(f.body());
+            case Node.Switch s -> true;
+            case Node.FnDef f -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean isIdentifier(String key) {
+        if (key.isEmpty() || !(Character.isLetter(key.charAt(0)) || key.charAt(0) == '_')) return false;
+        for (int i = 1; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_') return false;
+        }
+        return true;
+    }
+
+    private static String quote(String value) {
+        return "'" + value.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+}
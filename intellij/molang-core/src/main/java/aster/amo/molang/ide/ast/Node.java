@@ -0,0 +1,83 @@
+package aster.amo.molang.ide.ast;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+public sealed interface Node {
+    int start();
+
+    int end();
+
+    record NumberLit(double value, int start, int end) implements Node {}
+
+    record StringLit(String value, int start, int end) implements Node {}
+
+    record BoolLit(boolean value, int start, int end) implements Node {}
+
+    record Identifier(String name, int start, int end) implements Node {}
+
+    record Chain(String prefix, List<Segment> segments, int start, int end) implements Node {
+        public String path() {
+            StringBuilder sb = new StringBuilder(prefix);
+            for (Segment segment : segments) {
+                sb.append('.').append(segment.name());
+            }
+            return sb.toString();
+        }
+
+        public String[] names() {
+            String[] names = new String[segments.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = segments.get(i).name();
+            }
+            return names;
+        }
+    }
+
+    record Segment(String name, List<Node> args, boolean call, int start, int end) {}
+
+    record Member(Node target, Segment segment, int start, int end) implements Node {}
+
+    record Index(Node target, Node index, int start, int end) implements Node {}
+
+    record Call(String callee, List<Node> args, int start, int end) implements Node {}
+
+    record Unary(String op, Node operand, int start, int end) implements Node {}
+
+    record Binary(String op, Node left, Node right, int start, int end) implements Node {}
+
+    record Ternary(Node condition, Node then, @Nullable Node otherwise, int start, int end) implements Node {}
+
+    record Assign(Node target, String op, Node value, int start, int end) implements Node {}
+
+    record Block(List<Node> statements, int start, int end) implements Node {}
+
+    record If(Node condition, Node then, @Nullable Node otherwise, int start, int end) implements Node {}
+
+    record While(Node condition, Node body, int start, int end) implements Node {}
+
+    record For(@Nullable Node init, @Nullable Node condition, @Nullable Node step, Node body, int start, int end) implements Node {}
+
+    record Switch(Node subject, List<Case> cases, int start, int end) implements Node {}
+
+    record Case(@Nullable Node match, Node body) {}
+
+    record StructLit(List<Field> fields, int start, int end) implements Node {}
+
+    record Field(String key, Node value) {}
+
+    record Lambda(List<String> params, Node body, int start, int end) implements Node {}
+
+    record FnDef(String name, int nameStart, int nameEnd, Node body, int start, int end) implements Node {}
+
+    record Import(String path, int start, int end) implements Node {}
+
+    record Return(@Nullable Node value, int start, int end) implements Node {}
+
+    record Break(int start, int end) implements Node {}
+
+    record Continue(int start, int end) implements Node {}
+
+    record Error(int start, int end) implements Node {}
+}
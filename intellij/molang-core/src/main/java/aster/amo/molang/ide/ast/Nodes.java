@@ -0,0 +1,91 @@
+package aster.amo.molang.ide.ast;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+public final class Nodes {
+    private Nodes() {
+    }
+
+    public static List<Node> children(Node node) {
+        return switch (node) {
+            case Node.Chain c -> {
+                List<Node> result = new ArrayList<>();
+                for (Node.Segment segment : c.segments()) {
+                    result.addAll(segment.args());
+                }
+                yield result;
+            }
+            case Node.Member m -> {
+                List<Node> result = new ArrayList<>(m.segment().args().size() + 1);
+                result.add(m.target());
+                result.addAll(m.segment().args());
+                yield result;
+            }
+            case Node.Index i -> List.of(i.target(), i.index());
+            case Node.Call c -> c.args();
+            case Node.Unary u -> List.of(u.operand());
+            case Node.Binary b -> List.of(b.left(), b.right());
+            case Node.Ternary t -> t.otherwise() != null
+                    ? List.of(t.condition(), t.then(), t.otherwise())
+                    : List.of(t.condition(), t.then());
+            case Node.Assign a -> List.of(a.target(), a.value());
+            case Node.Block b -> b.statements();
+            case Node.If i -> i.otherwise() != null
+                    ? List.of(i.condition(), i.then(), i.otherwise())
+                    : List.of(i.condition(), i.then());
+            case Node.While w -> List.of(w.condition(), w.body());
+            case Node.For f -> {
+                List<Node> result = new ArrayList<>(4);
+                if (f.init() != null) result.add(f.init());
+                if (f.condition() != null) result.add(f.condition());
+                if (f.step() != null) result.add(f.step());
+                result.add(f.body());
+                yield result;
+            }
+            case Node.Switch s -> {
+                List<Node> result = new ArrayList<>(s.cases().size() * 2 + 1);
+                result.add(s.subject());
+                for (Node.Case c : s.cases()) {
+                    if (c.match() != null) result.add(c.match());
+                    result.add(c.body());
+                }
+                yield result;
+            }
+            case Node.StructLit s -> {
+                List<Node> result = new ArrayList<>(s.fields().size());
+                for (Node.Field field : s.fields()) {
+                    result.add(field.value());
+                }
+                yield result;
+            }
+            case Node.Lambda l -> List.of(l.body());
+            case Node.FnDef f -> List.of(f.body());
+            case Node.Return r -> r.value() != null ? List.of(r.value()) : List.of();
+            case Node.NumberLit n -> List.of();
+            case Node.StringLit s -> List.of();
+            case Node.BoolLit b -> List.of();
+            case Node.Identifier i -> List.of();
+            case Node.Import i -> List.of();
+            case Node.Break b -> List.of();
+            case Node.Continue c -> List.of();
+            case Node.Error e -> List.of();
+        };
+    }
+
+    public static void walk(Node node, Consumer<Node> visitor) {
+        visitor.accept(node);
+        for (Node child : children(node)) {
+            walk(child, visitor);
+        }
+    }
+
+    public static List<Node.FnDef> functionDefinitions(Node root) {
+        List<Node.FnDef> result = new ArrayList<>();
+        walk(root, node -> {
+            if (node instanceof Node.FnDef def) result.add(def);
+        });
+        return result;
+    }
+}
@@ -0,0 +1,3 @@
+package aster.amo.molang.ide.ast;
+
+public record ParseError(String message, int start, int end) {}
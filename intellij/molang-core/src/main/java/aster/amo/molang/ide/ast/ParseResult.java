@@ -0,0 +1,9 @@
+package aster.amo.molang.ide.ast;
+
+import java.util.List;
+
+public record ParseResult(Node.Block root, List<ParseError> errors) {
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+}
@@ -0,0 +1,34 @@
+package aster.amo.molang.ide.cost;
+
+import aster.amo.molang.ide.ast.Node;
+
+import java.util.List;
+import java.util.Map;
+
+public record CostReport(
+        double scriptCost,
+        Map<String, FunctionCost> functions,
+        List<StatementCost> statements
+) {
+
+    public record FunctionCost(
+            Node.FnDef definition,
+            double cost,
+            boolean recursive,
+            int maxLoopDepth,
+            int queryCallsInLoops
+    ) {}
+
+    public record StatementCost(
+            Node statement,
+            double cost,
+            int maxLoopDepth,
+            int queryCallsInLoops
+    ) {}
+
+    public static String format(double cost) {
+        if (cost >= 1_000_000) return String.format("%.1fM", cost / 1_000_000);
+        if (cost >= 1_000) return String.format("%.1fk", cost / 1_000);
+        return String.valueOf(Math.round(cost));
+    }
+}
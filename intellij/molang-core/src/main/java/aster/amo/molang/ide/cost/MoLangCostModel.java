@@ -0,0 +1,236 @@
+package aster.amo.molang.ide.cost;
+
+import aster.amo.molang.ide.ast.Node;
+import aster.amo.molang.ide.ast.Nodes;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public final class MoLangCostModel {
+    public static final double ASSUMED_LOOP_ITERATIONS = 10;
+    public static final double MAX_LITERAL_LOOP_ITERATIONS = 1_000;
+    public static final double DEFAULT_QUERY_SEGMENT_COST = 2;
+    public static final double FUNCTION_CALL_COST = 2;
+    public static final double UNKNOWN_FUNCTION_COST = 5;
+    public static final double STRUCT_ALLOCATION_COST = 8;
+
+    @FunctionalInterface
+    public interface Weights {
+        double querySegmentCost(Node.Chain chain, int segmentIndex);
+
+        Weights DEFAULT = (chain, segmentIndex) -> DEFAULT_QUERY_SEGMENT_COST;
+    }
+
+    private final Weights weights;
+    private final Map<String, Node.FnDef> definitions = new HashMap<>();
+    private final Map<String, CostReport.FunctionCost> functionCosts = new LinkedHashMap<>();
+    private final Deque<String> callStack = new ArrayDeque<>();
+    private final Set<String> recursive = new HashSet<>();
+
+    private int loopDepth;
+    private int maxLoopDepth;
+    private int queryCallsInLoops;
+
+    private MoLangCostModel(Weights weights) {
+        this.weights = weights;
+    }
+
+    public static CostReport analyze(Node.Block root, Weights weights) {
+        MoLangCostModel model = new MoLangCostModel(weights);
+        for (Node.FnDef def : Nodes.functionDefinitions(root)) {
+            model.definitions.putIfAbsent(def.name(), def);
+        }
+        for (String name : model.definitions.keySet()) {
+            model.functionCost(name);
+        }
+
+        List<CostReport.StatementCost> statements = new ArrayList<>();
+        double total = 0;
+        for (Node statement : root.statements()) {
+            model.resetCounters();
+            double cost = model.cost(statement);
+            total += cost;
+            statements.add(new CostReport.StatementCost(statement, cost, model.maxLoopDepth, model.queryCallsInLoops));
+        }
+        return new CostReport(total, Map.copyOf(model.functionCosts), List.copyOf(statements));
+    }
+
+    private double functionCost(String name) {
+        CostReport.FunctionCost known = functionCosts.get(name);
+        if (known != null) return known.cost();
+
+        Node.FnDef def = definitions.get(name);
+        if (def == null) return UNKNOWN_FUNCTION_COST;
+
+        if (callStack.contains(name)) {
+            for (String frame : callStack) {
+                recursive.add(frame);
+                if (frame.equals(name)) break;
+            }
+            return 0;
+        }
+
+        int savedDepth = loopDepth;
+        int savedMaxDepth = maxLoopDepth;
+        int savedQueries = queryCallsInLoops;
+        resetCounters();
+
+        callStack.push(name);
+        Node body = def.body() instanceof Node.Lambda lambda ? lambda.body() : def.body();
+        double cost = cost(body);
+        callStack.pop();
+
+        boolean isRecursive = recursive.contains(name);
+        if (isRecursive) {
+            cost *= ASSUMED_LOOP_ITERATIONS;
+        }
+        functionCosts.put(name, new CostReport.FunctionCost(def, cost, isRecursive, maxLoopDepth, queryCallsInLoops));
+
+        loopDepth = savedDepth;
+        maxLoopDepth = savedMaxDepth;
+        queryCallsInLoops = savedQueries;
+        return cost;
+    }
+
+    private void resetCounters() {
+        loopDepth = 0;
+        maxLoopDepth = 0;
+        queryCallsInLoops = 0;
+    }
+
+    private double cost(Node node) {
+        return switch (node) {
+            case Node.NumberLit n -> 1;
+            case Node.StringLit s -> 1;
+            case Node.BoolLit b -> 1;
+            case Node.Identifier i -> 1;
+            case Node.Break b -> 1;
+            case Node.Continue c -> 1;
+            case Node.Import i -> 1;
+            case Node.Error e -> 0;
+            case Node.Chain chain -> chainCost(chain);
+            case Node.Member m -> cost(m.target()) + 1 + sum(m.segment().args());
+            case Node.Index i -> cost(i.target()) + cost(i.index()) + 1;
+            case Node.Call call -> callCost(call);
+            case Node.Unary u -> 1 + cost(u.operand());
+            case Node.Binary b -> 1 + cost(b.left()) + cost(b.right());
+            case Node.Ternary t -> cost(t.condition()) + Math.max(cost(t.then()), t.otherwise() != null ? cost(t.otherwise()) : 0);
+            case Node.If i -> cost(i.condition()) + Math.max(cost(i.then()), i.otherwise() != null ? cost(i.otherwise()) : 0);
+            case Node.Assign a -> 1 + targetCost(a.target()) + cost(a.value());
+            case Node.Block b -> sum(b.statements());
+            case Node.While w -> loop(ASSUMED_LOOP_ITERATIONS, w.condition(), w.body());
+            case Node.For f -> (f.init() != null ? cost(f.init()) : 0)
+                    + loop(ASSUMED_LOOP_ITERATIONS, f.condition(), f.step(), f.body());
+            case Node.Switch s -> {
+                double worst = 0;
+                for (Node.Case c : s.cases()) {
+                    worst = Math.max(worst, (c.match() != null ? cost(c.match()) : 0) + cost(c.body()));
+                }
+                yield cost(s.subject()) + worst;
+            }
+            case Node.StructLit s -> {
+                double total = STRUCT_ALLOCATION_COST;
+                for (Node.Field field : s.fields()) {
+                    total += 1 + cost(field.value());
+                }
+                yield total;
+            }
+            case Node.Lambda l -> 1;
+            case Node.FnDef f -> 1;
+            case Node.Return r -> 1 + (r.value() != null ? cost(r.value()) : 0);
+        };
+    }
+
+    private double chainCost(Node.Chain chain) {
+        List<Node.Segment> segments = chain.segments();
+        double total = 0;
+        switch (chain.prefix()) {
+            case "q" -> {
+                for (int i = 0; i < segments.size(); i++) {
+                    total += weights.querySegmentCost(chain, i) + sum(segments.get(i).args());
+                }
+                if (loopDepth > 0) queryCallsInLoops++;
+            }
+            case "f" -> {
+                total += FUNCTION_CALL_COST;
+                for (Node.Segment segment : segments) {
+                    total += sum(segment.args());
+                }
+                if (!segments.isEmpty()) {
+                    total += functionCost(segments.get(0).name());
+                }
+            }
+            default -> {
+                total += segments.size();
+                for (Node.Segment segment : segments) {
+                    total += sum(segment.args());
+                }
+            }
+        }
+        return total;
+    }
+
+    private double targetCost(Node target) {
+        if (target instanceof Node.Chain chain) {
+            double total = 1;
+            for (Node.Segment segment : chain.segments()) {
+                total += sum(segment.args());
+            }
+            return total;
+        }
+        return cost(target);
+    }
+
+    private double callCost(Node.Call call) {
+        List<Node> args = call.args();
+        switch (call.callee()) {
+            case "loop" -> {
+                if (args.size() >= 2) {
+                    double iterations = ASSUMED_LOOP_ITERATIONS;
+                    if (args.get(0) instanceof Node.NumberLit literal) {
+                        iterations = Math.min(Math.max(literal.value(), 0), MAX_LITERAL_LOOP_ITERATIONS);
+                    }
+                    return cost(args.get(0)) + loop(iterations, body(args.get(1)));
+                }
+            }
+            case "for_each" -> {
+                if (args.size() >= 3) {
+                    return cost(args.get(1)) + loop(ASSUMED_LOOP_ITERATIONS, body(args.get(2)));
+                }
+            }
+            default -> {
+            }
+        }
+        return 1 + sum(args);
+    }
+
+    private static Node body(Node node) {
+        return node instanceof Node.Lambda lambda ? lambda.body() : node;
+    }
+
+    private double loop(double iterations, Node... parts) {
+        loopDepth++;
+        maxLoopDepth = Math.max(maxLoopDepth, loopDepth);
+        double perIteration = 0;
+        for (Node part : parts) {
+            if (part != null) perIteration += cost(part);
+        }
+        loopDepth--;
+        return iterations * perIteration;
+    }
+
+    private double sum(List<Node> nodes) {
+        double total = 0;
+        for (Node node : nodes) {
+            total += cost(node);
+        }
+        return total;
+    }
+}
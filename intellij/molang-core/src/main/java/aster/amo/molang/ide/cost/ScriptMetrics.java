@@ -0,0 +1,80 @@
+package aster.amo.molang.ide.cost;
+
+import aster.amo.molang.ide.ast.Node;
+import aster.amo.molang.ide.ast.Nodes;
+import aster.amo.molang.ide.lexer.MoLangScanner;
+import aster.amo.molang.ide.lexer.MoLangTokenKind;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public record ScriptMetrics(
+        int tokens,
+        int functions,
+        int maxLoopNesting,
+        int queryCalls,
+        int queryCallsPerPath,
+        int imports,
+        double cost
+) {
+
+    @NotNull
+    public static ScriptMetrics compute(@NotNull CharSequence text, @NotNull Node.Block root, @NotNull CostReport report) {
+        int maxLoopNesting = 0;
+        for (CostReport.FunctionCost function : report.functions().values()) {
+            maxLoopNesting = Math.max(maxLoopNesting, function.maxLoopDepth());
+        }
+        for (CostReport.StatementCost statement : report.statements()) {
+            maxLoopNesting = Math.max(maxLoopNesting, statement.maxLoopDepth());
+        }
+
+        int[] queryCalls = new int[1];
+        Set<String> imports = new HashSet<>();
+        Nodes.walk(root, node -> {
+            if (node instanceof Node.Chain chain && chain.prefix().equals("q")) {
+                queryCalls[0]++;
+            } else if (node instanceof Node.Import imp) {
+                imports.add(imp.path());
+            }
+        });
+
+        return new ScriptMetrics(countTokens(text), Nodes.functionDefinitions(root).size(), maxLoopNesting,
+                queryCalls[0], queryCallsOnPath(root), imports.size(), report.scriptCost());
+    }
+
+    private static int countTokens(CharSequence text) {
+        MoLangScanner scanner = new MoLangScanner(text);
+        int count = 0;
+        MoLangTokenKind type;
+        while ((type = scanner.getTokenType()) != null) {
+            if (!type.isTrivia()) count++;
+            scanner.advance();
+        }
+        return count;
+    }
+
+    private static int queryCallsOnPath(Node node) {
+        return switch (node) {
+            case Node.FnDef f -> 0;
+            case Node.If i -> queryCallsOnPath(i.condition())
+                    + Math.max(queryCallsOnPath(i.then()), i.otherwise() != null ? queryCallsOnPath(i.otherwise()) : 0);
+            case Node.Ternary t -> queryCallsOnPath(t.condition())
+                    + Math.max(queryCallsOnPath(t.then()), t.otherwise() != null ? queryCallsOnPath(t.otherwise()) : 0);
+            case Node.Switch s -> {
+                int worst = 0;
+                for (Node.Case c : s.cases()) {
+                    worst = Math.max(worst, (c.match() != null ? queryCallsOnPath(c.match()) : 0) + queryCallsOnPath(c.body()));
+                }
+                yield queryCallsOnPath(s.subject()) + worst;
+            }
+            default -> {
+                int total = node instanceof Node.Chain chain && chain.prefix().equals("q") ? 1 : 0;
+                for (Node child : Nodes.children(node)) {
+                    total += queryCallsOnPath(child);
+                }
+                yield total;
+            }
+        };
+    }
+}
@@ -0,0 +1,292 @@
+package aster.amo.molang.ide.fold;
+
+import aster.amo.molang.ide.ast.Node;
+import aster.amo.molang.ide.ast.Nodes;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ConstantFolder {
+    public interface MathFunctions {
+        MathFunctions BUILT_IN = MoLangMath::supports;
+
+        boolean isFoldable(String name, int argCount);
+    }
+
+    public record Constant(Node expression, Node value) {}
+
+    private final MathFunctions math;
+
+    public ConstantFolder(MathFunctions math) {
+        this.math = math;
+    }
+
+    public Node.Block foldScript(Node.Block root) {
+        return new Node.Block(foldStatements(root.statements()), root.start(), root.end());
+    }
+
+    public List<Constant> findConstants(Node root) {
+        List<Constant> result = new ArrayList<>();
+        collectConstants(root, result);
+        return result;
+    }
+
+    private void collectConstants(Node node, List<Constant> result) {
+        if (isReportable(node)) {
+            Node folded = fold(node);
+            if (isLiteral(folded)) {
+                result.add(new Constant(node, folded));
+                return;
+            }
+        }
+        if (node instanceof Node.Assign assign) {
+            collectConstants(assign.value(), result);
+            return;
+        }
+        for (Node child : Nodes.children(node)) {
+            collectConstants(child, result);
+        }
+    }
+
+    private static boolean isReportable(Node node) {
+        return switch (node) {
+            case Node.Binary b -> true;
+            case Node.Ternary t -> true;
+            case Node.Unary u -> !(u.op().equals("-") && u.operand() instanceof Node.NumberLit);
+            case Node.Chain c -> c.prefix().equals("math");
+            default -> false;
+        };
+    }
+
+    public Node fold(Node node) {
+        return switch (node) {
+            case Node.Chain c -> foldChain(c);
+            case Node.Member m -> new Node.Member(fold(m.target()), foldSegment(m.segment()), m.start(), m.end());
+            case Node.Index i -> new Node.Index(fold(i.target()), fold(i.index()), i.start(), i.end());
+            case Node.Call c -> new Node.Call(c.callee(), foldAll(c.args()), c.start(), c.end());
+            case Node.Unary u -> foldUnary(u);
+            case Node.Binary b -> foldBinary(b);
+            case Node.Ternary t -> foldTernary(t);
+            case Node.Assign a -> new Node.Assign(foldTarget(a.target()), a.op(), fold(a.value()), a.start(), a.end());
+            case Node.Block b -> new Node.Block(foldStatements(b.statements()), b.start(), b.end());
+            case Node.If i -> foldIf(i);
+            case Node.While w -> new Node.While(fold(w.condition()), fold(w.body()), w.start(), w.end());
+            case Node.For f -> new Node.For(foldNullable(f.init()), foldNullable(f.condition()), foldNullable(f.step()),
+                    fold(f.body()), f.start(), f.end());
+            case Node.Switch s -> {
+                List<Node.Case> cases = new ArrayList<>(s.cases().size());
+                for (Node.Case c : s.cases()) {
+                    cases.add(new Node.Case(foldNullable(c.match()), fold(c.body())));
+                }
+                yield new Node.Switch(fold(s.subject()), List.copyOf(cases), s.start(), s.end());
+            }
+            case Node.StructLit s -> {
+                List<Node.Field> fields = new ArrayList<>(s.fields().size());
+                for (Node.Field field : s.fields()) {
+                    fields.add(new Node.Field(field.key(), fold(field.value())));
+                }
+                yield new Node.StructLit(List.copyOf(fields), s.start(), s.end());
+            }
+            case Node.Lambda l -> new Node.Lambda(l.params(), fold(l.body()), l.start(), l.end());
+            case Node.FnDef f -> new Node.FnDef(f.name(), f.nameStart(), f.nameEnd(), fold(f.body()), f.start(), f.end());
+            case Node.Return r -> new Node.Return(foldNullable(r.value()), r.start(), r.end());
+            default -> node;
+        };
+    }
+
+    private List<Node> foldStatements(List<Node> statements) {
+        List<Node> result = new ArrayList<>(statements.size());
+        for (Node statement : statements) {
+            Node folded = fold(statement);
+            if (folded instanceof Node.If i && isLiteral(i.condition()) && !truthy(i.condition()) && i.otherwise() == null) {
+                continue;
+            }
+            if (folded instanceof Node.While w && isLiteral(w.condition()) && !truthy(w.condition())) {
+                continue;
+            }
+            if (folded instanceof Node.Block block && statement instanceof Node.If) {
+                result.addAll(block.statements());
+                continue;
+            }
+            result.add(folded);
+        }
+        return List.copyOf(result);
+    }
+
+    private Node foldChain(Node.Chain chain) {
+        List<Node.Segment> segments = new ArrayList<>(chain.segments().size());
+        for (Node.Segment segment : chain.segments()) {
+            segments.add(foldSegment(segment));
+        }
+        if (chain.prefix().equals("math") && segments.size() == 1) {
+            Node.Segment segment = segments.get(0);
+            double[] args = new double[segment.args().size()];
+            boolean constant = true;
+            for (int i = 0; i < args.length && constant; i++) {
+                Double value = number(segment.args().get(i));
+                if (value == null) constant = false;
+                else args[i] = value;
+            }
+            if (constant && math.isFoldable(segment.name(), args.length)) {
+                Double result = MoLangMath.apply(segment.name(), args);
+                if (result != null) return new Node.NumberLit(result, chain.start(), chain.end());
+            }
+        }
+        return new Node.Chain(chain.prefix(), List.copyOf(segments), chain.start(), chain.end());
+    }
+
+    private Node foldTarget(Node target) {
+        if (target instanceof Node.Chain chain) {
+            List<Node.Segment> segments = new ArrayList<>(chain.segments().size());
+            for (Node.Segment segment : chain.segments()) {
+                segments.add(foldSegment(segment));
+            }
+            return new Node.Chain(chain.prefix(), List.copyOf(segments), chain.start(), chain.end());
+        }
+        return fold(target);
+    }
+
+    private Node.Segment foldSegment(Node.Segment segment) {
+        if (segment.args().isEmpty()) return segment;
+        return new Node.Segment(segment.name(), foldAll(segment.args()), segment.call(), segment.start(), segment.end());
+    }
+
+    private Node foldUnary(Node.Unary unary) {
+        Node operand = fold(unary.operand());
+        if (isLiteral(operand)) {
+            Double value = number(operand);
+            switch (unary.op()) {
+                case "!" -> {
+                    return bool(!truthy(operand), unary);
+                }
+                case "-" -> {
+                    if (value != null) return new Node.NumberLit(-value, unary.start(), unary.end());
+                }
+                case "+" -> {
+                    if (value != null) return new Node.NumberLit(value, unary.start(), unary.end());
+                }
+                default -> {
+                }
+            }
+        }
+        return new Node.Unary(unary.op(), operand, unary.start(), unary.end());
+    }
+
+    private Node foldBinary(Node.Binary binary) {
+        Node left = fold(binary.left());
+        String op = binary.op();
+
+        if (isLiteral(left)) {
+            switch (op) {
+                case "??" -> {
+                    return left;
+                }
+                case "&&" -> {
+                    if (!truthy(left)) return bool(false, binary);
+                }
+                case "||" -> {
+                    if (truthy(left)) return bool(true, binary);
+                }
+                default -> {
+                }
+            }
+        }
+
+        Node right = fold(binary.right());
+        if (isLiteral(left) && isLiteral(right)) {
+            Node folded = evaluate(op, left, right, binary);
+            if (folded != null) return folded;
+        }
+        return new Node.Binary(op, left, right, binary.start(), binary.end());
+    }
+
+    @Nullable
+    private static Node evaluate(String op, Node left, Node right, Node origin) {
+        if ((op.equals("==") || op.equals("!=")) && left instanceof Node.StringLit ls && right instanceof Node.StringLit rs) {
+            return bool(ls.value().equals(rs.value()) == op.equals("=="), origin);
+        }
+        Double a = number(left);
+        Double b = number(right);
+        if (a == null || b == null) return null;
+        return switch (op) {
+            case "+" -> numberLit(a + b, origin);
+            case "-" -> numberLit(a - b, origin);
+            case "*" -> numberLit(a * b, origin);
+            case "/" -> b == 0 ? null : numberLit(a / b, origin);
+            case "%" -> b == 0 ? null : numberLit(a % b, origin);
+            case "<" -> bool(a < b, origin);
+            case ">" -> bool(a > b, origin);
+            case "<=" -> bool(a <= b, origin);
+            case ">=" -> bool(a >= b, origin);
+            case "==" -> bool(a.doubleValue() == b.doubleValue(), origin);
+            case "!=" -> bool(a.doubleValue() != b.doubleValue(), origin);
+            case "&&" -> bool(a != 0 && b != 0, origin);
+            case "||" -> bool(a != 0 || b != 0, origin);
+            default -> null;
+        };
+    }
+
+    private Node foldTernary(Node.Ternary ternary) {
+        Node condition = fold(ternary.condition());
+        if (isLiteral(condition)) {
+            if (truthy(condition)) return fold(ternary.then());
+            if (ternary.otherwise() != null) return fold(ternary.otherwise());
+        }
+        return new Node.Ternary(condition, fold(ternary.then()), foldNullable(ternary.otherwise()),
+                ternary.start(), ternary.end());
+    }
+
+    private Node foldIf(Node.If node) {
+        Node condition = fold(node.condition());
+        if (isLiteral(condition)) {
+            if (truthy(condition)) return fold(node.then());
+            if (node.otherwise() != null) return fold(node.otherwise());
+        }
+        return new Node.If(condition, fold(node.then()), foldNullable(node.otherwise()), node.start(), node.end());
+    }
+
+    private List<Node> foldAll(List<Node> nodes) {
+        List<Node> result = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            result.add(fold(node));
+        }
+        return List.copyOf(result);
+    }
+
+    @Nullable
+    private Node foldNullable(@Nullable Node node) {
+        return node != null ? fold(node) : null;
+    }
+
+    public static boolean isLiteral(Node node) {
+        return node instanceof Node.NumberLit || node instanceof Node.StringLit || node instanceof Node.BoolLit;
+    }
+
+    @Nullable
+    private static Double number(Node node) {
+        return switch (node) {
+            case Node.NumberLit n -> n.value();
+            case Node.BoolLit b -> b.value() ? 1.0 : 0.0;
+            default -> null;
+        };
+    }
+
+    private static boolean truthy(Node literal) {
+        return switch (literal) {
+            case Node.NumberLit n -> n.value() != 0;
+            case Node.BoolLit b -> b.value();
+            case Node.StringLit s -> !s.value().isEmpty();
+            default -> false;
+        };
+    }
+
+    @Nullable
+    private static Node numberLit(double value, Node origin) {
+        return Double.isFinite(value) ? new Node.NumberLit(value, origin.start(), origin.end()) : null;
+    }
+
+    private static Node bool(boolean value, Node origin) {
+        return new Node.NumberLit(value ? 1 : 0, origin.start(), origin.end());
+    }
+}
@@ -0,0 +1,185 @@
+package aster.amo.molang.ide.fold;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public final class MoLangMath {
+    private static final Map<String, Function> FUNCTIONS = createFunctions();
+
+    private MoLangMath() {
+    }
+
+    public static boolean supports(String name, int argCount) {
+        Function function = FUNCTIONS.get(name);
+        return function != null && function.arity() == argCount;
+    }
+
+    @Nullable
+    public static Double apply(String name, double[] args) {
+        Function function = FUNCTIONS.get(name);
+        if (function == null || function.arity() != args.length) return null;
+        double result = function.body().apply(args);
+        return Double.isFinite(result) ? result : null;
+    }
+
+    public static double evaluate(String name, double[] args) {
+        Function function = FUNCTIONS.get(name);
+        if (function == null || function.arity() != args.length) {
+            throw new IllegalArgumentException("math." + name + "/" + args.length);
+        }
+        return function.body().apply(args);
+    }
+
+    @Nullable
+    public static String methodName(String name) {
+        Function function = FUNCTIONS.get(name);
+        return function != null ? function.method() : null;
+    }
+
+    public static double abs(double value) {
+        return Math.abs(value);
+    }
+
+    public static double acos(double value) {
+        return Math.toDegrees(Math.acos(value));
+    }
+
+    public static double asin(double value) {
+        return Math.toDegrees(Math.asin(value));
+    }
+
+    public static double atan(double value) {
+        return Math.toDegrees(Math.atan(value));
+    }
+
+    public static double atan2(double y, double x) {
+        return Math.toDegrees(Math.atan2(y, x));
+    }
+
+    public static double ceil(double value) {
+        return Math.ceil(value);
+    }
+
+    public static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    public static double copySign(double magnitude, double sign) {
+        return Math.copySign(magnitude, sign);
+    }
+
+    public static double cos(double degrees) {
+        return Math.cos(Math.toRadians(degrees));
+    }
+
+    public static double d2r(double degrees) {
+        return Math.toRadians(degrees);
+    }
+
+    public static double exp(double value) {
+        return Math.exp(value);
+    }
+
+    public static double floor(double value) {
+        return Math.floor(value);
+    }
+
+    public static double hermiteBlend(double value) {
+        return 3 * value * value - 2 * value * value * value;
+    }
+
+    public static double lerp(double start, double end, double amount) {
+        return start + (end - start) * Math.max(0, Math.min(1, amount));
+    }
+
+    public static double ln(double value) {
+        return Math.log(value);
+    }
+
+    public static double max(double a, double b) {
+        return Math.max(a, b);
+    }
+
+    public static double min(double a, double b) {
+        return Math.min(a, b);
+    }
+
+    public static double mod(double a, double b) {
+        return b == 0 ? Double.NaN : a % b;
+    }
+
+    public static double pi() {
+        return Math.PI;
+    }
+
+    public static double pow(double base, double exponent) {
+        return Math.pow(base, exponent);
+    }
+
+    public static double r2d(double radians) {
+        return Math.toDegrees(radians);
+    }
+
+    public static double round(double value) {
+        return Math.round(value);
+    }
+
+    public static double sign(double value) {
+        return Math.signum(value);
+    }
+
+    public static double sin(double degrees) {
+        return Math.sin(Math.toRadians(degrees));
+    }
+
+    public static double sqrt(double value) {
+        return Math.sqrt(value);
+    }
+
+    public static double trunc(double value) {
+        return (long) value;
+    }
+
+    private static Map<String, Function> createFunctions() {
+        Map<String, Function> functions = new HashMap<>();
+        define(functions, "abs", "abs", 1, a -> abs(a[0]));
+        define(functions, "acos", "acos", 1, a -> acos(a[0]));
+        define(functions, "asin", "asin", 1, a -> asin(a[0]));
+        define(functions, "atan", "atan", 1, a -> atan(a[0]));
+        define(functions, "atan2", "atan2", 2, a -> atan2(a[0], a[1]));
+        define(functions, "ceil", "ceil", 1, a -> ceil(a[0]));
+        define(functions, "clamp", "clamp", 3, a -> clamp(a[0], a[1], a[2]));
+        define(functions, "copy_sign", "copySign", 2, a -> copySign(a[0], a[1]));
+        define(functions, "cos", "cos", 1, a -> cos(a[0]));
+        define(functions, "d2r", "d2r", 1, a -> d2r(a[0]));
+        define(functions, "exp", "exp", 1, a -> exp(a[0]));
+        define(functions, "floor", "floor", 1, a -> floor(a[0]));
+        define(functions, "hermite_blend", "hermiteBlend", 1, a -> hermiteBlend(a[0]));
+        define(functions, "lerp", "lerp", 3, a -> lerp(a[0], a[1], a[2]));
+        define(functions, "ln", "ln", 1, a -> ln(a[0]));
+        define(functions, "max", "max", 2, a -> max(a[0], a[1]));
+        define(functions, "min", "min", 2, a -> min(a[0], a[1]));
+        define(functions, "mod", "mod", 2, a -> mod(a[0], a[1]));
+        define(functions, "pi", "pi", 0, a -> pi());
+        define(functions, "pow", "pow", 2, a -> pow(a[0], a[1]));
+        define(functions, "r2d", "r2d", 1, a -> r2d(a[0]));
+        define(functions, "round", "round", 1, a -> round(a[0]));
+        define(functions, "sign", "sign", 1, a -> sign(a[0]));
+        define(functions, "sin", "sin", 1, a -> sin(a[0]));
+        define(functions, "sqrt", "sqrt", 1, a -> sqrt(a[0]));
+        define(functions, "trunc", "trunc", 1, a -> trunc(a[0]));
+        return Map.copyOf(functions);
+    }
+
+    private static void define(Map<String, Function> functions, String name, String method, int arity, Body body) {
+        functions.put(name, new Function(method, arity, body));
+    }
+
+    private interface Body {
+        double apply(double[] args);
+    }
+
+    private record Function(String method, int arity, Body body) {}
+}
@@ -0,0 +1,254 @@
+package aster.amo.molang.ide.hoist;
+
+import aster.amo.molang.ide.ast.Node;
+import aster.amo.molang.ide.ast.Nodes;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public final class RepeatedQueryFinder {
+
+    @FunctionalInterface
+    public interface Purity {
+        boolean isPure(Node.Chain chain);
+    }
+
+    public record Group(String text, List<Node.Chain> occurrences, Node anchor) {}
+
+    private final CharSequence text;
+    private final Purity purity;
+    private final int minOccurrences;
+    private final List<Group> groups = new ArrayList<>();
+    private final Set<Node> claimed = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Node> scheduled = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Deque<Node.Block> scopes = new ArrayDeque<>();
+
+    private Map<String, Open> open = new LinkedHashMap<>();
+    private Node anchor;
+    private boolean barrierInStatement;
+
+    private RepeatedQueryFinder(CharSequence text, Purity purity, int minOccurrences) {
+        this.text = text;
+        this.purity = purity;
+        this.minOccurrences = minOccurrences;
+    }
+
+    public static List<Group> find(Node.Block root, CharSequence text, Purity purity, int minOccurrences) {
+        RepeatedQueryFinder finder = new RepeatedQueryFinder(text, purity, Math.max(2, minOccurrences));
+        finder.schedule(root);
+        while (!finder.scopes.isEmpty()) {
+            finder.processScope(finder.scopes.poll());
+        }
+        return finder.groups;
+    }
+
+    private void processScope(Node.Block scope) {
+        open = new LinkedHashMap<>();
+        for (Node statement : scope.statements()) {
+            anchor = statement;
+            barrierInStatement = false;
+            visit(statement, false);
+        }
+        closeAll();
+    }
+
+    private void visit(Node node, boolean conditional) {
+        switch (node) {
+            case Node.Chain chain -> visitChain(chain, conditional);
+            case Node.Lambda lambda -> scheduleBody(lambda.body());
+            case Node.FnDef def -> scheduleBody(def.body() instanceof Node.Lambda l ? l.body() : def.body());
+            case Node.Binary binary -> {
+                visit(binary.left(), conditional);
+                boolean shortCircuit = binary.op().equals("&&") || binary.op().equals("||") || binary.op().equals("??");
+                visit(binary.right(), conditional || shortCircuit);
+            }
+            case Node.Ternary ternary -> {
+                visit(ternary.condition(), conditional);
+                visitBranch(ternary.then());
+                if (ternary.otherwise() != null) visitBranch(ternary.otherwise());
+            }
+            case Node.If ifNode -> {
+                visit(ifNode.condition(), conditional);
+                visitBranch(ifNode.then());
+                if (ifNode.otherwise() != null) visitBranch(ifNode.otherwise());
+            }
+            case Node.Switch switchNode -> {
+                visit(switchNode.subject(), conditional);
+                for (Node.Case c : switchNode.cases()) {
+                    if (c.match() != null) visit(c.match(), true);
+                    visitBranch(c.body());
+                }
+            }
+            case Node.While loop -> visitLoop(loop, conditional, loop.condition(), loop.body());
+            case Node.For loop -> {
+                if (loop.init() != null) visit(loop.init(), conditional);
+                visitLoop(loop, conditional, loop.condition(), loop.body(), loop.step());
+            }
+            case Node.Call call when isLoopCall(call) -> {
+                Node body = call.args().get(call.args().size() - 1);
+                body = body instanceof Node.Lambda l ? l.body() : body;
+                for (int i = 0; i < call.args().size() - 1; i++) {
+                    visit(call.args().get(i), conditional);
+                }
+                visitLoop(call, conditional, null, body);
+            }
+            case Node.Assign assign -> {
+                visit(assign.value(), conditional);
+                visit(assign.target(), conditional);
+            }
+            default -> {
+                for (Node child : Nodes.children(node)) {
+                    visit(child, conditional);
+                }
+            }
+        }
+    }
+
+    private void visitChain(Node.Chain chain, boolean conditional) {
+        switch (chain.prefix()) {
+            case "q" -> {
+                if (isPureChain(chain)) {
+                    record(chain, conditional);
+                    return;
+                }
+                visitArgs(chain, conditional);
+                barrier();
+            }
+            case "f" -> {
+                visitArgs(chain, conditional);
+                barrier();
+            }
+            default -> visitArgs(chain, conditional);
+        }
+    }
+
+    private void visitArgs(Node.Chain chain, boolean conditional) {
+        for (Node.Segment segment : chain.segments()) {
+            for (Node arg : segment.args()) {
+                visit(arg, conditional);
+            }
+        }
+    }
+
+    private void visitBranch(Node branch) {
+        visit(branch, true);
+        scheduleBody(branch);
+    }
+
+    private void visitLoop(Node loop, boolean conditional, Node condition, Node body, Node... extra) {
+        if (containsBarrier(loop)) {
+            barrier();
+            scheduleBody(body);
+            return;
+        }
+        if (condition != null) visit(condition, conditional);
+        visit(body, true);
+        for (Node node : extra) {
+            if (node != null) visit(node, true);
+        }
+        scheduleBody(body);
+    }
+
+    private void record(Node.Chain chain, boolean conditional) {
+        if (claimed.contains(chain)) return;
+        String key = normalizedText(chain);
+        Open group = open.get(key);
+        if (group == null) {
+            if (conditional || barrierInStatement) return;
+            open.put(key, new Open(key, anchor, chain));
+            return;
+        }
+        group.occurrences.add(chain);
+    }
+
+    private void barrier() {
+        closeAll();
+        barrierInStatement = true;
+    }
+
+    private void closeAll() {
+        for (Open group : open.values()) {
+            if (group.occurrences.size() >= minOccurrences) {
+                groups.add(new Group(group.text, List.copyOf(group.occurrences), group.anchor));
+                claimed.addAll(group.occurrences);
+            }
+        }
+        open.clear();
+    }
+
+    private void schedule(Node.Block block) {
+        if (scheduled.add(block)) {
+            scopes.add(block);
+        }
+    }
+
+    private void scheduleBody(Node body) {
+        if (body instanceof Node.Block block) {
+            schedule(block);
+        }
+    }
+
+    private boolean isPureChain(Node.Chain chain) {
+        for (Node.Segment segment : chain.segments()) {
+            for (Node arg : segment.args()) {
+                if (!isPureArgument(arg)) return false;
+            }
+        }
+        return purity.isPure(chain);
+    }
+
+    private boolean isPureArgument(Node arg) {
+        return switch (arg) {
+            case Node.NumberLit n -> true;
+            case Node.StringLit s -> true;
+            case Node.BoolLit b -> true;
+            case Node.Unary u -> isPureArgument(u.operand());
+            case Node.Chain c -> c.prefix().equals("q") && isPureChain(c);
+            default -> false;
+        };
+    }
+
+    private boolean containsBarrier(Node node) {
+        boolean[] found = {false};
+        Nodes.walk(node, n -> {
+            if (found[0] || !(n instanceof Node.Chain chain)) return;
+            if (chain.prefix().equals("f") || (chain.prefix().equals("q") && !isPureChain(chain))) {
+                found[0] = true;
+            }
+        });
+        return found[0];
+    }
+
+    private static boolean isLoopCall(Node.Call call) {
+        return (call.callee().equals("loop") && call.args().size() >= 2)
+                || (call.callee().equals("for_each") && call.args().size() >= 3);
+    }
+
+    private String normalizedText(Node node) {
+        StringBuilder sb = new StringBuilder(node.end() - node.start());
+        for (int i = node.start(); i < node.end(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isWhitespace(c)) sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static final class Open {
+        final String text;
+        final Node anchor;
+        final List<Node.Chain> occurrences = new ArrayList<>();
+
+        Open(String text, Node anchor, Node.Chain first) {
+            this.text = text;
+            this.anchor = anchor;
+            occurrences.add(first);
+        }
+    }
+}
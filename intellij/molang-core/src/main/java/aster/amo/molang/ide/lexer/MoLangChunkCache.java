@@ -0,0 +1,126 @@
+package aster.amo.molang.ide.lexer;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps one computed value per balanced chunk of a script (see {@link MoLangChunks#boundaries(CharSequence, int, int,
+ * int, boolean)}). On {@link #update} only the chunks overlapping the text that changed since the previous call are
+ * computed again; the chunks before it are kept and the ones after it are shifted. An edit that opens a comment, a
+ * string or a parenthesis widens the recomputed range until the text lines up with an old boundary again.
+ */
+public final class MoLangChunkCache<T> {
+
+    @FunctionalInterface
+    public interface Computer<T> {
+        /** Computes the value of the chunk {@code [start, end)} of {@code text}. */
+        @NotNull
+        T compute(@NotNull CharSequence text, int start, int end);
+    }
+
+    public record Chunk<T>(int start, int end, @NotNull T value) {}
+
+    private final int chunkSize;
+    private final Computer<T> computer;
+
+    private CharSequence text;
+    private int[] ends = new int[0];
+    private Object[] values = new Object[0];
+    private int recomputed;
+
+    public MoLangChunkCache(int chunkSize, @NotNull Computer<T> computer) {
+        this.chunkSize = chunkSize;
+        this.computer = computer;
+    }
+
+    /**
+     * Brings the cache up to date with {@code text} and returns every chunk. If the computer throws, the cache is
+     * left as it was.
+     */
+    @NotNull
+    public synchronized List<Chunk<T>> update(@NotNull CharSequence text) {
+        if (this.text == null) {
+            int[] newEnds = MoLangChunks.boundaries(text, 0, text.length(), chunkSize, true);
+            commit(text, newEnds, compute(text, 0, newEnds), newEnds.length);
+            return chunks();
+        }
+
+        CharSequence old = this.text;
+        int oldLength = old.length();
+        int newLength = text.length();
+        int prefix = 0;
+        int max = Math.min(oldLength, newLength);
+        while (prefix < max && old.charAt(prefix) == text.charAt(prefix)) prefix++;
+        if (prefix == oldLength && prefix == newLength) {
+            recomputed = 0;
+            this.text = text;
+            return chunks();
+        }
+        int suffix = 0;
+        while (suffix < max - prefix && old.charAt(oldLength - 1 - suffix) == text.charAt(newLength - 1 - suffix)) suffix++;
+        int oldDirtyEnd = oldLength - suffix;
+        int delta = newLength - oldLength;
+
+        int count = ends.length;
+        int first = 0;
+        while (first < count - 1 && ends[first] <= prefix) first++;
+        int regionStart = first == 0 ? 0 : ends[first - 1];
+
+        int next = first + 1;
+        while (next < count && ends[next - 1] < oldDirtyEnd) next++;
+        while (next < count && !MoLangChunks.isBoundary(text, regionStart, ends[next - 1] + delta)) next++;
+        int regionEnd = next < count ? ends[next - 1] + delta : newLength;
+
+        int[] region = MoLangChunks.boundaries(text, regionStart, regionEnd, chunkSize, true);
+        Object[] regionValues = compute(text, regionStart, region);
+
+        int kept = count - next;
+        int[] newEnds = new int[first + region.length + kept];
+        Object[] newValues = new Object[newEnds.length];
+        System.arraycopy(ends, 0, newEnds, 0, first);
+        System.arraycopy(values, 0, newValues, 0, first);
+        System.arraycopy(region, 0, newEnds, first, region.length);
+        System.arraycopy(regionValues, 0, newValues, first, region.length);
+        for (int i = 0; i < kept; i++) {
+            newEnds[first + region.length + i] = ends[next + i] + delta;
+            newValues[first + region.length + i] = values[next + i];
+        }
+        commit(text, newEnds, newValues, region.length);
+        return chunks();
+    }
+
+    /** How many chunks the last {@link #update} computed. */
+    public synchronized int lastRecomputed() {
+        return recomputed;
+    }
+
+    private Object[] compute(CharSequence text, int start, int[] chunkEnds) {
+        Object[] result = new Object[chunkEnds.length];
+        int chunkStart = start;
+        for (int i = 0; i < chunkEnds.length; i++) {
+            result[i] = computer.compute(text, chunkStart, chunkEnds[i]);
+            chunkStart = chunkEnds[i];
+        }
+        return result;
+    }
+
+    private void commit(CharSequence text, int[] ends, Object[] values, int recomputed) {
+        this.text = text;
+        this.ends = ends;
+        this.values = values;
+        this.recomputed = recomputed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Chunk<T>> chunks() {
+        List<Chunk<T>> chunks = new ArrayList<>(ends.length);
+        int start = 0;
+        for (int i = 0; i < ends.length; i++) {
+            chunks.add(new Chunk<>(start, ends[i], (T) values[i]));
+            start = ends[i];
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,129 @@
+package aster.amo.molang.ide.lexer;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Splits large scripts into line-aligned chunks that can be lexed on their own. A chunk only ends after a newline
+ * that is outside a block comment and a string, so lexing each chunk separately gives the same tokens as lexing the
+ * whole text, except that whitespace around a boundary is split in two. Finding the boundaries only tracks comment
+ * and string state, which is much cheaper than lexing.
+ */
+public final class MoLangChunks {
+    private static final int CODE = 0;
+    private static final int LINE_COMMENT = 1;
+    private static final int BLOCK_COMMENT = 2;
+    private static final int STRING = 3;
+
+    private MoLangChunks() {
+    }
+
+    /** @return the end offset of each chunk of at least {@code targetSize} chars, the last one being {@code end} */
+    public static int @NotNull [] boundaries(@NotNull CharSequence text, int start, int end, int targetSize) {
+        return boundaries(text, start, end, targetSize, false);
+    }
+
+    /**
+     * Like {@link #boundaries(CharSequence, int, int, int)}, but with {@code balanced} a chunk also only ends outside
+     * parentheses, so the arguments of a call stay in one chunk.
+     */
+    public static int @NotNull [] boundaries(@NotNull CharSequence text, int start, int end, int targetSize, boolean balanced) {
+        Scan scan = new Scan(balanced, targetSize, Math.max(1, (end - start) / Math.max(1, targetSize) + 1));
+        scan.run(text, start, end);
+        if (scan.count == scan.ends.length) scan.ends = Arrays.copyOf(scan.ends, scan.count + 1);
+        scan.ends[scan.count++] = end;
+        return Arrays.copyOf(scan.ends, scan.count);
+    }
+
+    /**
+     * Whether a balanced chunk may end at {@code end} when one starts at {@code start}: the text in between ends with
+     * a newline in code, outside parentheses.
+     */
+    public static boolean isBoundary(@NotNull CharSequence text, int start, int end) {
+        if (end == start) return true;
+        if (text.charAt(end - 1) != '\n') return false;
+        Scan scan = new Scan(true, Integer.MAX_VALUE, 1);
+        scan.run(text, start, end);
+        return scan.state == CODE && scan.depth == 0;
+    }
+
+    private static final class Scan {
+        final boolean balanced;
+        final int targetSize;
+        int[] ends;
+        int count;
+        int state = CODE;
+        int depth;
+
+        Scan(boolean balanced, int targetSize, int capacity) {
+            this.balanced = balanced;
+            this.targetSize = targetSize;
+            this.ends = new int[capacity];
+        }
+
+        void run(CharSequence text, int start, int end) {
+            int chunkStart = start;
+            for (int i = start; i < end; i++) {
+                char c = text.charAt(i);
+                switch (state) {
+                    case CODE -> {
+                        if (c == '\'') {
+                            state = STRING;
+                        } else if (c == '/' && i + 1 < end && text.charAt(i + 1) == '/') {
+                            state = LINE_COMMENT;
+                            i++;
+                        } else if (c == '/' && i + 1 < end && text.charAt(i + 1) == '*') {
+                            state = BLOCK_COMMENT;
+                            i++;
+                        } else if (c == '(' && balanced) {
+                            depth++;
+                        } else if (c == ')' && balanced) {
+                            depth = Math.max(0, depth - 1);
+                        } else if (c == '\n' && depth == 0 && i + 1 - chunkStart >= targetSize && i + 1 < end) {
+                            if (count == ends.length) ends = Arrays.copyOf(ends, count * 2);
+                            ends[count++] = i + 1;
+                            chunkStart = i + 1;
+                        }
+                    }
+                    case LINE_COMMENT -> {
+                        if (c == '\n') {
+                            state = CODE;
+                            i--;
+                        }
+                    }
+                    case BLOCK_COMMENT -> {
+                        if (c == '*' && i + 1 < end && text.charAt(i + 1) == '/') {
+                            state = CODE;
+                            i++;
+                        }
+                    }
+                    default -> {
+                        if (c == '\\') {
+                            i++;
+                        } else if (c == '\'') {
+                            state = CODE;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether {@code text} can replace a chunk: unless it is the last chunk of the file, it must end with a newline
+     * outside any comment or string, so the next chunk still starts in code.
+     */
+    public static boolean isSelfContained(@NotNull CharSequence text, boolean last) {
+        if (text.isEmpty()) return false;
+        if (last) return true;
+        if (text.charAt(text.length() - 1) != '\n') return false;
+        MoLangScanner scanner = new MoLangScanner(text);
+        MoLangTokenKind type = null;
+        while (scanner.getTokenType() != null) {
+            type = scanner.getTokenType();
+            scanner.advance();
+        }
+        return type == MoLangTokenKind.WHITE_SPACE;
+    }
+}
@@ -0,0 +1,268 @@
+package aster.amo.molang.ide.lexer;
+
+import java.util.Set;
+
+public final class MoLangScanner {
+    private static final Set<String> KEYWORDS = Set.of(
+            "fn", "if", "else", "switch", "while", "struct", "import",
+            "return", "break", "continue", "for", "default"
+    );
+
+    private CharSequence buffer;
+    private int bufferEnd;
+    private int tokenStart;
+    private int tokenEnd;
+    private MoLangTokenKind tokenType;
+
+    public MoLangScanner(CharSequence buffer) {
+        reset(buffer, 0, buffer.length());
+    }
+
+    public MoLangScanner() {
+    }
+
+    public void reset(CharSequence buffer, int startOffset, int endOffset) {
+        this.buffer = buffer;
+        this.bufferEnd = endOffset;
+        this.tokenStart = startOffset;
+        this.tokenEnd = startOffset;
+        this.tokenType = null;
+        advance();
+    }
+
+    public MoLangTokenKind getTokenType() {
+        return tokenType;
+    }
+
+    public int getTokenStart() {
+        return tokenStart;
+    }
+
+    public int getTokenEnd() {
+        return tokenEnd;
+    }
+
+    public CharSequence getBuffer() {
+        return buffer;
+    }
+
+    public int getBufferEnd() {
+        return bufferEnd;
+    }
+
+    public void advance() {
+        tokenStart = tokenEnd;
+        if (tokenStart >= bufferEnd) {
+            tokenType = null;
+            return;
+        }
+
+        char c = buffer.charAt(tokenStart);
+
+        if (Character.isWhitespace(c)) {
+            tokenEnd = tokenStart + 1;
+            while (tokenEnd < bufferEnd && Character.isWhitespace(buffer.charAt(tokenEnd))) {
+                tokenEnd++;
+            }
+            tokenType = MoLangTokenKind.WHITE_SPACE;
+            return;
+        }
+
+        if (c == '/' && tokenStart + 1 < bufferEnd) {
+            char next = buffer.charAt(tokenStart + 1);
+            if (next == '/') {
+                tokenEnd = tokenStart + 2;
+                while (tokenEnd < bufferEnd && buffer.charAt(tokenEnd) != '\n') {
+                    tokenEnd++;
+                }
+                tokenType = MoLangTokenKind.LINE_COMMENT;
+                return;
+            }
+            if (next == '*') {
+                tokenEnd = tokenStart + 2;
+                while (tokenEnd + 1 < bufferEnd) {
+                    if (buffer.charAt(tokenEnd) == '*' && buffer.charAt(tokenEnd + 1) == '/') {
+                        tokenEnd += 2;
+                        tokenType = MoLangTokenKind.BLOCK_COMMENT;
+                        return;
+                    }
+                    tokenEnd++;
+                }
+                tokenEnd = bufferEnd;
+                tokenType = MoLangTokenKind.BLOCK_COMMENT;
+                return;
+            }
+        }
+
+        if (c == '\'') {
+            tokenEnd = tokenStart + 1;
+            while (tokenEnd < bufferEnd) {
+                char sc = buffer.charAt(tokenEnd);
+                if (sc == '\\' && tokenEnd + 1 < bufferEnd) {
+                    tokenEnd += 2;
+                    continue;
+                }
+                if (sc == '\'') {
+                    tokenEnd++;
+                    break;
+                }
+                tokenEnd++;
+            }
+            tokenType = MoLangTokenKind.STRING;
+            return;
+        }
+
+        if (Character.isDigit(c) || (c == '.' && tokenStart + 1 < bufferEnd && Character.isDigit(buffer.charAt(tokenStart + 1)))) {
+            tokenEnd = tokenStart;
+            if (c == '.') {
+                tokenEnd++;
+            } else {
+                while (tokenEnd < bufferEnd && Character.isDigit(buffer.charAt(tokenEnd))) {
+                    tokenEnd++;
+                }
+                if (tokenEnd < bufferEnd && buffer.charAt(tokenEnd) == '.') {
+                    tokenEnd++;
+                }
+            }
+            while (tokenEnd < bufferEnd && Character.isDigit(buffer.charAt(tokenEnd))) {
+                tokenEnd++;
+            }
+            tokenType = MoLangTokenKind.NUMBER;
+            return;
+        }
+
+        if (Character.isLetter(c) || c == '_') {
+            tokenEnd = tokenStart + 1;
+            while (tokenEnd < bufferEnd && isIdentChar(buffer.charAt(tokenEnd))) {
+                tokenEnd++;
+            }
+            String word = buffer.subSequence(tokenStart, tokenEnd).toString();
+
+            boolean followedByDot = tokenEnd < bufferEnd && buffer.charAt(tokenEnd) == '.';
+
+            if (followedByDot) {
+                MoLangTokenKind prefixType = getPrefixType(word);
+                if (prefixType != null) {
+                    tokenType = prefixType;
+                    return;
+                }
+            }
+
+            if (word.equals("true") || word.equals("false")) {
+                tokenType = MoLangTokenKind.BOOLEAN;
+                return;
+            }
+
+            if (KEYWORDS.contains(word)) {
+                tokenType = MoLangTokenKind.KEYWORD;
+                return;
+            }
+
+            tokenType = MoLangTokenKind.IDENTIFIER;
+            return;
+        }
+
+        if (tokenStart + 1 < bufferEnd) {
+            char next = buffer.charAt(tokenStart + 1);
+            String two = "" + c + next;
+            switch (two) {
+                case "->":
+                    tokenEnd = tokenStart + 2;
+                    tokenType = MoLangTokenKind.ARROW;
+                    return;
+                case "+=":
+                case "-=":
+                case "*=":
+                case "/=":
+                case "==":
+                case "!=":
+                case ">=":
+                case "<=":
+                case "&&":
+                case "||":
+                case "??":
+                    tokenEnd = tokenStart + 2;
+                    tokenType = MoLangTokenKind.COMPOUND_OP;
+                    return;
+            }
+        }
+
+        switch (c) {
+            case '.':
+                tokenEnd = tokenStart + 1;
+                tokenType = MoLangTokenKind.DOT;
+                return;
+            case '(':
+                tokenEnd = tokenStart + 1;
+                tokenType = MoLangTokenKind.LPAREN;
+                return;
+            case ')':
+                tokenEnd = tokenStart + 1;
+                tokenType = MoLangTokenKind.RPAREN;
+                return;
+            case '{':
+                tokenEnd = tokenStart + 1;
+                tokenType = MoLangTokenKind.LBRACE;
+                return;
+            case '}':
+                tokenEnd = tokenStart + 1;
+                tokenType = MoLangTokenKind.RBRACE;
+                return;
+            case '[':
+                tokenEnd = tokenStart + 1;
+                tokenType = MoLangTokenKind.LBRACKET;
+                return;
+            case ']':
+                tokenEnd = tokenStart + 1;
+                tokenType = MoLangTokenKind.RBRACKET;
+                return;
+            case ';':
+                tokenEnd = tokenStart + 1;
+                tokenType = MoLangTokenKind.SEMICOLON;
+                return;
+            case ',':
+                tokenEnd = tokenStart + 1;
+                tokenType = MoLangTokenKind.COMMA;
+                return;
+            case '?':
+                tokenEnd = tokenStart + 1;
+                tokenType = MoLangTokenKind.QUESTION;
+                return;
+            case ':':
+                tokenEnd = tokenStart + 1;
+                tokenType = MoLangTokenKind.COLON;
+                return;
+            case '+':
+            case '-':
+            case '*':
+            case '/':
+            case '=':
+            case '!':
+            case '<':
+            case '>':
+            case '%':
+                tokenEnd = tokenStart + 1;
+                tokenType = MoLangTokenKind.OPERATOR;
+                return;
+        }
+
+        tokenEnd = tokenStart + 1;
+        tokenType = MoLangTokenKind.BAD_CHARACTER;
+    }
+
+    private static boolean isIdentChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static MoLangTokenKind getPrefixType(String word) {
+        return switch (word) {
+            case "q", "query" -> MoLangTokenKind.PREFIX_Q;
+            case "v", "variable" -> MoLangTokenKind.PREFIX_V;
+            case "t", "temp" -> MoLangTokenKind.PREFIX_T;
+            case "f", "function" -> MoLangTokenKind.PREFIX_F;
+            case "c", "context" -> MoLangTokenKind.PREFIX_C;
+            case "math" -> MoLangTokenKind.PREFIX_MATH;
+            default -> null;
+        };
+    }
+}
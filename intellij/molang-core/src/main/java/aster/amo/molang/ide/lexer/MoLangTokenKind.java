@@ -0,0 +1,51 @@
+package aster.amo.molang.ide.lexer;
+
+public enum MoLangTokenKind {
+    LINE_COMMENT,
+    BLOCK_COMMENT,
+
+    NUMBER,
+    STRING,
+    BOOLEAN,
+
+    KEYWORD,
+
+    IDENTIFIER,
+
+    PREFIX_Q,
+    PREFIX_V,
+    PREFIX_T,
+    PREFIX_F,
+    PREFIX_C,
+    PREFIX_MATH,
+
+    DOT,
+    LPAREN,
+    RPAREN,
+    LBRACE,
+    RBRACE,
+    LBRACKET,
+    RBRACKET,
+    SEMICOLON,
+    COMMA,
+    QUESTION,
+    COLON,
+
+    OPERATOR,
+    COMPOUND_OP,
+    ARROW,
+
+    WHITE_SPACE,
+    BAD_CHARACTER;
+
+    public boolean isTrivia() {
+        return this == WHITE_SPACE || this == LINE_COMMENT || this == BLOCK_COMMENT;
+    }
+
+    public boolean isPrefix() {
+        return switch (this) {
+            case PREFIX_Q, PREFIX_V, PREFIX_T, PREFIX_F, PREFIX_C, PREFIX_MATH -> true;
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,298 @@
+package aster.amo.molang.ide.lint;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+public final class BatchLinter {
+    public static final String EXTENSION = ".molang";
+    private static final int QUEUED_FILES_PER_THREAD = 4;
+
+    private final Supplier<MoLangFileLinter> linterFactory;
+    private final int parallelism;
+    private volatile MoLangFileLinter linter;
+
+    public BatchLinter(@NotNull MoLangFileLinter linter, int parallelism) {
+        this(() -> linter, parallelism);
+    }
+
+    public BatchLinter(@NotNull Supplier<MoLangFileLinter> linterFactory, int parallelism) {
+        this.linterFactory = linterFactory;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    @NotNull
+    public Result lint(@NotNull Path root) throws IOException {
+        return lint(root, LintCache.empty("", root));
+    }
+
+    @NotNull
+    public Result lint(@NotNull Path root, @NotNull LintCache cache) throws IOException {
+        long start = System.nanoTime();
+        Path base = baseDirectory(root);
+        List<ScriptFile> scripts = new ArrayList<>();
+        listScripts(base, base, scripts);
+
+        Map<String, LintCache.Entry> entries = new ConcurrentHashMap<>(scripts.size() * 4 / 3 + 1);
+        Set<String> analyzed = ConcurrentHashMap.newKeySet();
+        Set<String> restamped = ConcurrentHashMap.newKeySet();
+        checkAll(scripts, cache, entries, analyzed, restamped);
+
+        Set<String> appeared = new HashSet<>();
+        for (String path : entries.keySet()) {
+            if (cache.get(path) == null) appeared.add(path);
+        }
+        Set<String> removed = new HashSet<>();
+        for (String path : cache.paths()) {
+            if (!entries.containsKey(path)) removed.add(path);
+        }
+        int crossChecked = crossCheck(entries, analyzed, appeared, removed);
+
+        cache.replace(entries, !analyzed.isEmpty() || !restamped.isEmpty() || !removed.isEmpty() || crossChecked > 0);
+        return result(base, entries, analyzed.size(), System.nanoTime() - start);
+    }
+
+    @NotNull
+    public Result update(@NotNull Path root, @NotNull LintCache cache, @NotNull Collection<Path> changed) throws IOException {
+        long start = System.nanoTime();
+        Path base = baseDirectory(root);
+        Map<String, LintCache.Entry> entries = new ConcurrentHashMap<>(cache.entries());
+        List<ScriptFile> scripts = new ArrayList<>();
+        Set<String> removed = new HashSet<>();
+
+        for (Path path : changed) {
+            Path file = path.toAbsolutePath().normalize();
+            if (!file.startsWith(base) || file.equals(base)) continue;
+            String relative = relativePath(base, file);
+            BasicFileAttributes attributes = null;
+            try {
+                attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (IOException e) {
+                // deleted or unreadable; handled as removed below
+            }
+            if (attributes != null && attributes.isDirectory()) {
+                listScripts(base, file, scripts);
+            } else if (attributes != null && attributes.isRegularFile() && relative.endsWith(EXTENSION)) {
+                scripts.add(new ScriptFile(relative, file, attributes.size(), attributes.lastModifiedTime().toMillis()));
+            } else if (attributes == null) {
+                String prefix = relative + "/";
+                entries.keySet().removeIf(p -> {
+                    boolean gone = p.equals(relative) || p.startsWith(prefix);
+                    if (gone) removed.add(p);
+                    return gone;
+                });
+            }
+        }
+
+        Set<String> analyzed = ConcurrentHashMap.newKeySet();
+        Set<String> restamped = ConcurrentHashMap.newKeySet();
+        checkAll(scripts, cache, entries, analyzed, restamped);
+
+        Set<String> appeared = new HashSet<>();
+        for (ScriptFile script : scripts) {
+            if (cache.get(script.path()) == null) appeared.add(script.path());
+        }
+        int crossChecked = crossCheck(entries, analyzed, appeared, removed);
+
+        cache.replace(entries, !analyzed.isEmpty() || !restamped.isEmpty() || !removed.isEmpty() || crossChecked > 0);
+        return result(base, entries, analyzed.size(), System.nanoTime() - start);
+    }
+
+    private void checkAll(List<ScriptFile> scripts, LintCache cache, Map<String, LintCache.Entry> entries,
+                          Set<String> analyzed, Set<String> restamped) {
+        Semaphore queued = new Semaphore(parallelism * QUEUED_FILES_PER_THREAD);
+        try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+            for (ScriptFile script : scripts) {
+                LintCache.Entry cached = cache.get(script.path());
+                if (cached != null && cached.size() == script.size() && cached.modified() == script.modified()) {
+                    entries.put(script.path(), cached);
+                    continue;
+                }
+                queued.acquireUninterruptibly();
+                pool.execute(() -> {
+                    try {
+                        LintCache.Entry entry = check(script, cached);
+                        entries.put(script.path(), entry);
+                        if (cached != null && entry.summary() == cached.summary()) restamped.add(script.path());
+                        else analyzed.add(script.path());
+                    } finally {
+                        queued.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private int crossCheck(Map<String, LintCache.Entry> entries, Set<String> analyzed, Set<String> appeared, Set<String> removed) {
+        Set<String> changed = new HashSet<>(appeared);
+        changed.addAll(removed);
+        int checked = 0;
+        for (Map.Entry<String, LintCache.Entry> e : entries.entrySet()) {
+            String path = e.getKey();
+            LintCache.Entry entry = e.getValue();
+            if (!analyzed.contains(path) && !importsAny(path, entry.summary(), changed)) continue;
+            List<LintDiagnostic> cross = new ArrayList<>(0);
+            for (FileSummary.ImportRef ref : entry.summary().imports()) {
+                String target = importTarget(path, ref.path());
+                if (target != null && !entries.containsKey(target)) cross.add(ref.unresolved());
+            }
+            if (!cross.equals(entry.crossDiagnostics())) {
+                e.setValue(entry.withCrossDiagnostics(List.copyOf(cross)));
+                checked++;
+            }
+        }
+        return checked;
+    }
+
+    private static boolean importsAny(String path, FileSummary summary, Set<String> targets) {
+        if (targets.isEmpty()) return false;
+        for (FileSummary.ImportRef ref : summary.imports()) {
+            String target = importTarget(path, ref.path());
+            if (target != null && targets.contains(target)) return true;
+        }
+        return false;
+    }
+
+    private LintCache.Entry check(ScriptFile script, @Nullable LintCache.Entry cached) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(script.file());
+        } catch (IOException e) {
+            return failed(script, MoLangFileLinter.RULE_UNREADABLE, "Cannot read file: " + e.getMessage());
+        }
+        byte[] hash = sha256(bytes);
+        if (cached != null && Arrays.equals(hash, cached.hash())) {
+            return new LintCache.Entry(script.size(), script.modified(), hash, cached.summary(), cached.crossDiagnostics());
+        }
+
+        String text;
+        try {
+            text = StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(bytes)).toString();
+        } catch (CharacterCodingException e) {
+            return failed(script, MoLangFileLinter.RULE_UNREADABLE, "Cannot read file: not valid UTF-8");
+        }
+        try {
+            return new LintCache.Entry(script.size(), script.modified(), hash, linter().analyze(text, script.file().toString()), List.of());
+        } catch (RuntimeException e) {
+            return failed(script, MoLangFileLinter.RULE_INTERNAL, "Linter failed: " + e);
+        }
+    }
+
+    private static LintCache.Entry failed(ScriptFile script, String rule, String message) {
+        FileSummary summary = new FileSummary(List.of(), List.of(), List.of(),
+                List.of(MoLangFileLinter.fileDiagnostic(rule, message)));
+        return new LintCache.Entry(script.size(), script.modified(), new byte[0], summary, List.of());
+    }
+
+    private MoLangFileLinter linter() {
+        MoLangFileLinter result = linter;
+        if (result == null) {
+            synchronized (this) {
+                result = linter;
+                if (result == null) {
+                    result = linterFactory.get();
+                    linter = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Result result(Path base, Map<String, LintCache.Entry> entries, int analyzed, long elapsedNanos) {
+        List<FileResult> files = new ArrayList<>();
+        for (Map.Entry<String, LintCache.Entry> entry : entries.entrySet()) {
+            List<LintDiagnostic> diagnostics = entry.getValue().diagnostics();
+            if (!diagnostics.isEmpty()) files.add(new FileResult(entry.getKey(), diagnostics));
+        }
+        files.sort(Comparator.comparing(FileResult::path));
+        return new Result(base, entries.size(), analyzed, files, elapsedNanos);
+    }
+
+    private static void listScripts(Path base, Path directory, List<ScriptFile> scripts) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile() && file.getFileName().toString().endsWith(EXTENSION)) {
+                    scripts.add(new ScriptFile(relativePath(base, file), file, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    @Nullable
+    public static String importTarget(@NotNull String importer, @NotNull String importPath) {
+        int colon = importPath.indexOf(':');
+        if (colon < 0) return null;
+        int data = importer.lastIndexOf("/data/");
+        String prefix;
+        if (data >= 0) prefix = importer.substring(0, data + "/data/".length());
+        else if (importer.startsWith("data/")) prefix = "data/";
+        else return null;
+        return prefix + importPath.substring(0, colon) + "/molang/" + importPath.substring(colon + 1) + EXTENSION;
+    }
+
+    @NotNull
+    public static Path baseDirectory(@NotNull Path root) {
+        Path absolute = root.toAbsolutePath().normalize();
+        Path name = absolute.getFileName();
+        return name != null && name.toString().equals("data") && absolute.getParent() != null ? absolute.getParent() : absolute;
+    }
+
+    @NotNull
+    public static String relativePath(@NotNull Path root, @NotNull Path file) {
+        return root.relativize(file.toAbsolutePath().normalize()).toString().replace('\\', '/');
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record ScriptFile(String path, Path file, long size, long modified) {}
+
+    public record FileResult(@NotNull String path, @NotNull List<LintDiagnostic> diagnostics) {}
+
+    public record Result(@NotNull Path root, int fileCount, int analyzedCount, @NotNull List<FileResult> files, long elapsedNanos) {
+        public int count(@NotNull LintDiagnostic.Severity severity) {
+            int count = 0;
+            for (FileResult file : files) {
+                for (LintDiagnostic diagnostic : file.diagnostics()) {
+                    if (diagnostic.severity() == severity) count++;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package aster.amo.molang.ide.lint;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+public record FileSummary(
+        @NotNull List<String> definitions,
+        @NotNull List<ImportRef> imports,
+        @NotNull List<String> chains,
+        @NotNull List<LintDiagnostic> diagnostics
+) {
+
+    public record ImportRef(@NotNull String path, @NotNull LintDiagnostic unresolved) {}
+}
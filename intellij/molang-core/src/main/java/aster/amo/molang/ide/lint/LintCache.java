@@ -0,0 +1,209 @@
+package aster.amo.molang.ide.lint;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public final class LintCache {
+    private static final int MAGIC = 0x4D4C4E54;
+    private static final int FORMAT = 1;
+
+    private final String schemaVersion;
+    private final String root;
+    private Map<String, Entry> entries;
+    private boolean dirty;
+
+    private LintCache(String schemaVersion, String root, Map<String, Entry> entries) {
+        this.schemaVersion = schemaVersion;
+        this.root = root;
+        this.entries = entries;
+    }
+
+    @NotNull
+    public static LintCache empty(@NotNull String schemaVersion, @NotNull Path root) {
+        return new LintCache(schemaVersion, rootKey(root), new HashMap<>());
+    }
+
+    @NotNull
+    public static LintCache load(@NotNull Path file, @NotNull String schemaVersion, @NotNull Path root) {
+        String rootKey = rootKey(root);
+        if (!Files.isRegularFile(file)) return empty(schemaVersion, root);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT) return empty(schemaVersion, root);
+            if (!in.readUTF().equals(schemaVersion) || !in.readUTF().equals(rootKey)) return empty(schemaVersion, root);
+            int count = in.readInt();
+            Map<String, Entry> entries = new HashMap<>(count * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                String path = in.readUTF();
+                entries.put(path, readEntry(in));
+            }
+            return new LintCache(schemaVersion, rootKey, entries);
+        } catch (IOException | RuntimeException e) {
+            return empty(schemaVersion, root);
+        }
+    }
+
+    public void save(@NotNull Path file) throws IOException {
+        if (!dirty) return;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeUTF(schemaVersion);
+            out.writeUTF(root);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                out.writeUTF(entry.getKey());
+                writeEntry(out, entry.getValue());
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        dirty = false;
+    }
+
+    @Nullable
+    public Entry get(@NotNull String path) {
+        return entries.get(path);
+    }
+
+    @NotNull
+    public Set<String> paths() {
+        return entries.keySet();
+    }
+
+    @NotNull
+    public Map<String, Entry> entries() {
+        return Collections.unmodifiableMap(entries);
+    }
+
+    public void replace(@NotNull Map<String, Entry> entries, boolean changed) {
+        this.entries = new HashMap<>(entries);
+        if (changed) dirty = true;
+    }
+
+    private static String rootKey(Path root) {
+        return root.toAbsolutePath().normalize().toString();
+    }
+
+    private static Entry readEntry(DataInputStream in) throws IOException {
+        long size = in.readLong();
+        long modified = in.readLong();
+        byte[] hash = new byte[in.readUnsignedByte()];
+        in.readFully(hash);
+        List<String> definitions = readStrings(in);
+        int importCount = in.readInt();
+        List<FileSummary.ImportRef> imports = new ArrayList<>(importCount);
+        for (int i = 0; i < importCount; i++) {
+            imports.add(new FileSummary.ImportRef(in.readUTF(), readDiagnostic(in)));
+        }
+        List<String> chains = readStrings(in);
+        List<LintDiagnostic> diagnostics = readDiagnostics(in);
+        List<LintDiagnostic> crossDiagnostics = readDiagnostics(in);
+        return new Entry(size, modified, hash, new FileSummary(definitions, List.copyOf(imports), chains, diagnostics), crossDiagnostics);
+    }
+
+    private static void writeEntry(DataOutputStream out, Entry entry) throws IOException {
+        out.writeLong(entry.size());
+        out.writeLong(entry.modified());
+        out.writeByte(entry.hash().length);
+        out.write(entry.hash());
+        FileSummary summary = entry.summary();
+        writeStrings(out, summary.definitions());
+        out.writeInt(summary.imports().size());
+        for (FileSummary.ImportRef ref : summary.imports()) {
+            out.writeUTF(ref.path());
+            writeDiagnostic(out, ref.unresolved());
+        }
+        writeStrings(out, summary.chains());
+        writeDiagnostics(out, summary.diagnostics());
+        writeDiagnostics(out, entry.crossDiagnostics());
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readUTF();
+        }
+        return List.of(values);
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static List<LintDiagnostic> readDiagnostics(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        LintDiagnostic[] diagnostics = new LintDiagnostic[count];
+        for (int i = 0; i < count; i++) {
+            diagnostics[i] = readDiagnostic(in);
+        }
+        return List.of(diagnostics);
+    }
+
+    private static void writeDiagnostics(DataOutputStream out, List<LintDiagnostic> diagnostics) throws IOException {
+        out.writeInt(diagnostics.size());
+        for (LintDiagnostic diagnostic : diagnostics) {
+            writeDiagnostic(out, diagnostic);
+        }
+    }
+
+    private static LintDiagnostic readDiagnostic(DataInputStream in) throws IOException {
+        return new LintDiagnostic(in.readUTF(), LintDiagnostic.Severity.values()[in.readUnsignedByte()], in.readUTF(),
+                in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+    }
+
+    private static void writeDiagnostic(DataOutputStream out, LintDiagnostic diagnostic) throws IOException {
+        out.writeUTF(diagnostic.rule());
+        out.writeByte(diagnostic.severity().ordinal());
+        out.writeUTF(diagnostic.message());
+        out.writeInt(diagnostic.start());
+        out.writeInt(diagnostic.end());
+        out.writeInt(diagnostic.line());
+        out.writeInt(diagnostic.column());
+        out.writeInt(diagnostic.endLine());
+        out.writeInt(diagnostic.endColumn());
+    }
+
+    public record Entry(
+            long size,
+            long modified,
+            byte @NotNull [] hash,
+            @NotNull FileSummary summary,
+            @NotNull List<LintDiagnostic> crossDiagnostics
+    ) {
+        @NotNull
+        public Entry withCrossDiagnostics(@NotNull List<LintDiagnostic> diagnostics) {
+            return new Entry(size, modified, hash, summary, diagnostics);
+        }
+
+        @NotNull
+        public List<LintDiagnostic> diagnostics() {
+            if (crossDiagnostics.isEmpty()) return summary.diagnostics();
+            List<LintDiagnostic> all = new ArrayList<>(summary.diagnostics().size() + crossDiagnostics.size());
+            all.addAll(summary.diagnostics());
+            all.addAll(crossDiagnostics);
+            all.sort(MoLangFileLinter.ORDER);
+            return all;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package aster.amo.molang.ide.lint;
+
+import org.jetbrains.annotations.NotNull;
+
+public record LintDiagnostic(
+        @NotNull String rule,
+        @NotNull Severity severity,
+        @NotNull String message,
+        int start,
+        int end,
+        int line,
+        int column,
+        int endLine,
+        int endColumn
+) {
+
+    public enum Severity {
+        ERROR,
+        WARNING;
+
+        public String id() {
+            return name().toLowerCase();
+        }
+    }
+}
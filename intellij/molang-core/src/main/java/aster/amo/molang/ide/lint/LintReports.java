@@ -0,0 +1,188 @@
+package aster.amo.molang.ide.lint;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+public final class LintReports {
+    public static final String TOOL_NAME = "molang-lint";
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    private static final Map<String, String> RULE_DESCRIPTIONS = createRuleDescriptions();
+
+    private LintReports() {
+    }
+
+    public static void writeText(@NotNull BatchLinter.Result result, @NotNull Appendable out) throws IOException {
+        for (BatchLinter.FileResult file : result.files()) {
+            for (LintDiagnostic d : file.diagnostics()) {
+                out.append(text(file.path(), d)).append('\n');
+            }
+        }
+    }
+
+    public static int writeDiff(@NotNull BatchLinter.Result previous, @NotNull BatchLinter.Result current,
+                                @NotNull Appendable out) throws IOException {
+        Map<String, List<LintDiagnostic>> before = byPath(previous);
+        Map<String, List<LintDiagnostic>> after = byPath(current);
+        Set<String> paths = new TreeSet<>(before.keySet());
+        paths.addAll(after.keySet());
+
+        int changes = 0;
+        for (String path : paths) {
+            List<LintDiagnostic> old = before.getOrDefault(path, List.of());
+            List<LintDiagnostic> now = after.getOrDefault(path, List.of());
+            if (old.equals(now)) continue;
+            List<LintDiagnostic> added = new ArrayList<>(now);
+            List<LintDiagnostic> fixed = new ArrayList<>();
+            for (LintDiagnostic d : old) {
+                if (!added.remove(d)) fixed.add(d);
+            }
+            for (LintDiagnostic d : fixed) {
+                out.append("- ").append(text(path, d)).append('\n');
+                changes++;
+            }
+            for (LintDiagnostic d : added) {
+                out.append("+ ").append(text(path, d)).append('\n');
+                changes++;
+            }
+        }
+        return changes;
+    }
+
+    @NotNull
+    public static String text(@NotNull String path, @NotNull LintDiagnostic d) {
+        return path + ':' + d.line() + ':' + d.column() + ": " + d.severity().id() + ": " + d.message() + " [" + d.rule() + "]";
+    }
+
+    private static Map<String, List<LintDiagnostic>> byPath(BatchLinter.Result result) {
+        Map<String, List<LintDiagnostic>> files = new HashMap<>();
+        for (BatchLinter.FileResult file : result.files()) {
+            files.put(file.path(), file.diagnostics());
+        }
+        return files;
+    }
+
+    public static void writeJson(@NotNull BatchLinter.Result result, @NotNull Appendable out) throws IOException {
+        JsonObject report = new JsonObject();
+        report.addProperty("root", result.root().toAbsolutePath().toString());
+        report.addProperty("files", result.fileCount());
+        report.addProperty("analyzed", result.analyzedCount());
+        report.addProperty("errors", result.count(LintDiagnostic.Severity.ERROR));
+        report.addProperty("warnings", result.count(LintDiagnostic.Severity.WARNING));
+        report.addProperty("elapsedMillis", result.elapsedNanos() / 1_000_000);
+
+        JsonArray diagnostics = new JsonArray();
+        for (BatchLinter.FileResult file : result.files()) {
+            for (LintDiagnostic d : file.diagnostics()) {
+                JsonObject entry = new JsonObject();
+                entry.addProperty("file", file.path());
+                entry.addProperty("line", d.line());
+                entry.addProperty("column", d.column());
+                entry.addProperty("endLine", d.endLine());
+                entry.addProperty("endColumn", d.endColumn());
+                entry.addProperty("severity", d.severity().id());
+                entry.addProperty("rule", d.rule());
+                entry.addProperty("message", d.message());
+                diagnostics.add(entry);
+            }
+        }
+        report.add("diagnostics", diagnostics);
+        GSON.toJson(report, out);
+        out.append('\n');
+    }
+
+    public static void writeSarif(@NotNull BatchLinter.Result result, @NotNull Appendable out) throws IOException {
+        JsonObject driver = new JsonObject();
+        driver.addProperty("name", TOOL_NAME);
+        JsonArray rules = new JsonArray();
+        for (Map.Entry<String, String> rule : RULE_DESCRIPTIONS.entrySet()) {
+            JsonObject entry = new JsonObject();
+            entry.addProperty("id", rule.getKey());
+            entry.add("shortDescription", text(rule.getValue()));
+            rules.add(entry);
+        }
+        driver.add("rules", rules);
+        JsonObject tool = new JsonObject();
+        tool.add("driver", driver);
+
+        JsonArray results = new JsonArray();
+        for (BatchLinter.FileResult file : result.files()) {
+            for (LintDiagnostic d : file.diagnostics()) {
+                JsonObject artifact = new JsonObject();
+                artifact.addProperty("uri", file.path());
+                artifact.addProperty("uriBaseId", "SRCROOT");
+
+                JsonObject region = new JsonObject();
+                region.addProperty("startLine", d.line());
+                region.addProperty("startColumn", d.column());
+                region.addProperty("endLine", d.endLine());
+                region.addProperty("endColumn", d.endColumn());
+
+                JsonObject physical = new JsonObject();
+                physical.add("artifactLocation", artifact);
+                physical.add("region", region);
+                JsonObject location = new JsonObject();
+                location.add("physicalLocation", physical);
+                JsonArray locations = new JsonArray();
+                locations.add(location);
+
+                JsonObject entry = new JsonObject();
+                entry.addProperty("ruleId", d.rule());
+                entry.addProperty("level", d.severity() == LintDiagnostic.Severity.ERROR ? "error" : "warning");
+                entry.add("message", text(d.message()));
+                entry.add("locations", locations);
+                results.add(entry);
+            }
+        }
+
+        JsonObject srcRoot = new JsonObject();
+        String rootUri = result.root().toAbsolutePath().toUri().toString();
+        srcRoot.addProperty("uri", rootUri.endsWith("/") ? rootUri : rootUri + "/");
+        JsonObject baseIds = new JsonObject();
+        baseIds.add("SRCROOT", srcRoot);
+
+        JsonObject run = new JsonObject();
+        run.add("tool", tool);
+        run.add("originalUriBaseIds", baseIds);
+        run.add("results", results);
+        JsonArray runs = new JsonArray();
+        runs.add(run);
+
+        JsonObject sarif = new JsonObject();
+        sarif.addProperty("$schema", "https://json.schemastore.org/sarif-2.1.0.json");
+        sarif.addProperty("version", "2.1.0");
+        sarif.add("runs", runs);
+        GSON.toJson(sarif, out);
+        out.append('\n');
+    }
+
+    private static JsonObject text(String value) {
+        JsonObject message = new JsonObject();
+        message.addProperty("text", value);
+        return message;
+    }
+
+    private static Map<String, String> createRuleDescriptions() {
+        Map<String, String> rules = new LinkedHashMap<>();
+        rules.put(MoLangFileLinter.RULE_SYNTAX, "MoLang syntax error");
+        rules.put(MoLangFileLinter.RULE_UNKNOWN_MEMBER, "Query or math member not defined in the schema");
+        rules.put(MoLangFileLinter.RULE_WRONG_RUNTIME, "Query variable not available in the script's runtime");
+        rules.put(MoLangFileLinter.RULE_WRONG_ARITY, "Call with the wrong number of arguments");
+        rules.put(MoLangFileLinter.RULE_UNRESOLVED_IMPORT, "Imported script does not exist in the datapack");
+        rules.put(MoLangFileLinter.RULE_UNREADABLE, "Script file could not be read");
+        rules.put(MoLangFileLinter.RULE_INTERNAL, "The linter failed on this file");
+        return rules;
+    }
+}
@@ -0,0 +1,115 @@
+package aster.amo.molang.ide.lint;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+public final class LintWatcher {
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 300;
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final BatchLinter linter;
+    private final Path root;
+    private final LintCache cache;
+    private final @Nullable Path cachePath;
+    private final long debounceMillis;
+    private final PrintStream out;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+
+    public LintWatcher(@NotNull BatchLinter linter, @NotNull Path root, @NotNull LintCache cache, @Nullable Path cachePath,
+                       long debounceMillis, @NotNull PrintStream out) {
+        this.linter = linter;
+        this.root = root;
+        this.cache = cache;
+        this.cachePath = cachePath;
+        this.debounceMillis = debounceMillis;
+        this.out = out;
+    }
+
+    public void watch(@NotNull BatchLinter.Result initial) throws IOException, InterruptedException {
+        Path base = BatchLinter.baseDirectory(root);
+        try (WatchService service = base.getFileSystem().newWatchService()) {
+            register(service, base);
+            out.println("Watching " + base + " (" + initial.fileCount() + " scripts)");
+            out.flush();
+
+            BatchLinter.Result previous = initial;
+            while (true) {
+                WatchKey key = service.take();
+                Set<Path> changed = new LinkedHashSet<>();
+                boolean overflow = false;
+                while (key != null) {
+                    overflow |= drain(service, key, changed);
+                    key = service.poll(debounceMillis, TimeUnit.MILLISECONDS);
+                }
+                if (changed.isEmpty() && !overflow) continue;
+
+                BatchLinter.Result current = overflow ? linter.lint(root, cache) : linter.update(root, cache, changed);
+                if (cachePath != null) cache.save(cachePath);
+
+                int changes = LintReports.writeDiff(previous, current, out);
+                out.printf("[%s] %d changed, %d analyzed in %d ms: %d diagnostic change(s), %d errors, %d warnings%n",
+                        LocalTime.now().format(TIME), overflow ? current.fileCount() : changed.size(), current.analyzedCount(),
+                        current.elapsedNanos() / 1_000_000, changes,
+                        current.count(LintDiagnostic.Severity.ERROR), current.count(LintDiagnostic.Severity.WARNING));
+                out.flush();
+                previous = current;
+            }
+        }
+    }
+
+    private boolean drain(WatchService service, WatchKey key, Set<Path> changed) throws IOException {
+        Path directory = directories.get(key);
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            if (directory == null) continue;
+            Path child = directory.resolve((Path) event.context());
+            changed.add(child);
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                register(service, child);
+            }
+        }
+        if (!key.reset()) directories.remove(key);
+        return overflow;
+    }
+
+    private void register(WatchService service, Path start) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                WatchKey key = dir.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                directories.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,135 @@
+package aster.amo.molang.ide.lint;
+
+import aster.amo.molang.ide.analysis.AccessChain;
+import aster.amo.molang.ide.analysis.ChainChecker;
+import aster.amo.molang.ide.analysis.ChainProblem;
+import aster.amo.molang.ide.analysis.MoLangChainExtractor;
+import aster.amo.molang.ide.ast.MoLangParser;
+import aster.amo.molang.ide.ast.Node;
+import aster.amo.molang.ide.ast.Nodes;
+import aster.amo.molang.ide.ast.ParseError;
+import aster.amo.molang.ide.ast.ParseResult;
+import aster.amo.molang.ide.lexer.MoLangTokenKind;
+import aster.amo.molang.ide.schema.MoLangSchema;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public final class MoLangFileLinter {
+    public static final String RULE_SYNTAX = "syntax";
+    public static final String RULE_UNKNOWN_MEMBER = "unknown-member";
+    public static final String RULE_WRONG_RUNTIME = "wrong-runtime";
+    public static final String RULE_WRONG_ARITY = "wrong-arity";
+    public static final String RULE_UNREADABLE = "unreadable";
+    public static final String RULE_INTERNAL = "internal-error";
+    public static final String RULE_UNRESOLVED_IMPORT = "unresolved-import";
+
+    public static final Comparator<LintDiagnostic> ORDER =
+            Comparator.comparingInt(LintDiagnostic::start).thenComparingInt(LintDiagnostic::end);
+
+    private static final Set<MoLangTokenKind> SUMMARISED_PREFIXES =
+            EnumSet.of(MoLangTokenKind.PREFIX_Q, MoLangTokenKind.PREFIX_MATH, MoLangTokenKind.PREFIX_F);
+
+    private final MoLangSchema schema;
+    private final ChainChecker checker;
+
+    public MoLangFileLinter(@NotNull MoLangSchema schema) {
+        this.schema = schema;
+        this.checker = new ChainChecker(schema);
+    }
+
+    @NotNull
+    public List<LintDiagnostic> lint(@NotNull CharSequence text, @Nullable String path) {
+        return analyze(text, path).diagnostics();
+    }
+
+    @NotNull
+    public FileSummary analyze(@NotNull CharSequence text, @Nullable String path) {
+        LineIndex lines = new LineIndex(text);
+        List<LintDiagnostic> diagnostics = new ArrayList<>();
+
+        ParseResult parsed = MoLangParser.parse(text);
+        for (ParseError error : parsed.errors()) {
+            diagnostics.add(lines.diagnostic(RULE_SYNTAX, LintDiagnostic.Severity.ERROR, error.message(), error.start(), error.end()));
+        }
+
+        Set<String> definitions = new LinkedHashSet<>();
+        List<FileSummary.ImportRef> imports = new ArrayList<>();
+        Nodes.walk(parsed.root(), node -> {
+            if (node instanceof Node.FnDef def) {
+                definitions.add(def.name());
+            } else if (node instanceof Node.Import imp) {
+                imports.add(new FileSummary.ImportRef(imp.path(), lines.diagnostic(RULE_UNRESOLVED_IMPORT,
+                        LintDiagnostic.Severity.ERROR, "Cannot resolve import '" + imp.path() + "'", imp.start(), imp.end())));
+            }
+        });
+
+        Set<String> chains = new LinkedHashSet<>();
+        String runtimeName = schema.inferRuntime(text, path);
+        for (AccessChain chain : MoLangChainExtractor.extract(text, SUMMARISED_PREFIXES)) {
+            chains.add(chain.signature());
+            for (ChainProblem problem : checker.validate(runtimeName, chain)) {
+                AccessChain.Segment segment = chain.segments().get(problem.segment());
+                diagnostics.add(lines.diagnostic(rule(problem.kind()), LintDiagnostic.Severity.WARNING, problem.message(),
+                        segment.start(), segment.end()));
+            }
+        }
+
+        diagnostics.sort(ORDER);
+        return new FileSummary(List.copyOf(definitions), List.copyOf(imports), List.copyOf(chains), List.copyOf(diagnostics));
+    }
+
+    @NotNull
+    public static LintDiagnostic fileDiagnostic(@NotNull String rule, @NotNull String message) {
+        return new LintDiagnostic(rule, LintDiagnostic.Severity.ERROR, message, 0, 0, 1, 1, 1, 1);
+    }
+
+    private static String rule(ChainProblem.Kind kind) {
+        return switch (kind) {
+            case UNKNOWN_MEMBER -> RULE_UNKNOWN_MEMBER;
+            case WRONG_RUNTIME -> RULE_WRONG_RUNTIME;
+            case WRONG_ARITY -> RULE_WRONG_ARITY;
+        };
+    }
+
+    private static final class LineIndex {
+        private final int[] starts;
+        private final int count;
+        private final int length;
+
+        LineIndex(CharSequence text) {
+            int[] starts = new int[64];
+            int count = 1;
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) == '\n') {
+                    if (count == starts.length) starts = Arrays.copyOf(starts, count * 2);
+                    starts[count++] = i + 1;
+                }
+            }
+            this.starts = starts;
+            this.count = count;
+            this.length = text.length();
+        }
+
+        LintDiagnostic diagnostic(String rule, LintDiagnostic.Severity severity, String message, int start, int end) {
+            start = Math.max(0, Math.min(start, length));
+            end = Math.max(start, Math.min(end, length));
+            int line = line(start);
+            int endLine = line(end);
+            return new LintDiagnostic(rule, severity, message, start, end,
+                    line + 1, start - starts[line] + 1, endLine + 1, end - starts[endLine] + 1);
+        }
+
+        private int line(int offset) {
+            int index = Arrays.binarySearch(starts, 0, count, offset);
+            return index >= 0 ? index : -index - 2;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package aster.amo.molang.ide.lint;
+
+import aster.amo.molang.ide.schema.MoLangSchema;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+public final class MoLangLint {
+    public static final String DEFAULT_CACHE = ".molang-lint-cache";
+
+    private static final String USAGE = """
+            Usage: MoLangLint <directory> [options]
+              --format <name>       json, sarif or text (default: json)
+              --output <file>       write the report to a file instead of stdout
+              --schema <file>       schema JSON (default: bundled molang-schema.json)
+              --threads <n>         worker threads (default: available processors)
+              --fail-on <level>     error, warning or none (default: warning)
+              --cache <file>        cache of per-file results (default: %s)
+              --no-cache            check every file and do not write a cache
+              --watch               keep running and re-check files as they change
+              --debounce <ms>       quiet period before a re-check in watch mode (default: %d)
+            Exit codes: 0 clean, 1 diagnostics at or above --fail-on, 2 usage or I/O error.
+            """.formatted(DEFAULT_CACHE, LintWatcher.DEFAULT_DEBOUNCE_MILLIS);
+
+    private MoLangLint() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path root = null;
+        String format = "json";
+        Path output = null;
+        Path schemaPath = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String failOn = "warning";
+        Path cachePath = Path.of(DEFAULT_CACHE);
+        boolean watch = false;
+        long debounce = LintWatcher.DEFAULT_DEBOUNCE_MILLIS;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--") && !arg.equals("--no-cache") && !arg.equals("--watch") && i + 1 >= args.length) usage("Missing value for " + arg);
+            switch (arg) {
+                case "--format" -> format = args[++i];
+                case "--output" -> output = Path.of(args[++i]);
+                case "--schema" -> schemaPath = Path.of(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--fail-on" -> failOn = args[++i];
+                case "--cache" -> cachePath = Path.of(args[++i]);
+                case "--no-cache" -> cachePath = null;
+                case "--watch" -> watch = true;
+                case "--debounce" -> debounce = Long.parseLong(args[++i]);
+                default -> {
+                    if (arg.startsWith("--") || root != null) usage("Unexpected argument " + arg);
+                    root = Path.of(arg);
+                }
+            }
+        }
+        if (root == null) usage("Missing directory");
+        if (!Files.isDirectory(root)) usage("Not a directory: " + root);
+        if (!format.equals("json") && !format.equals("sarif") && !format.equals("text")) usage("Unknown format " + format);
+        if (!failOn.equals("error") && !failOn.equals("warning") && !failOn.equals("none")) usage("Unknown level " + failOn);
+
+        byte[] schemaBytes = schemaPath != null ? Files.readAllBytes(schemaPath) : readBundledSchema();
+        Supplier<MoLangFileLinter> linter = () -> new MoLangFileLinter(
+                MoLangSchema.load(new InputStreamReader(new ByteArrayInputStream(schemaBytes), StandardCharsets.UTF_8)));
+        LintCache cache = cachePath != null
+                ? LintCache.load(cachePath, fingerprint(schemaBytes), root)
+                : LintCache.empty(fingerprint(schemaBytes), root);
+
+        BatchLinter batch = new BatchLinter(linter, threads);
+        BatchLinter.Result result;
+        try {
+            result = batch.lint(root, cache);
+            if (cachePath != null) cache.save(cachePath);
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Failed to scan " + root + ": " + e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        Writer writer = output != null
+                ? Files.newBufferedWriter(output, StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        try {
+            switch (format) {
+                case "sarif" -> LintReports.writeSarif(result, writer);
+                case "text" -> LintReports.writeText(result, writer);
+                default -> LintReports.writeJson(result, writer);
+            }
+        } finally {
+            if (output != null) writer.close();
+            else writer.flush();
+        }
+
+        int errors = result.count(LintDiagnostic.Severity.ERROR);
+        int warnings = result.count(LintDiagnostic.Severity.WARNING);
+        System.err.printf("%d files checked (%d analyzed) in %d ms: %d errors, %d warnings%n",
+                result.fileCount(), result.analyzedCount(), result.elapsedNanos() / 1_000_000, errors, warnings);
+
+        if (watch) {
+            try {
+                new LintWatcher(batch, root, cache, cachePath, debounce, System.out).watch(result);
+            } catch (IOException | UncheckedIOException e) {
+                System.err.println("Failed to watch " + root + ": " + e.getMessage());
+                System.exit(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
+
+        boolean failed = switch (failOn) {
+            case "error" -> errors > 0;
+            case "warning" -> errors + warnings > 0;
+            default -> false;
+        };
+        System.exit(failed ? 1 : 0);
+    }
+
+    private static byte[] readBundledSchema() throws IOException {
+        try (InputStream is = MoLangSchema.class.getResourceAsStream(MoLangSchema.BUNDLED_RESOURCE)) {
+            if (is == null) throw new IOException("molang-schema.json not found in resources");
+            return is.readAllBytes();
+        }
+    }
+
+    private static String fingerprint(byte[] schema) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(schema));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.print(USAGE);
+        System.exit(2);
+    }
+}
@@ -0,0 +1,29 @@
+package aster.amo.molang.ide.runtime;
+
+import org.jetbrains.annotations.Nullable;
+
+public final class CompiledMoLangScript {
+    private final ScriptState state;
+
+    CompiledMoLangScript(MockRuntime runtime, CompiledScript code) {
+        this.state = new ScriptState(runtime, code);
+    }
+
+    @Nullable
+    public MoValue run() {
+        state.reset();
+        try {
+            return state.script.run(state);
+        } catch (StackOverflowError e) {
+            throw new MoLangRuntimeException("Stack overflow", 0);
+        }
+    }
+
+    public MoStruct temps() {
+        return state.temps;
+    }
+
+    public MoStruct variables() {
+        return state.variables;
+    }
+}
@@ -0,0 +1,13 @@
+package aster.amo.molang.ide.runtime;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+interface CompiledScript {
+    @Nullable
+    MoValue run(ScriptState state);
+
+    @Nullable
+    MoValue invoke(int id, ScriptState state, List<MoValue> args);
+}
@@ -0,0 +1,40 @@
+package aster.amo.molang.ide.runtime;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@FunctionalInterface
+public interface ImportResolver {
+    ImportResolver NONE = path -> null;
+
+    @Nullable
+    CharSequence resolve(String importPath);
+
+    static ImportResolver forScript(Path script) {
+        Path dataDir = null;
+        for (Path dir = script.toAbsolutePath().getParent(); dir != null; dir = dir.getParent()) {
+            if (dir.getFileName() != null && dir.getFileName().toString().equals("data")) {
+                dataDir = dir;
+                break;
+            }
+        }
+        if (dataDir == null) return NONE;
+        Path root = dataDir;
+        return importPath -> {
+            int colon = importPath.indexOf(':');
+            if (colon < 0) return null;
+            Path file = root.resolve(importPath.substring(0, colon))
+                    .resolve("molang")
+                    .resolve(importPath.substring(colon + 1) + ".molang");
+            try {
+                return Files.isRegularFile(file) ? Files.readString(file, StandardCharsets.UTF_8) : null;
+            } catch (IOException e) {
+                return null;
+            }
+        };
+    }
+}
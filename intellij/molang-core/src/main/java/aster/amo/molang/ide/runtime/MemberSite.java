@@ -0,0 +1,49 @@
+package aster.amo.molang.ide.runtime;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+final class MemberSite {
+    private final String name;
+    private final boolean call;
+    private final String path;
+    private final int offset;
+    private @Nullable MoStruct cachedStruct;
+    private @Nullable MoValue cachedMember;
+
+    MemberSite(String name, boolean call, String path, int offset) {
+        this.name = name;
+        this.call = call;
+        this.path = path;
+        this.offset = offset;
+    }
+
+    @Nullable
+    MoValue access(@Nullable MoValue target, List<MoValue> args) {
+        if (!(target instanceof MoStruct struct)) {
+            throw new MoLangRuntimeException("Cannot read '" + name + "' of " + MoValue.describe(target), offset);
+        }
+        MoValue member;
+        if (struct == cachedStruct) {
+            member = cachedMember;
+        } else {
+            member = struct.get(name);
+            cachedStruct = struct;
+            cachedMember = member;
+        }
+        if (member instanceof MoValue.Fn fn && (call || fn.property())) {
+            member = fn.function().call(args);
+        } else if (call) {
+            throw new MoLangRuntimeException("'" + name + "' is not a function", offset);
+        }
+        return present(member, path, offset);
+    }
+
+    static MoValue present(@Nullable MoValue value, String path, int offset) {
+        if (value == null) {
+            throw new MoLangRuntimeException("'" + path + "' is not available in the mock runtime", offset);
+        }
+        return value;
+    }
+}
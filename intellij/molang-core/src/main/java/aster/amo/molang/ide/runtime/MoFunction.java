@@ -0,0 +1,11 @@
+package aster.amo.molang.ide.runtime;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface MoFunction {
+    @Nullable
+    MoValue call(List<MoValue> args);
+}
@@ -0,0 +1,141 @@
+package aster.amo.molang.ide.runtime;
+
+import aster.amo.molang.ide.ast.Node;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+public final class MoLangBenchmark {
+    public static final int DEFAULT_WARMUP = 2_000;
+    public static final int DEFAULT_ITERATIONS = 10_000;
+    public static final int PROFILED_RUNS = 1_000;
+    private static final int REPORTED_HOT_SPOTS = 15;
+
+    private MoLangBenchmark() {
+    }
+
+    public static Result run(Node.Block script, MockRuntime runtime, ImportResolver imports, int warmup, int iterations) {
+        return run(script, runtime, imports, Engine.INTERPRETER, warmup, iterations);
+    }
+
+    public static Result run(Node.Block script, MockRuntime runtime, ImportResolver imports, Engine engine, int warmup, int iterations) {
+        String engineName = "interpreter";
+        Supplier<MoValue> evaluator;
+        long firstStart = System.nanoTime();
+        if (engine == Engine.COMPILED) {
+            try {
+                CompiledMoLangScript compiled = MoLangCompiler.compile(script, runtime, imports);
+                evaluator = compiled::run;
+                engineName = "compiled";
+            } catch (MoLangCompiler.UnsupportedScriptException e) {
+                MoLangInterpreter interpreter = new MoLangInterpreter(runtime, imports, null);
+                evaluator = () -> interpreter.run(script);
+                engineName = "interpreter (not compiled: " + e.getMessage() + ")";
+            }
+        } else {
+            MoLangInterpreter interpreter = new MoLangInterpreter(runtime, imports, null);
+            evaluator = () -> interpreter.run(script);
+        }
+
+        MoValue value = evaluator.get();
+        long firstRun = System.nanoTime() - firstStart;
+
+        for (int i = 0; i < warmup; i++) {
+            evaluator.get();
+        }
+
+        long[] runs = new long[Math.max(1, iterations)];
+        long total = 0;
+        for (int i = 0; i < runs.length; i++) {
+            long start = System.nanoTime();
+            evaluator.get();
+            runs[i] = System.nanoTime() - start;
+            total += runs[i];
+        }
+        Arrays.sort(runs);
+
+        int profiledRuns = Math.min(PROFILED_RUNS, runs.length);
+        MoLangInterpreter profiledWarmup = new MoLangInterpreter(runtime, imports, new Profiler());
+        for (int i = 0; i < Math.min(warmup, PROFILED_RUNS); i++) {
+            profiledWarmup.run(script);
+        }
+        Profiler profiler = new Profiler();
+        MoLangInterpreter profiled = new MoLangInterpreter(runtime, imports, profiler);
+        for (int i = 0; i < profiledRuns; i++) {
+            profiled.run(script);
+        }
+
+        return new Result(runtime.getRuntimeName(), engineName, runs.length, firstRun, runs[0], percentile(runs, 0.5),
+                percentile(runs, 0.99), runs[runs.length - 1], (double) total / runs.length, value,
+                profiledRuns, profiler.hotSpots(), profiler.queryCalls());
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    public enum Engine {
+        INTERPRETER,
+        COMPILED
+    }
+
+    public record Result(
+            @Nullable String runtimeName,
+            String engine,
+            int iterations,
+            long firstRunNanos,
+            long minNanos,
+            long medianNanos,
+            long p99Nanos,
+            long maxNanos,
+            double nsPerOp,
+            @Nullable MoValue value,
+            int profiledRuns,
+            List<Profiler.HotSpot> hotSpots,
+            Map<String, Long> queryCalls
+    ) {
+        public String format() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Runtime:      ").append(runtimeName != null ? runtimeName : "(all runtimes)").append('\n');
+            sb.append("Engine:       ").append(engine).append('\n');
+            sb.append("Result:       ").append(MoValue.describe(value)).append('\n');
+            sb.append("First run:    ").append(formatNanos(firstRunNanos)).append('\n');
+            sb.append("Iterations:   ").append(iterations).append('\n');
+            sb.append("ns/op:        ").append(String.format("%.1f", nsPerOp)).append('\n');
+            sb.append("Per run:      min ").append(formatNanos(minNanos))
+                    .append(", p50 ").append(formatNanos(medianNanos))
+                    .append(", p99 ").append(formatNanos(p99Nanos))
+                    .append(", max ").append(formatNanos(maxNanos)).append('\n');
+
+            if (!hotSpots.isEmpty()) {
+                sb.append("\nHot spots (").append(profiledRuns).append(" profiled interpreter runs, by self time):\n");
+                for (Profiler.HotSpot hotSpot : hotSpots.subList(0, Math.min(REPORTED_HOT_SPOTS, hotSpots.size()))) {
+                    sb.append(String.format("  %-32s %9d calls  self %10s  total %10s%n", hotSpot.name(), hotSpot.calls(),
+                            formatNanos(hotSpot.selfNanos() / Math.max(1, profiledRuns)) + "/run",
+                            formatNanos(hotSpot.totalNanos() / Math.max(1, profiledRuns)) + "/run"));
+                }
+            }
+
+            if (!queryCalls.isEmpty()) {
+                List<Map.Entry<String, Long>> queries = new ArrayList<>(queryCalls.entrySet());
+                queries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+                sb.append("\nQuery calls per interpreter run:\n");
+                for (Map.Entry<String, Long> entry : queries.subList(0, Math.min(REPORTED_HOT_SPOTS, queries.size()))) {
+                    sb.append(String.format("  %-40s %.2f%n", entry.getKey(),
+                            (double) entry.getValue() / Math.max(1, profiledRuns)));
+                }
+            }
+            return sb.toString();
+        }
+
+        private static String formatNanos(long nanos) {
+            if (nanos < 10_000) return nanos + " ns";
+            if (nanos < 10_000_000) return (nanos / 1_000) + " us";
+            return (nanos / 1_000_000) + " ms";
+        }
+    }
+}
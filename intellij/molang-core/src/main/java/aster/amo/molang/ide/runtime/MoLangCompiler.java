@@ -0,0 +1,1053 @@
+package aster.amo.molang.ide.runtime;
+
+import aster.amo.molang.ide.ast.MoLangParser;
+import aster.amo.molang.ide.ast.Node;
+import aster.amo.molang.ide.ast.ParseResult;
+import aster.amo.molang.ide.fold.MoLangMath;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodTooLargeException;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.objectweb.asm.Opcodes.*;
+
+public final class MoLangCompiler {
+    private static final String CLASS_NAME = "aster/amo/molang/ide/runtime/CompiledMoLang";
+
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final String MO_VALUE = Type.getInternalName(MoValue.class);
+    private static final String MO_STRUCT = Type.getInternalName(MoStruct.class);
+    private static final String MO_FUNCTION = Type.getInternalName(MoFunction.class);
+    private static final String OPS = Type.getInternalName(MoLangOps.class);
+    private static final String STATE = Type.getInternalName(ScriptState.class);
+    private static final String SITE = Type.getInternalName(MemberSite.class);
+    private static final String MATH = Type.getInternalName(MoLangMath.class);
+    private static final String LIST = Type.getInternalName(List.class);
+
+    private static final String MO_VALUE_D = Type.getDescriptor(MoValue.class);
+    private static final String MO_STRUCT_D = Type.getDescriptor(MoStruct.class);
+    private static final String STATE_D = Type.getDescriptor(ScriptState.class);
+    private static final String LIST_D = Type.getDescriptor(List.class);
+    private static final String STRING_D = Type.getDescriptor(String.class);
+    private static final String RANDOM_D = Type.getDescriptor(Random.class);
+    private static final String NUM_D = Type.getDescriptor(MoValue.Num.class);
+    private static final String FN_D = Type.getDescriptor(MoValue.Fn.class);
+
+    private static final String MAIN_DESC = "(" + STATE_D + ")" + MO_VALUE_D;
+    private static final String FUNCTION_DESC = "(" + STATE_D + LIST_D + ")" + MO_VALUE_D;
+
+    private final MockRuntime runtime;
+    private final ImportResolver imports;
+    private final ClassWriter writer;
+
+    private final List<Object> constants = new ArrayList<>();
+    private final List<String> constantDescriptors = new ArrayList<>();
+    private final Map<Object, Integer> literalConstants = new HashMap<>();
+    private final ArrayDeque<PendingMethod> pending = new ArrayDeque<>();
+    private final List<String> functionMethods = new ArrayList<>();
+    private final Map<String, Integer> importIds = new HashMap<>();
+
+    private final Map<String, String> importFailures = new HashMap<>();
+
+    private MethodVisitor mv;
+    private boolean inFunction;
+    private Map<String, Integer> params = Map.of();
+    private int nextLocal;
+    private int depth;
+    private final ArrayDeque<Loop> loops = new ArrayDeque<>();
+
+    private MoLangCompiler(MockRuntime runtime, ImportResolver imports) {
+        this.runtime = runtime;
+        this.imports = imports;
+        this.writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+            @Override
+            protected ClassLoader getClassLoader() {
+                return MoLangCompiler.class.getClassLoader();
+            }
+        };
+    }
+
+    public static CompiledMoLangScript compile(Node.Block script, MockRuntime runtime, ImportResolver imports) {
+        MoLangCompiler compiler = new MoLangCompiler(runtime, imports);
+        byte[] bytes;
+        try {
+            bytes = compiler.generate(script);
+        } catch (MethodTooLargeException e) {
+            throw new UnsupportedScriptException("Script is too large to compile into a single method", script.start());
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup()
+                    .defineHiddenClassWithClassData(bytes, compiler.constants.toArray(), true);
+            CompiledScript code = (CompiledScript) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class)).invoke();
+            return new CompiledMoLangScript(runtime, code);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to define compiled MoLang class", e);
+        }
+    }
+
+    private byte[] generate(Node.Block script) {
+        writer.visit(V21, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, CLASS_NAME, null, OBJECT,
+                new String[]{Type.getInternalName(CompiledScript.class)});
+
+        beginMethod(ACC_PRIVATE | ACC_STATIC, "main", MAIN_DESC, List.of(), 1);
+        body(script);
+        endMethod();
+
+        while (!pending.isEmpty()) {
+            PendingMethod method = pending.poll();
+            beginMethod(ACC_PRIVATE | ACC_STATIC, method.name, method.descriptor, method.params, method.descriptor.equals(MAIN_DESC) ? 1 : 2);
+            if (method.descriptor.equals(FUNCTION_DESC)) {
+                for (int i = 0; i < method.params.size(); i++) {
+                    mv.visitVarInsn(ALOAD, 1);
+                    push(i);
+                    mv.visitMethodInsn(INVOKESTATIC, OPS, "arg", "(" + LIST_D + "I)" + MO_VALUE_D, false);
+                    mv.visitVarInsn(ASTORE, 2 + i);
+                }
+            }
+            if (method.body instanceof Node.Block block) {
+                body(block);
+            } else {
+                expr(method.body);
+                mv.visitInsn(ARETURN);
+            }
+            endMethod();
+        }
+
+        generateConstructor();
+        generateRun();
+        generateInvoke();
+        generateConstants();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private void body(Node.Block block) {
+        List<Node> statements = block.statements();
+        if (statements.isEmpty()) {
+            mv.visitInsn(ACONST_NULL);
+        } else {
+            for (int i = 0; i < statements.size() - 1; i++) {
+                stmt(statements.get(i));
+            }
+            expr(statements.get(statements.size() - 1));
+        }
+        mv.visitInsn(ARETURN);
+    }
+
+    private void beginMethod(int access, String name, String descriptor, List<String> parameters, int firstLocal) {
+        mv = writer.visitMethod(access, name, descriptor, null, null);
+        mv.visitCode();
+        inFunction = descriptor.equals(FUNCTION_DESC);
+        params = new HashMap<>();
+        for (int i = 0; i < parameters.size(); i++) {
+            params.put(parameters.get(i), firstLocal + i);
+        }
+        nextLocal = firstLocal + parameters.size();
+        depth = 0;
+        loops.clear();
+    }
+
+    private void endMethod() {
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private void stmt(Node node) {
+        switch (node) {
+            case Node.Block b -> {
+                for (Node statement : b.statements()) {
+                    stmt(statement);
+                }
+            }
+            case Node.If i -> {
+                Label otherwise = new Label();
+                Label end = new Label();
+                condition(i.condition(), otherwise, false);
+                stmt(i.then());
+                if (i.otherwise() != null) {
+                    mv.visitJumpInsn(GOTO, end);
+                    mv.visitLabel(otherwise);
+                    stmt(i.otherwise());
+                    mv.visitLabel(end);
+                } else {
+                    mv.visitLabel(otherwise);
+                }
+            }
+            case Node.Ternary t -> {
+                Label otherwise = new Label();
+                Label end = new Label();
+                condition(t.condition(), otherwise, false);
+                stmt(t.then());
+                if (t.otherwise() != null) {
+                    mv.visitJumpInsn(GOTO, end);
+                    mv.visitLabel(otherwise);
+                    stmt(t.otherwise());
+                    mv.visitLabel(end);
+                } else {
+                    mv.visitLabel(otherwise);
+                }
+            }
+            case Node.While w -> {
+                Label check = new Label();
+                Label end = new Label();
+                int counter = newLocal();
+                push(0);
+                mv.visitVarInsn(ISTORE, counter);
+                mv.visitLabel(check);
+                condition(w.condition(), end, false);
+                countIteration(counter, w);
+                loopBody(w.body(), end, check);
+                mv.visitJumpInsn(GOTO, check);
+                mv.visitLabel(end);
+            }
+            case Node.For f -> {
+                Label check = new Label();
+                Label step = new Label();
+                Label end = new Label();
+                if (f.init() != null) stmt(f.init());
+                int counter = newLocal();
+                push(0);
+                mv.visitVarInsn(ISTORE, counter);
+                mv.visitLabel(check);
+                if (f.condition() != null) condition(f.condition(), end, false);
+                countIteration(counter, f);
+                loopBody(f.body(), end, step);
+                mv.visitLabel(step);
+                if (f.step() != null) stmt(f.step());
+                mv.visitJumpInsn(GOTO, check);
+                mv.visitLabel(end);
+            }
+            case Node.Switch s -> switchCases(s, false);
+            case Node.Call c when c.callee().equals("loop") && c.args().size() == 2 -> loop(c);
+            case Node.Call c when c.callee().equals("for_each") && c.args().size() == 3 -> forEach(c);
+            case Node.Assign a -> assign(a, false);
+            case Node.FnDef f -> {
+                int id = function(f.body() instanceof Node.Lambda l ? l.params() : List.of(),
+                        f.body() instanceof Node.Lambda l ? l.body() : f.body());
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitLdcInsn(f.name());
+                push(id);
+                push(f.body().start());
+                mv.visitMethodInsn(INVOKEVIRTUAL, STATE, "define", "(" + STRING_D + "II)V", false);
+            }
+            case Node.Import i -> importScript(i);
+            case Node.Break b -> jump(true, b);
+            case Node.Continue c -> jump(false, c);
+            case Node.Return r -> {
+                if (r.value() != null) expr(r.value());
+                else mv.visitInsn(ACONST_NULL);
+                mv.visitInsn(ARETURN);
+            }
+            default -> {
+                expr(node);
+                mv.visitInsn(POP);
+            }
+        }
+    }
+
+    private void loopBody(Node body, Label breakLabel, Label continueLabel) {
+        loops.push(new Loop(breakLabel, continueLabel, depth));
+        stmt(body);
+        loops.pop();
+    }
+
+    private void jump(boolean isBreak, Node node) {
+        Loop loop = loops.peek();
+        if (loop == null || loop.depth != depth) {
+            throw new UnsupportedScriptException((isBreak ? "break" : "continue") + " outside a loop statement", node.start());
+        }
+        mv.visitJumpInsn(GOTO, isBreak ? loop.breakLabel : loop.continueLabel);
+    }
+
+    private void countIteration(int counter, Node loop) {
+        mv.visitIincInsn(counter, 1);
+        mv.visitVarInsn(ILOAD, counter);
+        push(loop.start());
+        mv.visitMethodInsn(INVOKESTATIC, OPS, "checkIterations", "(II)V", false);
+    }
+
+    private void loop(Node.Call call) {
+        Label check = new Label();
+        Label next = new Label();
+        Label end = new Label();
+        int count = newLocal();
+        int index = newLocal();
+        number(call.args().get(0));
+        mv.visitMethodInsn(INVOKESTATIC, OPS, "loopCount", "(D)I", false);
+        mv.visitVarInsn(ISTORE, count);
+        push(0);
+        mv.visitVarInsn(ISTORE, index);
+        mv.visitLabel(check);
+        mv.visitVarInsn(ILOAD, index);
+        mv.visitVarInsn(ILOAD, count);
+        mv.visitJumpInsn(IF_ICMPGE, end);
+        loopBody(call.args().get(1), end, next);
+        mv.visitLabel(next);
+        mv.visitIincInsn(index, 1);
+        mv.visitJumpInsn(GOTO, check);
+        mv.visitLabel(end);
+    }
+
+    private void forEach(Node.Call call) {
+        Label check = new Label();
+        Label next = new Label();
+        Label end = new Label();
+        int elements = newLocal();
+        int index = newLocal();
+        expr(call.args().get(1));
+        mv.visitMethodInsn(INVOKESTATIC, OPS, "elements", "(" + MO_VALUE_D + ")[" + MO_VALUE_D, false);
+        mv.visitVarInsn(ASTORE, elements);
+        push(0);
+        mv.visitVarInsn(ISTORE, index);
+        mv.visitLabel(check);
+        mv.visitVarInsn(ILOAD, index);
+        mv.visitVarInsn(ALOAD, elements);
+        mv.visitInsn(ARRAYLENGTH);
+        mv.visitJumpInsn(IF_ICMPGE, end);
+        store(call.args().get(0), () -> {
+            mv.visitVarInsn(ALOAD, elements);
+            mv.visitVarInsn(ILOAD, index);
+            mv.visitInsn(AALOAD);
+        });
+        loopBody(call.args().get(2), end, next);
+        mv.visitLabel(next);
+        mv.visitIincInsn(index, 1);
+        mv.visitJumpInsn(GOTO, check);
+        mv.visitLabel(end);
+    }
+
+    private void switchCases(Node.Switch node, boolean value) {
+        Label end = new Label();
+        int subject = newLocal();
+        expr(node.subject());
+        mv.visitVarInsn(ASTORE, subject);
+        Node.Case fallback = null;
+        for (Node.Case c : node.cases()) {
+            if (c.match() == null) {
+                fallback = c;
+                continue;
+            }
+            Label next = new Label();
+            mv.visitVarInsn(ALOAD, subject);
+            expr(c.match());
+            mv.visitMethodInsn(INVOKESTATIC, OPS, "equal", "(" + MO_VALUE_D + MO_VALUE_D + ")Z", false);
+            mv.visitJumpInsn(IFEQ, next);
+            if (value) expr(c.body());
+            else stmt(c.body());
+            mv.visitJumpInsn(GOTO, end);
+            mv.visitLabel(next);
+        }
+        if (fallback != null) {
+            if (value) expr(fallback.body());
+            else stmt(fallback.body());
+        } else if (value) {
+            mv.visitInsn(ACONST_NULL);
+        }
+        mv.visitLabel(end);
+    }
+
+    private void importScript(Node.Import node) {
+        Label skip = new Label();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitLdcInsn(node.path());
+        mv.visitMethodInsn(INVOKEVIRTUAL, STATE, "markImported", "(" + STRING_D + ")Z", false);
+        mv.visitJumpInsn(IFEQ, skip);
+
+        if (!importIds.containsKey(node.path()) && !importFailures.containsKey(node.path())) {
+            CharSequence source = imports.resolve(node.path());
+            if (source == null) {
+                importFailures.put(node.path(), "Cannot resolve import '" + node.path() + "'");
+            } else {
+                ParseResult parsed = MoLangParser.parse(source);
+                if (parsed.errors().isEmpty()) {
+                    int id = importIds.size();
+                    importIds.put(node.path(), id);
+                    pending.add(new PendingMethod("import$" + id, MAIN_DESC, List.of(), parsed.root()));
+                } else {
+                    importFailures.put(node.path(), "Import '" + node.path() + "' has syntax errors: " + parsed.errors().get(0).message());
+                }
+            }
+        }
+        Integer id = importIds.get(node.path());
+        if (id != null) {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKESTATIC, CLASS_NAME, "import$" + id, MAIN_DESC, false);
+            mv.visitInsn(POP);
+        } else {
+            fail(importFailures.get(node.path()), node.start());
+        }
+        mv.visitLabel(skip);
+    }
+
+    private void expr(Node node) {
+        depth++;
+        try {
+            if (isNumeric(node) && !(node instanceof Node.NumberLit) && !(node instanceof Node.BoolLit)) {
+                number(node);
+                box();
+                return;
+            }
+            switch (node) {
+                case Node.NumberLit n -> constant(MoValue.of(n.value()), NUM_D);
+                case Node.StringLit s -> constant(new MoValue.Str(s.value()), Type.getDescriptor(MoValue.Str.class));
+                case Node.BoolLit b -> mv.visitFieldInsn(GETSTATIC, MO_VALUE, b.value() ? "ONE" : "ZERO", NUM_D);
+                case Node.Identifier i -> {
+                    if (params.containsKey(i.name())) mv.visitVarInsn(ALOAD, params.get(i.name()));
+                    else if (inFunction) throw unresolved(i.name(), i);
+                    else mv.visitInsn(ACONST_NULL);
+                }
+                case Node.Chain c -> chain(c);
+                case Node.Member m -> {
+                    expr(m.target());
+                    member(m.segment());
+                }
+                case Node.Index i -> {
+                    expr(i.target());
+                    expr(i.index());
+                    push(i.start());
+                    mv.visitMethodInsn(INVOKESTATIC, OPS, "index", "(" + MO_VALUE_D + MO_VALUE_D + "I)" + MO_VALUE_D, false);
+                }
+                case Node.Call c -> {
+                    if ((c.callee().equals("loop") && c.args().size() == 2) || (c.callee().equals("for_each") && c.args().size() == 3)) {
+                        stmt(c);
+                        mv.visitInsn(ACONST_NULL);
+                    } else if (params.containsKey(c.callee())) {
+                        mv.visitVarInsn(ALOAD, params.get(c.callee()));
+                        arguments(c.args());
+                        mv.visitLdcInsn(c.callee());
+                        push(c.start());
+                        mv.visitMethodInsn(INVOKESTATIC, OPS, "invoke", "(" + MO_VALUE_D + LIST_D + STRING_D + "I)" + MO_VALUE_D, false);
+                    } else if (inFunction) {
+                        throw unresolved(c.callee(), c);
+                    } else {
+                        fail("Unknown function '" + c.callee() + "'", c.start());
+                        mv.visitInsn(ACONST_NULL);
+                    }
+                }
+                case Node.Binary b when b.op().equals("??") -> {
+                    Label end = new Label();
+                    expr(b.left());
+                    mv.visitInsn(DUP);
+                    mv.visitJumpInsn(IFNONNULL, end);
+                    mv.visitInsn(POP);
+                    expr(b.right());
+                    mv.visitLabel(end);
+                }
+                case Node.Binary b -> {
+                    expr(b.left());
+                    expr(b.right());
+                    mv.visitMethodInsn(INVOKESTATIC, OPS, "add", "(" + MO_VALUE_D + MO_VALUE_D + ")" + MO_VALUE_D, false);
+                }
+                case Node.Ternary t -> {
+                    Label otherwise = new Label();
+                    Label end = new Label();
+                    condition(t.condition(), otherwise, false);
+                    expr(t.then());
+                    mv.visitJumpInsn(GOTO, end);
+                    mv.visitLabel(otherwise);
+                    if (t.otherwise() != null) expr(t.otherwise());
+                    else mv.visitFieldInsn(GETSTATIC, MO_VALUE, "ZERO", NUM_D);
+                    mv.visitLabel(end);
+                }
+                case Node.Assign a -> assign(a, true);
+                case Node.Block b -> {
+                    List<Node> statements = b.statements();
+                    if (statements.isEmpty()) {
+                        mv.visitInsn(ACONST_NULL);
+                    } else {
+                        for (int i = 0; i < statements.size() - 1; i++) {
+                            stmt(statements.get(i));
+                        }
+                        expr(statements.get(statements.size() - 1));
+                    }
+                }
+                case Node.If i -> {
+                    Label otherwise = new Label();
+                    Label end = new Label();
+                    condition(i.condition(), otherwise, false);
+                    expr(i.then());
+                    mv.visitJumpInsn(GOTO, end);
+                    mv.visitLabel(otherwise);
+                    if (i.otherwise() != null) expr(i.otherwise());
+                    else mv.visitInsn(ACONST_NULL);
+                    mv.visitLabel(end);
+                }
+                case Node.Switch s -> switchCases(s, true);
+                case Node.StructLit s -> {
+                    mv.visitTypeInsn(NEW, MO_STRUCT);
+                    mv.visitInsn(DUP);
+                    mv.visitMethodInsn(INVOKESPECIAL, MO_STRUCT, "<init>", "()V", false);
+                    for (Node.Field field : s.fields()) {
+                        mv.visitInsn(DUP);
+                        mv.visitLdcInsn(field.key());
+                        expr(field.value());
+                        mv.visitMethodInsn(INVOKEVIRTUAL, MO_STRUCT, "set", "(" + STRING_D + MO_VALUE_D + ")V", false);
+                    }
+                }
+                case Node.Lambda l -> {
+                    int id = function(l.params(), l.body());
+                    mv.visitVarInsn(ALOAD, 0);
+                    push(id);
+                    mv.visitLdcInsn("<lambda>");
+                    push(l.body().start());
+                    mv.visitMethodInsn(INVOKEVIRTUAL, STATE, "lambda", "(I" + STRING_D + "I)" + FN_D, false);
+                }
+                case Node.Return r -> stmt(r);
+                case Node.While w -> {
+                    stmt(w);
+                    mv.visitInsn(ACONST_NULL);
+                }
+                case Node.For f -> {
+                    stmt(f);
+                    mv.visitInsn(ACONST_NULL);
+                }
+                case Node.FnDef f -> {
+                    stmt(f);
+                    mv.visitInsn(ACONST_NULL);
+                }
+                case Node.Import i -> {
+                    stmt(i);
+                    mv.visitInsn(ACONST_NULL);
+                }
+                case Node.Break b -> throw new UnsupportedScriptException("break used as a value", b.start());
+                case Node.Continue c -> throw new UnsupportedScriptException("continue used as a value", c.start());
+                case Node.Unary u -> throw new IllegalStateException("unary operators are numeric");
+                case Node.Error e -> throw new UnsupportedScriptException("Syntax error", e.start());
+            }
+        } finally {
+            depth--;
+        }
+    }
+
+    private void chain(Node.Chain chain) {
+        List<Node.Segment> segments = chain.segments();
+        if (segments.isEmpty()) {
+            fail("Incomplete '" + chain.prefix() + ".' reference", chain.start());
+            mv.visitInsn(ACONST_NULL);
+            return;
+        }
+        Node.Segment first = segments.get(0);
+        switch (chain.prefix()) {
+            case "math" -> {
+                math(first, chain);
+                box();
+                members(segments.subList(1, segments.size()));
+            }
+            case "f" -> {
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitLdcInsn(first.name());
+                arguments(first.args());
+                push(first.start());
+                mv.visitMethodInsn(INVOKEVIRTUAL, STATE, "call", "(" + STRING_D + LIST_D + "I)" + MO_VALUE_D, false);
+                members(segments.subList(1, segments.size()));
+            }
+            case "q" -> {
+                String path = "q." + first.name();
+                MoValue root = runtime.query().get(first.name());
+                if (root == null) {
+                    fail("'" + path + "' is not available in the mock runtime", first.start());
+                    mv.visitInsn(ACONST_NULL);
+                    return;
+                }
+                if (root instanceof MoValue.Fn fn && (first.call() || fn.property())) {
+                    constant(fn.function(), Type.getDescriptor(MoFunction.class));
+                    arguments(first.args());
+                    mv.visitMethodInsn(INVOKEINTERFACE, MO_FUNCTION, "call", "(" + LIST_D + ")" + MO_VALUE_D, true);
+                    mv.visitLdcInsn(path);
+                    push(first.start());
+                    mv.visitMethodInsn(INVOKESTATIC, SITE, "present", "(" + MO_VALUE_D + STRING_D + "I)" + MO_VALUE_D, false);
+                } else if (first.call()) {
+                    fail("'" + first.name() + "' is not a function", first.start());
+                    mv.visitInsn(ACONST_NULL);
+                    return;
+                } else {
+                    constant(root, MO_VALUE_D);
+                }
+                for (Node.Segment segment : segments.subList(1, segments.size())) {
+                    path = path + "." + segment.name();
+                    constant(new MemberSite(segment.name(), segment.call(), path, segment.start()), Type.getDescriptor(MemberSite.class));
+                    mv.visitInsn(SWAP);
+                    arguments(segment.args());
+                    mv.visitMethodInsn(INVOKEVIRTUAL, SITE, "access", "(" + MO_VALUE_D + LIST_D + ")" + MO_VALUE_D, false);
+                }
+            }
+            case "t", "v", "c" -> {
+                storage(chain.prefix());
+                members(segments);
+            }
+            default -> {
+                fail("Unknown prefix '" + chain.prefix() + "'", chain.start());
+                mv.visitInsn(ACONST_NULL);
+            }
+        }
+    }
+
+    private void members(List<Node.Segment> segments) {
+        for (Node.Segment segment : segments) {
+            member(segment);
+        }
+    }
+
+    private void member(Node.Segment segment) {
+        mv.visitLdcInsn(segment.name());
+        push(segment.call() ? 1 : 0);
+        arguments(segment.args());
+        push(segment.start());
+        mv.visitMethodInsn(INVOKESTATIC, OPS, "member", "(" + MO_VALUE_D + STRING_D + "Z" + LIST_D + "I)" + MO_VALUE_D, false);
+    }
+
+    private void storage(String prefix) {
+        String field = switch (prefix) {
+            case "t" -> "temps";
+            case "v" -> "variables";
+            default -> "context";
+        };
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, STATE, field, MO_STRUCT_D);
+    }
+
+    private void arguments(List<Node> args) {
+        if (args.isEmpty()) {
+            mv.visitMethodInsn(INVOKESTATIC, LIST, "of", "()" + LIST_D, true);
+            return;
+        }
+        push(args.size());
+        mv.visitTypeInsn(ANEWARRAY, MO_VALUE);
+        for (int i = 0; i < args.size(); i++) {
+            mv.visitInsn(DUP);
+            push(i);
+            expr(args.get(i));
+            mv.visitInsn(AASTORE);
+        }
+        mv.visitMethodInsn(INVOKESTATIC, OPS, "args", "([" + MO_VALUE_D + ")" + LIST_D, false);
+    }
+
+    private void assign(Node.Assign assign, boolean value) {
+        int result = newLocal();
+        if (assign.op().equals("=")) {
+            expr(assign.value());
+        } else if (assign.op().equals("+=")) {
+            expr(assign.value());
+            mv.visitVarInsn(ASTORE, result);
+            expr(assign.target());
+            mv.visitVarInsn(ALOAD, result);
+            mv.visitMethodInsn(INVOKESTATIC, OPS, "add", "(" + MO_VALUE_D + MO_VALUE_D + ")" + MO_VALUE_D, false);
+        } else {
+            int operand = newLocal();
+            nextLocal++;
+            number(assign.value());
+            mv.visitVarInsn(DSTORE, operand);
+            number(assign.target());
+            mv.visitVarInsn(DLOAD, operand);
+            mv.visitInsn(switch (assign.op()) {
+                case "-=" -> DSUB;
+                case "*=" -> DMUL;
+                default -> DDIV;
+            });
+            box();
+        }
+        mv.visitVarInsn(ASTORE, result);
+        store(assign.target(), () -> mv.visitVarInsn(ALOAD, result));
+        if (value) mv.visitVarInsn(ALOAD, result);
+    }
+
+    private void store(Node target, Runnable value) {
+        depth++;
+        try {
+            switch (target) {
+                case Node.Chain chain when chain.prefix().equals("t") || chain.prefix().equals("v") || chain.prefix().equals("c") -> {
+                    List<Node.Segment> segments = chain.segments();
+                    if (segments.isEmpty()) {
+                        fail("Incomplete assignment target", chain.start());
+                        return;
+                    }
+                    storage(chain.prefix());
+                    for (int i = 0; i < segments.size() - 1; i++) {
+                        mv.visitLdcInsn(segments.get(i).name());
+                        mv.visitMethodInsn(INVOKESTATIC, OPS, "child", "(" + MO_STRUCT_D + STRING_D + ")" + MO_STRUCT_D, false);
+                    }
+                    mv.visitLdcInsn(segments.get(segments.size() - 1).name());
+                    value.run();
+                    mv.visitMethodInsn(INVOKEVIRTUAL, MO_STRUCT, "set", "(" + STRING_D + MO_VALUE_D + ")V", false);
+                }
+                case Node.Chain chain -> fail("Cannot assign to '" + chain.prefix() + ".' values", chain.start());
+                case Node.Member member -> {
+                    expr(member.target());
+                    mv.visitLdcInsn(member.segment().name());
+                    value.run();
+                    push(member.start());
+                    mv.visitMethodInsn(INVOKESTATIC, OPS, "storeMember", "(" + MO_VALUE_D + STRING_D + MO_VALUE_D + "I)V", false);
+                }
+                case Node.Index index -> {
+                    expr(index.target());
+                    expr(index.index());
+                    value.run();
+                    push(index.start());
+                    mv.visitMethodInsn(INVOKESTATIC, OPS, "storeIndex", "(" + MO_VALUE_D + MO_VALUE_D + MO_VALUE_D + "I)V", false);
+                }
+                case Node.Identifier identifier -> {
+                    if (!params.containsKey(identifier.name())) {
+                        if (inFunction) throw unresolved(identifier.name(), identifier);
+                        fail("Cannot assign '" + identifier.name() + "' outside a function", identifier.start());
+                        return;
+                    }
+                    value.run();
+                    mv.visitVarInsn(ASTORE, params.get(identifier.name()));
+                }
+                default -> fail("Invalid assignment target", target.start());
+            }
+        } finally {
+            depth--;
+        }
+    }
+
+    private void condition(Node node, Label target, boolean jumpIf) {
+        switch (node) {
+            case Node.NumberLit n -> {
+                if ((n.value() != 0) == jumpIf) mv.visitJumpInsn(GOTO, target);
+            }
+            case Node.BoolLit b -> {
+                if (b.value() == jumpIf) mv.visitJumpInsn(GOTO, target);
+            }
+            case Node.Unary u when u.op().equals("!") -> condition(u.operand(), target, !jumpIf);
+            case Node.Binary b when b.op().equals("&&") -> {
+                if (jumpIf) {
+                    Label skip = new Label();
+                    condition(b.left(), skip, false);
+                    condition(b.right(), target, true);
+                    mv.visitLabel(skip);
+                } else {
+                    condition(b.left(), target, false);
+                    condition(b.right(), target, false);
+                }
+            }
+            case Node.Binary b when b.op().equals("||") -> {
+                if (jumpIf) {
+                    condition(b.left(), target, true);
+                    condition(b.right(), target, true);
+                } else {
+                    Label skip = new Label();
+                    condition(b.left(), skip, true);
+                    condition(b.right(), target, false);
+                    mv.visitLabel(skip);
+                }
+            }
+            case Node.Binary b when isComparison(b.op()) -> {
+                number(b.left());
+                number(b.right());
+                switch (b.op()) {
+                    case "<" -> {
+                        mv.visitInsn(DCMPG);
+                        mv.visitJumpInsn(jumpIf ? IFLT : IFGE, target);
+                    }
+                    case ">" -> {
+                        mv.visitInsn(DCMPL);
+                        mv.visitJumpInsn(jumpIf ? IFGT : IFLE, target);
+                    }
+                    case "<=" -> {
+                        mv.visitInsn(DCMPG);
+                        mv.visitJumpInsn(jumpIf ? IFLE : IFGT, target);
+                    }
+                    default -> {
+                        mv.visitInsn(DCMPL);
+                        mv.visitJumpInsn(jumpIf ? IFGE : IFLT, target);
+                    }
+                }
+            }
+            case Node.Binary b when b.op().equals("==") || b.op().equals("!=") -> {
+                boolean equalJumps = b.op().equals("==") == jumpIf;
+                if (isNumeric(b.left()) && isNumeric(b.right())) {
+                    number(b.left());
+                    number(b.right());
+                    mv.visitInsn(DCMPL);
+                    mv.visitJumpInsn(equalJumps ? IFEQ : IFNE, target);
+                } else {
+                    expr(b.left());
+                    expr(b.right());
+                    mv.visitMethodInsn(INVOKESTATIC, OPS, "equal", "(" + MO_VALUE_D + MO_VALUE_D + ")Z", false);
+                    mv.visitJumpInsn(equalJumps ? IFNE : IFEQ, target);
+                }
+            }
+            default -> {
+                expr(node);
+                mv.visitMethodInsn(INVOKESTATIC, MO_VALUE, "truthy", "(" + MO_VALUE_D + ")Z", true);
+                mv.visitJumpInsn(jumpIf ? IFNE : IFEQ, target);
+            }
+        }
+    }
+
+    private void number(Node node) {
+        switch (node) {
+            case Node.NumberLit n -> pushDouble(n.value());
+            case Node.BoolLit b -> mv.visitInsn(b.value() ? DCONST_1 : DCONST_0);
+            case Node.Unary u when u.op().equals("-") -> {
+                number(u.operand());
+                mv.visitInsn(DNEG);
+            }
+            case Node.Unary u when u.op().equals("+") -> number(u.operand());
+            case Node.Binary b when isArithmetic(b.op()) && (!b.op().equals("+") || isNumeric(b)) -> {
+                number(b.left());
+                number(b.right());
+                mv.visitInsn(switch (b.op()) {
+                    case "+" -> DADD;
+                    case "-" -> DSUB;
+                    case "*" -> DMUL;
+                    case "/" -> DDIV;
+                    default -> DREM;
+                });
+            }
+            case Node.Binary b when b.op().equals("??") && isNumeric(b.left()) -> number(b.left());
+            case Node.Ternary t when isNumeric(t) -> {
+                Label otherwise = new Label();
+                Label end = new Label();
+                condition(t.condition(), otherwise, false);
+                number(t.then());
+                mv.visitJumpInsn(GOTO, end);
+                mv.visitLabel(otherwise);
+                number(t.otherwise());
+                mv.visitLabel(end);
+            }
+            case Node.Chain c when isNumeric(c) -> math(c.segments().get(0), c);
+            default -> {
+                if (isBoolean(node)) {
+                    Label otherwise = new Label();
+                    Label end = new Label();
+                    condition(node, otherwise, false);
+                    mv.visitInsn(DCONST_1);
+                    mv.visitJumpInsn(GOTO, end);
+                    mv.visitLabel(otherwise);
+                    mv.visitInsn(DCONST_0);
+                    mv.visitLabel(end);
+                } else {
+                    expr(node);
+                    mv.visitMethodInsn(INVOKESTATIC, MO_VALUE, "number", "(" + MO_VALUE_D + ")D", true);
+                }
+            }
+        }
+    }
+
+    private void math(Node.Segment segment, Node.Chain chain) {
+        String name = segment.name();
+        List<Node> args = segment.args();
+        String random = switch (name) {
+            case "random" -> args.size() == 2 ? "random" : null;
+            case "random_integer" -> args.size() == 2 ? "randomInteger" : null;
+            case "die_roll" -> args.size() == 3 ? "dieRoll" : null;
+            case "die_roll_integer" -> args.size() == 3 ? "dieRollInteger" : null;
+            default -> null;
+        };
+        if (random != null) {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, STATE, "random", RANDOM_D);
+            for (Node arg : args) {
+                number(arg);
+            }
+            mv.visitMethodInsn(INVOKESTATIC, OPS, random, "(" + RANDOM_D + "D".repeat(args.size()) + ")D", false);
+            return;
+        }
+        if (!MoLangMath.supports(name, args.size())) {
+            fail("math." + name + " with " + args.size() + " argument(s) is not supported", chain.start());
+            mv.visitInsn(DCONST_0);
+            return;
+        }
+        for (Node arg : args) {
+            number(arg);
+        }
+        mv.visitMethodInsn(INVOKESTATIC, MATH, MoLangMath.methodName(name), "(" + "D".repeat(args.size()) + ")D", false);
+    }
+
+    private static boolean isNumeric(Node node) {
+        return switch (node) {
+            case Node.NumberLit n -> true;
+            case Node.BoolLit b -> true;
+            case Node.Unary u -> true;
+            case Node.Binary b -> switch (b.op()) {
+                case "+" -> isNumeric(b.left()) && isNumeric(b.right());
+                case "??" -> isNumeric(b.left());
+                default -> true;
+            };
+            case Node.Ternary t -> t.otherwise() != null && isNumeric(t.then()) && isNumeric(t.otherwise());
+            case Node.Chain c -> c.prefix().equals("math") && c.segments().size() == 1;
+            default -> false;
+        };
+    }
+
+    private static boolean isBoolean(Node node) {
+        return node instanceof Node.Unary u && u.op().equals("!")
+                || node instanceof Node.Binary b && (isComparison(b.op()) || b.op().equals("==") || b.op().equals("!=")
+                || b.op().equals("&&") || b.op().equals("||"));
+    }
+
+    private static boolean isComparison(String op) {
+        return op.equals("<") || op.equals(">") || op.equals("<=") || op.equals(">=");
+    }
+
+    private static boolean isArithmetic(String op) {
+        return op.equals("+") || op.equals("-") || op.equals("*") || op.equals("/") || op.equals("%");
+    }
+
+    private int function(List<String> parameters, Node body) {
+        int id = functionMethods.size();
+        String name = "fn$" + id;
+        functionMethods.add(name);
+        pending.add(new PendingMethod(name, FUNCTION_DESC, parameters, body));
+        return id;
+    }
+
+    private static UnsupportedScriptException unresolved(String name, Node node) {
+        return new UnsupportedScriptException("'" + name + "' does not refer to a parameter of the enclosing function", node.start());
+    }
+
+    private void fail(String message, int offset) {
+        mv.visitLdcInsn(message);
+        push(offset);
+        mv.visitMethodInsn(INVOKESTATIC, OPS, "error", "(" + STRING_D + "I)" + Type.getDescriptor(MoLangRuntimeException.class), false);
+        mv.visitInsn(ATHROW);
+    }
+
+    private void box() {
+        mv.visitMethodInsn(INVOKESTATIC, MO_VALUE, "of", "(D)" + NUM_D, true);
+    }
+
+    private void constant(Object value, String descriptor) {
+        boolean literal = value instanceof MoValue.Num || value instanceof MoValue.Str;
+        Integer index = literal ? literalConstants.get(value) : null;
+        if (index == null) {
+            index = constants.size();
+            constants.add(value);
+            constantDescriptors.add(descriptor);
+            if (literal) literalConstants.put(value, index);
+        }
+        mv.visitFieldInsn(GETSTATIC, CLASS_NAME, "K" + index, constantDescriptors.get(index));
+    }
+
+    private int newLocal() {
+        return nextLocal++;
+    }
+
+    private void push(int value) {
+        if (value >= -1 && value <= 5) {
+            mv.visitInsn(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+
+    private void pushDouble(double value) {
+        if (value == 0 && Double.doubleToRawLongBits(value) == 0) {
+            mv.visitInsn(DCONST_0);
+        } else if (value == 1) {
+            mv.visitInsn(DCONST_1);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+
+    private void generateConstructor() {
+        MethodVisitor init = writer.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        init.visitCode();
+        init.visitVarInsn(ALOAD, 0);
+        init.visitMethodInsn(INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+        init.visitInsn(RETURN);
+        init.visitMaxs(0, 0);
+        init.visitEnd();
+    }
+
+    private void generateRun() {
+        MethodVisitor run = writer.visitMethod(ACC_PUBLIC, "run", MAIN_DESC, null, null);
+        run.visitCode();
+        run.visitVarInsn(ALOAD, 1);
+        run.visitMethodInsn(INVOKESTATIC, CLASS_NAME, "main", MAIN_DESC, false);
+        run.visitInsn(ARETURN);
+        run.visitMaxs(0, 0);
+        run.visitEnd();
+    }
+
+    private void generateInvoke() {
+        MethodVisitor invoke = writer.visitMethod(ACC_PUBLIC, "invoke", "(I" + STATE_D + LIST_D + ")" + MO_VALUE_D, null, null);
+        invoke.visitCode();
+        Label fallback = new Label();
+        if (!functionMethods.isEmpty()) {
+            Label[] labels = new Label[functionMethods.size()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = new Label();
+            }
+            invoke.visitVarInsn(ILOAD, 1);
+            invoke.visitTableSwitchInsn(0, labels.length - 1, fallback, labels);
+            for (int i = 0; i < labels.length; i++) {
+                invoke.visitLabel(labels[i]);
+                invoke.visitVarInsn(ALOAD, 2);
+                invoke.visitVarInsn(ALOAD, 3);
+                invoke.visitMethodInsn(INVOKESTATIC, CLASS_NAME, functionMethods.get(i), FUNCTION_DESC, false);
+                invoke.visitInsn(ARETURN);
+            }
+        }
+        invoke.visitLabel(fallback);
+        invoke.visitInsn(ACONST_NULL);
+        invoke.visitInsn(ARETURN);
+        invoke.visitMaxs(0, 0);
+        invoke.visitEnd();
+    }
+
+    private void generateConstants() {
+        for (int i = 0; i < constants.size(); i++) {
+            writer.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, "K" + i, constantDescriptors.get(i), null, null).visitEnd();
+        }
+        MethodVisitor clinit = writer.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
+        clinit.visitCode();
+        if (!constants.isEmpty()) {
+            clinit.visitMethodInsn(INVOKESTATIC, Type.getInternalName(MethodHandles.class), "lookup",
+                    "()" + Type.getDescriptor(MethodHandles.Lookup.class), false);
+            clinit.visitLdcInsn("_");
+            clinit.visitLdcInsn(Type.getType(Object[].class));
+            clinit.visitMethodInsn(INVOKESTATIC, Type.getInternalName(MethodHandles.class), "classData",
+                    "(" + Type.getDescriptor(MethodHandles.Lookup.class) + STRING_D + Type.getDescriptor(Class.class) + ")"
+                            + Type.getDescriptor(Object.class), false);
+            clinit.visitTypeInsn(CHECKCAST, Type.getInternalName(Object[].class));
+            clinit.visitVarInsn(ASTORE, 0);
+            for (int i = 0; i < constants.size(); i++) {
+                clinit.visitVarInsn(ALOAD, 0);
+                clinit.visitLdcInsn(i);
+                clinit.visitInsn(AALOAD);
+                clinit.visitTypeInsn(CHECKCAST, Type.getType(constantDescriptors.get(i)).getInternalName());
+                clinit.visitFieldInsn(PUTSTATIC, CLASS_NAME, "K" + i, constantDescriptors.get(i));
+            }
+        }
+        clinit.visitInsn(RETURN);
+        clinit.visitMaxs(0, 0);
+        clinit.visitEnd();
+    }
+
+    public static final class UnsupportedScriptException extends RuntimeException {
+        private final int offset;
+
+        UnsupportedScriptException(String message, int offset) {
+            super(message);
+            this.offset = offset;
+        }
+
+        public int getOffset() {
+            return offset;
+        }
+    }
+
+    private record PendingMethod(String name, String descriptor, List<String> params, Node body) {}
+
+    private record Loop(Label breakLabel, Label continueLabel, int depth) {}
+}
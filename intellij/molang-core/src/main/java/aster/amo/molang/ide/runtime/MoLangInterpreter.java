@@ -0,0 +1,457 @@
+package aster.amo.molang.ide.runtime;
+
+import aster.amo.molang.ide.ast.MoLangParser;
+import aster.amo.molang.ide.ast.Node;
+import aster.amo.molang.ide.ast.ParseResult;
+import aster.amo.molang.ide.fold.MoLangMath;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+public final class MoLangInterpreter {
+    public static final int MAX_LOOP_ITERATIONS = 1_000_000;
+    public static final int MAX_CALL_DEPTH = 512;
+
+    private final MockRuntime runtime;
+    private final ImportResolver imports;
+    private final @Nullable Profiler profiler;
+    private final Map<String, Node.Block> importCache = new HashMap<>();
+    private final Random random;
+
+    private MoStruct temps;
+    private MoStruct variables;
+    private MoStruct context;
+    private final Map<String, MoValue.Fn> functions = new HashMap<>();
+    private final Set<String> imported = new HashSet<>();
+    private final ArrayDeque<Map<String, MoValue>> locals = new ArrayDeque<>();
+
+    public MoLangInterpreter(MockRuntime runtime, ImportResolver imports, @Nullable Profiler profiler) {
+        this.runtime = runtime;
+        this.imports = imports;
+        this.profiler = profiler;
+        this.random = new Random(runtime.getSeed());
+    }
+
+    @Nullable
+    public MoValue run(Node.Block script) {
+        temps = new MoStruct();
+        variables = runtime.newVariables();
+        context = runtime.newContext();
+        functions.clear();
+        imported.clear();
+        locals.clear();
+
+        if (profiler != null) profiler.enter("<script>");
+        try {
+            return block(script);
+        } catch (ReturnSignal signal) {
+            return signal.value;
+        } catch (BreakSignal | ContinueSignal signal) {
+            return null;
+        } catch (StackOverflowError e) {
+            throw new MoLangRuntimeException("Stack overflow", script.start());
+        } finally {
+            if (profiler != null) profiler.exit();
+        }
+    }
+
+    public MoStruct temps() {
+        return temps;
+    }
+
+    public MoStruct variables() {
+        return variables;
+    }
+
+    @Nullable
+    private MoValue block(Node.Block block) {
+        MoValue last = null;
+        for (Node statement : block.statements()) {
+            last = eval(statement);
+        }
+        return last;
+    }
+
+    @Nullable
+    private MoValue eval(Node node) {
+        return switch (node) {
+            case Node.NumberLit n -> MoValue.of(n.value());
+            case Node.StringLit s -> new MoValue.Str(s.value());
+            case Node.BoolLit b -> MoValue.of(b.value());
+            case Node.Identifier i -> identifier(i);
+            case Node.Chain c -> chain(c);
+            case Node.Member m -> member(eval(m.target()), m.segment(), null);
+            case Node.Index i -> index(eval(i.target()), eval(i.index()), i);
+            case Node.Call c -> call(c);
+            case Node.Unary u -> unary(u);
+            case Node.Binary b -> binary(b);
+            case Node.Ternary t -> {
+                if (MoValue.truthy(eval(t.condition()))) yield eval(t.then());
+                yield t.otherwise() != null ? eval(t.otherwise()) : MoValue.ZERO;
+            }
+            case Node.Assign a -> assign(a);
+            case Node.Block b -> block(b);
+            case Node.If i -> {
+                if (MoValue.truthy(eval(i.condition()))) yield eval(i.then());
+                yield i.otherwise() != null ? eval(i.otherwise()) : null;
+            }
+            case Node.While w -> {
+                int iterations = 0;
+                while (MoValue.truthy(eval(w.condition()))) {
+                    checkIterations(++iterations, w);
+                    try {
+                        eval(w.body());
+                    } catch (BreakSignal signal) {
+                        break;
+                    } catch (ContinueSignal signal) {
+                        // next iteration
+                    }
+                }
+                yield null;
+            }
+            case Node.For f -> {
+                if (f.init() != null) eval(f.init());
+                int iterations = 0;
+                while (f.condition() == null || MoValue.truthy(eval(f.condition()))) {
+                    checkIterations(++iterations, f);
+                    try {
+                        eval(f.body());
+                    } catch (BreakSignal signal) {
+                        break;
+                    } catch (ContinueSignal signal) {
+                        // next iteration
+                    }
+                    if (f.step() != null) eval(f.step());
+                }
+                yield null;
+            }
+            case Node.Switch s -> {
+                MoValue subject = eval(s.subject());
+                Node.Case fallback = null;
+                for (Node.Case c : s.cases()) {
+                    if (c.match() == null) {
+                        fallback = c;
+                    } else if (MoLangOps.equal(subject, eval(c.match()))) {
+                        yield eval(c.body());
+                    }
+                }
+                yield fallback != null ? eval(fallback.body()) : null;
+            }
+            case Node.StructLit s -> {
+                MoStruct struct = new MoStruct();
+                for (Node.Field field : s.fields()) {
+                    struct.set(field.key(), eval(field.value()));
+                }
+                yield struct;
+            }
+            case Node.Lambda l -> lambda(l.params(), l.body(), "<lambda>");
+            case Node.FnDef f -> {
+                MoValue.Fn fn = f.body() instanceof Node.Lambda l
+                        ? lambda(l.params(), l.body(), "f." + f.name())
+                        : lambda(List.of(), f.body(), "f." + f.name());
+                functions.put(f.name(), fn);
+                yield null;
+            }
+            case Node.Import i -> {
+                runImport(i);
+                yield null;
+            }
+            case Node.Return r -> throw new ReturnSignal(r.value() != null ? eval(r.value()) : null);
+            case Node.Break b -> throw BreakSignal.INSTANCE;
+            case Node.Continue c -> throw ContinueSignal.INSTANCE;
+            case Node.Error e -> throw new MoLangRuntimeException("Syntax error", e.start());
+        };
+    }
+
+    @Nullable
+    private MoValue identifier(Node.Identifier identifier) {
+        for (Map<String, MoValue> scope : locals) {
+            if (scope.containsKey(identifier.name())) return scope.get(identifier.name());
+        }
+        return null;
+    }
+
+    @Nullable
+    private MoValue chain(Node.Chain chain) {
+        List<Node.Segment> segments = chain.segments();
+        if (segments.isEmpty()) throw new MoLangRuntimeException("Incomplete '" + chain.prefix() + ".' reference", chain.start());
+        Node.Segment first = segments.get(0);
+        MoValue current;
+        int next = 1;
+        switch (chain.prefix()) {
+            case "math" -> current = math(first, chain);
+            case "f" -> current = function(first);
+            case "q" -> {
+                current = runtime.query();
+                next = 0;
+            }
+            case "t" -> {
+                current = temps;
+                next = 0;
+            }
+            case "v" -> {
+                current = variables;
+                next = 0;
+            }
+            case "c" -> {
+                current = context;
+                next = 0;
+            }
+            default -> throw new MoLangRuntimeException("Unknown prefix '" + chain.prefix() + "'", chain.start());
+        }
+        String queryPath = chain.prefix().equals("q") ? "q" : null;
+        for (int i = next; i < segments.size(); i++) {
+            Node.Segment segment = segments.get(i);
+            if (queryPath != null) queryPath = queryPath + "." + segment.name();
+            current = member(current, segment, queryPath);
+            if (current == null && queryPath != null) {
+                throw new MoLangRuntimeException("'" + queryPath + "' is not available in the mock runtime", segment.start());
+            }
+        }
+        return current;
+    }
+
+    @Nullable
+    private MoValue member(@Nullable MoValue target, Node.Segment segment, @Nullable String queryPath) {
+        List<MoValue> args = arguments(segment.args());
+        if (queryPath != null && profiler != null) profiler.query(queryPath);
+        return MoLangOps.member(target, segment.name(), segment.call(), args, segment.start());
+    }
+
+    @Nullable
+    private MoValue index(@Nullable MoValue target, @Nullable MoValue key, Node.Index node) {
+        return MoLangOps.index(target, key, node.start());
+    }
+
+    private MoValue math(Node.Segment segment, Node.Chain chain) {
+        String name = segment.name();
+        List<MoValue> args = arguments(segment.args());
+        double[] values = new double[args.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = MoValue.number(args.get(i));
+        }
+        switch (name) {
+            case "random" -> {
+                if (values.length == 2) return MoValue.of(MoLangOps.random(random, values[0], values[1]));
+            }
+            case "random_integer" -> {
+                if (values.length == 2) return MoValue.of(MoLangOps.randomInteger(random, values[0], values[1]));
+            }
+            case "die_roll" -> {
+                if (values.length == 3) return MoValue.of(MoLangOps.dieRoll(random, values[0], values[1], values[2]));
+            }
+            case "die_roll_integer" -> {
+                if (values.length == 3) return MoValue.of(MoLangOps.dieRollInteger(random, values[0], values[1], values[2]));
+            }
+            default -> {
+                if (MoLangMath.supports(name, values.length)) return MoValue.of(MoLangMath.evaluate(name, values));
+            }
+        }
+        throw new MoLangRuntimeException("math." + name + " with " + values.length + " argument(s) is not supported", chain.start());
+    }
+
+    @Nullable
+    private MoValue function(Node.Segment segment) {
+        MoValue.Fn fn = functions.get(segment.name());
+        if (fn == null) {
+            throw new MoLangRuntimeException("Unknown function 'f." + segment.name() + "'", segment.start());
+        }
+        return fn.function().call(arguments(segment.args()));
+    }
+
+    private MoValue.Fn lambda(List<String> params, Node body, String name) {
+        return new MoValue.Fn(args -> {
+            if (locals.size() >= MAX_CALL_DEPTH) {
+                throw new MoLangRuntimeException("Call depth exceeded " + MAX_CALL_DEPTH + " in " + name, body.start());
+            }
+            Map<String, MoValue> scope = new HashMap<>();
+            for (int i = 0; i < params.size(); i++) {
+                scope.put(params.get(i), i < args.size() ? args.get(i) : null);
+            }
+            locals.push(scope);
+            if (profiler != null) profiler.enter(name);
+            try {
+                return eval(body);
+            } catch (ReturnSignal signal) {
+                return signal.value;
+            } finally {
+                if (profiler != null) profiler.exit();
+                locals.pop();
+            }
+        }, false);
+    }
+
+    @Nullable
+    private MoValue call(Node.Call call) {
+        List<Node> args = call.args();
+        switch (call.callee()) {
+            case "loop" -> {
+                if (args.size() != 2) break;
+                int count = MoLangOps.loopCount(MoValue.number(eval(args.get(0))));
+                for (int i = 0; i < count; i++) {
+                    try {
+                        eval(args.get(1));
+                    } catch (BreakSignal signal) {
+                        break;
+                    } catch (ContinueSignal signal) {
+                        // next iteration
+                    }
+                }
+                return null;
+            }
+            case "for_each" -> {
+                if (args.size() != 3) break;
+                MoValue collection = eval(args.get(1));
+                if (!(collection instanceof MoStruct struct)) return null;
+                for (MoValue element : MoLangOps.elements(struct)) {
+                    store(args.get(0), element);
+                    try {
+                        eval(args.get(2));
+                    } catch (BreakSignal signal) {
+                        break;
+                    } catch (ContinueSignal signal) {
+                        // next iteration
+                    }
+                }
+                return null;
+            }
+            default -> {
+                MoValue local = identifier(new Node.Identifier(call.callee(), call.start(), call.end()));
+                if (local instanceof MoValue.Fn fn) return fn.function().call(arguments(args));
+            }
+        }
+        throw new MoLangRuntimeException("Unknown function '" + call.callee() + "'", call.start());
+    }
+
+    private MoValue unary(Node.Unary unary) {
+        MoValue operand = eval(unary.operand());
+        return switch (unary.op()) {
+            case "!" -> MoValue.of(!MoValue.truthy(operand));
+            case "-" -> MoValue.of(-MoValue.number(operand));
+            default -> MoValue.of(MoValue.number(operand));
+        };
+    }
+
+    @Nullable
+    private MoValue binary(Node.Binary binary) {
+        String op = binary.op();
+        MoValue left = eval(binary.left());
+        switch (op) {
+            case "??" -> {
+                return left != null ? left : eval(binary.right());
+            }
+            case "&&" -> {
+                return MoValue.of(MoValue.truthy(left) && MoValue.truthy(eval(binary.right())));
+            }
+            case "||" -> {
+                return MoValue.of(MoValue.truthy(left) || MoValue.truthy(eval(binary.right())));
+            }
+            default -> {
+                return MoLangOps.arithmetic(op, left, eval(binary.right()), binary.start());
+            }
+        }
+    }
+
+    @Nullable
+    private MoValue assign(Node.Assign assign) {
+        MoValue value = eval(assign.value());
+        if (!assign.op().equals("=")) {
+            MoValue current = eval(assign.target());
+            value = MoLangOps.arithmetic(assign.op().substring(0, 1), current, value, assign.start());
+        }
+        store(assign.target(), value);
+        return value;
+    }
+
+    private void store(Node target, @Nullable MoValue value) {
+        switch (target) {
+            case Node.Chain chain -> {
+                MoStruct struct = switch (chain.prefix()) {
+                    case "t" -> temps;
+                    case "v" -> variables;
+                    case "c" -> context;
+                    default -> throw new MoLangRuntimeException("Cannot assign to '" + chain.prefix() + ".' values", chain.start());
+                };
+                List<Node.Segment> segments = chain.segments();
+                if (segments.isEmpty()) throw new MoLangRuntimeException("Incomplete assignment target", chain.start());
+                for (int i = 0; i < segments.size() - 1; i++) {
+                    struct = MoLangOps.child(struct, segments.get(i).name());
+                }
+                struct.set(segments.get(segments.size() - 1).name(), value);
+            }
+            case Node.Member member -> MoLangOps.storeMember(eval(member.target()), member.segment().name(), value, member.start());
+            case Node.Index index -> MoLangOps.storeIndex(eval(index.target()), eval(index.index()), value, index.start());
+            case Node.Identifier identifier -> {
+                Map<String, MoValue> scope = locals.peek();
+                if (scope == null) throw new MoLangRuntimeException("Cannot assign '" + identifier.name() + "' outside a function", identifier.start());
+                scope.put(identifier.name(), value);
+            }
+            default -> throw new MoLangRuntimeException("Invalid assignment target", target.start());
+        }
+    }
+
+    private void runImport(Node.Import node) {
+        if (!imported.add(node.path())) return;
+        Node.Block script = importCache.get(node.path());
+        if (script == null) {
+            CharSequence source = imports.resolve(node.path());
+            if (source == null) throw new MoLangRuntimeException("Cannot resolve import '" + node.path() + "'", node.start());
+            ParseResult parsed = MoLangParser.parse(source);
+            if (!parsed.errors().isEmpty()) {
+                throw new MoLangRuntimeException("Import '" + node.path() + "' has syntax errors: " + parsed.errors().get(0).message(), node.start());
+            }
+            script = parsed.root();
+            importCache.put(node.path(), script);
+        }
+        try {
+            block(script);
+        } catch (ReturnSignal signal) {
+            // top-level return inside an imported script only ends that script
+        }
+    }
+
+    private List<MoValue> arguments(List<Node> args) {
+        if (args.isEmpty()) return List.of();
+        List<MoValue> values = new ArrayList<>(args.size());
+        for (Node arg : args) {
+            values.add(eval(arg));
+        }
+        return values;
+    }
+
+    private static void checkIterations(int iterations, Node loop) {
+        MoLangOps.checkIterations(iterations, loop.start());
+    }
+
+    private static final class ReturnSignal extends RuntimeException {
+        final @Nullable MoValue value;
+
+        ReturnSignal(@Nullable MoValue value) {
+            super(null, null, false, false);
+            this.value = value;
+        }
+    }
+
+    private static final class BreakSignal extends RuntimeException {
+        static final BreakSignal INSTANCE = new BreakSignal();
+
+        private BreakSignal() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class ContinueSignal extends RuntimeException {
+        static final ContinueSignal INSTANCE = new ContinueSignal();
+
+        private ContinueSignal() {
+            super(null, null, false, false);
+        }
+    }
+}
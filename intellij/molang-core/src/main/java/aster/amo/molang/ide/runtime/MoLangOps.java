@@ -0,0 +1,158 @@
+package aster.amo.molang.ide.runtime;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+final class MoLangOps {
+    private MoLangOps() {
+    }
+
+    @Nullable
+    static MoValue member(@Nullable MoValue target, String name, boolean call, List<MoValue> args, int offset) {
+        if (!(target instanceof MoStruct struct)) {
+            throw new MoLangRuntimeException("Cannot read '" + name + "' of " + MoValue.describe(target), offset);
+        }
+        MoValue value = struct.get(name);
+        if (value instanceof MoValue.Fn fn && (call || fn.property())) {
+            return fn.function().call(args);
+        }
+        if (call) {
+            throw new MoLangRuntimeException("'" + name + "' is not a function", offset);
+        }
+        return value;
+    }
+
+    @Nullable
+    static MoValue index(@Nullable MoValue target, @Nullable MoValue key, int offset) {
+        if (!(target instanceof MoStruct struct)) {
+            throw new MoLangRuntimeException("Cannot index " + MoValue.describe(target), offset);
+        }
+        return struct.get(key(key));
+    }
+
+    static MoValue add(@Nullable MoValue left, @Nullable MoValue right) {
+        if (left instanceof MoValue.Str || right instanceof MoValue.Str) {
+            return new MoValue.Str(text(left) + text(right));
+        }
+        return MoValue.of(MoValue.number(left) + MoValue.number(right));
+    }
+
+    static MoValue arithmetic(String op, @Nullable MoValue left, @Nullable MoValue right, int offset) {
+        if (op.equals("+")) return add(left, right);
+        if (op.equals("==")) return MoValue.of(equal(left, right));
+        if (op.equals("!=")) return MoValue.of(!equal(left, right));
+        double a = MoValue.number(left);
+        double b = MoValue.number(right);
+        return switch (op) {
+            case "-" -> MoValue.of(a - b);
+            case "*" -> MoValue.of(a * b);
+            case "/" -> MoValue.of(a / b);
+            case "%" -> MoValue.of(a % b);
+            case "<" -> MoValue.of(a < b);
+            case ">" -> MoValue.of(a > b);
+            case "<=" -> MoValue.of(a <= b);
+            case ">=" -> MoValue.of(a >= b);
+            default -> throw new MoLangRuntimeException("Unsupported operator '" + op + "'", offset);
+        };
+    }
+
+    static boolean equal(@Nullable MoValue left, @Nullable MoValue right) {
+        if (left instanceof MoValue.Str || right instanceof MoValue.Str) {
+            return left instanceof MoValue.Str && right instanceof MoValue.Str && left.asString().equals(right.asString());
+        }
+        if (left instanceof MoStruct || right instanceof MoStruct) return left == right;
+        return MoValue.number(left) == MoValue.number(right);
+    }
+
+    static MoStruct child(MoStruct struct, String name) {
+        MoValue child = struct.get(name);
+        if (!(child instanceof MoStruct)) {
+            child = new MoStruct();
+            struct.set(name, child);
+        }
+        return (MoStruct) child;
+    }
+
+    static void storeMember(@Nullable MoValue target, String name, @Nullable MoValue value, int offset) {
+        if (!(target instanceof MoStruct struct)) {
+            throw new MoLangRuntimeException("Cannot assign a member of a non-struct value", offset);
+        }
+        struct.set(name, value);
+    }
+
+    static void storeIndex(@Nullable MoValue target, @Nullable MoValue key, @Nullable MoValue value, int offset) {
+        if (!(target instanceof MoStruct struct)) {
+            throw new MoLangRuntimeException("Cannot assign an element of a non-struct value", offset);
+        }
+        struct.set(key(key), value);
+    }
+
+    static MoValue[] elements(@Nullable MoValue collection) {
+        if (!(collection instanceof MoStruct struct)) return new MoValue[0];
+        return struct.members().values().toArray(new MoValue[0]);
+    }
+
+    @Nullable
+    static MoValue invoke(@Nullable MoValue function, List<MoValue> args, String name, int offset) {
+        if (!(function instanceof MoValue.Fn fn)) throw new MoLangRuntimeException("Unknown function '" + name + "'", offset);
+        return fn.function().call(args);
+    }
+
+    @Nullable
+    static MoValue arg(List<MoValue> args, int index) {
+        return index < args.size() ? args.get(index) : null;
+    }
+
+    static List<MoValue> args(MoValue[] values) {
+        return Arrays.asList(values);
+    }
+
+    static int loopCount(double count) {
+        return (int) Math.min(count, MoLangInterpreter.MAX_LOOP_ITERATIONS);
+    }
+
+    static void checkIterations(int iterations, int offset) {
+        if (iterations > MoLangInterpreter.MAX_LOOP_ITERATIONS) {
+            throw new MoLangRuntimeException("Loop exceeded " + MoLangInterpreter.MAX_LOOP_ITERATIONS + " iterations", offset);
+        }
+    }
+
+    static double random(Random random, double low, double high) {
+        return low + random.nextDouble() * (high - low);
+    }
+
+    static double randomInteger(Random random, double low, double high) {
+        return Math.floor(low + random.nextDouble() * (high - low + 1));
+    }
+
+    static double dieRoll(Random random, double rolls, double low, double high) {
+        double sum = 0;
+        for (int i = 0; i < (int) rolls; i++) {
+            sum += low + random.nextDouble() * (high - low);
+        }
+        return sum;
+    }
+
+    static double dieRollInteger(Random random, double rolls, double low, double high) {
+        double sum = 0;
+        for (int i = 0; i < (int) rolls; i++) {
+            sum += Math.floor(low + random.nextDouble() * (high - low + 1));
+        }
+        return sum;
+    }
+
+    static MoLangRuntimeException error(String message, int offset) {
+        return new MoLangRuntimeException(message, offset);
+    }
+
+    static String key(@Nullable MoValue value) {
+        return value instanceof MoValue.Str s ? s.value() : value != null ? value.asString() : "0";
+    }
+
+    static String text(@Nullable MoValue value) {
+        return value != null ? value.asString() : "";
+    }
+}
@@ -0,0 +1,118 @@
+package aster.amo.molang.ide.runtime;
+
+import aster.amo.molang.ide.ast.MoLangParser;
+import aster.amo.molang.ide.ast.ParseError;
+import aster.amo.molang.ide.ast.ParseResult;
+import aster.amo.molang.ide.schema.MoLangSchema;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class MoLangRunner {
+    private static final String USAGE = """
+            Usage: MoLangRunner <script.molang> [options]
+              --runtime <name>      runtime to mock (default: // @context or folder inference)
+              --fixture <file>      fixture JSON overriding query results (default: <script>.fixture.json)
+              --schema <file>       schema JSON (default: bundled molang-schema.json)
+              --iterations <n>      measured runs (default: %d)
+              --warmup <n>          warmup runs (default: %d)
+              --engine <name>       interpreter or compiled (default: interpreter)
+            """.formatted(MoLangBenchmark.DEFAULT_ITERATIONS, MoLangBenchmark.DEFAULT_WARMUP);
+
+    private MoLangRunner() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path script = null;
+        String runtimeName = null;
+        Path fixturePath = null;
+        Path schemaPath = null;
+        int iterations = MoLangBenchmark.DEFAULT_ITERATIONS;
+        int warmup = MoLangBenchmark.DEFAULT_WARMUP;
+        MoLangBenchmark.Engine engine = MoLangBenchmark.Engine.INTERPRETER;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--") && i + 1 >= args.length) usage("Missing value for " + arg);
+            switch (arg) {
+                case "--runtime" -> runtimeName = args[++i];
+                case "--fixture" -> fixturePath = Path.of(args[++i]);
+                case "--schema" -> schemaPath = Path.of(args[++i]);
+                case "--iterations" -> iterations = Integer.parseInt(args[++i]);
+                case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+                case "--engine" -> engine = switch (args[++i]) {
+                    case "interpreter" -> MoLangBenchmark.Engine.INTERPRETER;
+                    case "compiled" -> MoLangBenchmark.Engine.COMPILED;
+                    default -> {
+                        usage("Unknown engine " + args[i]);
+                        yield engine;
+                    }
+                };
+                default -> {
+                    if (arg.startsWith("--") || script != null) usage("Unexpected argument " + arg);
+                    script = Path.of(arg);
+                }
+            }
+        }
+        if (script == null) usage("Missing script");
+
+        MoLangSchema schema;
+        if (schemaPath != null) {
+            try (Reader reader = Files.newBufferedReader(schemaPath, StandardCharsets.UTF_8)) {
+                schema = MoLangSchema.load(reader);
+            }
+        } else {
+            schema = MoLangSchema.loadBundled();
+        }
+
+        String source = Files.readString(script, StandardCharsets.UTF_8);
+        ParseResult parsed = MoLangParser.parse(source);
+        if (!parsed.errors().isEmpty()) {
+            for (ParseError error : parsed.errors()) {
+                System.err.println(script + ": " + new MoLangRuntimeException(error.message(), error.start()).describe(source));
+            }
+            System.exit(1);
+        }
+
+        if (runtimeName == null) runtimeName = schema.inferRuntime(source, script.toString());
+        if (fixturePath == null) fixturePath = defaultFixture(script);
+        JsonObject fixture = fixturePath != null ? readFixture(fixturePath) : null;
+
+        MockRuntime runtime = new MockRuntime(schema, runtimeName, fixture);
+        try {
+            MoLangBenchmark.Result result = MoLangBenchmark.run(parsed.root(), runtime, ImportResolver.forScript(script), engine, warmup, iterations);
+            System.out.println(script);
+            if (fixturePath != null) System.out.println("Fixture:      " + fixturePath);
+            System.out.print(result.format());
+        } catch (MoLangRuntimeException e) {
+            System.err.println(script + ": " + e.describe(source));
+            System.exit(1);
+        }
+    }
+
+    @Nullable
+    public static Path defaultFixture(Path script) {
+        String name = script.getFileName().toString();
+        String base = name.endsWith(".molang") ? name.substring(0, name.length() - ".molang".length()) : name;
+        Path fixture = script.resolveSibling(base + ".fixture.json");
+        return Files.isRegularFile(fixture) ? fixture : null;
+    }
+
+    public static JsonObject readFixture(Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return JsonParser.parseReader(reader).getAsJsonObject();
+        }
+    }
+
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.print(USAGE);
+        System.exit(2);
+    }
+}
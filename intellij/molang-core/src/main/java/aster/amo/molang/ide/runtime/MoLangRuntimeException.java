@@ -0,0 +1,28 @@
+package aster.amo.molang.ide.runtime;
+
+public class MoLangRuntimeException extends RuntimeException {
+    private final int offset;
+
+    public MoLangRuntimeException(String message, int offset) {
+        super(message);
+        this.offset = offset;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public String describe(CharSequence source) {
+        int line = 1;
+        int column = 1;
+        for (int i = 0; i < offset && i < source.length(); i++) {
+            if (source.charAt(i) == '\n') {
+                line++;
+                column = 1;
+            } else {
+                column++;
+            }
+        }
+        return line + ":" + column + ": " + getMessage();
+    }
+}
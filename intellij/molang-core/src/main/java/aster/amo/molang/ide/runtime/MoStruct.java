@@ -0,0 +1,65 @@
+package aster.amo.molang.ide.runtime;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+public final class MoStruct implements MoValue {
+    private final Map<String, MoValue> members = new LinkedHashMap<>();
+    private final @Nullable Function<String, MoValue> stubs;
+
+    public MoStruct() {
+        this(null);
+    }
+
+    public MoStruct(@Nullable Function<String, MoValue> stubs) {
+        this.stubs = stubs;
+    }
+
+    @Nullable
+    public MoValue get(String name) {
+        MoValue value = members.get(name);
+        if (value == null && stubs != null) {
+            value = stubs.apply(name);
+            if (value != null) members.put(name, value);
+        }
+        return value;
+    }
+
+    public void set(String name, @Nullable MoValue value) {
+        if (value == null) {
+            members.remove(name);
+        } else {
+            members.put(name, value);
+        }
+    }
+
+    public Map<String, MoValue> members() {
+        return members;
+    }
+
+    public MoStruct copy() {
+        MoStruct copy = new MoStruct(stubs);
+        for (Map.Entry<String, MoValue> entry : members.entrySet()) {
+            copy.members.put(entry.getKey(), entry.getValue() instanceof MoStruct struct ? struct.copy() : entry.getValue());
+        }
+        return copy;
+    }
+
+    @Override
+    public double asNumber() {
+        return 0;
+    }
+
+    @Override
+    public String asString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (Map.Entry<String, MoValue> entry : members.entrySet()) {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(entry.getKey()).append(": ").append(MoValue.describe(entry.getValue()));
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,82 @@
+package aster.amo.molang.ide.runtime;
+
+import aster.amo.molang.ide.ast.MoLangPrinter;
+import org.jetbrains.annotations.Nullable;
+
+public sealed interface MoValue permits MoValue.Num, MoValue.Str, MoValue.Fn, MoStruct {
+    Num ZERO = new Num(0);
+    Num ONE = new Num(1);
+
+    double asNumber();
+
+    String asString();
+
+    static Num of(double value) {
+        return new Num(value);
+    }
+
+    static Num of(boolean value) {
+        return value ? ONE : ZERO;
+    }
+
+    static double number(@Nullable MoValue value) {
+        return value != null ? value.asNumber() : 0;
+    }
+
+    static boolean truthy(@Nullable MoValue value) {
+        return switch (value) {
+            case null -> false;
+            case Num n -> n.value() != 0;
+            case Str s -> !s.value().isEmpty();
+            default -> true;
+        };
+    }
+
+    static String describe(@Nullable MoValue value) {
+        return switch (value) {
+            case null -> "undefined";
+            case Str s -> "'" + s.value() + "'";
+            default -> value.asString();
+        };
+    }
+
+    record Num(double value) implements MoValue {
+        @Override
+        public double asNumber() {
+            return value;
+        }
+
+        @Override
+        public String asString() {
+            return MoLangPrinter.formatNumber(value);
+        }
+    }
+
+    record Str(String value) implements MoValue {
+        @Override
+        public double asNumber() {
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+
+        @Override
+        public String asString() {
+            return value;
+        }
+    }
+
+    record Fn(MoFunction function, boolean property) implements MoValue {
+        @Override
+        public double asNumber() {
+            return 0;
+        }
+
+        @Override
+        public String asString() {
+            return "<function>";
+        }
+    }
+}
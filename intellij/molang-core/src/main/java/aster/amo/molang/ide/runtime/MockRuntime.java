@@ -0,0 +1,110 @@
+package aster.amo.molang.ide.runtime;
+
+import aster.amo.molang.ide.schema.MoLangSchema;
+import aster.amo.molang.ide.schema.SchemaEntry;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+public final class MockRuntime {
+    private final MoLangSchema schema;
+    private final @Nullable String runtimeName;
+    private final @Nullable JsonObject fixture;
+    private final MoStruct query;
+    private final long seed;
+
+    public MockRuntime(@NotNull MoLangSchema schema, @Nullable String runtimeName, @Nullable JsonObject fixture) {
+        this.schema = schema;
+        this.fixture = fixture;
+        String fixtureRuntime = fixture != null && fixture.has("runtime") ? fixture.get("runtime").getAsString() : null;
+        this.runtimeName = fixtureRuntime != null ? fixtureRuntime : runtimeName;
+        this.seed = fixture != null && fixture.has("seed") ? fixture.get("seed").getAsLong() : 0;
+        this.query = struct(schema.getQueryVariables(this.runtimeName), objectField(fixture, "query"));
+    }
+
+    @Nullable
+    public String getRuntimeName() {
+        return runtimeName;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public MoStruct query() {
+        return query;
+    }
+
+    public MoStruct newVariables() {
+        return fromFixtureObject(objectField(fixture, "variables"));
+    }
+
+    public MoStruct newContext() {
+        return fromFixtureObject(objectField(fixture, "context"));
+    }
+
+    private MoStruct struct(Map<String, SchemaEntry> members, @Nullable JsonObject overrides) {
+        return new MoStruct(name -> {
+            SchemaEntry entry = members.get(name);
+            JsonElement override = overrides != null ? overrides.get(name) : null;
+            if (entry == null && override == null) return null;
+            MoValue result = override != null ? fromFixture(override, entry) : stub(entry);
+            return new MoValue.Fn(args -> result, true);
+        });
+    }
+
+    private MoValue stub(SchemaEntry entry) {
+        if (MoLangSchema.isStructEntry(entry)) {
+            Map<String, SchemaEntry> members = schema.getMembers(entry);
+            return struct(members != null ? members : Map.of(), null);
+        }
+        String type = entry.has("returns") ? entry.string("returns") : entry.string("type");
+        return "String".equals(type) ? new MoValue.Str("") : MoValue.ZERO;
+    }
+
+    private MoValue fromFixture(JsonElement element, @Nullable SchemaEntry entry) {
+        if (element.isJsonObject()) {
+            Map<String, SchemaEntry> members = entry != null ? schema.getMembers(entry) : null;
+            return struct(members != null ? members : Map.of(), element.getAsJsonObject());
+        }
+        if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            MoStruct struct = new MoStruct();
+            for (int i = 0; i < array.size(); i++) {
+                struct.set(Integer.toString(i), fromFixture(array.get(i), null));
+            }
+            return struct;
+        }
+        if (element.isJsonPrimitive()) {
+            return primitive(element.getAsJsonPrimitive());
+        }
+        return MoValue.ZERO;
+    }
+
+    private MoStruct fromFixtureObject(@Nullable JsonObject object) {
+        MoStruct struct = new MoStruct();
+        if (object == null) return struct;
+        for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+            JsonElement value = entry.getValue();
+            struct.set(entry.getKey(), value.isJsonObject() ? fromFixtureObject(value.getAsJsonObject()) : fromFixture(value, null));
+        }
+        return struct;
+    }
+
+    private static MoValue primitive(JsonPrimitive primitive) {
+        if (primitive.isBoolean()) return MoValue.of(primitive.getAsBoolean());
+        if (primitive.isNumber()) return MoValue.of(primitive.getAsDouble());
+        return new MoValue.Str(primitive.getAsString());
+    }
+
+    @Nullable
+    private static JsonObject objectField(@Nullable JsonObject object, String field) {
+        if (object == null || !object.has(field) || !object.get(field).isJsonObject()) return null;
+        return object.getAsJsonObject(field);
+    }
+}
@@ -0,0 +1,70 @@
+package aster.amo.molang.ide.runtime;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class Profiler {
+    private final Map<String, Stat> functions = new HashMap<>();
+    private final Map<String, long[]> queries = new HashMap<>();
+    private final ArrayDeque<Frame> stack = new ArrayDeque<>();
+
+    public void enter(String name) {
+        stack.push(new Frame(name, System.nanoTime()));
+    }
+
+    public void exit() {
+        Frame frame = stack.pop();
+        long elapsed = System.nanoTime() - frame.start;
+        Stat stat = functions.computeIfAbsent(frame.name, k -> new Stat());
+        stat.calls++;
+        stat.totalNanos += elapsed;
+        stat.selfNanos += elapsed - frame.childNanos;
+        Frame parent = stack.peek();
+        if (parent != null) parent.childNanos += elapsed;
+    }
+
+    public void query(String path) {
+        queries.computeIfAbsent(path, k -> new long[1])[0]++;
+    }
+
+    public List<HotSpot> hotSpots() {
+        List<HotSpot> result = new ArrayList<>(functions.size());
+        for (Map.Entry<String, Stat> entry : functions.entrySet()) {
+            Stat stat = entry.getValue();
+            result.add(new HotSpot(entry.getKey(), stat.calls, stat.totalNanos, stat.selfNanos));
+        }
+        result.sort(Comparator.comparingLong(HotSpot::selfNanos).reversed());
+        return result;
+    }
+
+    public Map<String, Long> queryCalls() {
+        Map<String, Long> result = new HashMap<>(queries.size());
+        for (Map.Entry<String, long[]> entry : queries.entrySet()) {
+            result.put(entry.getKey(), entry.getValue()[0]);
+        }
+        return result;
+    }
+
+    public record HotSpot(String name, long calls, long totalNanos, long selfNanos) {}
+
+    private static final class Stat {
+        long calls;
+        long totalNanos;
+        long selfNanos;
+    }
+
+    private static final class Frame {
+        final String name;
+        final long start;
+        long childNanos;
+
+        Frame(String name, long start) {
+            this.name = name;
+            this.start = start;
+        }
+    }
+}
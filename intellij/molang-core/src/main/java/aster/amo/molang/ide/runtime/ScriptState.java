@@ -0,0 +1,66 @@
+package aster.amo.molang.ide.runtime;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+final class ScriptState {
+    final MockRuntime runtime;
+    final Random random;
+    final CompiledScript script;
+    private final Map<String, MoValue.Fn> functions = new HashMap<>();
+    private final Set<String> imported = new HashSet<>();
+    MoStruct temps;
+    MoStruct variables;
+    MoStruct context;
+    private int depth;
+
+    ScriptState(MockRuntime runtime, CompiledScript script) {
+        this.runtime = runtime;
+        this.script = script;
+        this.random = new Random(runtime.getSeed());
+    }
+
+    void reset() {
+        temps = new MoStruct();
+        variables = runtime.newVariables();
+        context = runtime.newContext();
+        functions.clear();
+        imported.clear();
+        depth = 0;
+    }
+
+    @Nullable
+    MoValue call(String name, List<MoValue> args, int offset) {
+        MoValue.Fn fn = functions.get(name);
+        if (fn == null) throw new MoLangRuntimeException("Unknown function 'f." + name + "'", offset);
+        return fn.function().call(args);
+    }
+
+    void define(String name, int id, int offset) {
+        functions.put(name, lambda(id, "f." + name, offset));
+    }
+
+    MoValue.Fn lambda(int id, String name, int offset) {
+        return new MoValue.Fn(args -> {
+            if (depth >= MoLangInterpreter.MAX_CALL_DEPTH) {
+                throw new MoLangRuntimeException("Call depth exceeded " + MoLangInterpreter.MAX_CALL_DEPTH + " in " + name, offset);
+            }
+            depth++;
+            try {
+                return script.invoke(id, this, args);
+            } finally {
+                depth--;
+            }
+        }, false);
+    }
+
+    boolean markImported(String path) {
+        return imported.add(path);
+    }
+}
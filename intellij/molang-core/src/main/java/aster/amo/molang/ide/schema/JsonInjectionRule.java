@@ -0,0 +1,149 @@
+package aster.amo.molang.ide.schema;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Where MoLang lives inside datapack JSON: a file glob such as {@code data/*&#47;dialogues/**&#47;*.json} and the
+ * field paths inside those files. Field path segments are object keys or array indices separated by dots;
+ * {@code *} matches one segment and {@code **} any number of them. When a prefix is set, only string values
+ * starting with it are MoLang, and the prefix itself is not.
+ */
+public final class JsonInjectionRule {
+    private final String id;
+    private final String files;
+    private final List<String> fields;
+    private final @Nullable String prefix;
+    private final Pattern filePattern;
+    private final List<String[]> fieldPatterns;
+
+    public JsonInjectionRule(@NotNull String id, @NotNull String files, @NotNull List<String> fields, @Nullable String prefix) {
+        this.id = id;
+        this.files = files;
+        this.fields = List.copyOf(fields);
+        this.prefix = prefix == null || prefix.isEmpty() ? null : prefix;
+        this.filePattern = Pattern.compile("(?:^|.*/)" + globToRegex(files));
+        this.fieldPatterns = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            fieldPatterns.add(field.split("\\."));
+        }
+    }
+
+    @NotNull
+    public String id() {
+        return id;
+    }
+
+    @NotNull
+    public String files() {
+        return files;
+    }
+
+    @NotNull
+    public List<String> fields() {
+        return fields;
+    }
+
+    @Nullable
+    public String prefix() {
+        return prefix;
+    }
+
+    public boolean matchesFile(@NotNull String path) {
+        return filePattern.matcher(path.replace('\\', '/')).matches();
+    }
+
+    public boolean matchesField(@NotNull List<String> path) {
+        for (String[] pattern : fieldPatterns) {
+            if (matches(pattern, 0, path, 0)) return true;
+        }
+        return false;
+    }
+
+    @NotNull
+    public static List<JsonInjectionRule> parse(@Nullable JsonElement section) {
+        List<JsonInjectionRule> rules = new ArrayList<>();
+        if (section == null || !section.isJsonArray()) return rules;
+        for (JsonElement element : section.getAsJsonArray()) {
+            if (!element.isJsonObject()) continue;
+            JsonObject rule = element.getAsJsonObject();
+            if (!rule.has("files") || !rule.has("fields") || !rule.get("fields").isJsonArray()) continue;
+            List<String> fields = new ArrayList<>();
+            for (JsonElement field : rule.getAsJsonArray("fields")) {
+                fields.add(field.getAsString());
+            }
+            rules.add(new JsonInjectionRule(
+                    rule.has("id") ? rule.get("id").getAsString() : rule.get("files").getAsString(),
+                    rule.get("files").getAsString(), fields,
+                    rule.has("prefix") ? rule.get("prefix").getAsString() : null));
+        }
+        return rules;
+    }
+
+    @NotNull
+    public JsonObject toJson() {
+        JsonObject rule = new JsonObject();
+        rule.addProperty("id", id);
+        rule.addProperty("files", files);
+        JsonArray array = new JsonArray();
+        fields.forEach(array::add);
+        rule.add("fields", array);
+        if (prefix != null) rule.addProperty("prefix", prefix);
+        return rule;
+    }
+
+    private static boolean matches(String[] pattern, int p, List<String> path, int i) {
+        if (p == pattern.length) return i == path.size();
+        if (pattern[p].equals("**")) {
+            for (int skip = i; skip <= path.size(); skip++) {
+                if (matches(pattern, p + 1, path, skip)) return true;
+            }
+            return false;
+        }
+        if (i == path.size()) return false;
+        return (pattern[p].equals("*") || pattern[p].equals(path.get(i))) && matches(pattern, p + 1, path, i + 1);
+    }
+
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*' && i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                boolean slash = i + 2 < glob.length() && glob.charAt(i + 2) == '/';
+                regex.append(slash ? "(?:.*/)?" : ".*");
+                i += slash ? 2 : 1;
+            } else if (c == '*') {
+                regex.append("[^/]*");
+            } else if (c == '?') {
+                regex.append("[^/]");
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return regex.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof JsonInjectionRule other && id.equals(other.id) && files.equals(other.files)
+                && fields.equals(other.fields) && Objects.equals(prefix, other.prefix);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, files, fields, prefix);
+    }
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
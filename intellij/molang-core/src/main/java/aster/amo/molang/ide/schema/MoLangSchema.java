@@ -0,0 +1,449 @@
+package aster.amo.molang.ide.schema;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * An immutable snapshot of the schema. Every lookup table is built once in the constructor from a private copy of
+ * the JSON, and accessors return unmodifiable views of it, so one instance can be shared between threads without
+ * locking. Entries are handed out as {@link SchemaEntry} views, one shared instance per entry, so they cannot be
+ * changed and can be used as cache keys for as long as the snapshot lives.
+ */
+public final class MoLangSchema {
+    public static final String BUNDLED_RESOURCE = "/schema/molang-schema.json";
+
+    private static final List<String> IMPURE_NAME_PREFIXES = List.of(
+            "set_", "add_", "remove_", "delete_", "clear_", "give_", "take_", "run_", "execute_",
+            "spawn_", "save_", "create_", "cache_", "apply", "heal", "play_", "send_", "teleport",
+            "append", "insert", "print", "random", "die_roll"
+    );
+    private static final Pattern CONTEXT_PATTERN = Pattern.compile("//\\s*@context\\s+(\\S+)");
+
+    private final JsonObject root;
+    private final JsonObject structs;
+    private final JsonObject functionSets;
+    private final JsonObject runtimes;
+    private final JsonObject structCompositions;
+
+    private final Set<String> runtimeNames;
+    private final Set<String> structNames;
+    private final Map<String, Map<String, SchemaEntry>> runtimeQueryVariables;
+    private final Map<String, SchemaEntry> mergedQueryVariables;
+    private final Map<String, Map<String, SchemaEntry>> structFunctions;
+    private final Map<String, Map<String, SchemaEntry>> functionSetFunctions;
+    private final Map<String, List<String>> compositionRegistries;
+    private final Map<String, Map<String, SchemaEntry>> allFunctions;
+
+    public MoLangSchema(@NotNull JsonObject root) {
+        this.root = root.deepCopy();
+        structs = objectField(this.root, "structs");
+        functionSets = objectField(this.root, "function_sets");
+        runtimes = objectField(this.root, "runtimes");
+        structCompositions = objectField(this.root, "structCompositions");
+
+        runtimeNames = Collections.unmodifiableSet(new LinkedHashSet<>(runtimes.keySet()));
+        structNames = Collections.unmodifiableSet(new LinkedHashSet<>(structs.keySet()));
+
+        Map<String, Map<String, SchemaEntry>> queries = new HashMap<>();
+        Map<String, SchemaEntry> merged = new LinkedHashMap<>();
+        for (String name : runtimes.keySet()) {
+            JsonElement runtime = runtimes.get(name);
+            if (!runtime.isJsonObject()) continue;
+            Map<String, SchemaEntry> query = objectMap(objectField(runtime.getAsJsonObject(), "query"));
+            queries.put(name, query);
+            merged.putAll(query);
+        }
+        runtimeQueryVariables = Collections.unmodifiableMap(queries);
+        mergedQueryVariables = Collections.unmodifiableMap(merged);
+
+        structFunctions = functionTables(structs);
+        functionSetFunctions = functionTables(functionSets);
+
+        Map<String, List<String>> registries = new HashMap<>();
+        for (String type : structCompositions.keySet()) {
+            JsonElement comp = structCompositions.get(type);
+            if (!comp.isJsonObject() || !comp.getAsJsonObject().has("registries")) continue;
+            List<String> names = new ArrayList<>();
+            for (JsonElement el : comp.getAsJsonObject().getAsJsonArray("registries")) {
+                names.add(el.getAsString());
+            }
+            registries.put(type, List.copyOf(names));
+        }
+        compositionRegistries = Collections.unmodifiableMap(registries);
+
+        Map<String, Map<String, SchemaEntry>> all = new HashMap<>();
+        for (String type : structs.keySet()) all.put(type, composeFunctions(type));
+        for (String type : structCompositions.keySet()) all.computeIfAbsent(type, this::composeFunctions);
+        allFunctions = Collections.unmodifiableMap(all);
+    }
+
+    @NotNull
+    public static MoLangSchema load(@NotNull Reader reader) {
+        return new MoLangSchema(JsonParser.parseReader(reader).getAsJsonObject());
+    }
+
+    @NotNull
+    public static MoLangSchema loadBundled() throws IOException {
+        try (InputStream is = MoLangSchema.class.getResourceAsStream(BUNDLED_RESOURCE)) {
+            if (is == null) throw new IOException("molang-schema.json not found in resources");
+            return load(new InputStreamReader(is, StandardCharsets.UTF_8));
+        }
+    }
+
+    public static int bundledVersion() {
+        return BundledVersion.VALUE;
+    }
+
+    /** A copy of the schema JSON; changing it does not affect this snapshot. */
+    @NotNull
+    public JsonObject getRoot() {
+        return root.deepCopy();
+    }
+
+    @NotNull
+    public List<JsonInjectionRule> getJsonInjections() {
+        return JsonInjectionRule.parse(root.get("json_injections"));
+    }
+
+    public Set<String> getRuntimeNames() {
+        return runtimeNames;
+    }
+
+    @Nullable
+    public JsonObject getRuntimeContext(String eventName) {
+        if (!runtimes.has(eventName)) return null;
+        return runtimes.getAsJsonObject(eventName).deepCopy();
+    }
+
+    @NotNull
+    public Map<String, SchemaEntry> getRuntimeQueryVariables(String eventName) {
+        return runtimeQueryVariables.getOrDefault(eventName, Collections.emptyMap());
+    }
+
+    @Nullable
+    public String inferRuntimeFromContent(CharSequence text) {
+        if (text == null) return null;
+        int lineStart = 0;
+        int length = text.length();
+        for (int i = 0; i < 10 && lineStart < length; i++) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && text.charAt(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            Matcher m = CONTEXT_PATTERN.matcher(text.subSequence(lineStart, lineEnd));
+            if (m.find()) {
+                String ctx = m.group(1);
+                if (runtimes.has(ctx)) {
+                    return ctx;
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return null;
+    }
+
+    @Nullable
+    public String inferRuntimeFromPath(String filePath) {
+        if (filePath == null) return null;
+        String normalized = filePath.replace('\\', '/').toLowerCase();
+
+        for (String prefix : new String[]{"callbacks/", "molang/"}) {
+            int idx = normalized.indexOf(prefix);
+            if (idx >= 0) {
+                String after = normalized.substring(idx + prefix.length());
+                int slashIdx = after.indexOf('/');
+                if (slashIdx > 0) {
+                    String folder = after.substring(0, slashIdx);
+                    String eventName = "event:" + folder.toUpperCase();
+                    if (runtimes.has(eventName)) {
+                        return eventName;
+                    }
+                }
+            }
+        }
+
+        for (String runtimeName : runtimeNames) {
+            String lower = runtimeName.replace("event:", "").toLowerCase().replace("_", "");
+            if (normalized.contains(lower)) {
+                return runtimeName;
+            }
+        }
+
+        return null;
+    }
+
+    @Nullable
+    public String inferRuntime(CharSequence text, @Nullable String filePath) {
+        String runtimeName = inferRuntimeFromContent(text);
+        return runtimeName != null ? runtimeName : inferRuntimeFromPath(filePath);
+    }
+
+    public Set<String> getStructNames() {
+        return structNames;
+    }
+
+    @NotNull
+    public Map<String, SchemaEntry> getStructFunctions(String structName) {
+        return structFunctions.getOrDefault(structName, Collections.emptyMap());
+    }
+
+    @NotNull
+    public List<String> getCompositionRegistries(String structType) {
+        return compositionRegistries.getOrDefault(structType, Collections.emptyList());
+    }
+
+    @NotNull
+    public Map<String, SchemaEntry> getFunctionSetFunctions(String setName) {
+        return functionSetFunctions.getOrDefault(setName, Collections.emptyMap());
+    }
+
+    @Nullable
+    public SchemaResolution resolveChain(String runtimeName, String[] chain) {
+        if (chain == null || chain.length == 0) return null;
+
+        Map<String, SchemaEntry> queryVars = getQueryVariables(runtimeName);
+
+        SchemaEntry current = null;
+        String currentStructType = null;
+        Map<String, SchemaEntry> currentFunctions = null;
+
+        String first = chain[0];
+        if (queryVars.containsKey(first)) {
+            current = queryVars.get(first);
+            currentStructType = current.string("struct_type");
+            if (currentStructType == null) {
+                currentStructType = first;
+            }
+        } else if (structs.has(first)) {
+            currentStructType = first;
+        } else {
+            return null;
+        }
+
+        for (int i = 1; i < chain.length; i++) {
+            Map<String, SchemaEntry> funcs;
+            if (currentFunctions != null) {
+                funcs = currentFunctions;
+                currentFunctions = null;
+            } else {
+                funcs = getAllFunctionsForType(currentStructType);
+            }
+
+            String member = chain[i];
+            if (!funcs.containsKey(member)) return null;
+
+            current = funcs.get(member);
+            if (isStructEntry(current)) {
+                currentStructType = current.string("struct_type");
+                if (current.has("functions")) {
+                    currentFunctions = getInlineFunctions(current);
+                }
+                if (currentStructType == null && currentFunctions == null) return null;
+            } else {
+                if (i < chain.length - 1) return null;
+                return new SchemaResolution(current, Collections.emptyMap());
+            }
+        }
+
+        Map<String, SchemaEntry> availableFunctions;
+        if (currentFunctions != null) {
+            availableFunctions = currentFunctions;
+        } else if (current != null && current.has("functions")) {
+            availableFunctions = getInlineFunctions(current);
+        } else {
+            availableFunctions = getAllFunctionsForType(currentStructType);
+        }
+        return new SchemaResolution(current, availableFunctions);
+    }
+
+    @Nullable
+    public SchemaEntry resolveFunction(String runtimeName, String[] chain) {
+        if (chain == null || chain.length == 0) return null;
+
+        if (chain.length >= 1 && "math".equals(chain[0]) && chain.length == 1) {
+            return null;
+        }
+
+        SchemaResolution res = resolveChain(runtimeName, Arrays.copyOf(chain, chain.length - 1));
+        if (res == null && chain.length == 1) {
+            if (runtimeName != null) {
+                Map<String, SchemaEntry> queryVars = getRuntimeQueryVariables(runtimeName);
+                return queryVars.get(chain[0]);
+            }
+            return null;
+        }
+        if (res == null) return null;
+
+        String last = chain[chain.length - 1];
+        return res.functions().get(last);
+    }
+
+    @NotNull
+    public Map<String, SchemaEntry> getMathFunctions() {
+        return getStructFunctions("math");
+    }
+
+    @NotNull
+    public Map<String, SchemaEntry> getGeneralFunctions() {
+        return getFunctionSetFunctions("generalFunctions");
+    }
+
+    @NotNull
+    public Map<String, SchemaEntry> getAllFunctionsForType(@Nullable String structType) {
+        if (structType == null) return Collections.emptyMap();
+        return allFunctions.getOrDefault(structType, Collections.emptyMap());
+    }
+
+    @NotNull
+    private Map<String, SchemaEntry> composeFunctions(@NotNull String structType) {
+        Map<String, SchemaEntry> result = new LinkedHashMap<>();
+
+        result.putAll(getStructFunctions(structType));
+
+        List<String> registries = getCompositionRegistries(structType);
+        for (String registry : registries) {
+            result.putAll(getFunctionSetFunctions(registry));
+        }
+
+        if (structCompositions.has(structType)) {
+            JsonObject comp = structCompositions.getAsJsonObject(structType);
+            if (comp.has("custom_functions")) {
+                JsonObject customFuncs = comp.getAsJsonObject("custom_functions");
+                for (String key : customFuncs.keySet()) {
+                    JsonElement el = customFuncs.get(key);
+                    if (el.isJsonObject() && !result.containsKey(key)) {
+                        result.put(key, new SchemaEntry(el.getAsJsonObject()));
+                    }
+                }
+            }
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    @NotNull
+    public Map<String, SchemaEntry> getQueryVariables(@Nullable String runtimeName) {
+        if (runtimeName != null) {
+            return getRuntimeQueryVariables(runtimeName);
+        }
+        return mergedQueryVariables;
+    }
+
+    @Nullable
+    public Map<String, SchemaEntry> getMembers(@Nullable SchemaEntry entry) {
+        if (entry == null) return null;
+        if (entry.has("functions")) return getInlineFunctions(entry);
+        String structType = entry.string("struct_type");
+        if (structType == null || !isKnownStructType(structType)) return null;
+        return getAllFunctionsForType(structType);
+    }
+
+    public boolean isKnownStructType(@Nullable String structType) {
+        if (structType == null) return false;
+        return structs.has(structType) || structCompositions.has(structType);
+    }
+
+    public static boolean isStructEntry(@Nullable SchemaEntry entry) {
+        if (entry == null) return false;
+        return "Struct".equals(entry.string("type"))
+                || "Struct".equals(entry.string("returns"))
+                || entry.has("struct_type")
+                || entry.has("functions");
+    }
+
+    public static boolean isPureEntry(@NotNull String name, @Nullable SchemaEntry entry) {
+        if (entry == null) return false;
+        Boolean pure = entry.bool("pure");
+        if (pure != null) return pure;
+        String type = entry.string("returns");
+        if (type == null) type = entry.string("type");
+        if ("Unit".equals(type) || "Void".equals(type)) return false;
+        for (String prefix : IMPURE_NAME_PREFIXES) {
+            if (name.startsWith(prefix)) return false;
+        }
+        return true;
+    }
+
+    @NotNull
+    private Map<String, SchemaEntry> getInlineFunctions(SchemaEntry parent) {
+        if (!parent.has("functions")) return Collections.emptyMap();
+        Map<String, SchemaEntry> result = new LinkedHashMap<>(parent.functions());
+
+        String structType = parent.string("struct_type");
+        if (structType != null) {
+            Map<String, SchemaEntry> composed = getAllFunctionsForType(structType);
+            for (var entry : composed.entrySet()) {
+                result.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    @NotNull
+    private static Map<String, Map<String, SchemaEntry>> functionTables(@NotNull JsonObject owners) {
+        Map<String, Map<String, SchemaEntry>> tables = new HashMap<>();
+        for (String name : owners.keySet()) {
+            JsonElement owner = owners.get(name);
+            if (owner.isJsonObject()) {
+                tables.put(name, objectMap(objectField(owner.getAsJsonObject(), "functions")));
+            }
+        }
+        return Collections.unmodifiableMap(tables);
+    }
+
+    @NotNull
+    private static Map<String, SchemaEntry> objectMap(@NotNull JsonObject object) {
+        Map<String, SchemaEntry> result = new LinkedHashMap<>();
+        for (String key : object.keySet()) {
+            JsonElement el = object.get(key);
+            if (el.isJsonObject()) {
+                result.put(key, new SchemaEntry(el.getAsJsonObject()));
+            }
+        }
+        return result.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(result);
+    }
+
+    @NotNull
+    private static JsonObject objectField(@NotNull JsonObject parent, @NotNull String field) {
+        JsonElement el = parent.get(field);
+        return el != null && el.isJsonObject() ? el.getAsJsonObject() : new JsonObject();
+    }
+
+    private static final class BundledVersion {
+        static final int VALUE = compute();
+
+        private static int compute() {
+            try (InputStream is = MoLangSchema.class.getResourceAsStream(BUNDLED_RESOURCE)) {
+                if (is == null) return 0;
+                CRC32 crc = new CRC32();
+                crc.update(is.readAllBytes());
+                return (int) (crc.getValue() & 0x7fffffff);
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+    }
+
+    public record SchemaResolution(
+            @Nullable SchemaEntry entry,
+            @NotNull Map<String, SchemaEntry> functions
+    ) {
+        public SchemaResolution {
+            functions = Collections.unmodifiableMap(functions);
+        }
+    }
+}
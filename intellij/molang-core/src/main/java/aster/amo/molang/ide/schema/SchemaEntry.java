@@ -0,0 +1,113 @@
+package aster.amo.molang.ide.schema;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A read-only view of one schema entry: a query variable, a function or a parameter. Each snapshot builds one
+ * instance per entry and hands out that same instance from every lookup, so callers can key caches on it. The JSON
+ * behind it is private to the snapshot; {@link #toJson()} returns a copy.
+ */
+public final class SchemaEntry {
+    private final JsonObject json;
+    private final @Nullable List<SchemaEntry> params;
+    private final Map<String, SchemaEntry> functions;
+
+    SchemaEntry(@NotNull JsonObject json) {
+        this.json = json;
+
+        JsonElement paramsElement = json.get("params");
+        if (paramsElement != null && paramsElement.isJsonArray()) {
+            List<SchemaEntry> list = new ArrayList<>(paramsElement.getAsJsonArray().size());
+            for (JsonElement param : paramsElement.getAsJsonArray()) {
+                if (param.isJsonObject()) list.add(new SchemaEntry(param.getAsJsonObject()));
+            }
+            params = Collections.unmodifiableList(list);
+        } else {
+            params = null;
+        }
+
+        JsonElement functionsElement = json.get("functions");
+        if (functionsElement != null && functionsElement.isJsonObject()) {
+            Map<String, SchemaEntry> map = new LinkedHashMap<>();
+            for (Map.Entry<String, JsonElement> function : functionsElement.getAsJsonObject().entrySet()) {
+                if (function.getValue().isJsonObject()) {
+                    map.put(function.getKey(), new SchemaEntry(function.getValue().getAsJsonObject()));
+                }
+            }
+            functions = Collections.unmodifiableMap(map);
+        } else {
+            functions = Collections.emptyMap();
+        }
+    }
+
+    public boolean has(@NotNull String field) {
+        return json.has(field);
+    }
+
+    /** The field as a string, or null if it is missing or not a primitive. */
+    @Nullable
+    public String string(@NotNull String field) {
+        JsonElement el = json.get(field);
+        return el != null && el.isJsonPrimitive() ? el.getAsString() : null;
+    }
+
+    /** The field as a boolean, or null if it is missing or not a primitive. */
+    @Nullable
+    public Boolean bool(@NotNull String field) {
+        JsonElement el = json.get(field);
+        return el != null && el.isJsonPrimitive() ? el.getAsBoolean() : null;
+    }
+
+    /** True only if the field is present and true. */
+    public boolean flag(@NotNull String field) {
+        return Boolean.TRUE.equals(bool(field));
+    }
+
+    /** The field as a number, or null if it is missing or not numeric. */
+    @Nullable
+    public Double number(@NotNull String field) {
+        JsonElement el = json.get(field);
+        if (el == null || !el.isJsonPrimitive()) return null;
+        JsonPrimitive primitive = el.getAsJsonPrimitive();
+        return primitive.isNumber() ? primitive.getAsDouble() : null;
+    }
+
+    /** The object-valued entries of {@code params}, or null if the entry has no parameter list. */
+    @Nullable
+    public List<SchemaEntry> params() {
+        return params;
+    }
+
+    /** The entry's own inline {@code functions}, without anything inherited through {@code struct_type}. */
+    @NotNull
+    public Map<String, SchemaEntry> functions() {
+        return functions;
+    }
+
+    /** Whether both entries declare the same parameter list. */
+    public boolean sameParams(@NotNull SchemaEntry other) {
+        return Objects.equals(json.get("params"), other.json.get("params"));
+    }
+
+    /** A copy of the JSON behind this entry. */
+    @NotNull
+    public JsonObject toJson() {
+        return json.deepCopy();
+    }
+
+    @Override
+    public String toString() {
+        return json.toString();
+    }
+}
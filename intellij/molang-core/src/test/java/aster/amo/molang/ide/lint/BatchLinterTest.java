@@ -0,0 +1,109 @@
+package aster.amo.molang.ide.lint;
+
+import aster.amo.molang.ide.schema.MoLangSchema;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks where the cross-file {@code unresolved-import} diagnostic points: at the {@code import} call, on a fresh run,
+ * after the target is deleted in watch mode, and when the finding is read back from the cache.
+ */
+public class BatchLinterTest {
+    private static final String IMPORTER = "data/ns/molang/a.molang";
+    private static final String TARGET = "data/ns/molang/b.molang";
+    private static final String SCRIPT = "t.a = 1;\n\n  import('ns:b');\nreturn t.a;\n";
+
+    private static MoLangSchema schema;
+
+    @BeforeClass
+    public static void loadSchema() throws IOException {
+        schema = MoLangSchema.loadBundled();
+    }
+
+    @Test
+    public void unresolvedImportPointsAtTheImport() throws IOException {
+        Path root = Files.createTempDirectory("molang-lint");
+        try {
+            write(root, IMPORTER, SCRIPT);
+            BatchLinter.Result result = linter().lint(root);
+            assertImportDiagnostic(result);
+
+            StringBuilder text = new StringBuilder();
+            LintReports.writeText(result, text);
+            assertTrue(text.toString(), text.toString().contains(IMPORTER + ":3:3: error: Cannot resolve import 'ns:b'"));
+
+            StringBuilder sarif = new StringBuilder();
+            LintReports.writeSarif(result, sarif);
+            assertTrue(sarif.toString(), sarif.toString().contains("\"startLine\": 3"));
+            assertTrue(sarif.toString(), sarif.toString().contains("\"startColumn\": 3"));
+        } finally {
+            delete(root);
+        }
+    }
+
+    @Test
+    public void unresolvedImportKeepsItsPositionThroughWatchAndCache() throws IOException {
+        Path root = Files.createTempDirectory("molang-lint");
+        try {
+            write(root, IMPORTER, SCRIPT);
+            Path target = write(root, TARGET, "fn('b', () -> { return 1; });\n");
+            BatchLinter batch = linter();
+            LintCache cache = LintCache.empty("test", root);
+            assertEquals(0, batch.lint(root, cache).files().stream().mapToInt(f -> f.diagnostics().size()).sum());
+
+            Files.delete(target);
+            assertImportDiagnostic(batch.update(root, cache, List.of(target)));
+
+            Path cacheFile = root.resolve(".molang-lint-cache");
+            cache.save(cacheFile);
+            BatchLinter.Result cached = batch.lint(root, LintCache.load(cacheFile, "test", root));
+            assertEquals(0, cached.analyzedCount());
+            assertImportDiagnostic(cached);
+        } finally {
+            delete(root);
+        }
+    }
+
+    private static BatchLinter linter() {
+        return new BatchLinter(new MoLangFileLinter(schema), 1);
+    }
+
+    private static void assertImportDiagnostic(BatchLinter.Result result) {
+        LintDiagnostic diagnostic = result.files().stream()
+                .filter(file -> file.path().equals(IMPORTER))
+                .flatMap(file -> file.diagnostics().stream())
+                .filter(d -> d.rule().equals(MoLangFileLinter.RULE_UNRESOLVED_IMPORT))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No unresolved import in " + result.files()));
+        assertEquals(SCRIPT.indexOf("import"), diagnostic.start());
+        assertEquals(3, diagnostic.line());
+        assertEquals(3, diagnostic.column());
+        assertEquals(3, diagnostic.endLine());
+        assertEquals(17, diagnostic.endColumn());
+    }
+
+    private static Path write(Path root, String path, String text) throws IOException {
+        Path file = root.resolve(path);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, text, StandardCharsets.UTF_8);
+    }
+
+    private static void delete(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
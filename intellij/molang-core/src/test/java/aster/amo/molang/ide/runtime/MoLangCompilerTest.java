@@ -0,0 +1,219 @@
+package aster.amo.molang.ide.runtime;
+
+import aster.amo.molang.ide.ast.MoLangParser;
+import aster.amo.molang.ide.ast.Node;
+import aster.amo.molang.ide.ast.ParseResult;
+import aster.amo.molang.ide.schema.MoLangSchema;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs every script of a corpus through {@link MoLangInterpreter} and through {@link MoLangCompiler}, twice each, and
+ * requires the same result, temps and variables, or the same runtime error. The interpreter is the reference.
+ */
+public class MoLangCompilerTest {
+    private static final String RUNTIME = "event:POKEMON_LEVEL_UP";
+    private static final String FIXTURE = """
+            {
+              "seed": 7,
+              "query": { "pokemon": { "level": 40, "friendship": 120, "species": { "name": "pikachu" } } },
+              "variables": { "count": 3 }
+            }
+            """;
+
+    private static final Map<String, String> IMPORTS = Map.of(
+            "test:util", """
+                    fn('double', (x) -> { return x * 2; });
+                    fn('label', (name, n) -> { return name + ':' + n; });
+                    v.util_loaded = 1;
+                    return 99;
+                    """,
+            "test:chain", """
+                    import('test:util');
+                    fn('quadruple', (x) -> { return f.double(f.double(x)); });
+                    """
+    );
+
+    private static final Map<String, String> CORPUS = new LinkedHashMap<>();
+
+    static {
+        CORPUS.put("arithmetic", """
+                t.x = 1;
+                loop(100, {
+                    t.x = t.x + math.sin(t.x) * 2.5 - math.clamp(t.x / 3, 0, 10);
+                    (t.x > 50) ? { t.x = t.x % 7; };
+                });
+                return t.x;
+                """);
+        CORPUS.put("precedence", "return 2 + 3 * 4 - 10 / 4 % 3 + -(2 - 5) * 2;");
+        CORPUS.put("comparisons", "t.a = 3 < 4; t.b = 3 >= 4; t.c = 2 == 2.0; t.d = 'a' != 'b'; t.e = !0; return t.a + t.b + t.c + t.d + t.e;");
+        CORPUS.put("logic", "t.n = 0; t.r = (t.n != 0 && 10 / t.n > 1) || t.n == 0; return t.r;");
+        CORPUS.put("null coalescing", "t.a = t.missing ?? 5; t.b = t.a ?? 6; return t.a * 10 + t.b;");
+        CORPUS.put("ternary", "t.v = q.pokemon.level > 30 ? 'high' : 'low'; t.w = 0 ? 1; return t.v;");
+        CORPUS.put("compound assignment", "t.x = 10; t.x += 5; t.x -= 3; t.x *= 2; t.x /= 4; return t.x;");
+        CORPUS.put("loop", "t.sum = 0; loop(10, { t.sum += 2; }); return t.sum;");
+        CORPUS.put("loop break continue", """
+                t.sum = 0; t.i = 0;
+                loop(100, {
+                    t.i += 1;
+                    (t.i % 2 == 0) ? { continue; };
+                    (t.i > 15) ? { break; };
+                    t.sum += t.i;
+                });
+                return t.sum;
+                """);
+        CORPUS.put("while", "t.i = 0; while (t.i < 20) { t.i += 3; if (t.i == 9) { continue; } if (t.i > 14) { break; } } return t.i;");
+        CORPUS.put("for", """
+                t.total = 0;
+                for (t.i = 0; t.i < 50; t.i += 1) {
+                    if (t.i % 3 == 0) { continue; }
+                    if (t.i > 40) { break; }
+                    t.total += q.pokemon.level * 2 + q.pokemon.friendship;
+                    if (q.pokemon.species.name == 'pikachu') { t.total += 1; }
+                }
+                return t.total;
+                """);
+        CORPUS.put("nested loops", """
+                t.count = 0;
+                for (t.i = 0; t.i < 5; t.i += 1) {
+                    for (t.j = 0; t.j < 5; t.j += 1) {
+                        if (t.j > t.i) { break; }
+                        t.count += 1;
+                    }
+                }
+                return t.count;
+                """);
+        CORPUS.put("switch", """
+                t.out = '';
+                for (t.i = 0; t.i < 4; t.i += 1) {
+                    t.out = t.out + switch (t.i) { 0 : 'zero'; 2 : 'two'; default : '-' };
+                }
+                return t.out;
+                """);
+        CORPUS.put("structs", """
+                t.s = struct { name : 'eevee', level : 5, stats : struct { hp : 55, atk : 55 } };
+                t.s.level += 10;
+                t.s.stats.spd = 55;
+                t.copy = t.s;
+                t.copy.name = 'vaporeon';
+                return t.s.name + ' ' + t.s.level + ' ' + t.s.stats.hp + t.s.stats.spd;
+                """);
+        CORPUS.put("struct paths", "t.a.b.c = 4; v.x.y = t.a.b.c * 2; return v.x.y + v.count;");
+        CORPUS.put("for_each", """
+                t.list = struct { a : 1, b : 2, c : 3, d : 4 };
+                t.sum = 0;
+                for_each(t.item, t.list, {
+                    (t.item == 2) ? { continue; };
+                    (t.item == 4) ? { break; };
+                    t.sum += t.item;
+                });
+                return t.sum;
+                """);
+        CORPUS.put("functions", """
+                fn('fib', (n) -> { return n < 2 ? n : f.fib(n - 1) + f.fib(n - 2); });
+                fn('scale', (value, factor) -> { return value * factor; });
+                return f.scale(f.fib(12), 1.5);
+                """);
+        CORPUS.put("mutual recursion", """
+                fn('even', (n) -> { return n == 0 ? 1 : f.odd(n - 1); });
+                fn('odd', (n) -> { return n == 0 ? 0 : f.even(n - 1); });
+                return f.even(10) * 10 + f.odd(7);
+                """);
+        CORPUS.put("function state", """
+                fn('sum_to', (n) -> {
+                    t.total = 0;
+                    for (t.k = 1; t.k <= n; t.k += 1) { t.total += t.k; }
+                    return t.total;
+                });
+                return f.sum_to(10) + f.sum_to(3) + t.k;
+                """);
+        CORPUS.put("missing arguments", "fn('pair', (a, b) -> { return (b ?? 7) + a; }); return f.pair(1);");
+        CORPUS.put("lambda", "t.add = (a, b) -> { return a + b; }; return t.add(2, 3);");
+        CORPUS.put("imports", "import('test:util'); import('test:util'); return f.double(21) + v.util_loaded;");
+        CORPUS.put("nested imports", "import('test:chain'); return f.label('x', f.quadruple(3));");
+        CORPUS.put("strings", """
+                t.name = q.pokemon.species.name;
+                t.s = 'lv' + q.pokemon.level + ' ' + t.name;
+                t.same = t.name == 'pikachu';
+                t.n = '12' * 2;
+                return t.s + ' ' + t.same + ' ' + t.n;
+                """);
+        CORPUS.put("string numbers", "return 'x' + 1.5 + 'y' + 100 + 'z' + 0.1;");
+        CORPUS.put("division by zero", "t.a = 1 / 0; t.b = -1 / 0; t.c = 0 / 0; return 'r:' + t.a + t.b + t.c;");
+        CORPUS.put("invalid math", "t.a = math.sqrt(-1); t.b = t.a == t.a; return t.a;");
+        CORPUS.put("infinity arithmetic", "t.inf = 1 / 0; return (t.inf - t.inf) + (t.inf > 1000000) + math.min(t.inf, 3);");
+        CORPUS.put("math", "return math.floor(2.7) + math.ceil(2.1) + math.round(2.5) + math.abs(-3) + math.pow(2, 10) + math.mod(7, 3) + math.lerp(0, 10, 0.25);");
+        CORPUS.put("random", "t.a = math.random(0, 1); t.b = math.random_integer(1, 6); t.c = math.die_roll(2, 1, 6); return t.a + t.b + t.c;");
+        CORPUS.put("if else", "if (q.pokemon.level > 50) { t.r = 1; } else if (q.pokemon.level > 30) { t.r = 2; } else { t.r = 3; } return t.r;");
+        CORPUS.put("no return", "t.x = 5; v.y = t.x;");
+        CORPUS.put("unknown function", "return f.missing(1);");
+        CORPUS.put("unresolved import", "import('test:nowhere'); return 1;");
+        CORPUS.put("deep recursion", "fn('count', (n) -> { return n <= 0 ? 0 : 1 + f.count(n - 1); }); return f.count(150);");
+    }
+
+    private static MoLangSchema schema;
+    private static JsonObject fixture;
+
+    @BeforeClass
+    public static void loadSchema() throws IOException {
+        schema = MoLangSchema.loadBundled();
+        fixture = JsonParser.parseString(FIXTURE).getAsJsonObject();
+    }
+
+    @Test
+    public void compiledScriptsMatchTheInterpreter() {
+        for (Map.Entry<String, String> script : CORPUS.entrySet()) {
+            ParseResult parsed = MoLangParser.parse(script.getValue());
+            assertTrue(script.getKey() + ": " + parsed.errors(), parsed.errors().isEmpty());
+            assertSameBehaviour(script.getKey(), parsed.root());
+        }
+    }
+
+    @Test
+    public void runawayRecursionFailsOnBothEngines() {
+        Node.Block root = MoLangParser.parse("fn('down', (n) -> { return f.down(n + 1); }); return f.down(0);").root();
+        MockRuntime runtime = new MockRuntime(schema, RUNTIME, fixture);
+        assertTrue(outcome(() -> new MoLangInterpreter(runtime, IMPORTS::get, null).run(root), MoStruct::new, MoStruct::new)
+                .startsWith("error "));
+        assertTrue(outcome(MoLangCompiler.compile(root, runtime, IMPORTS::get)::run, MoStruct::new, MoStruct::new)
+                .startsWith("error "));
+    }
+
+    private static void assertSameBehaviour(String name, Node.Block root) {
+        MockRuntime runtime = new MockRuntime(schema, RUNTIME, fixture);
+        MoLangInterpreter interpreter = new MoLangInterpreter(runtime, IMPORTS::get, null);
+        CompiledMoLangScript compiled;
+        try {
+            compiled = MoLangCompiler.compile(root, runtime, IMPORTS::get);
+        } catch (MoLangCompiler.UnsupportedScriptException e) {
+            fail(name + " was not compiled: " + e.getMessage());
+            return;
+        }
+        for (int run = 1; run <= 2; run++) {
+            String expected = outcome(() -> interpreter.run(root), interpreter::temps, interpreter::variables);
+            String actual = outcome(compiled::run, compiled::temps, compiled::variables);
+            assertEquals(name + " (run " + run + ")", expected, actual);
+        }
+    }
+
+    private static String outcome(Supplier<MoValue> evaluation, Supplier<MoStruct> temps, Supplier<MoStruct> variables) {
+        try {
+            MoValue value = evaluation.get();
+            return "result " + MoValue.describe(value) + ", temps " + temps.get().asString()
+                    + ", variables " + variables.get().asString();
+        } catch (MoLangRuntimeException e) {
+            return "error " + e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package aster.amo.molang.ide.runtime;
+
+import aster.amo.molang.ide.ast.MoLangParser;
+import aster.amo.molang.ide.ast.ParseResult;
+import aster.amo.molang.ide.schema.MoLangSchema;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs scripts through {@link MoLangBenchmark}, the path behind {@code runMoLang} and the Run MoLang Script action, on
+ * both engines. Non-finite results must come back as a value and print, not fail while the report is formatted.
+ */
+public class MoLangRunnerTest {
+    private static MoLangSchema schema;
+
+    @BeforeClass
+    public static void loadSchema() throws IOException {
+        schema = MoLangSchema.loadBundled();
+    }
+
+    @Test
+    public void divisionByZeroPrintsInfinity() {
+        assertResult("return 1 / 0;", "Infinity");
+        assertResult("return -1 / 0;", "-Infinity");
+    }
+
+    @Test
+    public void invalidMathPrintsNaN() {
+        assertResult("return math.sqrt(-1);", "NaN");
+        assertResult("return 0 / 0;", "NaN");
+    }
+
+    @Test
+    public void nonFiniteNumbersJoinStrings() {
+        assertResult("return 'x' + 1 / 0;", "'xInfinity'");
+        assertResult("t.n = math.sqrt(-1); return 'n=' + t.n;", "'n=NaN'");
+    }
+
+    @Test
+    public void finiteNumbersKeepTheirFormat() {
+        assertResult("return 6 / 3;", "2");
+        assertResult("return 1 / 4;", "0.25");
+    }
+
+    private static void assertResult(String source, String expected) {
+        ParseResult parsed = MoLangParser.parse(source);
+        assertTrue(source + ": " + parsed.errors(), parsed.errors().isEmpty());
+        for (MoLangBenchmark.Engine engine : MoLangBenchmark.Engine.values()) {
+            MoLangBenchmark.Result result = MoLangBenchmark.run(parsed.root(), new MockRuntime(schema, null, null),
+                    ImportResolver.NONE, engine, 0, 1);
+            assertEquals(source + " on " + engine, expected, MoValue.describe(result.value()));
+            assertTrue(result.format().contains("Result:       " + expected + "\n"));
+        }
+    }
+}
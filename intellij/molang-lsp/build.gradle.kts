@@ -0,0 +1,41 @@
+plugins {
+    application
+}
+
+group = providers.gradleProperty("pluginGroup").get()
+version = providers.gradleProperty("pluginVersion").get()
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    implementation(project(":molang-core"))
+    implementation("org.eclipse.lsp4j:org.eclipse.lsp4j:0.23.1")
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_21
+    targetCompatibility = JavaVersion.VERSION_21
+}
+
+application {
+    mainClass = "aster.amo.molang.lsp.MoLangServerLauncher"
+}
+
+tasks {
+    register<Jar>("serverJar") {
+        group = "molang"
+        description = "Builds the self-contained language server jar used by the VS Code extension."
+        archiveFileName = "molang-lsp.jar"
+        destinationDirectory = rootDir.resolve("../vscode/server")
+        manifest {
+            attributes("Main-Class" to application.mainClass.get())
+        }
+        duplicatesStrategy = DuplicatesStrategy.EXCLUDE
+        from(sourceSets.main.get().output)
+        dependsOn(configurations.runtimeClasspath)
+        from({ configurations.runtimeClasspath.get().filter { it.name.endsWith(".jar") }.map { zipTree(it) } })
+        exclude("META-INF/*.SF", "META-INF/*.DSA", "META-INF/*.RSA")
+    }
+}
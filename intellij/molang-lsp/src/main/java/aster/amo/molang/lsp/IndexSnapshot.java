@@ -0,0 +1,137 @@
+package aster.amo.molang.lsp;
+
+import aster.amo.molang.ide.lint.BatchLinter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+public final class IndexSnapshot {
+    static final IndexSnapshot EMPTY = new IndexSnapshot(SnapshotMap.empty(), SnapshotMap.empty(), SnapshotMap.empty());
+
+    private final SnapshotMap<Path, WorkspaceIndex.FileEntry> files;
+    private final SnapshotMap<String, List<Path>> definers;
+    private final SnapshotMap<String, Integer> variables;
+
+    private IndexSnapshot(SnapshotMap<Path, WorkspaceIndex.FileEntry> files, SnapshotMap<String, List<Path>> definers,
+                          SnapshotMap<String, Integer> variables) {
+        this.files = files;
+        this.definers = definers;
+        this.variables = variables;
+    }
+
+    @NotNull
+    static IndexSnapshot of(@NotNull Collection<WorkspaceIndex.FileEntry> entries) {
+        SnapshotMap.Builder<Path, WorkspaceIndex.FileEntry> files = new SnapshotMap.Builder<>();
+        SnapshotMap.Builder<String, List<Path>> definers = new SnapshotMap.Builder<>();
+        SnapshotMap.Builder<String, Integer> variables = new SnapshotMap.Builder<>();
+        for (WorkspaceIndex.FileEntry entry : entries) {
+            files.put(entry.file(), entry);
+            for (String name : entry.definedNames()) {
+                List<Path> paths = definers.get(name);
+                if (paths == null) definers.put(name, paths = new ArrayList<>(1));
+                paths.add(entry.file());
+            }
+            for (String name : entry.variables()) {
+                Integer count = variables.get(name);
+                variables.put(name, count == null ? 1 : count + 1);
+            }
+        }
+        SnapshotMap.Builder<String, List<Path>> frozen = new SnapshotMap.Builder<>();
+        definers.build().forEach((name, paths) -> frozen.put(name, List.copyOf(paths)));
+        return new IndexSnapshot(files.build(), frozen.build(), variables.build());
+    }
+
+    @NotNull
+    IndexSnapshot with(@NotNull Path file, @Nullable WorkspaceIndex.FileEntry entry) {
+        WorkspaceIndex.FileEntry previous = files.get(file);
+        if (previous == null && entry == null) return this;
+
+        SnapshotMap<String, List<Path>> definers = this.definers;
+        Set<String> oldNames = previous != null ? previous.definedNames() : Set.of();
+        Set<String> newNames = entry != null ? entry.definedNames() : Set.of();
+        for (String name : oldNames) {
+            if (!newNames.contains(name)) definers = definers.with(name, without(definers.get(name), file));
+        }
+        for (String name : newNames) {
+            if (!oldNames.contains(name)) definers = definers.with(name, plus(definers.get(name), file));
+        }
+
+        SnapshotMap<String, Integer> variables = this.variables;
+        Set<String> oldVariables = previous != null ? previous.variables() : Set.of();
+        Set<String> newVariables = entry != null ? entry.variables() : Set.of();
+        for (String name : oldVariables) {
+            if (newVariables.contains(name)) continue;
+            Integer count = variables.get(name);
+            variables = variables.with(name, count == null || count <= 1 ? null : count - 1);
+        }
+        for (String name : newVariables) {
+            if (oldVariables.contains(name)) continue;
+            Integer count = variables.get(name);
+            variables = variables.with(name, count == null ? 1 : count + 1);
+        }
+
+        return new IndexSnapshot(files.with(file, entry), definers, variables);
+    }
+
+    @Nullable
+    public WorkspaceIndex.FileEntry file(@NotNull Path file) {
+        return files.get(file);
+    }
+
+    public int fileCount() {
+        return files.size();
+    }
+
+    @NotNull
+    public List<WorkspaceIndex.Definition> definitions(@NotNull String name) {
+        List<Path> paths = definers.get(name);
+        if (paths == null) return List.of();
+        List<WorkspaceIndex.Definition> result = new ArrayList<>();
+        for (Path path : paths) {
+            WorkspaceIndex.FileEntry entry = files.get(path);
+            if (entry == null) continue;
+            for (WorkspaceIndex.Definition definition : entry.definitions()) {
+                if (definition.name().equals(name)) result.add(definition);
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    public Set<String> variableNames() {
+        Set<String> names = new TreeSet<>();
+        variables.forEach((name, count) -> names.add(name));
+        return names;
+    }
+
+    @Nullable
+    public Path resolveImport(@NotNull Path importer, @NotNull String importPath) {
+        String target = BatchLinter.importTarget(importer.toString().replace('\\', '/'), importPath);
+        if (target == null) return null;
+        Path file = importer.getFileSystem().getPath(target);
+        return files.get(file) != null || Files.isRegularFile(file) ? file : null;
+    }
+
+    @Nullable
+    private static List<Path> without(@Nullable List<Path> paths, Path file) {
+        if (paths == null) return null;
+        List<Path> copy = new ArrayList<>(paths);
+        copy.remove(file);
+        return copy.isEmpty() ? null : List.copyOf(copy);
+    }
+
+    private static List<Path> plus(@Nullable List<Path> paths, Path file) {
+        if (paths == null) return List.of(file);
+        List<Path> copy = new ArrayList<>(paths.size() + 1);
+        copy.addAll(paths);
+        copy.add(file);
+        return List.copyOf(copy);
+    }
+}
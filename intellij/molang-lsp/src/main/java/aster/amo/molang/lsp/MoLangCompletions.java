@@ -0,0 +1,217 @@
+package aster.amo.molang.lsp;
+
+import aster.amo.molang.ide.schema.MoLangSchema;
+import aster.amo.molang.ide.schema.SchemaEntry;
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionItemKind;
+import org.eclipse.lsp4j.InsertTextFormat;
+import org.eclipse.lsp4j.MarkupContent;
+import org.eclipse.lsp4j.MarkupKind;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class MoLangCompletions {
+
+    private static final List<String> KEYWORDS = List.of(
+            "fn", "if", "else", "switch", "while", "struct", "import",
+            "return", "break", "continue", "for", "default", "true", "false"
+    );
+
+    private static final Pattern PREFIX_CHAIN_PATTERN = Pattern.compile(
+            "(?:^|[^a-zA-Z0-9_])" +
+            "(q|query|v|variable|t|temp|f|function|c|context|math)" +
+            "((?:\\.[a-zA-Z_][a-zA-Z0-9_]*)*)" +
+            "\\.$"
+    );
+
+    private static final Pattern CONTEXT_ANNOTATION_PATTERN = Pattern.compile(
+            "//\\s*@context\\s+(\\S*)$"
+    );
+
+    private final MoLangSchema schema;
+    private final WorkspaceIndex index;
+
+    public MoLangCompletions(@NotNull MoLangSchema schema, @NotNull WorkspaceIndex index) {
+        this.schema = schema;
+        this.index = index;
+    }
+
+    @NotNull
+    public List<CompletionItem> complete(@NotNull TextDocument document, int offset, @NotNull CancelChecker cancel) {
+        String textBefore = document.lineBefore(offset);
+        List<CompletionItem> items = new ArrayList<>();
+
+        if (CONTEXT_ANNOTATION_PATTERN.matcher(textBefore).find()) {
+            for (String name : schema.getRuntimeNames()) {
+                CompletionItem item = new CompletionItem(name);
+                item.setKind(CompletionItemKind.Constant);
+                item.setDetail("runtime context");
+                item.setSortText("0" + name);
+                items.add(item);
+            }
+            return items;
+        }
+
+        Matcher chainMatcher = PREFIX_CHAIN_PATTERN.matcher(textBefore);
+        if (chainMatcher.find()) {
+            String prefix = normalizePrefix(chainMatcher.group(1));
+            String chainStr = chainMatcher.group(2);
+            String[] chain = chainStr.isEmpty() ? new String[0] : chainStr.substring(1).split("\\.");
+            String runtimeName = schema.inferRuntime(document.text(), document.path().toString());
+            cancel.checkCanceled();
+            switch (prefix) {
+                case "q" -> {
+                    if (chain.length == 0) {
+                        for (Map.Entry<String, SchemaEntry> entry : schema.getQueryVariables(runtimeName).entrySet()) {
+                            items.add(functionItem(entry.getKey(), entry.getValue(),
+                                    "Struct".equals(entry.getValue().string("type")) ? "0" : "1"));
+                        }
+                        addFunctions(schema.getGeneralFunctions(), "2", items);
+                    } else {
+                        MoLangSchema.SchemaResolution resolution = schema.resolveChain(runtimeName, chain);
+                        if (resolution != null) addFunctions(resolution.functions(), "0", items);
+                    }
+                }
+                case "math" -> {
+                    if (chain.length == 0) addFunctions(schema.getMathFunctions(), "0", items);
+                }
+                case "t" -> addNames(scanPrefixUsages(document.text(), "t", "temp"), CompletionItemKind.Variable, "Temp", items);
+                case "v" -> {
+                    Set<String> names = scanPrefixUsages(document.text(), "v", "variable");
+                    names.addAll(index.snapshot().variableNames());
+                    addNames(names, CompletionItemKind.Field, "Variable", items);
+                }
+                case "f" -> addFunctionDefinitions(document, cancel, items);
+                case "c" -> {
+                    if (runtimeName != null) {
+                        addNames(schema.getRuntimeQueryVariables(runtimeName).keySet(), CompletionItemKind.Property, "Context", items);
+                    }
+                }
+            }
+            return items;
+        }
+
+        for (String keyword : KEYWORDS) {
+            CompletionItem item = new CompletionItem(keyword);
+            item.setKind(CompletionItemKind.Keyword);
+            item.setSortText("0" + keyword);
+            items.add(item);
+        }
+        for (String prefix : List.of("q", "v", "t", "f", "c", "math")) {
+            CompletionItem item = new CompletionItem(prefix);
+            item.setKind(CompletionItemKind.Module);
+            item.setDetail("prefix");
+            item.setInsertText(prefix + ".");
+            item.setSortText("1" + prefix);
+            items.add(item);
+        }
+        return items;
+    }
+
+    private void addFunctionDefinitions(TextDocument document, CancelChecker cancel, List<CompletionItem> items) {
+        IndexSnapshot snapshot = index.snapshot();
+        Set<String> names = new LinkedHashSet<>();
+        WorkspaceIndex.FileEntry entry = snapshot.file(document.path());
+        if (entry != null) {
+            for (WorkspaceIndex.Definition definition : entry.definitions()) names.add(definition.name());
+            for (String importPath : entry.imports()) {
+                cancel.checkCanceled();
+                Path target = snapshot.resolveImport(document.path(), importPath);
+                WorkspaceIndex.FileEntry imported = target != null ? snapshot.file(target) : null;
+                if (imported == null) continue;
+                for (WorkspaceIndex.Definition definition : imported.definitions()) names.add(definition.name());
+            }
+        }
+        for (String name : names) {
+            CompletionItem item = new CompletionItem(name);
+            item.setKind(CompletionItemKind.Function);
+            item.setDetail("fn()");
+            item.setInsertText(name + "($0)");
+            item.setInsertTextFormat(InsertTextFormat.Snippet);
+            items.add(item);
+        }
+    }
+
+    private static void addNames(Set<String> names, CompletionItemKind kind, String detail, List<CompletionItem> items) {
+        for (String name : names) {
+            CompletionItem item = new CompletionItem(name);
+            item.setKind(kind);
+            item.setDetail(detail);
+            items.add(item);
+        }
+    }
+
+    private static void addFunctions(Map<String, SchemaEntry> functions, String sortPrefix, List<CompletionItem> items) {
+        for (Map.Entry<String, SchemaEntry> entry : functions.entrySet()) {
+            items.add(functionItem(entry.getKey(), entry.getValue(), sortPrefix));
+        }
+    }
+
+    private static CompletionItem functionItem(String name, SchemaEntry func, String sortPrefix) {
+        String type = func.string("type");
+        String returns = func.string("returns");
+        String structType = func.string("struct_type");
+        String returnType = returns != null ? returns : (type != null ? type : "");
+
+        CompletionItem item = new CompletionItem(name);
+        item.setKind(kindForType(type));
+        item.setDetail(structType != null ? returnType + " (" + structType + ")" : returnType);
+        item.setDocumentation(new MarkupContent(MarkupKind.MARKDOWN, MoLangHover.functionDoc(name, func)));
+        item.setSortText(sortPrefix + name);
+
+        List<SchemaEntry> params = func.params();
+        if (params != null && !params.isEmpty()) {
+            StringBuilder snippet = new StringBuilder(name).append('(');
+            for (int i = 0; i < params.size(); i++) {
+                if (i > 0) snippet.append(", ");
+                String pName = params.get(i).string("name");
+                snippet.append("${").append(i + 1).append(':').append(pName != null ? pName : "arg" + (i + 1)).append('}');
+            }
+            item.setInsertText(snippet.append(')').toString());
+            item.setInsertTextFormat(InsertTextFormat.Snippet);
+        }
+        return item;
+    }
+
+    private static CompletionItemKind kindForType(@Nullable String type) {
+        if (type == null) return CompletionItemKind.Function;
+        return switch (type) {
+            case "Number" -> CompletionItemKind.Field;
+            case "String" -> CompletionItemKind.Variable;
+            case "Struct" -> CompletionItemKind.Class;
+            case "Unit", "Void" -> CompletionItemKind.Method;
+            default -> CompletionItemKind.Function;
+        };
+    }
+
+    static String normalizePrefix(String raw) {
+        return switch (raw) {
+            case "query" -> "q";
+            case "variable" -> "v";
+            case "temp" -> "t";
+            case "function" -> "f";
+            case "context" -> "c";
+            default -> raw;
+        };
+    }
+
+    private static Set<String> scanPrefixUsages(String text, String shortPrefix, String longPrefix) {
+        Set<String> names = new LinkedHashSet<>();
+        Pattern p = Pattern.compile("(?:" + Pattern.quote(shortPrefix) + "|" + Pattern.quote(longPrefix) + ")\\.([a-zA-Z_][a-zA-Z0-9_]*)");
+        Matcher m = p.matcher(text);
+        while (m.find()) {
+            names.add(m.group(1));
+        }
+        return names;
+    }
+}
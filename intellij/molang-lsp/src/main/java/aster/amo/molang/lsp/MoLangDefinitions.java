@@ -0,0 +1,106 @@
+package aster.amo.molang.lsp;
+
+import aster.amo.molang.ide.lexer.MoLangScanner;
+import aster.amo.molang.ide.lexer.MoLangTokenKind;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class MoLangDefinitions {
+    private final WorkspaceIndex index;
+
+    public MoLangDefinitions(@NotNull WorkspaceIndex index) {
+        this.index = index;
+    }
+
+    @NotNull
+    public List<Location> definitions(@NotNull TextDocument document, int offset, @NotNull CancelChecker cancel) {
+        List<Token> tokens = tokens(document.text());
+        int at = tokenAt(tokens, offset);
+        if (at < 0) return List.of();
+
+        IndexSnapshot snapshot = index.snapshot();
+        String function = functionName(document.text(), tokens, at);
+        if (function != null) {
+            List<Location> locations = new ArrayList<>();
+            for (WorkspaceIndex.Definition definition : snapshot.definitions(function)) {
+                cancel.checkCanceled();
+                locations.add(definition.location());
+            }
+            return locations;
+        }
+
+        String importPath = importPath(document.text(), tokens, at);
+        if (importPath != null) {
+            Path target = snapshot.resolveImport(document.path(), importPath);
+            if (target != null) {
+                return List.of(new Location(target.toUri().toString(), new Range(new Position(0, 0), new Position(0, 0))));
+            }
+        }
+        return List.of();
+    }
+
+    private static String functionName(String text, List<Token> tokens, int at) {
+        if (kind(tokens, at) == MoLangTokenKind.IDENTIFIER && kind(tokens, at - 1) == MoLangTokenKind.DOT
+                && kind(tokens, at - 2) == MoLangTokenKind.PREFIX_F) {
+            return tokens.get(at).text(text);
+        }
+        if (kind(tokens, at) == MoLangTokenKind.PREFIX_F && kind(tokens, at + 1) == MoLangTokenKind.DOT
+                && kind(tokens, at + 2) == MoLangTokenKind.IDENTIFIER) {
+            return tokens.get(at + 2).text(text);
+        }
+        return null;
+    }
+
+    private static String importPath(String text, List<Token> tokens, int at) {
+        int keyword = switch (kind(tokens, at)) {
+            case KEYWORD -> at;
+            case LPAREN -> at - 1;
+            case STRING -> at - 2;
+            case RPAREN -> at - 3;
+            case null, default -> -1;
+        };
+        if (keyword < 0 || kind(tokens, keyword) != MoLangTokenKind.KEYWORD || !tokens.get(keyword).text(text).equals("import")
+                || kind(tokens, keyword + 1) != MoLangTokenKind.LPAREN || kind(tokens, keyword + 2) != MoLangTokenKind.STRING) {
+            return null;
+        }
+        String literal = tokens.get(keyword + 2).text(text);
+        return literal.length() >= 2 ? literal.substring(1, literal.length() - 1) : null;
+    }
+
+    private static MoLangTokenKind kind(List<Token> tokens, int index) {
+        return index >= 0 && index < tokens.size() ? tokens.get(index).kind() : null;
+    }
+
+    private static int tokenAt(List<Token> tokens, int offset) {
+        int found = -1;
+        for (int i = 0; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            if (token.start() > offset) break;
+            if (offset < token.end() || (offset == token.end() && found < 0)) found = i;
+        }
+        return found;
+    }
+
+    private static List<Token> tokens(String text) {
+        List<Token> tokens = new ArrayList<>();
+        MoLangScanner scanner = new MoLangScanner(text);
+        for (MoLangTokenKind kind = scanner.getTokenType(); kind != null; kind = scanner.getTokenType()) {
+            if (!kind.isTrivia()) tokens.add(new Token(kind, scanner.getTokenStart(), scanner.getTokenEnd()));
+            scanner.advance();
+        }
+        return tokens;
+    }
+
+    private record Token(MoLangTokenKind kind, int start, int end) {
+        String text(String source) {
+            return source.substring(start, end);
+        }
+    }
+}
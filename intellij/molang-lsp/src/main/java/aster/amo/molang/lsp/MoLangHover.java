@@ -0,0 +1,154 @@
+package aster.amo.molang.lsp;
+
+import aster.amo.molang.ide.schema.MoLangSchema;
+import aster.amo.molang.ide.schema.SchemaEntry;
+import org.eclipse.lsp4j.Hover;
+import org.eclipse.lsp4j.MarkupContent;
+import org.eclipse.lsp4j.MarkupKind;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class MoLangHover {
+
+    private static final Map<String, String> KEYWORD_DOCS = Map.ofEntries(
+            Map.entry("fn", "`fn('name', (params) -> { body })`\n\nDefines a named function that can be called with `f.name()`."),
+            Map.entry("if", "`if (condition) { then } else { otherwise }`\n\nConditional execution. Returns the value of the executed branch."),
+            Map.entry("else", "Part of an `if/else` statement."),
+            Map.entry("switch", "`switch (value) { case1 : result1; case2 : result2; default : fallback }`\n\nPattern matching on a value."),
+            Map.entry("while", "`while (condition) { body }`\n\nLoop that executes body while condition is truthy."),
+            Map.entry("struct", "`struct { key1 : value1, key2 : value2 }`\n\nCreates a structured data object."),
+            Map.entry("import", "`import('namespace:path')`\n\nImports a MoLang script from `data/{namespace}/molang/{path}.molang`."),
+            Map.entry("return", "Returns a value from the current function or script."),
+            Map.entry("break", "Breaks out of the current loop."),
+            Map.entry("continue", "Skips to the next iteration of the current loop."),
+            Map.entry("for", "`for (init; condition; step) { body }`\n\nLoop with initialization, condition, and step."),
+            Map.entry("default", "Default case in a switch statement.")
+    );
+
+    private static final Pattern CHAIN_PATTERN = Pattern.compile(
+            "(q|query|v|variable|t|temp|f|function|c|context|math)" +
+            "((?:\\.[a-zA-Z_][a-zA-Z0-9_]*)+)"
+    );
+
+    private final MoLangSchema schema;
+
+    public MoLangHover(@NotNull MoLangSchema schema) {
+        this.schema = schema;
+    }
+
+    @Nullable
+    public Hover hover(@NotNull TextDocument document, int offset) {
+        String text = document.text();
+        String chain = extractChainAt(text, offset);
+        if (chain == null) {
+            String keyword = KEYWORD_DOCS.get(wordAt(text, offset));
+            return keyword != null ? markdown(keyword) : null;
+        }
+
+        Matcher m = CHAIN_PATTERN.matcher(chain);
+        if (!m.matches()) return null;
+
+        String prefix = MoLangCompletions.normalizePrefix(m.group(1));
+        String[] parts = m.group(2).substring(1).split("\\.");
+
+        if ("math".equals(prefix)) {
+            SchemaEntry func = schema.getMathFunctions().get(parts[0]);
+            return func != null ? markdown(functionDoc("math." + parts[0], func)) : null;
+        }
+
+        if ("q".equals(prefix)) {
+            String runtimeName = schema.inferRuntime(text, document.path().toString());
+            SchemaEntry resolved = schema.resolveFunction(runtimeName, parts);
+            if (resolved != null) return markdown(functionDoc("q." + String.join(".", parts), resolved));
+            if (parts.length == 1) {
+                SchemaEntry qv = schema.getQueryVariables(runtimeName).get(parts[0]);
+                if (qv != null) return markdown(functionDoc("q." + parts[0], qv));
+            }
+        }
+        return null;
+    }
+
+    @NotNull
+    static String functionDoc(String fullName, SchemaEntry func) {
+        String type = func.string("type");
+        String returns = func.string("returns");
+        String returnType = returns != null ? returns : (type != null ? type : "Unknown");
+
+        StringBuilder sb = new StringBuilder("```molang\n").append(fullName);
+        String paramSig = buildParamSignature(func);
+        if (!paramSig.isEmpty()) sb.append('(').append(paramSig).append(')');
+        sb.append(" → ").append(returnType).append("\n```");
+
+        String desc = func.string("description");
+        if (desc != null) sb.append("\n\n").append(desc);
+        String source = func.string("source");
+        if (source != null) sb.append("\n\n*Source: ").append(source).append('*');
+        String structType = func.string("struct_type");
+        if (structType != null) sb.append("\n\n*Struct type: `").append(structType).append("`*");
+
+        List<SchemaEntry> params = func.params();
+        if (params != null && !params.isEmpty()) {
+            sb.append("\n\n**Parameters:**\n");
+            for (SchemaEntry param : params) {
+                String pName = param.string("name");
+                String pType = param.string("type");
+                String pDesc = param.string("description");
+                sb.append("\n- `").append(pName != null ? pName : "?").append("`: ").append(pType != null ? pType : "");
+                if (param.flag("optional")) sb.append(" *(optional)*");
+                if (pDesc != null) sb.append(" — ").append(pDesc);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static Hover markdown(String value) {
+        return new Hover(new MarkupContent(MarkupKind.MARKDOWN, value));
+    }
+
+    private static String buildParamSignature(SchemaEntry func) {
+        List<SchemaEntry> params = func.params();
+        if (params == null) return "";
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < params.size(); i++) {
+            if (i > 0) sb.append(", ");
+            SchemaEntry param = params.get(i);
+            String pName = param.string("name");
+            String pType = param.string("type");
+            if (pName != null) sb.append(pName);
+            if (pType != null) sb.append(": ").append(pType);
+            if (param.flag("optional")) sb.append("?");
+        }
+        return sb.toString();
+    }
+
+    @Nullable
+    private static String extractChainAt(String text, int offset) {
+        int start = offset;
+        while (start > 0) {
+            char c = text.charAt(start - 1);
+            if (Character.isLetterOrDigit(c) || c == '_' || c == '.') start--;
+            else break;
+        }
+        int end = identifierEnd(text, offset);
+        if (start >= end) return null;
+        String chain = text.substring(start, end);
+        return chain.indexOf('.') >= 0 ? chain : null;
+    }
+
+    private static String wordAt(String text, int offset) {
+        int start = offset;
+        while (start > 0 && (Character.isLetterOrDigit(text.charAt(start - 1)) || text.charAt(start - 1) == '_')) start--;
+        return text.substring(start, identifierEnd(text, offset));
+    }
+
+    private static int identifierEnd(String text, int offset) {
+        int end = offset;
+        while (end < text.length() && (Character.isLetterOrDigit(text.charAt(end)) || text.charAt(end) == '_')) end++;
+        return end;
+    }
+}
@@ -0,0 +1,128 @@
+package aster.amo.molang.lsp;
+
+import aster.amo.molang.ide.schema.MoLangSchema;
+import org.eclipse.lsp4j.CompletionOptions;
+import org.eclipse.lsp4j.InitializeParams;
+import org.eclipse.lsp4j.InitializeResult;
+import org.eclipse.lsp4j.InitializedParams;
+import org.eclipse.lsp4j.MessageParams;
+import org.eclipse.lsp4j.MessageType;
+import org.eclipse.lsp4j.ServerCapabilities;
+import org.eclipse.lsp4j.ServerInfo;
+import org.eclipse.lsp4j.TextDocumentSyncKind;
+import org.eclipse.lsp4j.WorkspaceFolder;
+import org.eclipse.lsp4j.services.LanguageClient;
+import org.eclipse.lsp4j.services.LanguageClientAware;
+import org.eclipse.lsp4j.services.LanguageServer;
+import org.eclipse.lsp4j.services.TextDocumentService;
+import org.eclipse.lsp4j.services.WorkspaceService;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public final class MoLangLanguageServer implements LanguageServer, LanguageClientAware {
+    private final WorkspaceIndex index = new WorkspaceIndex();
+    private final MoLangCompletions completions;
+    private final MoLangHover hover;
+    private final MoLangDefinitions definitions;
+    private final MoLangTextDocumentService documents = new MoLangTextDocumentService(this);
+    private final MoLangWorkspaceService workspace = new MoLangWorkspaceService(this);
+    private final List<Path> roots = new ArrayList<>();
+    private LanguageClient client;
+    private int exitCode = 1;
+
+    public MoLangLanguageServer(@NotNull MoLangSchema schema) {
+        this.completions = new MoLangCompletions(schema, index);
+        this.hover = new MoLangHover(schema);
+        this.definitions = new MoLangDefinitions(index);
+    }
+
+    @Override
+    public void connect(LanguageClient client) {
+        this.client = client;
+    }
+
+    @Override
+    public CompletableFuture<InitializeResult> initialize(InitializeParams params) {
+        if (params.getWorkspaceFolders() != null) {
+            for (WorkspaceFolder folder : params.getWorkspaceFolders()) addRoot(folder.getUri());
+        } else if (params.getRootUri() != null) {
+            addRoot(params.getRootUri());
+        }
+
+        ServerCapabilities capabilities = new ServerCapabilities();
+        capabilities.setTextDocumentSync(TextDocumentSyncKind.Incremental);
+        capabilities.setCompletionProvider(new CompletionOptions(false, List.of(".")));
+        capabilities.setHoverProvider(true);
+        capabilities.setDefinitionProvider(true);
+        return CompletableFuture.completedFuture(new InitializeResult(capabilities, new ServerInfo("molang-lsp")));
+    }
+
+    @Override
+    public void initialized(InitializedParams params) {
+        CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                int count = index.index(roots);
+                log(MessageType.Info, "Indexed " + count + " MoLang scripts in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            } catch (IOException | UncheckedIOException e) {
+                log(MessageType.Warning, "Failed to index the workspace: " + e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Object> shutdown() {
+        exitCode = 0;
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void exit() {
+        System.exit(exitCode);
+    }
+
+    @Override
+    public TextDocumentService getTextDocumentService() {
+        return documents;
+    }
+
+    @Override
+    public WorkspaceService getWorkspaceService() {
+        return workspace;
+    }
+
+    WorkspaceIndex index() {
+        return index;
+    }
+
+    MoLangTextDocumentService documents() {
+        return documents;
+    }
+
+    MoLangCompletions completions() {
+        return completions;
+    }
+
+    MoLangHover hover() {
+        return hover;
+    }
+
+    MoLangDefinitions definitions() {
+        return definitions;
+    }
+
+    private void addRoot(String uri) {
+        Path path = MoLangTextDocumentService.toPath(uri);
+        if (path != null) roots.add(path);
+    }
+
+    private void log(MessageType type, String message) {
+        if (client != null) client.logMessage(new MessageParams(type, message));
+    }
+}
@@ -0,0 +1,57 @@
+package aster.amo.molang.lsp;
+
+import aster.amo.molang.ide.schema.MoLangSchema;
+import org.eclipse.lsp4j.jsonrpc.Launcher;
+import org.eclipse.lsp4j.launch.LSPLauncher;
+import org.eclipse.lsp4j.services.LanguageClient;
+
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+
+public final class MoLangServerLauncher {
+    private static final String USAGE = """
+            Usage: MoLangServerLauncher [--schema <file>]
+            Speaks the Language Server Protocol over stdin/stdout.
+            """;
+
+    private MoLangServerLauncher() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path schemaPath = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--schema") && i + 1 < args.length) {
+                schemaPath = Path.of(args[++i]);
+            } else if (!args[i].equals("--stdio")) {
+                System.err.print(USAGE);
+                System.exit(2);
+            }
+        }
+
+        MoLangSchema schema;
+        if (schemaPath != null) {
+            try (var reader = Files.newBufferedReader(schemaPath, StandardCharsets.UTF_8)) {
+                schema = MoLangSchema.load(reader);
+            }
+        } else {
+            schema = MoLangSchema.loadBundled();
+        }
+
+        InputStream in = System.in;
+        PrintStream out = System.out;
+        System.setOut(System.err);
+
+        MoLangLanguageServer server = new MoLangLanguageServer(schema);
+        Launcher<LanguageClient> launcher = LSPLauncher.createServerLauncher(server, in, out);
+        server.connect(launcher.getRemoteProxy());
+        try {
+            launcher.startListening().get();
+        } catch (ExecutionException e) {
+            System.err.println("Language server stopped: " + e.getCause());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package aster.amo.molang.lsp;
+
+import org.eclipse.lsp4j.CompletionItem;
+import org.eclipse.lsp4j.CompletionList;
+import org.eclipse.lsp4j.CompletionParams;
+import org.eclipse.lsp4j.DefinitionParams;
+import org.eclipse.lsp4j.DidChangeTextDocumentParams;
+import org.eclipse.lsp4j.DidCloseTextDocumentParams;
+import org.eclipse.lsp4j.DidOpenTextDocumentParams;
+import org.eclipse.lsp4j.DidSaveTextDocumentParams;
+import org.eclipse.lsp4j.Hover;
+import org.eclipse.lsp4j.HoverParams;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.LocationLink;
+import org.eclipse.lsp4j.TextDocumentItem;
+import org.eclipse.lsp4j.jsonrpc.CompletableFutures;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.eclipse.lsp4j.services.TextDocumentService;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class MoLangTextDocumentService implements TextDocumentService {
+    private final MoLangLanguageServer server;
+    private final Map<String, TextDocument> documents = new ConcurrentHashMap<>();
+
+    MoLangTextDocumentService(@NotNull MoLangLanguageServer server) {
+        this.server = server;
+    }
+
+    @Override
+    public void didOpen(DidOpenTextDocumentParams params) {
+        TextDocumentItem item = params.getTextDocument();
+        Path path = toPath(item.getUri());
+        if (path == null) return;
+        TextDocument document = new TextDocument(item.getUri(), path, item.getVersion(), item.getText());
+        documents.put(item.getUri(), document);
+        server.index().update(path, document.text());
+    }
+
+    @Override
+    public void didChange(DidChangeTextDocumentParams params) {
+        String uri = params.getTextDocument().getUri();
+        TextDocument document = documents.computeIfPresent(uri,
+                (key, current) -> current.withChanges(params.getContentChanges(), params.getTextDocument().getVersion()));
+        if (document != null) server.index().update(document.path(), document.text());
+    }
+
+    @Override
+    public void didClose(DidCloseTextDocumentParams params) {
+        TextDocument document = documents.remove(params.getTextDocument().getUri());
+        if (document != null) server.index().reload(document.path());
+    }
+
+    @Override
+    public void didSave(DidSaveTextDocumentParams params) {
+    }
+
+    @Override
+    public CompletableFuture<Either<List<CompletionItem>, CompletionList>> completion(CompletionParams params) {
+        TextDocument document = documents.get(params.getTextDocument().getUri());
+        if (document == null) return CompletableFuture.completedFuture(Either.forLeft(List.of()));
+        int offset = document.offset(params.getPosition());
+        return CompletableFutures.computeAsync(cancel -> Either.forLeft(server.completions().complete(document, offset, cancel)));
+    }
+
+    @Override
+    public CompletableFuture<Hover> hover(HoverParams params) {
+        TextDocument document = documents.get(params.getTextDocument().getUri());
+        if (document == null) return CompletableFuture.completedFuture(null);
+        int offset = document.offset(params.getPosition());
+        return CompletableFutures.computeAsync(cancel -> server.hover().hover(document, offset));
+    }
+
+    @Override
+    public CompletableFuture<Either<List<? extends Location>, List<? extends LocationLink>>> definition(DefinitionParams params) {
+        TextDocument document = documents.get(params.getTextDocument().getUri());
+        if (document == null) return CompletableFuture.completedFuture(Either.forLeft(List.of()));
+        int offset = document.offset(params.getPosition());
+        return CompletableFutures.computeAsync(cancel -> Either.forLeft(server.definitions().definitions(document, offset, cancel)));
+    }
+
+    boolean isOpen(@NotNull Path path) {
+        for (TextDocument document : documents.values()) {
+            if (document.path().equals(path)) return true;
+        }
+        return false;
+    }
+
+    @Nullable
+    static Path toPath(@NotNull String uri) {
+        try {
+            return Path.of(URI.create(uri)).toAbsolutePath().normalize();
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
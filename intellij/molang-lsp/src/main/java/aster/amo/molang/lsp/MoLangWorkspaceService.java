@@ -0,0 +1,32 @@
+package aster.amo.molang.lsp;
+
+import org.eclipse.lsp4j.DidChangeConfigurationParams;
+import org.eclipse.lsp4j.DidChangeWatchedFilesParams;
+import org.eclipse.lsp4j.FileChangeType;
+import org.eclipse.lsp4j.FileEvent;
+import org.eclipse.lsp4j.services.WorkspaceService;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+
+public final class MoLangWorkspaceService implements WorkspaceService {
+    private final MoLangLanguageServer server;
+
+    MoLangWorkspaceService(@NotNull MoLangLanguageServer server) {
+        this.server = server;
+    }
+
+    @Override
+    public void didChangeConfiguration(DidChangeConfigurationParams params) {
+    }
+
+    @Override
+    public void didChangeWatchedFiles(DidChangeWatchedFilesParams params) {
+        for (FileEvent event : params.getChanges()) {
+            Path path = MoLangTextDocumentService.toPath(event.getUri());
+            if (path == null || server.documents().isOpen(path)) continue;
+            if (event.getType() == FileChangeType.Deleted) server.index().remove(path);
+            else server.index().reload(path);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package aster.amo.molang.lsp;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+final class SnapshotMap<K, V> {
+    private static final int SHARDS = 256;
+    private static final SnapshotMap<?, ?> EMPTY = new SnapshotMap<>(emptyShards(), 0);
+
+    private final Map<K, V>[] shards;
+    private final int size;
+
+    private SnapshotMap(Map<K, V>[] shards, int size) {
+        this.shards = shards;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> SnapshotMap<K, V> empty() {
+        return (SnapshotMap<K, V>) EMPTY;
+    }
+
+    @Nullable
+    V get(@NotNull K key) {
+        return shards[shard(key)].get(key);
+    }
+
+    int size() {
+        return size;
+    }
+
+    @NotNull
+    SnapshotMap<K, V> with(@NotNull K key, @Nullable V value) {
+        int index = shard(key);
+        Map<K, V> shard = shards[index];
+        if (value == null ? !shard.containsKey(key) : value.equals(shard.get(key))) return this;
+
+        Map<K, V> copy = new HashMap<>(shard);
+        int size = this.size;
+        if (value == null) {
+            copy.remove(key);
+            size--;
+        } else if (copy.put(key, value) == null) {
+            size++;
+        }
+        Map<K, V>[] shards = this.shards.clone();
+        shards[index] = copy;
+        return new SnapshotMap<>(shards, size);
+    }
+
+    void forEach(@NotNull BiConsumer<? super K, ? super V> action) {
+        for (Map<K, V> shard : shards) {
+            shard.forEach(action);
+        }
+    }
+
+    private static int shard(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (SHARDS - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Map<K, V>[] emptyShards() {
+        Map<K, V>[] shards = new Map[SHARDS];
+        for (int i = 0; i < SHARDS; i++) shards[i] = Map.of();
+        return shards;
+    }
+
+    static final class Builder<K, V> {
+        private final Map<K, V>[] shards = emptyShards();
+
+        @Nullable
+        V get(@NotNull K key) {
+            return shards[shard(key)].get(key);
+        }
+
+        void put(@NotNull K key, @NotNull V value) {
+            int index = shard(key);
+            if (shards[index].isEmpty()) shards[index] = new HashMap<>();
+            shards[index].put(key, value);
+        }
+
+        @NotNull
+        SnapshotMap<K, V> build() {
+            int size = 0;
+            for (Map<K, V> shard : shards) size += shard.size();
+            return new SnapshotMap<>(shards.clone(), size);
+        }
+    }
+}
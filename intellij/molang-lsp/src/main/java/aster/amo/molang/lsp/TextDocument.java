@@ -0,0 +1,105 @@
+package aster.amo.molang.lsp;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+public final class TextDocument {
+    private final String uri;
+    private final Path path;
+    private final int version;
+    private final String text;
+    private final int[] lineStarts;
+
+    public TextDocument(@NotNull String uri, @NotNull Path path, int version, @NotNull String text) {
+        this.uri = uri;
+        this.path = path;
+        this.version = version;
+        this.text = text;
+        this.lineStarts = lineStarts(text);
+    }
+
+    @NotNull
+    public TextDocument withChanges(@NotNull List<TextDocumentContentChangeEvent> changes, int version) {
+        TextDocument current = this;
+        for (TextDocumentContentChangeEvent change : changes) {
+            Range range = change.getRange();
+            String updated;
+            if (range == null) {
+                updated = change.getText();
+            } else {
+                int start = current.offset(range.getStart());
+                int end = Math.max(start, current.offset(range.getEnd()));
+                updated = current.text.substring(0, start) + change.getText() + current.text.substring(end);
+            }
+            current = new TextDocument(uri, path, version, updated);
+        }
+        return current.version == version ? current : new TextDocument(uri, path, version, current.text);
+    }
+
+    @NotNull
+    public String uri() {
+        return uri;
+    }
+
+    @NotNull
+    public Path path() {
+        return path;
+    }
+
+    public int version() {
+        return version;
+    }
+
+    @NotNull
+    public String text() {
+        return text;
+    }
+
+    public int offset(@NotNull Position position) {
+        int line = position.getLine();
+        if (line < 0) return 0;
+        if (line >= lineStarts.length) return text.length();
+        int lineEnd = line + 1 < lineStarts.length ? lineStarts[line + 1] - 1 : text.length();
+        return Math.min(lineStarts[line] + Math.max(0, position.getCharacter()), lineEnd);
+    }
+
+    @NotNull
+    public Position position(int offset) {
+        return position(lineStarts, Math.max(0, Math.min(offset, text.length())));
+    }
+
+    @NotNull
+    public String lineBefore(int offset) {
+        int line = line(lineStarts, offset);
+        return text.substring(lineStarts[line], offset);
+    }
+
+    @NotNull
+    static Position position(int[] lineStarts, int offset) {
+        int line = line(lineStarts, offset);
+        return new Position(line, offset - lineStarts[line]);
+    }
+
+    static int[] lineStarts(CharSequence text) {
+        int[] starts = new int[64];
+        int count = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                if (count == starts.length) starts = Arrays.copyOf(starts, count * 2);
+                starts[count++] = i + 1;
+            }
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
+    private static int line(int[] lineStarts, int offset) {
+        int index = Arrays.binarySearch(lineStarts, offset);
+        return index >= 0 ? index : -index - 2;
+    }
+}
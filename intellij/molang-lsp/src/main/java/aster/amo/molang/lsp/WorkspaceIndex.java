@@ -0,0 +1,198 @@
+package aster.amo.molang.lsp;
+
+import aster.amo.molang.ide.analysis.AccessChain;
+import aster.amo.molang.ide.analysis.MoLangChainExtractor;
+import aster.amo.molang.ide.lexer.MoLangScanner;
+import aster.amo.molang.ide.lexer.MoLangTokenKind;
+import aster.amo.molang.ide.lint.BatchLinter;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Range;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+public final class WorkspaceIndex {
+    private static final int MAX_OPEN_FILES = 256;
+    private static final Set<MoLangTokenKind> CHAIN_PREFIXES =
+            EnumSet.of(MoLangTokenKind.PREFIX_Q, MoLangTokenKind.PREFIX_MATH, MoLangTokenKind.PREFIX_V);
+
+    private volatile IndexSnapshot snapshot = IndexSnapshot.EMPTY;
+    private Set<Path> touched;
+
+    @NotNull
+    public IndexSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public int index(@NotNull Collection<Path> roots) throws IOException {
+        synchronized (this) {
+            touched = new HashSet<>();
+        }
+        IndexSnapshot built;
+        try {
+            built = IndexSnapshot.of(readAll(roots));
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                touched = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            IndexSnapshot current = snapshot;
+            for (Path path : touched) {
+                built = built.with(path, current.file(path));
+            }
+            snapshot = built;
+            touched = null;
+        }
+        return built.fileCount();
+    }
+
+    @NotNull
+    static Collection<FileEntry> readAll(@NotNull Collection<Path> roots) throws IOException {
+        Queue<FileEntry> entries = new ConcurrentLinkedQueue<>();
+        Semaphore open = new Semaphore(MAX_OPEN_FILES);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Path root : roots) {
+                walk(root, file -> executor.execute(() -> {
+                    open.acquireUninterruptibly();
+                    try {
+                        FileEntry entry = read(file);
+                        if (entry != null) entries.add(entry);
+                    } finally {
+                        open.release();
+                    }
+                }));
+            }
+        }
+        return entries;
+    }
+
+    public void update(@NotNull Path file, @NotNull CharSequence text) {
+        publish(file, analyze(file, text));
+    }
+
+    public void reload(@NotNull Path file) {
+        publish(file, read(file));
+    }
+
+    public void remove(@NotNull Path file) {
+        publish(file, null);
+    }
+
+    private synchronized void publish(Path file, @Nullable FileEntry entry) {
+        snapshot = snapshot.with(file, entry);
+        if (touched != null) touched.add(file);
+    }
+
+    @Nullable
+    static FileEntry read(@NotNull Path file) {
+        try {
+            return analyze(file, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @NotNull
+    static FileEntry analyze(@NotNull Path file, @NotNull CharSequence text) {
+        List<Definition> definitions = new ArrayList<>();
+        List<String> imports = new ArrayList<>();
+        int[] lines = null;
+
+        MoLangScanner scanner = new MoLangScanner(text);
+        MoLangTokenKind previous = null;
+        MoLangTokenKind beforePrevious = null;
+        String keyword = null;
+        for (MoLangTokenKind kind = scanner.getTokenType(); kind != null; kind = scanner.getTokenType()) {
+            if (!kind.isTrivia()) {
+                if (kind == MoLangTokenKind.STRING && previous == MoLangTokenKind.LPAREN && beforePrevious == MoLangTokenKind.KEYWORD) {
+                    int start = scanner.getTokenStart() + 1;
+                    int end = Math.max(start, scanner.getTokenEnd() - 1);
+                    String value = text.subSequence(start, end).toString();
+                    if ("fn".equals(keyword)) {
+                        if (lines == null) lines = TextDocument.lineStarts(text);
+                        definitions.add(new Definition(value, file,
+                                new Range(TextDocument.position(lines, start), TextDocument.position(lines, end))));
+                    } else if ("import".equals(keyword)) {
+                        imports.add(value);
+                    }
+                }
+                if (kind == MoLangTokenKind.KEYWORD) {
+                    keyword = text.subSequence(scanner.getTokenStart(), scanner.getTokenEnd()).toString();
+                }
+                beforePrevious = previous;
+                previous = kind;
+            }
+            scanner.advance();
+        }
+
+        Set<String> variables = new LinkedHashSet<>();
+        Set<String> chains = new LinkedHashSet<>();
+        for (AccessChain chain : MoLangChainExtractor.extract(text, CHAIN_PREFIXES)) {
+            if (chain.prefix().equals("v")) variables.add(chain.segments().get(0).name());
+            else chains.add(chain.signature());
+        }
+        return new FileEntry(file, List.copyOf(definitions), List.copyOf(imports), Set.copyOf(variables), List.copyOf(chains));
+    }
+
+    static void walk(Path root, Consumer<Path> scripts) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+                String name = dir.getFileName() != null ? dir.getFileName().toString() : "";
+                return name.equals("node_modules") || name.equals(".git") ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile() && file.getFileName().toString().endsWith(BatchLinter.EXTENSION)) {
+                    scripts.accept(file.toAbsolutePath().normalize());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    public record FileEntry(@NotNull Path file, @NotNull List<Definition> definitions, @NotNull List<String> imports,
+                            @NotNull Set<String> variables, @NotNull List<String> chains) {
+        @NotNull
+        public Set<String> definedNames() {
+            Set<String> names = new LinkedHashSet<>();
+            for (Definition definition : definitions) names.add(definition.name());
+            return names;
+        }
+    }
+
+    public record Definition(@NotNull String name, @NotNull Path file, @NotNull Range range) {
+        @NotNull
+        public Location location() {
+            return new Location(file.toUri().toString(), range);
+        }
+    }
+}
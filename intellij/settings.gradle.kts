@@ -1 +1,5 @@
 rootProject.name = "intellij-molang"
+
+include("molang-core")
+include("molang-lsp")
+include("molang-bench")
@@ -0,0 +1,49 @@
+package aster.amo.molang.ide.analysis;
+
+import aster.amo.molang.ide.schema.MoLangSchema;
+import aster.amo.molang.ide.schema.MoLangSchemaService;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Validates chains with a {@link ChainChecker} built for the current {@link MoLangSchemaService} snapshot. The
+ * checker and its cache are swapped together as soon as {@link MoLangSchemaService#reload()} publishes a new snapshot.
+ */
+@Service(Service.Level.PROJECT)
+public final class MoLangChainValidator {
+    private final MoLangSchemaService schema;
+    private volatile Current current;
+
+    private record Current(@NotNull MoLangSchema schema, @NotNull ChainChecker checker) {}
+
+    public MoLangChainValidator(@NotNull Project project) {
+        this.schema = project.getService(MoLangSchemaService.class);
+    }
+
+    public static MoLangChainValidator getInstance(@NotNull Project project) {
+        return project.getService(MoLangChainValidator.class);
+    }
+
+    /** The checker for the current schema snapshot. */
+    @NotNull
+    public ChainChecker checker() {
+        MoLangSchema snapshot = schema.getSchema();
+        Current checked = current;
+        if (checked == null || checked.schema() != snapshot) {
+            checked = new Current(snapshot, new ChainChecker(snapshot));
+            current = checked;
+        }
+        return checked.checker();
+    }
+
+    @NotNull
+    public List<ChainProblem> validate(@Nullable String runtimeName, @NotNull AccessChain chain) {
+        if (!schema.isLoaded()) return Collections.emptyList();
+        return checker().validate(runtimeName, chain);
+    }
+}
@@ -0,0 +1,131 @@
+package aster.amo.molang.ide.annotator;
+
+import aster.amo.molang.ide.analysis.AccessChain;
+import aster.amo.molang.ide.analysis.ChainChecker;
+import aster.amo.molang.ide.analysis.ChainProblem;
+import aster.amo.molang.ide.analysis.MoLangChainExtractor;
+import aster.amo.molang.ide.analysis.MoLangChainValidator;
+import aster.amo.molang.ide.largefile.MoLangLargeFiles;
+import aster.amo.molang.ide.lexer.MoLangChunkCache;
+import aster.amo.molang.ide.lexer.MoLangTokenKind;
+import aster.amo.molang.ide.schema.MoLangSchemaService;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.lang.annotation.AnnotationHolder;
+import com.intellij.lang.annotation.ExternalAnnotator;
+import com.intellij.lang.annotation.HighlightSeverity;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Validates q. and math. chains against the schema. Findings are cached per chunk of the document, so a pass only
+ * extracts and validates the chunks around the text that changed since the previous one.
+ */
+public class MoLangSchemaAnnotator extends ExternalAnnotator<MoLangSchemaAnnotator.Info, List<MoLangSchemaAnnotator.Finding>> {
+
+    private static final Set<MoLangTokenKind> VALIDATED_PREFIXES = EnumSet.of(MoLangTokenKind.PREFIX_Q, MoLangTokenKind.PREFIX_MATH);
+    private static final int CHUNK_SIZE = 2 * 1024;
+    private static final Key<CachedFindings> FINDINGS = Key.create("molang.schema.annotator.findings");
+
+    @Override
+    public @Nullable Info collectInformation(@NotNull PsiFile file, @NotNull Editor editor, boolean hasErrors) {
+        return collectInformation(file);
+    }
+
+    @Override
+    public @Nullable Info collectInformation(@NotNull PsiFile file) {
+        Project project = file.getProject();
+        MoLangSchemaService schema = project.getService(MoLangSchemaService.class);
+        if (schema == null || !schema.isLoaded()) return null;
+
+        Document doc = PsiDocumentManager.getInstance(project).getDocument(file);
+        if (doc == null || MoLangLargeFiles.isLarge(doc)) return null;
+
+        CharSequence text = doc.getImmutableCharSequence();
+        VirtualFile vFile = file.getVirtualFile();
+        String runtimeName = schema.inferRuntime(text, vFile != null ? vFile.getPath() : null);
+        return new Info(project, doc, text, runtimeName);
+    }
+
+    @Override
+    public @Nullable List<Finding> doAnnotate(Info info) {
+        ChainChecker checker = MoLangChainValidator.getInstance(info.project()).checker();
+        CachedFindings cached = info.document().getUserData(FINDINGS);
+        if (cached == null || cached.checker() != checker || !Objects.equals(cached.runtimeName(), info.runtimeName())) {
+            String runtimeName = info.runtimeName();
+            cached = new CachedFindings(checker, runtimeName, new MoLangChunkCache<>(CHUNK_SIZE,
+                    (text, start, end) -> findings(checker, runtimeName, text.subSequence(start, end))));
+            info.document().putUserData(FINDINGS, cached);
+        }
+
+        List<Finding> findings = new ArrayList<>();
+        for (MoLangChunkCache.Chunk<List<Finding>> chunk : cached.chunks().update(info.text())) {
+            for (Finding finding : chunk.value()) {
+                findings.add(new Finding(finding.range().shiftRight(chunk.start()), finding.problem()));
+            }
+        }
+        return findings;
+    }
+
+    /** Findings for one chunk, with ranges relative to its start. */
+    private static List<Finding> findings(ChainChecker checker, @Nullable String runtimeName, CharSequence text) {
+        ProgressManager.checkCanceled();
+        Map<String, List<AccessChain>> bySignature = new LinkedHashMap<>();
+        for (AccessChain chain : MoLangChainExtractor.extract(text, VALIDATED_PREFIXES)) {
+            bySignature.computeIfAbsent(chain.signature(), k -> new ArrayList<>()).add(chain);
+        }
+
+        List<Finding> findings = new ArrayList<>();
+        for (List<AccessChain> occurrences : bySignature.values()) {
+            List<ChainProblem> problems = checker.validate(runtimeName, occurrences.get(0));
+            if (problems.isEmpty()) continue;
+            for (AccessChain chain : occurrences) {
+                for (ChainProblem problem : problems) {
+                    AccessChain.Segment segment = chain.segments().get(problem.segment());
+                    findings.add(new Finding(new TextRange(segment.start(), segment.end()), problem));
+                }
+            }
+        }
+        return findings.isEmpty() ? List.of() : findings;
+    }
+
+    @Override
+    public void apply(@NotNull PsiFile file, List<Finding> findings, @NotNull AnnotationHolder holder) {
+        if (findings == null) return;
+        int length = file.getTextLength();
+        for (Finding finding : findings) {
+            if (finding.range().getEndOffset() > length) continue;
+            ProblemHighlightType highlightType = finding.problem().kind() == ChainProblem.Kind.UNKNOWN_MEMBER
+                    ? ProblemHighlightType.LIKE_UNKNOWN_SYMBOL
+                    : ProblemHighlightType.GENERIC_ERROR_OR_WARNING;
+            holder.newAnnotation(HighlightSeverity.WARNING, finding.problem().message())
+                    .range(finding.range())
+                    .highlightType(highlightType)
+                    .create();
+        }
+    }
+
+    public record Info(@NotNull Project project, @NotNull Document document, @NotNull CharSequence text,
+                       @Nullable String runtimeName) {}
+
+    public record Finding(@NotNull TextRange range, @NotNull ChainProblem problem) {}
+
+    private record CachedFindings(@NotNull ChainChecker checker, @Nullable String runtimeName,
+                                  @NotNull MoLangChunkCache<List<Finding>> chunks) {}
+}
@@ -0,0 +1,357 @@
+package aster.amo.molang.ide.callgraph;
+
+import aster.amo.molang.ide.MoLangFileType;
+import aster.amo.molang.ide.analysis.FunctionCallEdges;
+import aster.amo.molang.ide.analysis.IncrementalScc;
+import aster.amo.molang.ide.analysis.MoLangFunctionExtractor;
+import aster.amo.molang.ide.analysis.MoLangImports;
+import aster.amo.molang.ide.diagnostics.MoLangMetrics;
+import aster.amo.molang.ide.injection.MoLangInjectionRules;
+import aster.amo.molang.ide.navigation.MoLangFunctionIndex;
+import aster.amo.molang.ide.navigation.MoLangImportClosure;
+import aster.amo.molang.ide.navigation.MoLangImportIndex;
+import com.intellij.lang.injection.InjectedLanguageManager;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootEvent;
+import com.intellij.openapi.roots.ModuleRootListener;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.FileTypeIndex;
+import com.intellij.psi.search.FilenameIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeAnyChangeAbstractAdapter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.messages.MessageBusConnection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Project-wide graphs of fn calls and imports, built from {@link MoLangCallGraphIndex} and {@link MoLangImportIndex}.
+ * A function node is the fn name plus the file that defines it, and each call is resolved through the caller's
+ * {@link MoLangImportClosure}, so same-named functions in unrelated scripts never share a node. VFS and PSI change
+ * events mark files dirty; a refresh re-reads only those files and the files whose closure includes them, and
+ * replays just their edges into the strongly connected components. The project is only enumerated on first use and
+ * when the content roots or the JSON injection rules change.
+ */
+@Service(Service.Level.PROJECT)
+public final class MoLangCallGraph implements Disposable {
+    private final Project project;
+    private final IncrementalScc<Fn> calls = new IncrementalScc<>();
+    private final IncrementalScc<Fn> unguardedCalls = new IncrementalScc<>();
+    private final IncrementalScc<String> imports = new IncrementalScc<>();
+    private final Map<VirtualFile, FileEdges> files = new HashMap<>();
+    private final Map<VirtualFile, Set<VirtualFile>> dependents = new HashMap<>();
+    private final Set<VirtualFile> incomplete = new HashSet<>();
+
+    private final Set<VirtualFile> dirty = ConcurrentHashMap.newKeySet();
+    private volatile boolean rescan = true;
+    private volatile boolean structureChanged;
+    private int rulesVersion;
+
+    public MoLangCallGraph(@NotNull Project project) {
+        this.project = project;
+        MessageBusConnection connection = project.getMessageBus().connect(this);
+        connection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void after(@NotNull List<? extends VFileEvent> events) {
+                for (VFileEvent event : events) {
+                    VirtualFile file = event.getFile();
+                    if (file == null || file.isDirectory()) {
+                        rescan = true;
+                        continue;
+                    }
+                    dirty.add(file);
+                    if (!(event instanceof VFileContentChangeEvent)) structureChanged = true;
+                }
+            }
+        });
+        connection.subscribe(ModuleRootListener.TOPIC, new ModuleRootListener() {
+            @Override
+            public void rootsChanged(@NotNull ModuleRootEvent event) {
+                rescan = true;
+            }
+        });
+        PsiManager.getInstance(project).addPsiTreeChangeListener(new PsiTreeAnyChangeAbstractAdapter() {
+            @Override
+            protected void onChange(@Nullable PsiFile file) {
+                VirtualFile vFile = file != null ? file.getViewProvider().getVirtualFile() : null;
+                if (vFile != null) dirty.add(vFile);
+            }
+        }, this);
+    }
+
+    public static MoLangCallGraph getInstance(@NotNull Project project) {
+        return project.getService(MoLangCallGraph.class);
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    /** A fn node: the function {@code name} as defined in {@code file}. */
+    public record Fn(@NotNull VirtualFile file, @NotNull String name) {}
+
+    /**
+     * @param definition the file that defines {@code function} as seen from {@code file}, or null if it does not
+     *                   resolve
+     */
+    public record Site(@NotNull VirtualFile file, @NotNull String function, int offset, @Nullable VirtualFile definition) {}
+
+    private record FileEdges(long stamp, @NotNull String node, @NotNull Map<String, List<FunctionCallEdges.Call>> calls,
+                             @NotNull Map<String, VirtualFile> definitions, @NotNull List<VirtualFile> closure,
+                             boolean complete, @NotNull Set<String> imports) {
+
+        @Nullable
+        Fn callee(@NotNull FunctionCallEdges.Call call) {
+            VirtualFile definition = definitions.get(call.callee());
+            return definition != null ? new Fn(definition, call.callee()) : null;
+        }
+    }
+
+    public synchronized boolean isRecursive(@NotNull Fn function) {
+        refresh();
+        return calls.isCyclic(function);
+    }
+
+    /**
+     * The shortest cycle of unguarded calls through {@code caller -> callee}, where {@code caller} is defined in
+     * {@code file} and {@code callee} is resolved from there, or an empty list.
+     */
+    @NotNull
+    public synchronized List<Fn> unguardedCycle(@NotNull VirtualFile file, @NotNull String caller, @NotNull String callee) {
+        refresh();
+        FileEdges edges = files.get(file);
+        VirtualFile definition = edges != null ? edges.definitions().get(callee) : null;
+        if (definition == null) return List.of();
+        return unguardedCalls.cycle(new Fn(file, caller), new Fn(definition, callee));
+    }
+
+    /** The shortest import cycle through {@code importer -> imported}, or an empty list. */
+    @NotNull
+    public synchronized List<String> importCycle(@NotNull String importer, @NotNull String imported) {
+        refresh();
+        return imports.cycle(importer, imported);
+    }
+
+    @NotNull
+    public synchronized List<Site> callers(@NotNull Fn function) {
+        refresh();
+        List<Site> result = new ArrayList<>();
+        for (Map.Entry<VirtualFile, FileEdges> file : files.entrySet()) {
+            for (Map.Entry<String, List<FunctionCallEdges.Call>> caller : file.getValue().calls().entrySet()) {
+                for (FunctionCallEdges.Call call : caller.getValue()) {
+                    if (function.equals(file.getValue().callee(call))) {
+                        result.add(new Site(file.getKey(), caller.getKey(), call.offset(), file.getKey()));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    public synchronized List<Site> callees(@NotNull Fn function) {
+        refresh();
+        FileEdges edges = files.get(function.file());
+        if (edges == null) return List.of();
+        List<Site> result = new ArrayList<>();
+        for (FunctionCallEdges.Call call : edges.calls().getOrDefault(function.name(), List.of())) {
+            result.add(new Site(function.file(), call.callee(), call.offset(), edges.definitions().get(call.callee())));
+        }
+        return result;
+    }
+
+    /** The name of {@code function} in its definition in {@code file}. */
+    @Nullable
+    public PsiElement definition(@NotNull VirtualFile file, @NotNull String function) {
+        PsiManager psiManager = PsiManager.getInstance(project);
+        PsiElement[] target = new PsiElement[1];
+        FileBasedIndex.getInstance().processValues(MoLangFunctionIndex.NAME, function, file, (vFile, offsets) -> {
+            PsiFile psiFile = psiManager.findFile(vFile);
+            if (psiFile == null) return true;
+            CharSequence text = psiFile.getViewProvider().getContents();
+            for (int offset : offsets) {
+                MoLangFunctionExtractor.FunctionName name = MoLangFunctionExtractor.definitionName(text, offset);
+                PsiElement element = psiFile.findElementAt(name != null ? name.start() : offset);
+                if (element != null) {
+                    target[0] = element;
+                    return false;
+                }
+            }
+            return true;
+        }, GlobalSearchScope.fileScope(project, file));
+        return target[0];
+    }
+
+    /** The file the graph keys {@code element} under: the datapack JSON file for injected MoLang. */
+    @Nullable
+    public static VirtualFile graphFile(@NotNull PsiElement element) {
+        PsiFile file = InjectedLanguageManager.getInstance(element.getProject()).getTopLevelFile(element);
+        return file != null ? file.getOriginalFile().getVirtualFile() : null;
+    }
+
+    @NotNull
+    public static String importNode(@NotNull VirtualFile file) {
+        String importPath = MoLangImports.importPath(file.getPath());
+        return importPath != null ? importPath : file.getUrl();
+    }
+
+    private void refresh() {
+        int version = MoLangInjectionRules.getInstance().version();
+        if (version != rulesVersion) {
+            rulesVersion = version;
+            rescan = true;
+        }
+        if (!rescan && !structureChanged && dirty.isEmpty()) return;
+
+        MoLangMetrics.Timer timer = MoLangMetrics.getInstance().start(MoLangMetrics.Operation.CALL_GRAPH);
+        int changed = 0;
+        try {
+            GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+            Set<VirtualFile> queue = new LinkedHashSet<>();
+            if (rescan) {
+                rescan = false;
+                queue.addAll(files.keySet());
+                queue.addAll(FileTypeIndex.getFiles(MoLangFileType.INSTANCE, scope));
+                MoLangInjectionRules rules = MoLangInjectionRules.getInstance();
+                for (VirtualFile json : FilenameIndex.getAllFilesByExt(project, "json", scope)) {
+                    if (rules.accepts(json)) queue.add(json);
+                }
+            }
+            if (structureChanged) {
+                structureChanged = false;
+                queue.addAll(incomplete);
+            }
+            for (Iterator<VirtualFile> it = dirty.iterator(); it.hasNext(); ) {
+                queue.add(it.next());
+                it.remove();
+            }
+
+            Set<VirtualFile> forced = new HashSet<>();
+            Deque<VirtualFile> pending = new ArrayDeque<>(queue);
+            while (!pending.isEmpty()) {
+                VirtualFile file = pending.poll();
+                FileEdges previous = files.get(file);
+                FileEdges next = read(file, scope, previous, forced.contains(file));
+                if (next == previous) continue;
+
+                if (next != null) {
+                    files.put(file, next);
+                } else {
+                    files.remove(file);
+                }
+                apply(file, previous, next);
+                changed++;
+                for (VirtualFile dependent : List.copyOf(dependents.getOrDefault(file, Set.of()))) {
+                    if (!dependent.equals(file) && forced.add(dependent)) pending.add(dependent);
+                }
+            }
+        } finally {
+            timer.stop(changed + " files");
+        }
+    }
+
+    /** The edges of {@code file} now, or {@code previous} if nothing it depends on changed. */
+    @Nullable
+    private FileEdges read(VirtualFile file, GlobalSearchScope scope, @Nullable FileEdges previous, boolean force) {
+        if (!file.isValid() || file.isDirectory() || !scope.contains(file) || !isGraphFile(file)) return null;
+
+        Document document = FileDocumentManager.getInstance().getCachedDocument(file);
+        long stamp = document != null ? document.getModificationStamp() : file.getModificationStamp();
+        if (previous != null && previous.stamp() == stamp && !force) return previous;
+
+        FileBasedIndex index = FileBasedIndex.getInstance();
+        MoLangImportClosure.Closure closure = MoLangImportClosure.indexed(project, file);
+        return new FileEdges(stamp, importNode(file),
+                index.getFileData(MoLangCallGraphIndex.NAME, file, project),
+                closure.functions(), closure.files(), closure.complete(),
+                index.getFileData(MoLangImportIndex.NAME, file, project).keySet());
+    }
+
+    private static boolean isGraphFile(VirtualFile file) {
+        return "molang".equals(file.getExtension()) || MoLangInjectionRules.getInstance().accepts(file);
+    }
+
+    private void apply(VirtualFile file, @Nullable FileEdges previous, @Nullable FileEdges next) {
+        update(calls, callEdges(file, previous, false), callEdges(file, next, false));
+        update(unguardedCalls, callEdges(file, previous, true), callEdges(file, next, true));
+        update(imports, importEdges(previous), importEdges(next));
+
+        if (previous != null) {
+            for (VirtualFile reached : previous.closure()) {
+                Set<VirtualFile> set = dependents.get(reached);
+                if (set != null && set.remove(file) && set.isEmpty()) dependents.remove(reached);
+            }
+        }
+        if (next != null) {
+            for (VirtualFile reached : next.closure()) {
+                dependents.computeIfAbsent(reached, k -> new HashSet<>()).add(file);
+            }
+        }
+        if (next != null && !next.complete()) {
+            incomplete.add(file);
+        } else {
+            incomplete.remove(file);
+        }
+    }
+
+    private static <N> void update(IncrementalScc<N> graph, Map<Edge<N>, Integer> before, Map<Edge<N>, Integer> after) {
+        for (Map.Entry<Edge<N>, Integer> edge : after.entrySet()) {
+            for (int i = before.getOrDefault(edge.getKey(), 0); i < edge.getValue(); i++) {
+                graph.addEdge(edge.getKey().from(), edge.getKey().to());
+            }
+        }
+        for (Map.Entry<Edge<N>, Integer> edge : before.entrySet()) {
+            for (int i = after.getOrDefault(edge.getKey(), 0); i < edge.getValue(); i++) {
+                graph.removeEdge(edge.getKey().from(), edge.getKey().to());
+            }
+        }
+    }
+
+    private static Map<Edge<Fn>, Integer> callEdges(VirtualFile file, @Nullable FileEdges edges, boolean unguardedOnly) {
+        if (edges == null) return Map.of();
+        Map<Edge<Fn>, Integer> result = new HashMap<>();
+        for (Map.Entry<String, List<FunctionCallEdges.Call>> caller : edges.calls().entrySet()) {
+            Fn from = new Fn(file, caller.getKey());
+            for (FunctionCallEdges.Call call : caller.getValue()) {
+                if (unguardedOnly && call.guarded()) continue;
+                Fn to = edges.callee(call);
+                if (to != null) result.merge(new Edge<>(from, to), 1, Integer::sum);
+            }
+        }
+        return result;
+    }
+
+    private static Map<Edge<String>, Integer> importEdges(@Nullable FileEdges file) {
+        if (file == null) return Map.of();
+        Map<Edge<String>, Integer> edges = new HashMap<>();
+        for (String imported : file.imports()) {
+            edges.put(new Edge<>(file.node(), imported), 1);
+        }
+        return edges;
+    }
+
+    private record Edge<N>(N from, N to) {}
+}
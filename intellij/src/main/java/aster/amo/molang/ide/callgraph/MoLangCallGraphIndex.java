@@ -0,0 +1,98 @@
+package aster.amo.molang.ide.callgraph;
+
+import aster.amo.molang.ide.analysis.FunctionCallEdges;
+import aster.amo.molang.ide.analysis.JsonMoLangFragments;
+import aster.amo.molang.ide.ast.MoLangParser;
+import aster.amo.molang.ide.injection.MoLangIndexInput;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MoLangCallGraphIndex extends FileBasedIndexExtension<String, List<FunctionCallEdges.Call>> {
+    public static final ID<String, List<FunctionCallEdges.Call>> NAME = ID.create("molang.call.graph.index");
+
+    @NotNull
+    @Override
+    public ID<String, List<FunctionCallEdges.Call>> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, List<FunctionCallEdges.Call>, FileContent> getIndexer() {
+        return inputData -> {
+            if (MoLangIndexInput.isScript(inputData)) {
+                return FunctionCallEdges.extract(MoLangParser.parse(inputData.getContentAsText()).root());
+            }
+            Map<String, List<FunctionCallEdges.Call>> result = new HashMap<>();
+            for (JsonMoLangFragments.Fragment fragment : MoLangIndexInput.fragments(inputData)) {
+                FunctionCallEdges.extract(MoLangParser.parse(fragment.text()).root()).forEach((caller, calls) -> {
+                    List<FunctionCallEdges.Call> merged = result.computeIfAbsent(caller, k -> new ArrayList<>());
+                    for (FunctionCallEdges.Call call : calls) {
+                        merged.add(new FunctionCallEdges.Call(call.callee(), fragment.toSource(call.offset()), call.guarded()));
+                    }
+                });
+            }
+            return result;
+        };
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<List<FunctionCallEdges.Call>> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, List<FunctionCallEdges.Call> value) throws IOException {
+                out.writeInt(value.size());
+                for (FunctionCallEdges.Call call : value) {
+                    IOUtil.writeUTF(out, call.callee());
+                    out.writeInt(call.offset());
+                    out.writeBoolean(call.guarded());
+                }
+            }
+
+            @Override
+            public List<FunctionCallEdges.Call> read(@NotNull DataInput in) throws IOException {
+                int size = in.readInt();
+                List<FunctionCallEdges.Call> result = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    result.add(new FunctionCallEdges.Call(IOUtil.readUTF(in), in.readInt(), in.readBoolean()));
+                }
+                return result;
+            }
+        };
+    }
+
+    @Override
+    public int getVersion() {
+        return MoLangIndexInput.version(1);
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return MoLangIndexInput.filter();
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
@@ -0,0 +1,50 @@
+package aster.amo.molang.ide.callgraph;
+
+import aster.amo.molang.ide.parser.MoLangFile;
+import com.intellij.ide.hierarchy.CallHierarchyBrowserBase;
+import com.intellij.ide.hierarchy.HierarchyNodeDescriptor;
+import com.intellij.ide.hierarchy.HierarchyTreeStructure;
+import com.intellij.ide.util.treeView.NodeDescriptor;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.util.Comparator;
+import java.util.Map;
+
+public class MoLangCallHierarchyBrowser extends CallHierarchyBrowserBase {
+
+    public MoLangCallHierarchyBrowser(@NotNull Project project, @NotNull PsiElement element) {
+        super(project, element);
+    }
+
+    @Override
+    protected @Nullable PsiElement getElementFromDescriptor(@NotNull HierarchyNodeDescriptor descriptor) {
+        return descriptor.getPsiElement();
+    }
+
+    @Override
+    protected void createTrees(@NotNull Map<? super String, ? super JTree> trees) {
+        trees.put(getCallerType(), createTree(false));
+        trees.put(getCalleeType(), createTree(false));
+    }
+
+    @Override
+    protected boolean isApplicableElement(@NotNull PsiElement element) {
+        return element.getContainingFile() instanceof MoLangFile && MoLangCallHierarchyProvider.functionName(element) != null;
+    }
+
+    @Override
+    protected @Nullable HierarchyTreeStructure createHierarchyTreeStructure(@NotNull String type, @NotNull PsiElement psiElement) {
+        String name = MoLangCallHierarchyProvider.functionName(psiElement);
+        if (name == null) return null;
+        return new MoLangCallHierarchyTreeStructure(myProject, psiElement, name, getCallerType().equals(type));
+    }
+
+    @Override
+    protected @Nullable Comparator<NodeDescriptor<?>> getComparator() {
+        return Comparator.comparing(NodeDescriptor::toString);
+    }
+}
@@ -0,0 +1,60 @@
+package aster.amo.molang.ide.callgraph;
+
+import com.intellij.ide.hierarchy.HierarchyNodeDescriptor;
+import com.intellij.ide.util.treeView.NodeDescriptor;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ui.util.CompositeAppearance;
+import com.intellij.openapi.util.Comparing;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public final class MoLangCallHierarchyNodeDescriptor extends HierarchyNodeDescriptor {
+    private final String function;
+    private final VirtualFile definition;
+
+    /** @param definition the file that defines {@code function}, or null if it does not resolve */
+    public MoLangCallHierarchyNodeDescriptor(@NotNull Project project, @Nullable NodeDescriptor<?> parent,
+                                             @NotNull PsiElement element, @NotNull String function,
+                                             @Nullable VirtualFile definition, boolean isBase) {
+        super(project, parent, element, isBase);
+        this.function = function;
+        this.definition = definition;
+    }
+
+    @NotNull
+    public String getFunction() {
+        return function;
+    }
+
+    @Nullable
+    public VirtualFile getDefinition() {
+        return definition;
+    }
+
+    @Override
+    public boolean update() {
+        boolean changes = super.update();
+        CompositeAppearance oldText = myHighlightedText;
+
+        myHighlightedText = new CompositeAppearance();
+        myHighlightedText.getEnding().addText("f." + function);
+        if (definition != null
+                && MoLangCallGraph.getInstance(myProject).isRecursive(new MoLangCallGraph.Fn(definition, function))) {
+            myHighlightedText.getEnding().addText(" (recursive)", getPackageNameAttributes());
+        }
+        PsiElement element = getPsiElement();
+        PsiFile file = element != null ? element.getContainingFile() : null;
+        if (file != null) {
+            myHighlightedText.getEnding().addText(" (" + file.getName() + ")", getPackageNameAttributes());
+        }
+        myName = myHighlightedText.getText();
+
+        if (!Comparing.equal(myHighlightedText, oldText)) {
+            changes = true;
+        }
+        return changes;
+    }
+}
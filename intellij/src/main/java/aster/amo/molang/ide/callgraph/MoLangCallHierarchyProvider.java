@@ -0,0 +1,57 @@
+package aster.amo.molang.ide.callgraph;
+
+import aster.amo.molang.ide.analysis.MoLangFunctionExtractor;
+import aster.amo.molang.ide.navigation.MoLangImportClosure;
+import aster.amo.molang.ide.parser.MoLangFile;
+import com.intellij.ide.hierarchy.CallHierarchyBrowserBase;
+import com.intellij.ide.hierarchy.HierarchyBrowser;
+import com.intellij.ide.hierarchy.HierarchyProvider;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.actionSystem.DataContext;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public class MoLangCallHierarchyProvider implements HierarchyProvider {
+
+    @Override
+    public @Nullable PsiElement getTarget(@NotNull DataContext dataContext) {
+        Editor editor = CommonDataKeys.EDITOR.getData(dataContext);
+        PsiFile file = CommonDataKeys.PSI_FILE.getData(dataContext);
+        if (editor == null || !(file instanceof MoLangFile)) return null;
+
+        MoLangFunctionExtractor.FunctionName name = MoLangFunctionExtractor.functionNameAt(
+                editor.getDocument().getCharsSequence(), editor.getCaretModel().getOffset());
+        if (name == null) return null;
+        if (!name.definition()) {
+            VirtualFile definingFile = MoLangImportClosure.get(file).functions().get(name.name());
+            PsiElement definition = definingFile != null
+                    ? MoLangCallGraph.getInstance(file.getProject()).definition(definingFile, name.name())
+                    : null;
+            if (definition != null) return definition;
+        }
+        return file.findElementAt(name.start());
+    }
+
+    @Override
+    public @NotNull HierarchyBrowser createHierarchyBrowser(@NotNull PsiElement target) {
+        return new MoLangCallHierarchyBrowser(target.getProject(), target);
+    }
+
+    @Override
+    public void browserActivated(@NotNull HierarchyBrowser hierarchyBrowser) {
+        ((MoLangCallHierarchyBrowser) hierarchyBrowser).changeView(CallHierarchyBrowserBase.getCallerType());
+    }
+
+    @Nullable
+    static String functionName(@NotNull PsiElement element) {
+        PsiFile file = element.getContainingFile();
+        if (file == null) return null;
+        MoLangFunctionExtractor.FunctionName name = MoLangFunctionExtractor.functionNameAt(
+                file.getViewProvider().getContents(), element.getTextRange().getEndOffset() - 1);
+        return name != null ? name.name() : null;
+    }
+}
@@ -0,0 +1,76 @@
+package aster.amo.molang.ide.callgraph;
+
+import com.intellij.ide.hierarchy.HierarchyNodeDescriptor;
+import com.intellij.ide.hierarchy.HierarchyTreeStructure;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.util.ArrayUtilRt;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+public final class MoLangCallHierarchyTreeStructure extends HierarchyTreeStructure {
+    private final boolean callers;
+
+    public MoLangCallHierarchyTreeStructure(@NotNull Project project, @NotNull PsiElement element, @NotNull String function,
+                                            boolean callers) {
+        super(project, new MoLangCallHierarchyNodeDescriptor(project, null, element, function,
+                MoLangCallGraph.graphFile(element), true));
+        this.callers = callers;
+    }
+
+    @Override
+    protected Object @NotNull [] buildChildren(@NotNull HierarchyNodeDescriptor descriptor) {
+        if (!(descriptor instanceof MoLangCallHierarchyNodeDescriptor node) || node.getDefinition() == null
+                || repeatsAncestor(node)) {
+            return ArrayUtilRt.EMPTY_OBJECT_ARRAY;
+        }
+
+        MoLangCallGraph graph = MoLangCallGraph.getInstance(myProject);
+        MoLangCallGraph.Fn function = new MoLangCallGraph.Fn(node.getDefinition(), node.getFunction());
+        List<MoLangCallGraph.Site> sites = callers ? graph.callers(function) : graph.callees(function);
+        PsiManager psiManager = PsiManager.getInstance(myProject);
+        Map<MoLangCallGraph.Site, PsiElement> targets = new LinkedHashMap<>();
+        Set<Object> seen = new HashSet<>();
+        for (MoLangCallGraph.Site site : sites) {
+            VirtualFile definition = site.definition();
+            if (!seen.add(definition != null ? new MoLangCallGraph.Fn(definition, site.function()) : site.function())) {
+                continue;
+            }
+            PsiElement element = definition != null ? graph.definition(definition, site.function()) : null;
+            if (element == null) {
+                PsiFile file = psiManager.findFile(site.file());
+                element = file != null ? file.findElementAt(site.offset()) : null;
+            }
+            if (element != null) targets.put(site, element);
+        }
+
+        List<Object> children = new ArrayList<>(targets.size());
+        for (Map.Entry<MoLangCallGraph.Site, PsiElement> target : targets.entrySet()) {
+            MoLangCallGraph.Site site = target.getKey();
+            children.add(new MoLangCallHierarchyNodeDescriptor(myProject, descriptor, target.getValue(), site.function(),
+                    site.definition(), false));
+        }
+        return children.toArray();
+    }
+
+    private static boolean repeatsAncestor(MoLangCallHierarchyNodeDescriptor node) {
+        for (Object parent = node.getParentDescriptor(); parent != null;
+             parent = ((HierarchyNodeDescriptor) parent).getParentDescriptor()) {
+            if (parent instanceof MoLangCallHierarchyNodeDescriptor ancestor && ancestor.getFunction().equals(node.getFunction())
+                    && Objects.equals(ancestor.getDefinition(), node.getDefinition())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
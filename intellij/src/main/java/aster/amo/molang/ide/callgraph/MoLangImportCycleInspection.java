@@ -0,0 +1,53 @@
+package aster.amo.molang.ide.callgraph;
+
+import aster.amo.molang.ide.analysis.MoLangImports;
+import aster.amo.molang.ide.largefile.MoLangLargeFiles;
+import aster.amo.molang.ide.navigation.MoLangImportIndex;
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class MoLangImportCycleInspection extends LocalInspectionTool {
+
+    @Override
+    public ProblemDescriptor @NotNull [] checkFile(@NotNull PsiFile file, @NotNull InspectionManager manager, boolean isOnTheFly) {
+        VirtualFile vFile = file.getVirtualFile();
+        if (vFile == null || MoLangImports.importPath(vFile.getPath()) == null) return ProblemDescriptor.EMPTY_ARRAY;
+
+        CharSequence text = file.getViewProvider().getContents();
+        Map<String, List<Integer>> imports = MoLangLargeFiles.isLarge(text)
+                ? FileBasedIndex.getInstance().getFileData(MoLangImportIndex.NAME, vFile, file.getProject())
+                : MoLangImports.extract(text);
+        if (imports.isEmpty()) return ProblemDescriptor.EMPTY_ARRAY;
+
+        MoLangCallGraph graph = MoLangCallGraph.getInstance(file.getProject());
+        String self = MoLangCallGraph.importNode(vFile);
+        List<ProblemDescriptor> problems = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> imported : imports.entrySet()) {
+            List<String> cycle = graph.importCycle(self, imported.getKey());
+            if (cycle.isEmpty()) continue;
+
+            String message = cycle.size() == 2
+                    ? "Script imports itself"
+                    : "Import cycle: " + String.join(" → ", cycle);
+            for (int offset : imported.getValue()) {
+                int end = offset + imported.getKey().length();
+                if (end > text.length() || !imported.getKey().contentEquals(text.subSequence(offset, end))) continue;
+                problems.add(manager.createProblemDescriptor(file,
+                        new TextRange(offset, end), message,
+                        ProblemHighlightType.GENERIC_ERROR_OR_WARNING, isOnTheFly));
+            }
+        }
+        return problems.toArray(ProblemDescriptor.EMPTY_ARRAY);
+    }
+}
@@ -0,0 +1,63 @@
+package aster.amo.molang.ide.callgraph;
+
+import aster.amo.molang.ide.analysis.FunctionCallEdges;
+import aster.amo.molang.ide.largefile.MoLangLargeFiles;
+import aster.amo.molang.ide.parser.MoLangParseCache;
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class MoLangUnguardedRecursionInspection extends LocalInspectionTool {
+
+    @Override
+    public ProblemDescriptor @NotNull [] checkFile(@NotNull PsiFile file, @NotNull InspectionManager manager, boolean isOnTheFly) {
+        CharSequence text = file.getViewProvider().getContents();
+        Map<String, List<FunctionCallEdges.Call>> edges = MoLangLargeFiles.isLarge(text)
+                ? indexedEdges(file)
+                : FunctionCallEdges.extract(MoLangParseCache.getParseResult(file).root());
+        if (edges.isEmpty()) return ProblemDescriptor.EMPTY_ARRAY;
+
+        VirtualFile graphFile = MoLangCallGraph.graphFile(file);
+        if (graphFile == null) return ProblemDescriptor.EMPTY_ARRAY;
+
+        MoLangCallGraph graph = MoLangCallGraph.getInstance(file.getProject());
+        List<ProblemDescriptor> problems = new ArrayList<>();
+        for (Map.Entry<String, List<FunctionCallEdges.Call>> caller : edges.entrySet()) {
+            for (FunctionCallEdges.Call call : caller.getValue()) {
+                int end = call.offset() + call.callee().length();
+                if (call.guarded() || end > text.length()
+                        || !call.callee().contentEquals(text.subSequence(call.offset(), end))) continue;
+                List<MoLangCallGraph.Fn> cycle = graph.unguardedCycle(graphFile, caller.getKey(), call.callee());
+                if (cycle.isEmpty()) continue;
+
+                String message = cycle.size() == 2
+                        ? "'" + caller.getKey() + "' calls itself without a guarding condition"
+                        : "Call to '" + call.callee() + "' recurses back to '" + caller.getKey()
+                        + "' without a guarding condition: "
+                        + cycle.stream().map(MoLangCallGraph.Fn::name).collect(Collectors.joining(" → "));
+                problems.add(manager.createProblemDescriptor(file,
+                        new TextRange(call.offset(), end), message,
+                        ProblemHighlightType.GENERIC_ERROR_OR_WARNING, isOnTheFly));
+            }
+        }
+        return problems.toArray(ProblemDescriptor.EMPTY_ARRAY);
+    }
+
+    /** Large files are not parsed; their edges come from the index as of the last save. */
+    private static Map<String, List<FunctionCallEdges.Call>> indexedEdges(PsiFile file) {
+        VirtualFile vFile = file.getVirtualFile();
+        if (vFile == null) return Map.of();
+        return FileBasedIndex.getInstance().getFileData(MoLangCallGraphIndex.NAME, vFile, file.getProject());
+    }
+}
@@ -1,10 +1,12 @@
 package aster.amo.molang.ide.completion;
 
 import aster.amo.molang.ide.MoLangLanguage;
+import aster.amo.molang.ide.diagnostics.MoLangMetrics;
+import aster.amo.molang.ide.largefile.MoLangLargeFiles;
+import aster.amo.molang.ide.navigation.MoLangImportClosure;
+import aster.amo.molang.ide.schema.MoLangSchema;
 import aster.amo.molang.ide.schema.MoLangSchemaService;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
+import aster.amo.molang.ide.schema.SchemaEntry;
 import com.intellij.codeInsight.completion.*;
 import com.intellij.codeInsight.lookup.LookupElement;
 import com.intellij.codeInsight.lookup.LookupElementBuilder;
@@ -13,12 +15,14 @@ import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.patterns.PlatformPatterns;
+import com.intellij.psi.PsiFile;
 import com.intellij.util.ProcessingContext;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -56,83 +60,97 @@ public class MoLangCompletionContributor extends CompletionContributor {
                         MoLangSchemaService schema = project.getService(MoLangSchemaService.class);
                         if (schema == null || !schema.isLoaded()) return;
 
-                        Document doc = parameters.getEditor().getDocument();
-                        int offset = parameters.getOffset();
-                        String textBefore = getTextBefore(doc, offset);
-
-                        String docText = doc.getText();
-                        String runtimeName = schema.inferRuntimeFromContent(docText);
-                        if (runtimeName == null) {
-                            VirtualFile vFile = parameters.getOriginalFile().getVirtualFile();
-                            runtimeName = vFile != null ? schema.inferRuntimeFromPath(vFile.getPath()) : null;
-                        }
-
-                        Matcher ctxMatcher = CONTEXT_ANNOTATION_PATTERN.matcher(textBefore);
-                        if (ctxMatcher.find()) {
-                            for (String name : schema.getRuntimeNames()) {
-                                result.addElement(prioritize(
-                                        LookupElementBuilder.create(name)
-                                                .withIcon(AllIcons.Nodes.Tag)
-                                                .withTypeText("runtime context"),
-                                        200
-                                ));
+                        PsiFile file = parameters.getOriginalFile();
+                        VirtualFile vFile = file.getVirtualFile();
+                        MoLangMetrics.Timer timer = MoLangMetrics.getInstance().start(MoLangMetrics.Operation.COMPLETION);
+                        try {
+                            if (addCompletions(schema, parameters.getEditor().getDocument(), parameters.getOffset(),
+                                    file, result::addElement)) {
+                                result.stopHere();
                             }
-                            result.stopHere();
-                            return;
-                        }
-
-                        Matcher chainMatcher = PREFIX_CHAIN_PATTERN.matcher(textBefore);
-                        if (chainMatcher.find()) {
-                            String prefix = normalizePrefix(chainMatcher.group(1));
-                            String chainStr = chainMatcher.group(2);
-                            String[] chain = chainStr.isEmpty()
-                                    ? new String[0]
-                                    : chainStr.substring(1).split("\\.");
-
-                            handleChainCompletion(schema, result, prefix, chain, runtimeName, doc, offset);
-                            result.stopHere();
-                            return;
-                        }
-
-                        Matcher bareMatcher = BARE_IDENT_PATTERN.matcher(textBefore);
-                        if (bareMatcher.find()) {
-                            String partial = bareMatcher.group(1);
-                            handleBareCompletion(result, partial);
-                            return;
+                        } finally {
+                            timer.stop(vFile != null ? vFile.getName() : null);
                         }
                     }
                 });
     }
 
+    public boolean addCompletions(@NotNull MoLangSchemaService schema,
+                                  @NotNull Document doc,
+                                  int offset,
+                                  @Nullable PsiFile file,
+                                  @NotNull Consumer<LookupElement> result) {
+        String textBefore = getTextBefore(doc, offset);
+        VirtualFile vFile = file != null ? file.getVirtualFile() : null;
+
+        String runtimeName = schema.inferRuntimeFromContent(doc.getCharsSequence());
+        if (runtimeName == null) {
+            runtimeName = vFile != null ? schema.inferRuntimeFromPath(vFile.getPath()) : null;
+        }
+
+        Matcher ctxMatcher = CONTEXT_ANNOTATION_PATTERN.matcher(textBefore);
+        if (ctxMatcher.find()) {
+            for (String name : schema.getRuntimeNames()) {
+                result.accept(prioritize(
+                        LookupElementBuilder.create(name)
+                                .withIcon(AllIcons.Nodes.Tag)
+                                .withTypeText("runtime context"),
+                        200
+                ));
+            }
+            return true;
+        }
+
+        Matcher chainMatcher = PREFIX_CHAIN_PATTERN.matcher(textBefore);
+        if (chainMatcher.find()) {
+            String prefix = normalizePrefix(chainMatcher.group(1));
+            String chainStr = chainMatcher.group(2);
+            String[] chain = chainStr.isEmpty()
+                    ? new String[0]
+                    : chainStr.substring(1).split("\\.");
+
+            handleChainCompletion(schema, result, prefix, chain, runtimeName, doc, offset, file);
+            return true;
+        }
+
+        Matcher bareMatcher = BARE_IDENT_PATTERN.matcher(textBefore);
+        if (bareMatcher.find()) {
+            String partial = bareMatcher.group(1);
+            handleBareCompletion(result, partial);
+        }
+        return false;
+    }
+
     private void handleChainCompletion(MoLangSchemaService schema,
-                                       CompletionResultSet result,
+                                       Consumer<LookupElement> result,
                                        String prefix,
                                        String[] chain,
                                        @Nullable String runtimeName,
                                        Document doc,
-                                       int offset) {
+                                       int offset,
+                                       @Nullable PsiFile file) {
         switch (prefix) {
             case "q" -> handleQueryCompletion(schema, result, chain, runtimeName);
             case "math" -> handleMathCompletion(schema, result, chain);
-            case "t" -> handleTempCompletion(result, doc);
-            case "v" -> handleVariableCompletion(result, doc);
-            case "f" -> handleFunctionCompletion(result, doc);
+            case "t" -> handleTempCompletion(result, doc, offset);
+            case "v" -> handleVariableCompletion(result, doc, offset);
+            case "f" -> handleFunctionCompletion(result, doc, file);
             case "c" -> handleContextCompletion(schema, result, runtimeName);
         }
     }
 
     private void handleQueryCompletion(MoLangSchemaService schema,
-                                       CompletionResultSet result,
+                                       Consumer<LookupElement> result,
                                        String[] chain,
                                        @Nullable String runtimeName) {
         if (chain.length == 0) {
-            Map<String, JsonObject> queryVars = schema.getQueryVariables(runtimeName);
+            Map<String, SchemaEntry> queryVars = schema.getQueryVariables(runtimeName);
             for (var entry : queryVars.entrySet()) {
                 String name = entry.getKey();
-                JsonObject obj = entry.getValue();
-                String type = getStringField(obj, "type");
-                String desc = getStringField(obj, "description");
-                String structType = getStringField(obj, "struct_type");
+                SchemaEntry obj = entry.getValue();
+                String type = obj.string("type");
+                String desc = obj.string("description");
+                String structType = obj.string("struct_type");
 
                 LookupElementBuilder builder = LookupElementBuilder.create(name)
                         .withIcon(getIconForType(type))
@@ -141,7 +159,7 @@ public class MoLangCompletionContributor extends CompletionContributor {
                 if (desc != null) {
                     builder = builder.withPresentableText(name);
                 }
-                result.addElement(prioritize(builder, "Struct".equals(type) ? 200 : 100));
+                result.accept(prioritize(builder, "Struct".equals(type) ? 200 : 100));
             }
 
             addFunctionMapToResult(schema.getGeneralFunctions(), result, 50);
@@ -152,18 +170,18 @@ public class MoLangCompletionContributor extends CompletionContributor {
     }
 
     private void handleMathCompletion(MoLangSchemaService schema,
-                                      CompletionResultSet result,
+                                      Consumer<LookupElement> result,
                                       String[] chain) {
         if (chain.length == 0) {
-            Map<String, JsonObject> mathFuncs = schema.getMathFunctions();
+            Map<String, SchemaEntry> mathFuncs = schema.getMathFunctions();
             addFunctionMapToResult(mathFuncs, result, 100);
         }
     }
 
-    private void handleTempCompletion(CompletionResultSet result, Document doc) {
-        Set<String> names = scanPrefixUsages(doc.getText(), "t", "temp");
+    private void handleTempCompletion(Consumer<LookupElement> result, Document doc, int offset) {
+        Set<String> names = scanPrefixUsages(scannedText(doc, offset), "t", "temp");
         for (String name : names) {
-            result.addElement(prioritize(
+            result.accept(prioritize(
                     LookupElementBuilder.create(name)
                             .withIcon(AllIcons.Nodes.Variable)
                             .withTypeText("Temp"),
@@ -172,10 +190,10 @@ public class MoLangCompletionContributor extends CompletionContributor {
         }
     }
 
-    private void handleVariableCompletion(CompletionResultSet result, Document doc) {
-        Set<String> names = scanPrefixUsages(doc.getText(), "v", "variable");
+    private void handleVariableCompletion(Consumer<LookupElement> result, Document doc, int offset) {
+        Set<String> names = scanPrefixUsages(scannedText(doc, offset), "v", "variable");
         for (String name : names) {
-            result.addElement(prioritize(
+            result.accept(prioritize(
                     LookupElementBuilder.create(name)
                             .withIcon(AllIcons.Nodes.Field)
                             .withTypeText("Variable"),
@@ -184,29 +202,42 @@ public class MoLangCompletionContributor extends CompletionContributor {
         }
     }
 
-    private void handleFunctionCompletion(CompletionResultSet result, Document doc) {
-        Set<String> fnNames = scanFnDefinitions(doc.getText());
-        for (String name : fnNames) {
-            result.addElement(prioritize(
-                    LookupElementBuilder.create(name)
+    private void handleFunctionCompletion(Consumer<LookupElement> result, Document doc, @Nullable PsiFile file) {
+        Map<String, VirtualFile> visible = new LinkedHashMap<>();
+        if (!MoLangLargeFiles.isLarge(doc)) {
+            for (String name : scanFnDefinitions(doc.getCharsSequence())) {
+                visible.put(name, null);
+            }
+        }
+        if (file != null) {
+            for (var entry : MoLangImportClosure.get(file).functions().entrySet()) {
+                VirtualFile definingFile = entry.getValue();
+                visible.putIfAbsent(entry.getKey(), definingFile.equals(file.getOriginalFile().getVirtualFile()) ? null : definingFile);
+            }
+        }
+        for (var entry : visible.entrySet()) {
+            VirtualFile definingFile = entry.getValue();
+            result.accept(prioritize(
+                    LookupElementBuilder.create(entry.getKey())
                             .withIcon(AllIcons.Nodes.Function)
                             .withTypeText("fn()")
+                            .withTailText(definingFile != null ? " (" + definingFile.getName() + ")" : "", true)
                             .withInsertHandler((ctx, item) -> {
                                 ctx.getDocument().insertString(ctx.getTailOffset(), "()");
                                 ctx.getEditor().getCaretModel().moveToOffset(ctx.getTailOffset() - 1);
                             }),
-                    100
+                    definingFile != null ? 90 : 100
             ));
         }
     }
 
     private void handleContextCompletion(MoLangSchemaService schema,
-                                         CompletionResultSet result,
+                                         Consumer<LookupElement> result,
                                          @Nullable String runtimeName) {
         if (runtimeName != null) {
-            Map<String, JsonObject> queryVars = schema.getRuntimeQueryVariables(runtimeName);
+            Map<String, SchemaEntry> queryVars = schema.getRuntimeQueryVariables(runtimeName);
             for (var entry : queryVars.entrySet()) {
-                result.addElement(prioritize(
+                result.accept(prioritize(
                         LookupElementBuilder.create(entry.getKey())
                                 .withIcon(AllIcons.Nodes.Property)
                                 .withTypeText("Context"),
@@ -217,25 +248,25 @@ public class MoLangCompletionContributor extends CompletionContributor {
     }
 
     private void resolveAndAddCompletions(MoLangSchemaService schema,
-                                          CompletionResultSet result,
+                                          Consumer<LookupElement> result,
                                           @Nullable String runtimeName,
                                           String[] chain) {
-        MoLangSchemaService.SchemaResolution resolution = schema.resolveChain(runtimeName, chain);
+        MoLangSchema.SchemaResolution resolution = schema.resolveChain(runtimeName, chain);
         if (resolution != null) {
             addFunctionMapToResult(resolution.functions(), result, 100);
         }
     }
 
-    private void addFunctionMapToResult(Map<String, JsonObject> functions,
-                                        CompletionResultSet result,
+    private void addFunctionMapToResult(Map<String, SchemaEntry> functions,
+                                        Consumer<LookupElement> result,
                                         int basePriority) {
         for (var entry : functions.entrySet()) {
             String name = entry.getKey();
-            JsonObject func = entry.getValue();
-            String type = getStringField(func, "type");
-            String returns = getStringField(func, "returns");
-            String desc = getStringField(func, "description");
-            String source = getStringField(func, "source");
+            SchemaEntry func = entry.getValue();
+            String type = func.string("type");
+            String returns = func.string("returns");
+            String desc = func.string("description");
+            String source = func.string("source");
             String returnType = returns != null ? returns : (type != null ? type : "");
 
             String paramSig = buildParamSignature(func);
@@ -253,13 +284,13 @@ public class MoLangCompletionContributor extends CompletionContributor {
                 });
             }
 
-            result.addElement(prioritize(builder, basePriority));
+            result.accept(prioritize(builder, basePriority));
         }
     }
 
-    private void handleBareCompletion(CompletionResultSet result, String partial) {
+    private void handleBareCompletion(Consumer<LookupElement> result, String partial) {
         for (String kw : KEYWORDS) {
-            result.addElement(prioritize(
+            result.accept(prioritize(
                     LookupElementBuilder.create(kw)
                             .withIcon(AllIcons.Nodes.AbstractClass)
                             .withTypeText("keyword")
@@ -268,7 +299,7 @@ public class MoLangCompletionContributor extends CompletionContributor {
             ));
         }
         for (String prefix : List.of("q", "v", "t", "f", "c", "math")) {
-            result.addElement(prioritize(
+            result.accept(prioritize(
                     LookupElementBuilder.create(prefix)
                             .withIcon(AllIcons.Nodes.Tag)
                             .withTypeText("prefix")
@@ -284,7 +315,13 @@ public class MoLangCompletionContributor extends CompletionContributor {
     private static String getTextBefore(Document doc, int offset) {
         int lineNum = doc.getLineNumber(offset);
         int lineStart = doc.getLineStartOffset(lineNum);
-        return doc.getText().substring(lineStart, offset);
+        return doc.getCharsSequence().subSequence(lineStart, offset).toString();
+    }
+
+    /** The whole document, or in large-file mode only the window around the caret. */
+    private static CharSequence scannedText(Document doc, int offset) {
+        CharSequence text = doc.getCharsSequence();
+        return MoLangLargeFiles.isLarge(doc) ? MoLangLargeFiles.window(text, offset) : text;
     }
 
     private static String normalizePrefix(String raw) {
@@ -298,27 +335,23 @@ public class MoLangCompletionContributor extends CompletionContributor {
         };
     }
 
-    private static String buildParamSignature(JsonObject func) {
-        if (!func.has("params")) return "";
-        JsonElement paramsEl = func.get("params");
-        if (!paramsEl.isJsonArray()) return "";
-        JsonArray params = paramsEl.getAsJsonArray();
-        if (params.isEmpty()) return "";
+    private static String buildParamSignature(SchemaEntry func) {
+        List<SchemaEntry> params = func.params();
+        if (params == null || params.isEmpty()) return "";
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < params.size(); i++) {
             if (i > 0) sb.append(", ");
-            JsonObject param = params.get(i).getAsJsonObject();
-            String pName = getStringField(param, "name");
-            String pType = getStringField(param, "type");
-            boolean optional = param.has("optional") && param.get("optional").getAsBoolean();
+            SchemaEntry param = params.get(i);
+            String pName = param.string("name");
+            String pType = param.string("type");
             if (pName != null) sb.append(pName);
             if (pType != null) sb.append(": ").append(pType);
-            if (optional) sb.append("?");
+            if (param.flag("optional")) sb.append("?");
         }
         return sb.toString();
     }
 
-    private static Set<String> scanPrefixUsages(String text, String shortPrefix, String longPrefix) {
+    private static Set<String> scanPrefixUsages(CharSequence text, String shortPrefix, String longPrefix) {
         Set<String> names = new LinkedHashSet<>();
         Pattern p = Pattern.compile("(?:" + Pattern.quote(shortPrefix) + "|" + Pattern.quote(longPrefix) + ")\\.([a-zA-Z_][a-zA-Z0-9_]*)");
         Matcher m = p.matcher(text);
@@ -328,7 +361,7 @@ public class MoLangCompletionContributor extends CompletionContributor {
         return names;
     }
 
-    private static Set<String> scanFnDefinitions(String text) {
+    private static Set<String> scanFnDefinitions(CharSequence text) {
         Set<String> names = new LinkedHashSet<>();
         Pattern p = Pattern.compile("fn\\s*\\(\\s*'([^']+)'");
         Matcher m = p.matcher(text);
@@ -352,11 +385,4 @@ public class MoLangCompletionContributor extends CompletionContributor {
     private static LookupElement prioritize(LookupElementBuilder builder, int priority) {
         return PrioritizedLookupElement.withPriority(builder, priority);
     }
-
-    @Nullable
-    private static String getStringField(JsonObject obj, String field) {
-        if (obj == null || !obj.has(field)) return null;
-        JsonElement el = obj.get(field);
-        return el.isJsonPrimitive() ? el.getAsString() : null;
-    }
 }
@@ -0,0 +1,34 @@
+package aster.amo.molang.ide.cost;
+
+import aster.amo.molang.ide.largefile.MoLangLargeFiles;
+import com.intellij.codeInsight.daemon.LineMarkerInfo;
+import com.intellij.codeInsight.daemon.LineMarkerProvider;
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.editor.markup.GutterIconRenderer;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public class MoLangCostLineMarkerProvider implements LineMarkerProvider {
+
+    @Override
+    public @Nullable LineMarkerInfo<?> getLineMarkerInfo(@NotNull PsiElement element) {
+        if (element.getFirstChild() != null) return null;
+        PsiFile file = element.getContainingFile();
+        if (file == null || MoLangLargeFiles.isLarge(file)) return null;
+
+        String tooltip = MoLangFileCost.get(file).markers().get(element.getTextRange().getStartOffset());
+        if (tooltip == null) return null;
+
+        return new LineMarkerInfo<>(
+                element,
+                element.getTextRange(),
+                AllIcons.Actions.ProfileCPU,
+                e -> tooltip,
+                null,
+                GutterIconRenderer.Alignment.RIGHT,
+                () -> "Estimated MoLang evaluation cost"
+        );
+    }
+}
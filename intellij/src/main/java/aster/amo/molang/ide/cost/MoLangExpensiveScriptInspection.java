@@ -0,0 +1,69 @@
+package aster.amo.molang.ide.cost;
+
+import aster.amo.molang.ide.ast.Node;
+import aster.amo.molang.ide.largefile.MoLangLargeFiles;
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.options.OptPane;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.intellij.codeInspection.options.OptPane.number;
+import static com.intellij.codeInspection.options.OptPane.pane;
+
+public class MoLangExpensiveScriptInspection extends LocalInspectionTool {
+    public int threshold = 500;
+
+    @Override
+    public @NotNull OptPane getOptionsPane() {
+        return pane(number("threshold", "Report functions and expressions with an estimated cost above", 1, 100_000_000));
+    }
+
+    @Override
+    public ProblemDescriptor @NotNull [] checkFile(@NotNull PsiFile file, @NotNull InspectionManager manager, boolean isOnTheFly) {
+        if (MoLangLargeFiles.isLarge(file)) return ProblemDescriptor.EMPTY_ARRAY;
+        CostReport report = MoLangFileCost.get(file).report();
+        CharSequence text = file.getViewProvider().getContents();
+        List<ProblemDescriptor> problems = new ArrayList<>();
+
+        for (CostReport.FunctionCost function : report.functions().values()) {
+            if (function.cost() <= threshold) continue;
+            Node.FnDef def = function.definition();
+            TextRange range = def.nameEnd() > def.nameStart()
+                    ? new TextRange(def.nameStart(), def.nameEnd())
+                    : firstLine(text, def);
+            problems.add(manager.createProblemDescriptor(file, range,
+                    MoLangFileCost.describe("Function '" + def.name() + "'", function.cost(),
+                            function.maxLoopDepth(), function.queryCallsInLoops(), function.recursive())
+                            + " (threshold " + threshold + ")",
+                    ProblemHighlightType.GENERIC_ERROR_OR_WARNING, isOnTheFly));
+        }
+
+        for (CostReport.StatementCost statement : report.statements()) {
+            if (statement.statement() instanceof Node.FnDef || statement.cost() <= threshold) continue;
+            problems.add(manager.createProblemDescriptor(file, firstLine(text, statement.statement()),
+                    MoLangFileCost.describe("Expression", statement.cost(),
+                            statement.maxLoopDepth(), statement.queryCallsInLoops(), false)
+                            + " (threshold " + threshold + ")",
+                    ProblemHighlightType.GENERIC_ERROR_OR_WARNING, isOnTheFly));
+        }
+        return problems.toArray(ProblemDescriptor.EMPTY_ARRAY);
+    }
+
+    private static TextRange firstLine(CharSequence text, Node node) {
+        int end = Math.min(node.end(), text.length());
+        for (int i = node.start(); i < end; i++) {
+            if (text.charAt(i) == '\n') {
+                end = i;
+                break;
+            }
+        }
+        return new TextRange(node.start(), Math.max(end, node.start()));
+    }
+}
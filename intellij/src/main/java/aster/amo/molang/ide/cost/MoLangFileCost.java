@@ -0,0 +1,91 @@
+package aster.amo.molang.ide.cost;
+
+import aster.amo.molang.ide.ast.Node;
+import aster.amo.molang.ide.parser.MoLangParseCache;
+import aster.amo.molang.ide.schema.MoLangSchemaService;
+import aster.amo.molang.ide.schema.SchemaEntry;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class MoLangFileCost {
+    public static final double STATEMENT_MARKER_MIN_COST = 100;
+
+    private static final Key<CachedValue<Analysis>> KEY = Key.create("molang.cost.analysis");
+
+    private MoLangFileCost() {
+    }
+
+    @NotNull
+    public static Analysis get(@NotNull PsiFile file) {
+        return CachedValuesManager.getCachedValue(file, KEY, () -> {
+            MoLangSchemaService schema = file.getProject().getService(MoLangSchemaService.class);
+            return CachedValueProvider.Result.create(analyze(file, schema), file, schema.getModificationTracker());
+        });
+    }
+
+    private static Analysis analyze(PsiFile file, MoLangSchemaService schema) {
+        MoLangCostModel.Weights weights = MoLangCostModel.Weights.DEFAULT;
+        if (schema.isLoaded()) {
+            VirtualFile vFile = file.getVirtualFile();
+            String runtimeName = schema.inferRuntime(file.getViewProvider().getContents(), vFile != null ? vFile.getPath() : null);
+            weights = new SchemaWeights(schema, runtimeName);
+        }
+
+        CostReport report = MoLangCostModel.analyze(MoLangParseCache.getParseResult(file).root(), weights);
+
+        Map<Integer, String> markers = new HashMap<>();
+        for (CostReport.FunctionCost function : report.functions().values()) {
+            Node.FnDef def = function.definition();
+            markers.put(def.start(), describe("Function '" + def.name() + "'", function.cost(),
+                    function.maxLoopDepth(), function.queryCallsInLoops(), function.recursive()));
+        }
+        for (CostReport.StatementCost statement : report.statements()) {
+            if (statement.statement() instanceof Node.FnDef) continue;
+            if (statement.cost() < STATEMENT_MARKER_MIN_COST) continue;
+            markers.put(statement.statement().start(), describe("Expression", statement.cost(),
+                    statement.maxLoopDepth(), statement.queryCallsInLoops(), false));
+        }
+        return new Analysis(report, Map.copyOf(markers));
+    }
+
+    public static String describe(String subject, double cost, int maxLoopDepth, int queryCallsInLoops, boolean recursive) {
+        StringBuilder sb = new StringBuilder(subject).append(": estimated cost ").append(CostReport.format(cost));
+        if (maxLoopDepth > 0) sb.append(" · loop depth ").append(maxLoopDepth);
+        if (queryCallsInLoops > 0) sb.append(" · ").append(queryCallsInLoops).append(" query call(s) inside loops");
+        if (recursive) sb.append(" · recursive");
+        return sb.toString();
+    }
+
+    public record Analysis(@NotNull CostReport report, @NotNull Map<Integer, String> markers) {}
+
+    static final class SchemaWeights implements MoLangCostModel.Weights {
+        private final MoLangSchemaService schema;
+        private final @Nullable String runtimeName;
+        private final Map<String, Double> resolved = new HashMap<>();
+
+        SchemaWeights(MoLangSchemaService schema, @Nullable String runtimeName) {
+            this.schema = schema;
+            this.runtimeName = runtimeName;
+        }
+
+        @Override
+        public double querySegmentCost(Node.Chain chain, int segmentIndex) {
+            String[] path = Arrays.copyOf(chain.names(), segmentIndex + 1);
+            return resolved.computeIfAbsent(String.join(".", path), k -> {
+                SchemaEntry entry = schema.resolveFunction(runtimeName, path);
+                Double cost = entry != null ? entry.number("cost") : null;
+                return cost != null ? cost : MoLangCostModel.DEFAULT_QUERY_SEGMENT_COST;
+            });
+        }
+    }
+}
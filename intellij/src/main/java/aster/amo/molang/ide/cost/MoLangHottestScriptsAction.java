@@ -0,0 +1,64 @@
+package aster.amo.molang.ide.cost;
+
+import aster.amo.molang.ide.MoLangFileType;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.FileTypeIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MoLangHottestScriptsAction extends AnAction {
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        e.getPresentation().setEnabledAndVisible(project != null);
+        e.getPresentation().setEnabled(project != null && !DumbService.isDumb(project));
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) return;
+
+        new Task.Backgroundable(project, "Collecting MoLang script metrics", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                List<MoLangHottestScriptsDialog.Row> rows = ReadAction.compute(() -> collect(project, indicator));
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    if (project.isDisposed()) return;
+                    new MoLangHottestScriptsDialog(project, rows).show();
+                });
+            }
+        }.queue();
+    }
+
+    private static List<MoLangHottestScriptsDialog.Row> collect(Project project, ProgressIndicator indicator) {
+        FileBasedIndex index = FileBasedIndex.getInstance();
+        List<MoLangHottestScriptsDialog.Row> rows = new ArrayList<>();
+        for (VirtualFile file : FileTypeIndex.getFiles(MoLangFileType.INSTANCE, GlobalSearchScope.projectScope(project))) {
+            indicator.checkCanceled();
+            for (ScriptMetrics metrics : index.getFileData(MoLangScriptMetricsIndex.NAME, file, project).values()) {
+                rows.add(new MoLangHottestScriptsDialog.Row(file, metrics));
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,123 @@
+package aster.amo.molang.ide.cost;
+
+import com.intellij.openapi.fileEditor.OpenFileDescriptor;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.ui.DoubleClickListener;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import com.intellij.util.ui.JBUI;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.event.MouseEvent;
+import java.util.List;
+
+public class MoLangHottestScriptsDialog extends DialogWrapper {
+    private static final String[] COLUMNS = {
+            "Script", "Estimated cost", "Tokens", "Functions", "Loop nesting", "Query calls", "Query calls per path", "Imports"
+    };
+    private static final Class<?>[] COLUMN_CLASSES = {
+            String.class, Double.class, Integer.class, Integer.class, Integer.class, Integer.class, Integer.class, Integer.class
+    };
+    private static final int COST_COLUMN = 1;
+
+    public record Row(@NotNull VirtualFile file, @NotNull ScriptMetrics metrics) {}
+
+    private final Project project;
+    private final List<Row> rows;
+    private final JBTable table;
+
+    public MoLangHottestScriptsDialog(@NotNull Project project, @NotNull List<Row> rows) {
+        super(project, false);
+        this.project = project;
+        this.rows = rows;
+        this.table = new JBTable(new MetricsModel());
+        setTitle("Hottest MoLang Scripts (" + rows.size() + ")");
+        setModal(false);
+        init();
+    }
+
+    @Override
+    protected @Nullable JComponent createCenterPanel() {
+        table.setAutoCreateRowSorter(true);
+        table.getRowSorter().setSortKeys(List.of(new RowSorter.SortKey(COST_COLUMN, SortOrder.DESCENDING)));
+        table.setDefaultRenderer(Double.class, new DefaultTableCellRenderer() {
+            @Override
+            protected void setValue(Object value) {
+                setHorizontalAlignment(RIGHT);
+                setText(value instanceof Double cost ? CostReport.format(cost) : "");
+            }
+        });
+        table.getColumnModel().getColumn(0).setPreferredWidth(JBUI.scale(320));
+        new DoubleClickListener() {
+            @Override
+            protected boolean onDoubleClick(@NotNull MouseEvent event) {
+                int row = table.getSelectedRow();
+                if (row < 0) return false;
+                VirtualFile file = rows.get(table.convertRowIndexToModel(row)).file();
+                if (!file.isValid()) return false;
+                new OpenFileDescriptor(project, file).navigate(true);
+                return true;
+            }
+        }.installOn(table);
+
+        JBScrollPane scrollPane = new JBScrollPane(table);
+        scrollPane.setPreferredSize(JBUI.size(900, 500));
+        return scrollPane;
+    }
+
+    @Override
+    protected Action @NotNull [] createActions() {
+        return new Action[]{getOKAction()};
+    }
+
+    private String path(VirtualFile file) {
+        String basePath = project.getBasePath();
+        return basePath != null && file.getPath().startsWith(basePath + "/")
+                ? file.getPath().substring(basePath.length() + 1)
+                : file.getPath();
+    }
+
+    private final class MetricsModel extends AbstractTableModel {
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return COLUMN_CLASSES[column];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int column) {
+            Row row = rows.get(rowIndex);
+            ScriptMetrics metrics = row.metrics();
+            return switch (column) {
+                case 0 -> path(row.file());
+                case 1 -> metrics.cost();
+                case 2 -> metrics.tokens();
+                case 3 -> metrics.functions();
+                case 4 -> metrics.maxLoopNesting();
+                case 5 -> metrics.queryCalls();
+                case 6 -> metrics.queryCallsPerPath();
+                default -> metrics.imports();
+            };
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package aster.amo.molang.ide.cost;
+
+import aster.amo.molang.ide.MoLangFileType;
+import aster.amo.molang.ide.ast.MoLangParser;
+import aster.amo.molang.ide.ast.Node;
+import aster.amo.molang.ide.schema.MoLangSchema;
+import aster.amo.molang.ide.schema.MoLangSchemaService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Objects;
+
+public class MoLangScriptMetricsIndex extends SingleEntryFileBasedIndexExtension<ScriptMetrics> {
+    public static final ID<Integer, ScriptMetrics> NAME = ID.create("molang.script.metrics.index");
+    private static final int FORMAT_VERSION = 1;
+
+    @NotNull
+    @Override
+    public ID<Integer, ScriptMetrics> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public SingleEntryIndexer<ScriptMetrics> getIndexer() {
+        return new SingleEntryIndexer<>(false) {
+            @Override
+            protected @Nullable ScriptMetrics computeValue(@NotNull FileContent inputData) {
+                CharSequence text = inputData.getContentAsText();
+                Node.Block root = MoLangParser.parse(text).root();
+                return ScriptMetrics.compute(text, root, MoLangCostModel.analyze(root, weights(inputData)));
+            }
+        };
+    }
+
+    private static MoLangCostModel.Weights weights(FileContent inputData) {
+        Project project = inputData.getProject();
+        MoLangSchemaService schema = project != null ? project.getService(MoLangSchemaService.class) : null;
+        if (schema == null || !schema.isLoaded()) return MoLangCostModel.Weights.DEFAULT;
+        String runtimeName = schema.inferRuntime(inputData.getContentAsText(), inputData.getFile().getPath());
+        return new MoLangFileCost.SchemaWeights(schema, runtimeName);
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<ScriptMetrics> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, ScriptMetrics value) throws IOException {
+                out.writeInt(value.tokens());
+                out.writeInt(value.functions());
+                out.writeInt(value.maxLoopNesting());
+                out.writeInt(value.queryCalls());
+                out.writeInt(value.queryCallsPerPath());
+                out.writeInt(value.imports());
+                out.writeDouble(value.cost());
+            }
+
+            @Override
+            public ScriptMetrics read(@NotNull DataInput in) throws IOException {
+                return new ScriptMetrics(in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readDouble());
+            }
+        };
+    }
+
+    @Override
+    public int getVersion() {
+        return Objects.hash(FORMAT_VERSION, MoLangSchema.bundledVersion());
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(MoLangFileType.INSTANCE) {
+            @Override
+            public boolean acceptInput(@NotNull VirtualFile file) {
+                return "molang".equals(file.getExtension());
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package aster.amo.molang.ide.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+@Name("aster.amo.molang.CacheStatistics")
+@Label("MoLang Cache Statistics")
+@Category({"MoLang"})
+@Description("Lookups and misses of a MoLang cache since the IDE started or the statistics were reset")
+@Period("10 s")
+@StackTrace(false)
+final class MoLangCacheStatisticsEvent extends Event {
+    @Label("Cache")
+    String cache;
+
+    @Label("Lookups")
+    long lookups;
+
+    @Label("Misses")
+    long misses;
+}
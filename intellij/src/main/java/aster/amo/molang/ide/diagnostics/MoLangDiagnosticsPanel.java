@@ -0,0 +1,150 @@
+package aster.amo.molang.ide.diagnostics;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.intellij.icons.AllIcons;
+import com.intellij.ide.plugins.IdeaPluginDescriptor;
+import com.intellij.ide.plugins.PluginManagerCore;
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.actionSystem.ActionManager;
+import com.intellij.openapi.actionSystem.ActionToolbar;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.DefaultActionGroup;
+import com.intellij.openapi.application.ApplicationInfo;
+import com.intellij.openapi.extensions.PluginId;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.ide.CopyPasteManager;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.datatransfer.StringSelection;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+
+public final class MoLangDiagnosticsPanel extends SimpleToolWindowPanel implements Disposable {
+    private static final int REFRESH_MILLIS = 2_000;
+
+    private final Project project;
+    private final DefaultTableModel operations = readOnlyModel("Operation", "Count", "Mean", "p50", "p90", "p99", "Max");
+    private final DefaultTableModel caches = readOnlyModel("Cache", "Lookups", "Misses", "Hit rate");
+    private final Timer timer = new Timer(REFRESH_MILLIS, e -> refresh());
+
+    public MoLangDiagnosticsPanel(@NotNull Project project) {
+        super(true, true);
+        this.project = project;
+
+        JPanel tables = new JPanel(new GridLayout(2, 1));
+        tables.add(new JBScrollPane(new JBTable(operations)));
+        tables.add(new JBScrollPane(new JBTable(caches)));
+        setContent(tables);
+
+        DefaultActionGroup group = new DefaultActionGroup();
+        group.add(new DumbAwareAction("Refresh", "Refresh the numbers", AllIcons.Actions.Refresh) {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                refresh();
+            }
+        });
+        group.add(new DumbAwareAction("Reset", "Clear all histograms and cache counters", AllIcons.Actions.GC) {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                MoLangMetrics.getInstance().reset();
+                refresh();
+            }
+        });
+        group.add(new DumbAwareAction("Copy Snapshot", "Copy a JSON snapshot to the clipboard", AllIcons.Actions.Copy) {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                CopyPasteManager.getInstance().setContents(new StringSelection(snapshotJson()));
+            }
+        });
+        group.add(new DumbAwareAction("Export Snapshot", "Save a JSON snapshot to attach to a bug report", AllIcons.ToolbarDecorator.Export) {
+            @Override
+            public void actionPerformed(@NotNull AnActionEvent e) {
+                export();
+            }
+        });
+        ActionToolbar toolbar = ActionManager.getInstance().createActionToolbar("MoLangDiagnostics", group, true);
+        toolbar.setTargetComponent(this);
+        setToolbar(toolbar.getComponent());
+
+        refresh();
+        timer.start();
+    }
+
+    private void refresh() {
+        MoLangMetrics.Snapshot snapshot = MoLangMetrics.getInstance().snapshot();
+        operations.setRowCount(0);
+        for (var entry : snapshot.latencies().entrySet()) {
+            LatencyHistogram.Snapshot latency = entry.getValue();
+            operations.addRow(new Object[]{
+                    entry.getKey().id(), latency.count(), duration(latency.meanMicros()), duration(latency.p50Micros()),
+                    duration(latency.p90Micros()), duration(latency.p99Micros()), duration(latency.maxMicros())
+            });
+        }
+        caches.setRowCount(0);
+        for (var entry : snapshot.caches().entrySet()) {
+            MoLangMetrics.CacheSnapshot cache = entry.getValue();
+            caches.addRow(new Object[]{
+                    entry.getKey().id(), cache.lookups(), cache.misses(),
+                    cache.lookups() == 0 ? "-" : String.format(Locale.ROOT, "%.1f%%", cache.hitRate() * 100)
+            });
+        }
+    }
+
+    private void export() {
+        FileSaverDescriptor descriptor = new FileSaverDescriptor("Export MoLang Diagnostics", "Save a JSON snapshot of MoLang latencies and cache statistics", "json");
+        VirtualFileWrapper target = FileChooserFactory.getInstance().createSaveFileDialog(descriptor, project).save("molang-diagnostics.json");
+        if (target == null) return;
+        try {
+            Files.writeString(target.getFile().toPath(), snapshotJson(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            NotificationGroupManager.getInstance()
+                    .getNotificationGroup("MoLang")
+                    .createNotification("Cannot write " + target.getFile() + ": " + ex.getMessage(), NotificationType.ERROR)
+                    .notify(project);
+        }
+    }
+
+    private static String snapshotJson() {
+        JsonObject root = MoLangMetrics.getInstance().snapshot().toJson();
+        root.addProperty("ide", ApplicationInfo.getInstance().getFullApplicationName());
+        IdeaPluginDescriptor plugin = PluginManagerCore.getPlugin(PluginId.getId("aster.amo.molang"));
+        root.addProperty("plugin", plugin != null ? plugin.getVersion() : "unknown");
+        root.addProperty("jvm", System.getProperty("java.vm.name") + " " + System.getProperty("java.runtime.version"));
+        root.addProperty("processors", Runtime.getRuntime().availableProcessors());
+        return new GsonBuilder().setPrettyPrinting().create().toJson(root);
+    }
+
+    private static String duration(long micros) {
+        if (micros < 1_000) return micros + " µs";
+        return String.format(Locale.ROOT, "%.2f ms", micros / 1_000.0);
+    }
+
+    private static DefaultTableModel readOnlyModel(String... columns) {
+        return new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public void dispose() {
+        timer.stop();
+    }
+}
@@ -0,0 +1,20 @@
+package aster.amo.molang.ide.diagnostics;
+
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowFactory;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import org.jetbrains.annotations.NotNull;
+
+public class MoLangDiagnosticsToolWindowFactory implements ToolWindowFactory, DumbAware {
+
+    @Override
+    public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
+        MoLangDiagnosticsPanel panel = new MoLangDiagnosticsPanel(project);
+        Content content = ContentFactory.getInstance().createContent(panel, "", false);
+        content.setDisposer(panel);
+        toolWindow.getContentManager().addContent(content);
+    }
+}
@@ -0,0 +1,174 @@
+package aster.amo.molang.ide.diagnostics;
+
+import com.google.gson.JsonObject;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import jdk.jfr.FlightRecorder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service(Service.Level.APP)
+public final class MoLangMetrics implements Disposable {
+
+    public enum Operation {
+        COMPLETION("completion"),
+        DOCUMENTATION("documentation"),
+        GOTO_DECLARATION("goto-declaration"),
+        FUNCTION_INDEX("function-index"),
+        CALL_SITE_INDEX("call-site-index"),
+        SCHEMA_USAGE_INDEX("schema-usage-index"),
+        FIND_USAGES("find-usages"),
+        CALL_GRAPH("call-graph"),
+        SCHEMA_LOAD("schema-load");
+
+        private final String id;
+
+        Operation(String id) {
+            this.id = id;
+        }
+
+        public String id() {
+            return id;
+        }
+    }
+
+    public enum Cache {
+        SCHEMA_DOCS("schema-docs"),
+        PARSE("parse");
+
+        private final String id;
+
+        Cache(String id) {
+            this.id = id;
+        }
+
+        public String id() {
+            return id;
+        }
+    }
+
+    private final Map<Operation, LatencyHistogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Cache, LongAdder> lookups = new EnumMap<>(Cache.class);
+    private final Map<Cache, LongAdder> misses = new EnumMap<>(Cache.class);
+    private final Runnable cacheEvents = this::emitCacheEvents;
+
+    public MoLangMetrics() {
+        for (Operation operation : Operation.values()) histograms.put(operation, new LatencyHistogram());
+        for (Cache cache : Cache.values()) {
+            lookups.put(cache, new LongAdder());
+            misses.put(cache, new LongAdder());
+        }
+        FlightRecorder.addPeriodicEvent(MoLangCacheStatisticsEvent.class, cacheEvents);
+    }
+
+    public static MoLangMetrics getInstance() {
+        return ApplicationManager.getApplication().getService(MoLangMetrics.class);
+    }
+
+    @NotNull
+    public Timer start(@NotNull Operation operation) {
+        return new Timer(operation);
+    }
+
+    public void recordLookup(@NotNull Cache cache, boolean hit) {
+        lookups.get(cache).increment();
+        if (!hit) misses.get(cache).increment();
+    }
+
+    @NotNull
+    public Snapshot snapshot() {
+        Map<Operation, LatencyHistogram.Snapshot> latencies = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) latencies.put(operation, histograms.get(operation).snapshot());
+        Map<Cache, CacheSnapshot> caches = new EnumMap<>(Cache.class);
+        for (Cache cache : Cache.values()) caches.put(cache, new CacheSnapshot(lookups.get(cache).sum(), misses.get(cache).sum()));
+        return new Snapshot(System.currentTimeMillis(), latencies, caches);
+    }
+
+    public void reset() {
+        histograms.values().forEach(LatencyHistogram::reset);
+        lookups.values().forEach(LongAdder::reset);
+        misses.values().forEach(LongAdder::reset);
+    }
+
+    @Override
+    public void dispose() {
+        FlightRecorder.removePeriodicEvent(cacheEvents);
+    }
+
+    private void emitCacheEvents() {
+        for (Cache cache : Cache.values()) {
+            MoLangCacheStatisticsEvent event = new MoLangCacheStatisticsEvent();
+            event.cache = cache.id();
+            event.lookups = lookups.get(cache).sum();
+            event.misses = misses.get(cache).sum();
+            event.commit();
+        }
+    }
+
+    public record CacheSnapshot(long lookups, long misses) {
+        public double hitRate() {
+            return lookups == 0 ? 0 : (double) (lookups - misses) / lookups;
+        }
+    }
+
+    public record Snapshot(long timestamp,
+                           @NotNull Map<Operation, LatencyHistogram.Snapshot> latencies,
+                           @NotNull Map<Cache, CacheSnapshot> caches) {
+
+        @NotNull
+        public JsonObject toJson() {
+            JsonObject operations = new JsonObject();
+            for (var entry : latencies.entrySet()) {
+                LatencyHistogram.Snapshot latency = entry.getValue();
+                JsonObject json = new JsonObject();
+                json.addProperty("count", latency.count());
+                json.addProperty("meanMicros", latency.meanMicros());
+                json.addProperty("p50Micros", latency.p50Micros());
+                json.addProperty("p90Micros", latency.p90Micros());
+                json.addProperty("p99Micros", latency.p99Micros());
+                json.addProperty("maxMicros", latency.maxMicros());
+                operations.add(entry.getKey().id(), json);
+            }
+            JsonObject cacheJson = new JsonObject();
+            for (var entry : caches.entrySet()) {
+                JsonObject json = new JsonObject();
+                json.addProperty("lookups", entry.getValue().lookups());
+                json.addProperty("misses", entry.getValue().misses());
+                json.addProperty("hitRate", entry.getValue().hitRate());
+                cacheJson.add(entry.getKey().id(), json);
+            }
+            JsonObject root = new JsonObject();
+            root.addProperty("timestamp", timestamp);
+            root.add("operations", operations);
+            root.add("caches", cacheJson);
+            return root;
+        }
+    }
+
+    public final class Timer {
+        private final Operation operation;
+        private final MoLangOperationEvent event = new MoLangOperationEvent();
+        private final long start;
+
+        private Timer(Operation operation) {
+            this.operation = operation;
+            event.begin();
+            this.start = System.nanoTime();
+        }
+
+        public void stop(@Nullable String subject) {
+            histograms.get(operation).record(System.nanoTime() - start);
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation.id();
+                event.subject = subject;
+                event.commit();
+            }
+        }
+    }
+}
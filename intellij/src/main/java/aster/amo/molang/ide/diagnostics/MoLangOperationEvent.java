@@ -0,0 +1,21 @@
+package aster.amo.molang.ide.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("aster.amo.molang.Operation")
+@Label("MoLang Operation")
+@Category({"MoLang"})
+@Description("One timed MoLang completion, documentation, navigation, indexing or schema load call")
+@StackTrace(false)
+final class MoLangOperationEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Subject")
+    String subject;
+}
@@ -1,40 +1,61 @@
 package aster.amo.molang.ide.documentation;
 
 import aster.amo.molang.ide.MoLangLanguage;
+import aster.amo.molang.ide.diagnostics.MoLangMetrics;
 import aster.amo.molang.ide.schema.MoLangSchemaService;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
+import aster.amo.molang.ide.schema.SchemaEntry;
 import com.intellij.lang.documentation.AbstractDocumentationProvider;
 import com.intellij.openapi.editor.Document;
-import com.intellij.openapi.editor.Editor;
-import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
+import com.intellij.util.containers.CollectionFactory;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class MoLangDocumentationProvider extends AbstractDocumentationProvider {
 
-    private static final Set<String> KEYWORD_SET = Set.of(
-            "fn", "if", "else", "switch", "while", "struct", "import",
-            "return", "break", "continue", "for", "default"
-    );
+    private static final Map<String, KeywordDoc> KEYWORD_DOCS = createKeywordDocs();
 
     private static final Pattern CHAIN_PATTERN = Pattern.compile(
             "(q|query|v|variable|t|temp|f|function|c|context|math)" +
             "((?:\\.[a-zA-Z_][a-zA-Z0-9_]*)+)"
     );
 
+    // A schema snapshot hands out one read-only SchemaEntry per entry, so rendered docs are keyed by
+    // that instance and released together with the snapshot after a reload.
+    private static final Map<SchemaEntry, RenderedDoc> RENDERED = CollectionFactory.createConcurrentWeakIdentityMap();
+
     @Override
     public @Nullable String generateDoc(PsiElement element, @Nullable PsiElement originalElement) {
+        MoLangMetrics.Timer timer = MoLangMetrics.getInstance().start(MoLangMetrics.Operation.DOCUMENTATION);
+        try {
+            DocTarget target = resolveTarget(element, originalElement);
+            if (target == null) return null;
+            if (target.keyword() != null) return target.keyword().html();
+            return rendered(target.entry()).html(target.fullName());
+        } finally {
+            timer.stop(originalElement != null ? originalElement.getText() : null);
+        }
+    }
+
+    @Override
+    public @Nullable String getQuickNavigateInfo(PsiElement element, PsiElement originalElement) {
+        DocTarget target = resolveTarget(element, originalElement);
+        if (target == null) return null;
+        if (target.keyword() != null) return target.keyword().plain();
+        return rendered(target.entry()).plain(target.fullName());
+    }
+
+    @Nullable
+    private DocTarget resolveTarget(PsiElement element, @Nullable PsiElement originalElement) {
         if (originalElement == null) return null;
         PsiFile file = originalElement.getContainingFile();
         if (file == null || file.getLanguage() != MoLangLanguage.INSTANCE) return null;
@@ -43,19 +64,16 @@ public class MoLangDocumentationProvider extends AbstractDocumentationProvider {
         MoLangSchemaService schema = project.getService(MoLangSchemaService.class);
         if (schema == null || !schema.isLoaded()) return null;
 
-        String elementText = originalElement.getText();
         Document doc = file.getViewProvider().getDocument();
         if (doc == null) return null;
 
         int offset = originalElement.getTextOffset();
-        String fullText = doc.getText();
+        CharSequence fullText = doc.getCharsSequence();
 
         String chain = extractChainAt(fullText, offset);
         if (chain == null) {
-            if (KEYWORD_SET.contains(elementText)) {
-                return generateKeywordDoc(elementText);
-            }
-            return null;
+            KeywordDoc keyword = KEYWORD_DOCS.get(originalElement.getText());
+            return keyword != null ? new DocTarget(null, null, keyword) : null;
         }
 
         Matcher m = CHAIN_PATTERN.matcher(chain);
@@ -65,34 +83,34 @@ public class MoLangDocumentationProvider extends AbstractDocumentationProvider {
         String dotPart = m.group(2);
         String[] parts = dotPart.substring(1).split("\\.");
 
-        String runtimeName = schema.inferRuntimeFromContent(fullText);
-        if (runtimeName == null) {
-            VirtualFile vFile = file.getVirtualFile();
-            runtimeName = vFile != null ? schema.inferRuntimeFromPath(vFile.getPath()) : null;
-        }
-
         if ("math".equals(prefix)) {
             if (parts.length >= 1) {
-                Map<String, JsonObject> mathFuncs = schema.getMathFunctions();
-                JsonObject func = mathFuncs.get(parts[0]);
+                Map<String, SchemaEntry> mathFuncs = schema.getMathFunctions();
+                SchemaEntry func = mathFuncs.get(parts[0]);
                 if (func != null) {
-                    return generateFunctionDoc("math." + parts[0], func);
+                    return new DocTarget("math." + parts[0], func, null);
                 }
             }
             return null;
         }
 
         if ("q".equals(prefix)) {
-            JsonObject resolved = schema.resolveFunction(runtimeName, parts);
+            String runtimeName = schema.inferRuntimeFromContent(fullText);
+            if (runtimeName == null) {
+                VirtualFile vFile = file.getVirtualFile();
+                runtimeName = vFile != null ? schema.inferRuntimeFromPath(vFile.getPath()) : null;
+            }
+
+            SchemaEntry resolved = schema.resolveFunction(runtimeName, parts);
             if (resolved != null) {
-                return generateFunctionDoc("q." + String.join(".", parts), resolved);
+                return new DocTarget("q." + String.join(".", parts), resolved, null);
             }
 
             if (parts.length == 1) {
-                Map<String, JsonObject> queryVars = schema.getQueryVariables(runtimeName);
-                JsonObject qv = queryVars.get(parts[0]);
+                Map<String, SchemaEntry> queryVars = schema.getQueryVariables(runtimeName);
+                SchemaEntry qv = queryVars.get(parts[0]);
                 if (qv != null) {
-                    return generateFunctionDoc("q." + parts[0], qv);
+                    return new DocTarget("q." + parts[0], qv, null);
                 }
             }
         }
@@ -100,94 +118,87 @@ public class MoLangDocumentationProvider extends AbstractDocumentationProvider {
         return null;
     }
 
-    @Override
-    public @Nullable String getQuickNavigateInfo(PsiElement element, PsiElement originalElement) {
-        String doc = generateDoc(element, originalElement);
-        if (doc == null) return null;
-        return doc.replaceAll("<[^>]+>", "").replaceAll("\\s+", " ").trim();
+    private static RenderedDoc rendered(SchemaEntry func) {
+        RenderedDoc cached = RENDERED.get(func);
+        MoLangMetrics.getInstance().recordLookup(MoLangMetrics.Cache.SCHEMA_DOCS, cached != null);
+        return cached != null ? cached : RENDERED.computeIfAbsent(func, MoLangDocumentationProvider::render);
     }
 
-    private String generateFunctionDoc(String fullName, JsonObject func) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("<html><body>");
-
-        String type = getStringField(func, "type");
-        String returns = getStringField(func, "returns");
+    private static RenderedDoc render(SchemaEntry func) {
+        String type = func.string("type");
+        String returns = func.string("returns");
         String returnType = returns != null ? returns : (type != null ? type : "Unknown");
 
-        sb.append("<b><code>");
-        sb.append(escapeHtml(fullName));
-
         String paramSig = buildParamSignature(func);
-        if (!paramSig.isEmpty()) {
-            sb.append("(").append(escapeHtml(paramSig)).append(")");
-        }
-
-        sb.append(" → ").append(escapeHtml(returnType));
-        sb.append("</code></b>");
+        String plainSignature = (paramSig.isEmpty() ? "" : "(" + paramSig + ")") + " → " + returnType;
 
-        String desc = getStringField(func, "description");
+        StringBuilder sb = new StringBuilder();
+        String desc = func.string("description");
         if (desc != null) {
             sb.append("<br/><br/>").append(escapeHtml(desc));
         }
 
-        String source = getStringField(func, "source");
+        String source = func.string("source");
         if (source != null) {
             sb.append("<br/><br/><i>Source: ").append(escapeHtml(source)).append("</i>");
         }
 
-        String structType = getStringField(func, "struct_type");
+        String structType = func.string("struct_type");
         if (structType != null) {
             sb.append("<br/><i>Struct type: ").append(escapeHtml(structType)).append("</i>");
         }
 
-        if (func.has("params") && func.get("params").isJsonArray()) {
-            JsonArray params = func.getAsJsonArray("params");
-            if (!params.isEmpty()) {
-                sb.append("<br/><br/><b>Parameters:</b><br/>");
-                sb.append("<table>");
-                for (JsonElement el : params) {
-                    JsonObject param = el.getAsJsonObject();
-                    String pName = getStringField(param, "name");
-                    String pType = getStringField(param, "type");
-                    String pDesc = getStringField(param, "description");
-                    boolean optional = param.has("optional") && param.get("optional").getAsBoolean();
-                    sb.append("<tr><td><code>").append(escapeHtml(pName != null ? pName : "?")).append("</code></td>");
-                    sb.append("<td>").append(escapeHtml(pType != null ? pType : "")).append(optional ? " (optional)" : "").append("</td>");
-                    if (pDesc != null) {
-                        sb.append("<td>").append(escapeHtml(pDesc)).append("</td>");
-                    }
-                    sb.append("</tr>");
+        List<SchemaEntry> params = func.params();
+        if (params != null && !params.isEmpty()) {
+            sb.append("<br/><br/><b>Parameters:</b><br/>");
+            sb.append("<table>");
+            for (SchemaEntry param : params) {
+                String pName = param.string("name");
+                String pType = param.string("type");
+                String pDesc = param.string("description");
+                boolean optional = param.flag("optional");
+                sb.append("<tr><td><code>").append(escapeHtml(pName != null ? pName : "?")).append("</code></td>");
+                sb.append("<td>").append(escapeHtml(pType != null ? pType : "")).append(optional ? " (optional)" : "").append("</td>");
+                if (pDesc != null) {
+                    sb.append("<td>").append(escapeHtml(pDesc)).append("</td>");
                 }
-                sb.append("</table>");
+                sb.append("</tr>");
             }
+            sb.append("</table>");
         }
 
         sb.append("</body></html>");
-        return sb.toString();
+        String plainSuffix = desc != null ? plainSignature + " — " + collapseWhitespace(desc) : plainSignature;
+        return new RenderedDoc(escapeHtml(plainSignature), sb.toString(), plainSuffix);
     }
 
-    private String generateKeywordDoc(String keyword) {
-        String desc = switch (keyword) {
-            case "fn" -> "<b><code>fn('name', (params) -> { body })</code></b><br/><br/>Defines a named function that can be called with <code>f.name()</code>.";
-            case "if" -> "<b><code>if (condition) { then } else { otherwise }</code></b><br/><br/>Conditional execution. Returns the value of the executed branch.";
-            case "else" -> "Part of an <code>if/else</code> statement.";
-            case "switch" -> "<b><code>switch (value) { case1 : result1; case2 : result2; default : fallback }</code></b><br/><br/>Pattern matching on a value.";
-            case "while" -> "<b><code>while (condition) { body }</code></b><br/><br/>Loop that executes body while condition is truthy.";
-            case "struct" -> "<b><code>struct { key1 : value1, key2 : value2 }</code></b><br/><br/>Creates a structured data object.";
-            case "import" -> "<b><code>import('namespace:path')</code></b><br/><br/>Imports a MoLang script from <code>data/{namespace}/molang/{path}.molang</code>.";
-            case "return" -> "Returns a value from the current function or script.";
-            case "break" -> "Breaks out of the current loop.";
-            case "continue" -> "Skips to the next iteration of the current loop.";
-            case "for" -> "<b><code>for (init; condition; step) { body }</code></b><br/><br/>Loop with initialization, condition, and step.";
-            case "default" -> "Default case in a switch statement.";
-            default -> keyword;
-        };
-        return "<html><body>" + desc + "</body></html>";
+    private static Map<String, KeywordDoc> createKeywordDocs() {
+        Map<String, KeywordDoc> docs = new HashMap<>();
+        keyword(docs, "fn", "<b><code>fn('name', (params) -> { body })</code></b><br/><br/>Defines a named function that can be called with <code>f.name()</code>.");
+        keyword(docs, "if", "<b><code>if (condition) { then } else { otherwise }</code></b><br/><br/>Conditional execution. Returns the value of the executed branch.");
+        keyword(docs, "else", "Part of an <code>if/else</code> statement.");
+        keyword(docs, "switch", "<b><code>switch (value) { case1 : result1; case2 : result2; default : fallback }</code></b><br/><br/>Pattern matching on a value.");
+        keyword(docs, "while", "<b><code>while (condition) { body }</code></b><br/><br/>Loop that executes body while condition is truthy.");
+        keyword(docs, "struct", "<b><code>struct { key1 : value1, key2 : value2 }</code></b><br/><br/>Creates a structured data object.");
+        keyword(docs, "import", "<b><code>import('namespace:path')</code></b><br/><br/>Imports a MoLang script from <code>data/{namespace}/molang/{path}.molang</code>.");
+        keyword(docs, "return", "Returns a value from the current function or script.");
+        keyword(docs, "break", "Breaks out of the current loop.");
+        keyword(docs, "continue", "Skips to the next iteration of the current loop.");
+        keyword(docs, "for", "<b><code>for (init; condition; step) { body }</code></b><br/><br/>Loop with initialization, condition, and step.");
+        keyword(docs, "default", "Default case in a switch statement.");
+        return Map.copyOf(docs);
+    }
+
+    private static void keyword(Map<String, KeywordDoc> docs, String keyword, String body) {
+        String plain = collapseWhitespace(body.replaceAll("<[^>]+>", " ")
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&amp;", "&"));
+        docs.put(keyword, new KeywordDoc("<html><body>" + body + "</body></html>", plain));
     }
 
     @Nullable
-    private String extractChainAt(String text, int offset) {
+    private static String extractChainAt(CharSequence text, int offset) {
         int start = offset;
         while (start > 0) {
             char c = text.charAt(start - 1);
@@ -209,10 +220,16 @@ public class MoLangDocumentationProvider extends AbstractDocumentationProvider {
         }
 
         if (start >= end) return null;
-        String chain = text.substring(start, end);
 
-        if (!chain.contains(".")) return null;
-        return chain;
+        boolean hasDot = false;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '.') {
+                hasDot = true;
+                break;
+            }
+        }
+        if (!hasDot) return null;
+        return text.subSequence(start, end).toString();
     }
 
     private static String normalizePrefix(String raw) {
@@ -226,31 +243,38 @@ public class MoLangDocumentationProvider extends AbstractDocumentationProvider {
         };
     }
 
-    private static String buildParamSignature(JsonObject func) {
-        if (!func.has("params")) return "";
-        JsonElement paramsEl = func.get("params");
-        if (!paramsEl.isJsonArray()) return "";
-        JsonArray params = paramsEl.getAsJsonArray();
-        if (params.isEmpty()) return "";
+    private static String buildParamSignature(SchemaEntry func) {
+        List<SchemaEntry> params = func.params();
+        if (params == null || params.isEmpty()) return "";
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < params.size(); i++) {
             if (i > 0) sb.append(", ");
-            JsonObject param = params.get(i).getAsJsonObject();
-            String pName = getStringField(param, "name");
-            String pType = getStringField(param, "type");
-            boolean optional = param.has("optional") && param.get("optional").getAsBoolean();
+            SchemaEntry param = params.get(i);
+            String pName = param.string("name");
+            String pType = param.string("type");
             if (pName != null) sb.append(pName);
             if (pType != null) sb.append(": ").append(pType);
-            if (optional) sb.append("?");
+            if (param.flag("optional")) sb.append("?");
         }
         return sb.toString();
     }
 
-    @Nullable
-    private static String getStringField(JsonObject obj, String field) {
-        if (obj == null || !obj.has(field)) return null;
-        JsonElement el = obj.get(field);
-        return el.isJsonPrimitive() ? el.getAsString() : null;
+    private static String collapseWhitespace(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = sb.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                sb.append(' ');
+                pendingSpace = false;
+            }
+            sb.append(c);
+        }
+        return sb.toString();
     }
 
     private static String escapeHtml(String text) {
@@ -259,4 +283,18 @@ public class MoLangDocumentationProvider extends AbstractDocumentationProvider {
                 .replace(">", "&gt;")
                 .replace("\"", "&quot;");
     }
+
+    private record DocTarget(@Nullable String fullName, @Nullable SchemaEntry entry, @Nullable KeywordDoc keyword) {}
+
+    private record KeywordDoc(@NotNull String html, @NotNull String plain) {}
+
+    private record RenderedDoc(@NotNull String signatureHtml, @NotNull String bodyHtml, @NotNull String plainSuffix) {
+        String html(String fullName) {
+            return "<html><body><b><code>" + escapeHtml(fullName) + signatureHtml + "</code></b>" + bodyHtml;
+        }
+
+        String plain(String fullName) {
+            return fullName + plainSuffix;
+        }
+    }
 }
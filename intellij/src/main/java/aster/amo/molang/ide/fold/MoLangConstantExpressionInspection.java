@@ -0,0 +1,65 @@
+package aster.amo.molang.ide.fold;
+
+import aster.amo.molang.ide.ast.MoLangPrinter;
+import aster.amo.molang.ide.ast.Node;
+import aster.amo.molang.ide.largefile.MoLangLargeFiles;
+import aster.amo.molang.ide.parser.MoLangParseCache;
+import aster.amo.molang.ide.schema.MoLangSchemaService;
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MoLangConstantExpressionInspection extends LocalInspectionTool {
+
+    @Override
+    public ProblemDescriptor @NotNull [] checkFile(@NotNull PsiFile file, @NotNull InspectionManager manager, boolean isOnTheFly) {
+        if (MoLangLargeFiles.isLarge(file)) return ProblemDescriptor.EMPTY_ARRAY;
+        MoLangSchemaService schema = file.getProject().getService(MoLangSchemaService.class);
+        if (schema == null || !schema.isLoaded()) return ProblemDescriptor.EMPTY_ARRAY;
+
+        CharSequence text = file.getViewProvider().getContents();
+        ConstantFolder folder = new ConstantFolder(new SchemaMathFunctions(schema));
+        List<ConstantFolder.Constant> constants = folder.findConstants(MoLangParseCache.getParseResult(file).root());
+
+        List<ProblemDescriptor> problems = new ArrayList<>(constants.size());
+        for (ConstantFolder.Constant constant : constants) {
+            Node expression = constant.expression();
+            if (expression.end() > text.length()) continue;
+            String original = text.subSequence(expression.start(), expression.end()).toString();
+            String replacement = MoLangPrinter.printExpression(constant.value(), text);
+            if (constant.value() instanceof Node.NumberLit n && n.value() < 0 && precededByOperator(text, expression.start())) {
+                replacement = "(" + replacement + ")";
+            }
+            problems.add(manager.createProblemDescriptor(file, new TextRange(expression.start(), expression.end()),
+                    "Expression is constant: " + display(constant.value(), text),
+                    ProblemHighlightType.GENERIC_ERROR_OR_WARNING, isOnTheFly,
+                    new ReplaceWithConstantFix(expression.start(), original, replacement)));
+        }
+        return problems.toArray(ProblemDescriptor.EMPTY_ARRAY);
+    }
+
+    private static String display(Node value, CharSequence text) {
+        if (value instanceof Node.NumberLit n) {
+            return new BigDecimal(n.value()).round(new MathContext(6)).stripTrailingZeros().toPlainString();
+        }
+        return MoLangPrinter.printExpression(value, text);
+    }
+
+    private static boolean precededByOperator(CharSequence text, int offset) {
+        for (int i = offset - 1; i >= 0; i--) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) continue;
+            return "+-*/%!<>=&|?:".indexOf(c) >= 0;
+        }
+        return false;
+    }
+}
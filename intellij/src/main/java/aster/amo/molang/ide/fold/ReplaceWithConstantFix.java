@@ -0,0 +1,47 @@
+package aster.amo.molang.ide.fold;
+
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+
+final class ReplaceWithConstantFix implements LocalQuickFix {
+    private final int start;
+    private final String original;
+    private final String replacement;
+
+    ReplaceWithConstantFix(int start, String original, String replacement) {
+        this.start = start;
+        this.original = original;
+        this.replacement = replacement;
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "Replace with '" + replacement + "'";
+    }
+
+    @Override
+    public @NotNull String getFamilyName() {
+        return "Replace constant expression with its value";
+    }
+
+    @Override
+    public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+        PsiFile file = descriptor.getPsiElement().getContainingFile();
+        if (file == null) return;
+        PsiDocumentManager documentManager = PsiDocumentManager.getInstance(project);
+        Document doc = documentManager.getDocument(file);
+        if (doc == null) return;
+
+        int end = start + original.length();
+        CharSequence text = doc.getCharsSequence();
+        if (end > text.length() || !text.subSequence(start, end).toString().equals(original)) return;
+
+        doc.replaceString(start, end, replacement);
+        documentManager.commitDocument(doc);
+    }
+}
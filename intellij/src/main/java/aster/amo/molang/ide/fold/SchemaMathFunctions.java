@@ -0,0 +1,32 @@
+package aster.amo.molang.ide.fold;
+
+import aster.amo.molang.ide.schema.MoLangSchema;
+import aster.amo.molang.ide.schema.MoLangSchemaService;
+import aster.amo.molang.ide.schema.SchemaEntry;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+
+final class SchemaMathFunctions implements ConstantFolder.MathFunctions {
+    private final Map<String, SchemaEntry> functions;
+
+    SchemaMathFunctions(@NotNull MoLangSchemaService schema) {
+        this.functions = schema.getMathFunctions();
+    }
+
+    @Override
+    public boolean isFoldable(String name, int argCount) {
+        SchemaEntry entry = functions.get(name);
+        if (entry == null || !MoLangSchema.isPureEntry(name, entry)) return false;
+        List<SchemaEntry> params = entry.params();
+        if (params != null) {
+            int required = 0;
+            for (SchemaEntry param : params) {
+                if (!param.flag("optional")) required++;
+            }
+            if (argCount < required || argCount > params.size()) return false;
+        }
+        return MoLangMath.supports(name, argCount);
+    }
+}
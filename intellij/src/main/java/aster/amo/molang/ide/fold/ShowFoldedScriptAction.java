@@ -0,0 +1,50 @@
+package aster.amo.molang.ide.fold;
+
+import aster.amo.molang.ide.MoLangFileType;
+import aster.amo.molang.ide.ast.MoLangPrinter;
+import aster.amo.molang.ide.parser.MoLangFile;
+import aster.amo.molang.ide.parser.MoLangParseCache;
+import aster.amo.molang.ide.schema.MoLangSchemaService;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiFile;
+import com.intellij.testFramework.LightVirtualFile;
+import org.jetbrains.annotations.NotNull;
+
+public class ShowFoldedScriptAction extends AnAction {
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null && e.getData(CommonDataKeys.PSI_FILE) instanceof MoLangFile);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        PsiFile file = e.getData(CommonDataKeys.PSI_FILE);
+        if (project == null || !(file instanceof MoLangFile)) return;
+
+        MoLangSchemaService schema = project.getService(MoLangSchemaService.class);
+        ConstantFolder.MathFunctions math = schema != null && schema.isLoaded()
+                ? new SchemaMathFunctions(schema)
+                : ConstantFolder.MathFunctions.BUILT_IN;
+
+        CharSequence text = file.getViewProvider().getContents();
+        String folded = MoLangPrinter.print(new ConstantFolder(math).foldScript(MoLangParseCache.getParseResult(file).root()), text);
+
+        String name = file.getName();
+        String baseName = name.endsWith(".molang") ? name.substring(0, name.length() - ".molang".length()) : name;
+        LightVirtualFile preview = new LightVirtualFile(baseName + ".folded.molang", MoLangFileType.INSTANCE, folded);
+        preview.setWritable(false);
+        FileEditorManager.getInstance(project).openFile(preview, true);
+    }
+}
@@ -0,0 +1,121 @@
+package aster.amo.molang.ide.hoist;
+
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+final class HoistQueryFix implements LocalQuickFix {
+    private final String chainText;
+    private final int anchorOffset;
+    private final int[] starts;
+    private final int[] ends;
+
+    HoistQueryFix(String chainText, int anchorOffset, int[] starts, int[] ends) {
+        this.chainText = chainText;
+        this.anchorOffset = anchorOffset;
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "Extract '" + chainText + "' into a t. variable";
+    }
+
+    @Override
+    public @NotNull String getFamilyName() {
+        return "Extract repeated query into a t. variable";
+    }
+
+    @Override
+    public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+        PsiFile file = descriptor.getPsiElement().getContainingFile();
+        if (file == null) return;
+        PsiDocumentManager documentManager = PsiDocumentManager.getInstance(project);
+        Document doc = documentManager.getDocument(file);
+        if (doc == null) return;
+
+        CharSequence text = doc.getCharsSequence();
+        if (anchorOffset > starts[0]) return;
+        for (int i = 0; i < starts.length; i++) {
+            if (ends[i] > text.length() || !withoutWhitespace(text.subSequence(starts[i], ends[i])).equals(chainText)) {
+                return;
+            }
+        }
+
+        String temp = "t." + uniqueTempName(text);
+        String original = text.subSequence(starts[0], ends[0]).toString();
+        String indent = indentAt(text, anchorOffset);
+
+        for (int i = starts.length - 1; i >= 0; i--) {
+            doc.replaceString(starts[i], ends[i], temp);
+        }
+        doc.insertString(anchorOffset, temp + " = " + original + ";\n" + indent);
+        documentManager.commitDocument(doc);
+    }
+
+    private String uniqueTempName(CharSequence text) {
+        List<String> segments = splitSegments(chainText);
+        String base = segments.size() >= 3
+                ? segments.get(segments.size() - 2) + "_" + segments.get(segments.size() - 1)
+                : segments.get(segments.size() - 1);
+        base = base.replaceAll("[^a-zA-Z0-9_]+", "_").replaceAll("_+$", "");
+        if (base.isEmpty() || Character.isDigit(base.charAt(0))) base = "q_" + base;
+
+        String candidate = base;
+        for (int i = 2; isTempUsed(text, candidate); i++) {
+            candidate = base + "_" + i;
+        }
+        return candidate;
+    }
+
+    private static boolean isTempUsed(CharSequence text, String name) {
+        return Pattern.compile("(?:\\bt|\\btemp)\\." + Pattern.quote(name) + "(?![a-zA-Z0-9_])").matcher(text).find();
+    }
+
+    private static List<String> splitSegments(String chain) {
+        List<String> segments = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < chain.length(); i++) {
+            char c = chain.charAt(i);
+            if (c == '(' || c == '[') depth++;
+            else if (c == ')' || c == ']') depth--;
+            else if (c == '.' && depth == 0) {
+                segments.add(chain.substring(start, i));
+                start = i + 1;
+            }
+        }
+        segments.add(chain.substring(start));
+        return segments;
+    }
+
+    private static String indentAt(CharSequence text, int offset) {
+        int lineStart = offset;
+        while (lineStart > 0 && text.charAt(lineStart - 1) != '\n') {
+            lineStart--;
+        }
+        int end = lineStart;
+        while (end < offset && (text.charAt(end) == ' ' || text.charAt(end) == '\t')) {
+            end++;
+        }
+        return text.subSequence(lineStart, end).toString();
+    }
+
+    private static String withoutWhitespace(CharSequence text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isWhitespace(c)) sb.append(c);
+        }
+        return sb.toString();
+    }
+}
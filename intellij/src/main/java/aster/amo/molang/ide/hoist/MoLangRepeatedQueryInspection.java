@@ -0,0 +1,62 @@
+package aster.amo.molang.ide.hoist;
+
+import aster.amo.molang.ide.ast.Node;
+import aster.amo.molang.ide.largefile.MoLangLargeFiles;
+import aster.amo.molang.ide.parser.MoLangParseCache;
+import aster.amo.molang.ide.schema.MoLangSchemaService;
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.options.OptPane;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.intellij.codeInspection.options.OptPane.number;
+import static com.intellij.codeInspection.options.OptPane.pane;
+
+public class MoLangRepeatedQueryInspection extends LocalInspectionTool {
+    public int minOccurrences = 2;
+
+    @Override
+    public @NotNull OptPane getOptionsPane() {
+        return pane(number("minOccurrences", "Report queries repeated at least this many times in a scope", 2, 100));
+    }
+
+    @Override
+    public ProblemDescriptor @NotNull [] checkFile(@NotNull PsiFile file, @NotNull InspectionManager manager, boolean isOnTheFly) {
+        if (MoLangLargeFiles.isLarge(file)) return ProblemDescriptor.EMPTY_ARRAY;
+        MoLangSchemaService schema = file.getProject().getService(MoLangSchemaService.class);
+        if (schema == null || !schema.isLoaded()) return ProblemDescriptor.EMPTY_ARRAY;
+
+        CharSequence text = file.getViewProvider().getContents();
+        VirtualFile vFile = file.getVirtualFile();
+        String runtimeName = schema.inferRuntime(text, vFile != null ? vFile.getPath() : null);
+
+        List<RepeatedQueryFinder.Group> groups = RepeatedQueryFinder.find(
+                MoLangParseCache.getParseResult(file).root(), text,
+                new SchemaQueryPurity(schema, runtimeName), minOccurrences);
+
+        List<ProblemDescriptor> problems = new ArrayList<>(groups.size());
+        for (RepeatedQueryFinder.Group group : groups) {
+            List<Node.Chain> occurrences = group.occurrences();
+            int[] starts = new int[occurrences.size()];
+            int[] ends = new int[occurrences.size()];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = occurrences.get(i).start();
+                ends[i] = occurrences.get(i).end();
+            }
+            Node.Chain first = occurrences.get(0);
+            problems.add(manager.createProblemDescriptor(file, new TextRange(first.start(), first.end()),
+                    "'" + group.text() + "' is evaluated " + occurrences.size() + " times in this scope",
+                    ProblemHighlightType.GENERIC_ERROR_OR_WARNING, isOnTheFly,
+                    new HoistQueryFix(group.text(), group.anchor().start(), starts, ends)));
+        }
+        return problems.toArray(ProblemDescriptor.EMPTY_ARRAY);
+    }
+}
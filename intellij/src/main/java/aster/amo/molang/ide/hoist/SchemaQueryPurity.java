@@ -0,0 +1,34 @@
+package aster.amo.molang.ide.hoist;
+
+import aster.amo.molang.ide.ast.Node;
+import aster.amo.molang.ide.schema.MoLangSchema;
+import aster.amo.molang.ide.schema.MoLangSchemaService;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+final class SchemaQueryPurity implements RepeatedQueryFinder.Purity {
+    private final MoLangSchemaService schema;
+    private final @Nullable String runtimeName;
+    private final Map<String, Boolean> resolved = new HashMap<>();
+
+    SchemaQueryPurity(@NotNull MoLangSchemaService schema, @Nullable String runtimeName) {
+        this.schema = schema;
+        this.runtimeName = runtimeName;
+    }
+
+    @Override
+    public boolean isPure(Node.Chain chain) {
+        String[] names = chain.names();
+        for (int i = 0; i < names.length; i++) {
+            String[] path = Arrays.copyOf(names, i + 1);
+            boolean pure = resolved.computeIfAbsent(String.join(".", path),
+                    k -> MoLangSchema.isPureEntry(path[path.length - 1], schema.resolveFunction(runtimeName, path)));
+            if (!pure) return false;
+        }
+        return true;
+    }
+}
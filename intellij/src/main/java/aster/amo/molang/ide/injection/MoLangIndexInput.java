@@ -0,0 +1,47 @@
+package aster.amo.molang.ide.injection;
+
+import aster.amo.molang.ide.analysis.JsonMoLangFragments;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileContent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Shared input handling for the indexes that cover both {@code .molang} scripts and MoLang injected into datapack
+ * JSON. JSON offsets are reported in the JSON file, so index consumers need not know where a script came from.
+ */
+public final class MoLangIndexInput {
+
+    private MoLangIndexInput() {
+    }
+
+    @NotNull
+    public static FileBasedIndex.InputFilter filter() {
+        return file -> "molang".equals(file.getExtension()) || MoLangInjectionRules.getInstance().accepts(file);
+    }
+
+    public static boolean isScript(@NotNull FileContent input) {
+        return "molang".equals(input.getFile().getExtension());
+    }
+
+    @NotNull
+    public static List<JsonMoLangFragments.Fragment> fragments(@NotNull FileContent input) {
+        return JsonMoLangFragments.extract(input.getContentAsText(),
+                MoLangInjectionRules.getInstance().rulesFor(input.getFile()));
+    }
+
+    @NotNull
+    public static <K> Map<K, List<Integer>> index(@NotNull FileContent input,
+                                                  @NotNull Function<CharSequence, Map<K, List<Integer>>> extractor) {
+        if (isScript(input)) return extractor.apply(input.getContentAsText());
+        return JsonMoLangFragments.collect(fragments(input), extractor);
+    }
+
+    public static int version(int formatVersion) {
+        return Objects.hash(formatVersion, MoLangInjectionRules.getInstance().version());
+    }
+}
@@ -0,0 +1,154 @@
+package aster.amo.molang.ide.injection;
+
+import aster.amo.molang.ide.callgraph.MoLangCallGraphIndex;
+import aster.amo.molang.ide.navigation.MoLangCallSiteIndex;
+import aster.amo.molang.ide.navigation.MoLangFunctionIndex;
+import aster.amo.molang.ide.navigation.MoLangImportIndex;
+import aster.amo.molang.ide.schema.JsonInjectionRule;
+import aster.amo.molang.ide.schema.MoLangSchema;
+import aster.amo.molang.ide.schema.MoLangSchemaUsageIndex;
+import aster.amo.molang.ide.settings.MoLangSettings;
+import com.intellij.codeInsight.daemon.DaemonCodeAnalyzer;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.ID;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The JSON injection rules in effect: the bundled schema's {@code json_injections} section plus the rules from
+ * {@link MoLangSettings}. Indexes use {@link #accepts} as their input filter, so only JSON files matching a rule's
+ * glob are ever read.
+ */
+@Service(Service.Level.APP)
+public final class MoLangInjectionRules {
+    private static final Logger LOG = Logger.getInstance(MoLangInjectionRules.class);
+    private static final List<ID<String, ?>> INDEXES = List.of(
+            MoLangFunctionIndex.NAME, MoLangCallSiteIndex.NAME, MoLangImportIndex.NAME,
+            MoLangSchemaUsageIndex.NAME, MoLangCallGraphIndex.NAME);
+
+    private final List<JsonInjectionRule> bundled;
+    private volatile List<JsonInjectionRule> rules;
+
+    public MoLangInjectionRules() {
+        bundled = loadBundled();
+        rules = compute();
+    }
+
+    @NotNull
+    public static MoLangInjectionRules getInstance() {
+        return ApplicationManager.getApplication().getService(MoLangInjectionRules.class);
+    }
+
+    @NotNull
+    public List<JsonInjectionRule> rules() {
+        return rules;
+    }
+
+    public boolean accepts(@NotNull VirtualFile file) {
+        if (!"json".equals(file.getExtension())) return false;
+        String path = file.getPath();
+        for (JsonInjectionRule rule : rules) {
+            if (rule.matchesFile(path)) return true;
+        }
+        return false;
+    }
+
+    @NotNull
+    public List<JsonInjectionRule> rulesFor(@NotNull VirtualFile file) {
+        if (!"json".equals(file.getExtension())) return List.of();
+        String path = file.getPath();
+        List<JsonInjectionRule> result = new ArrayList<>();
+        for (JsonInjectionRule rule : rules) {
+            if (rule.matchesFile(path)) result.add(rule);
+        }
+        return result;
+    }
+
+    public int version() {
+        return rules.hashCode();
+    }
+
+    /** Re-reads the settings and, when the rules changed, rebuilds the indexes and re-highlights open files. */
+    public void reload() {
+        List<JsonInjectionRule> updated = compute();
+        if (updated.equals(rules)) return;
+        rules = updated;
+        for (ID<String, ?> index : INDEXES) {
+            FileBasedIndex.getInstance().requestRebuild(index);
+        }
+        for (Project project : ProjectManager.getInstance().getOpenProjects()) {
+            if (project.isDisposed()) continue;
+            PsiManager.getInstance(project).dropPsiCaches();
+            DaemonCodeAnalyzer.getInstance(project).restart();
+        }
+    }
+
+    /** @return a message for the first malformed line in {@code text}, or null if every line parses */
+    @Nullable
+    public static String validate(@NotNull String text) {
+        String[] lines = text.split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            if (parseLine(line) == null) {
+                return "Line " + (i + 1) + ": expected 'files glob : field, field [: prefix]'";
+            }
+        }
+        return null;
+    }
+
+    @NotNull
+    static List<JsonInjectionRule> parse(@NotNull String text) {
+        List<JsonInjectionRule> result = new ArrayList<>();
+        for (String raw : text.split("\n")) {
+            String line = raw.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            JsonInjectionRule rule = parseLine(line);
+            if (rule != null) result.add(rule);
+        }
+        return result;
+    }
+
+    @Nullable
+    private static JsonInjectionRule parseLine(String line) {
+        String[] parts = line.split(":", 3);
+        if (parts.length < 2) return null;
+        String files = parts[0].trim();
+        List<String> fields = Arrays.stream(parts[1].split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .toList();
+        if (files.isEmpty() || fields.isEmpty()) return null;
+        String prefix = parts.length == 3 ? parts[2].trim() : null;
+        return new JsonInjectionRule(files, files, fields, prefix);
+    }
+
+    private List<JsonInjectionRule> compute() {
+        MoLangSettings.State state = MoLangSettings.getInstance().getState();
+        List<JsonInjectionRule> result = new ArrayList<>();
+        if (state.bundledInjections) result.addAll(bundled);
+        result.addAll(parse(state.injectionRules));
+        return List.copyOf(result);
+    }
+
+    private static List<JsonInjectionRule> loadBundled() {
+        try {
+            return MoLangSchema.loadBundled().getJsonInjections();
+        } catch (IOException e) {
+            LOG.error("Failed to load json_injections from molang-schema.json", e);
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package aster.amo.molang.ide.injection;
+
+import aster.amo.molang.ide.MoLangLanguage;
+import aster.amo.molang.ide.schema.JsonInjectionRule;
+import com.intellij.json.psi.JsonArray;
+import com.intellij.json.psi.JsonFile;
+import com.intellij.json.psi.JsonProperty;
+import com.intellij.json.psi.JsonStringLiteral;
+import com.intellij.json.psi.JsonValue;
+import com.intellij.lang.injection.MultiHostInjector;
+import com.intellij.lang.injection.MultiHostRegistrar;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.ElementManipulators;
+import com.intellij.psi.PsiElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** Injects MoLang into the datapack JSON string fields named by {@link MoLangInjectionRules}. */
+public class MoLangJsonInjector implements MultiHostInjector {
+
+    @Override
+    public void getLanguagesToInject(@NotNull MultiHostRegistrar registrar, @NotNull PsiElement context) {
+        if (!(context instanceof JsonStringLiteral literal) || !literal.isValidHost()) return;
+        VirtualFile file = literal.getContainingFile().getOriginalFile().getVirtualFile();
+        if (file == null) return;
+        List<JsonInjectionRule> rules = MoLangInjectionRules.getInstance().rulesFor(file);
+        if (rules.isEmpty()) return;
+        List<String> path = path(literal);
+        if (path == null) return;
+
+        for (JsonInjectionRule rule : rules) {
+            if (!rule.matchesField(path)) continue;
+            TextRange range = ElementManipulators.getValueTextRange(literal);
+            String prefix = rule.prefix();
+            if (prefix != null) {
+                if (!literal.getValue().startsWith(prefix)) continue;
+                range = new TextRange(range.getStartOffset() + prefix.length(), range.getEndOffset());
+            }
+            registrar.startInjecting(MoLangLanguage.INSTANCE)
+                    .addPlace(null, null, literal, range)
+                    .doneInjecting();
+            return;
+        }
+    }
+
+    @NotNull
+    @Override
+    public List<? extends Class<? extends PsiElement>> elementsToInjectIn() {
+        return List.of(JsonStringLiteral.class);
+    }
+
+    /** The keys and array indices from the document root down to {@code literal}, or null if it is a property name. */
+    @Nullable
+    private static List<String> path(JsonStringLiteral literal) {
+        List<String> path = new ArrayList<>();
+        PsiElement element = literal;
+        while (!(element.getParent() instanceof JsonFile)) {
+            PsiElement parent = element.getParent();
+            if (parent instanceof JsonProperty property) {
+                if (property.getValue() != element) return null;
+                path.add(property.getName());
+                element = property.getParent();
+            } else if (parent instanceof JsonArray array) {
+                path.add(String.valueOf(array.getValueList().indexOf((JsonValue) element)));
+                element = array;
+            } else {
+                return null;
+            }
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
@@ -0,0 +1,70 @@
+package aster.amo.molang.ide.largefile;
+
+import aster.amo.molang.ide.MoLangFileType;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.fileEditor.FileEditorManagerEvent;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.wm.StatusBarWidget;
+import com.intellij.openapi.wm.impl.status.EditorBasedWidget;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.Component;
+
+/** Shows "MoLang: large file" in the status bar while the selected script is in large-file mode. */
+public class MoLangLargeFileWidget extends EditorBasedWidget implements StatusBarWidget.TextPresentation {
+    public static final String ID = "MoLangLargeFile";
+
+    public MoLangLargeFileWidget(@NotNull Project project) {
+        super(project);
+    }
+
+    @NotNull
+    @Override
+    public String ID() {
+        return ID;
+    }
+
+    @Nullable
+    @Override
+    public WidgetPresentation getPresentation() {
+        return this;
+    }
+
+    @NotNull
+    @Override
+    public String getText() {
+        return activeDocument() != null ? "MoLang: large file" : "";
+    }
+
+    @Nullable
+    @Override
+    public String getTooltipText() {
+        Document document = activeDocument();
+        if (document == null) return null;
+        return "This script is " + StringUtil.formatFileSize(document.getTextLength())
+                + ", over the large-file threshold of " + StringUtil.formatFileSize(MoLangLargeFiles.threshold())
+                + ". It is lexed in chunks, completion scans only around the caret, and whole-file inspections are off.";
+    }
+
+    @Override
+    public float getAlignment() {
+        return Component.CENTER_ALIGNMENT;
+    }
+
+    @Override
+    public void selectionChanged(@NotNull FileEditorManagerEvent event) {
+        if (myStatusBar != null) myStatusBar.updateWidget(ID);
+    }
+
+    @Nullable
+    private Document activeDocument() {
+        VirtualFile file = getSelectedFile();
+        if (file == null || file.getFileType() != MoLangFileType.INSTANCE) return null;
+        Document document = FileDocumentManager.getInstance().getCachedDocument(file);
+        return document != null && MoLangLargeFiles.isLarge(document) ? document : null;
+    }
+}
@@ -0,0 +1,29 @@
+package aster.amo.molang.ide.largefile;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.wm.StatusBarWidget;
+import com.intellij.openapi.wm.StatusBarWidgetFactory;
+import org.jetbrains.annotations.Nls;
+import org.jetbrains.annotations.NotNull;
+
+public class MoLangLargeFileWidgetFactory implements StatusBarWidgetFactory {
+
+    @NotNull
+    @Override
+    public String getId() {
+        return MoLangLargeFileWidget.ID;
+    }
+
+    @Nls
+    @NotNull
+    @Override
+    public String getDisplayName() {
+        return "MoLang Large File Mode";
+    }
+
+    @NotNull
+    @Override
+    public StatusBarWidget createWidget(@NotNull Project project) {
+        return new MoLangLargeFileWidget(project);
+    }
+}
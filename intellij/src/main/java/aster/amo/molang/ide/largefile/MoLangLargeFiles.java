@@ -0,0 +1,47 @@
+package aster.amo.molang.ide.largefile;
+
+import aster.amo.molang.ide.settings.MoLangSettings;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Large-file mode: scripts longer than the threshold in {@link MoLangSettings} are parsed into lazily lexed chunks,
+ * completion scans only a window around the caret, lookups go through the indexes, and the inspections that need a
+ * full parse are skipped.
+ */
+public final class MoLangLargeFiles {
+    /** Target size of a lazily lexed chunk. */
+    public static final int CHUNK_SIZE = 16 * 1024;
+    /** Chars scanned on each side of the caret by completion. */
+    public static final int WINDOW = 32 * 1024;
+
+    private MoLangLargeFiles() {
+    }
+
+    public static int threshold() {
+        return Math.max(1, MoLangSettings.getInstance().getState().largeFileThresholdKb) * 1024;
+    }
+
+    public static boolean isLarge(int length) {
+        return length > threshold();
+    }
+
+    public static boolean isLarge(@NotNull CharSequence text) {
+        return isLarge(text.length());
+    }
+
+    public static boolean isLarge(@NotNull Document document) {
+        return isLarge(document.getTextLength());
+    }
+
+    public static boolean isLarge(@NotNull PsiFile file) {
+        return isLarge(file.getViewProvider().getContents().length());
+    }
+
+    /** The text within {@link #WINDOW} chars of {@code offset}. */
+    @NotNull
+    public static CharSequence window(@NotNull CharSequence text, int offset) {
+        return text.subSequence(Math.max(0, offset - WINDOW), Math.min(text.length(), offset + WINDOW));
+    }
+}
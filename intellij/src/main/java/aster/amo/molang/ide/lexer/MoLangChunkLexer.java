@@ -0,0 +1,65 @@
+package aster.amo.molang.ide.lexer;
+
+import aster.amo.molang.ide.largefile.MoLangLargeFiles;
+import aster.amo.molang.ide.parser.MoLangChunkElementType;
+import com.intellij.lexer.LexerBase;
+import com.intellij.psi.tree.IElementType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/** Lexes a large script into {@link MoLangChunkElementType#CHUNK} tokens, each lexed by {@link MoLangLexer} on demand. */
+public class MoLangChunkLexer extends LexerBase {
+    private CharSequence buffer;
+    private int startOffset;
+    private int bufferEnd;
+    private int[] ends;
+    private int index;
+
+    @Override
+    public void start(@NotNull CharSequence buffer, int startOffset, int endOffset, int initialState) {
+        this.buffer = buffer;
+        this.startOffset = startOffset;
+        this.bufferEnd = endOffset;
+        this.ends = startOffset < endOffset
+                ? MoLangChunks.boundaries(buffer, startOffset, endOffset, MoLangLargeFiles.CHUNK_SIZE)
+                : new int[0];
+        this.index = 0;
+    }
+
+    @Override
+    public int getState() {
+        return 0;
+    }
+
+    @Nullable
+    @Override
+    public IElementType getTokenType() {
+        return index < ends.length ? MoLangChunkElementType.CHUNK : null;
+    }
+
+    @Override
+    public int getTokenStart() {
+        return index == 0 ? startOffset : ends[Math.min(index, ends.length) - 1];
+    }
+
+    @Override
+    public int getTokenEnd() {
+        return index < ends.length ? ends[index] : bufferEnd;
+    }
+
+    @NotNull
+    @Override
+    public CharSequence getBufferSequence() {
+        return buffer;
+    }
+
+    @Override
+    public int getBufferEnd() {
+        return bufferEnd;
+    }
+
+    @Override
+    public void advance() {
+        index++;
+    }
+}
@@ -4,6 +4,9 @@ import aster.amo.molang.ide.MoLangLanguage;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.tree.TokenSet;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 public class MoLangTokenTypes {
     public static final IElementType LINE_COMMENT = new MoLangTokenType("LINE_COMMENT");
     public static final IElementType BLOCK_COMMENT = new MoLangTokenType("BLOCK_COMMENT");
@@ -46,6 +49,44 @@ public class MoLangTokenTypes {
     public static final TokenSet WHITESPACES = TokenSet.create(WHITE_SPACE);
     public static final TokenSet STRINGS = TokenSet.create(STRING);
 
+    private static final Map<MoLangTokenKind, IElementType> BY_KIND = new EnumMap<>(MoLangTokenKind.class);
+
+    static {
+        BY_KIND.put(MoLangTokenKind.LINE_COMMENT, LINE_COMMENT);
+        BY_KIND.put(MoLangTokenKind.BLOCK_COMMENT, BLOCK_COMMENT);
+        BY_KIND.put(MoLangTokenKind.NUMBER, NUMBER);
+        BY_KIND.put(MoLangTokenKind.STRING, STRING);
+        BY_KIND.put(MoLangTokenKind.BOOLEAN, BOOLEAN);
+        BY_KIND.put(MoLangTokenKind.KEYWORD, KEYWORD);
+        BY_KIND.put(MoLangTokenKind.IDENTIFIER, IDENTIFIER);
+        BY_KIND.put(MoLangTokenKind.PREFIX_Q, PREFIX_Q);
+        BY_KIND.put(MoLangTokenKind.PREFIX_V, PREFIX_V);
+        BY_KIND.put(MoLangTokenKind.PREFIX_T, PREFIX_T);
+        BY_KIND.put(MoLangTokenKind.PREFIX_F, PREFIX_F);
+        BY_KIND.put(MoLangTokenKind.PREFIX_C, PREFIX_C);
+        BY_KIND.put(MoLangTokenKind.PREFIX_MATH, PREFIX_MATH);
+        BY_KIND.put(MoLangTokenKind.DOT, DOT);
+        BY_KIND.put(MoLangTokenKind.LPAREN, LPAREN);
+        BY_KIND.put(MoLangTokenKind.RPAREN, RPAREN);
+        BY_KIND.put(MoLangTokenKind.LBRACE, LBRACE);
+        BY_KIND.put(MoLangTokenKind.RBRACE, RBRACE);
+        BY_KIND.put(MoLangTokenKind.LBRACKET, LBRACKET);
+        BY_KIND.put(MoLangTokenKind.RBRACKET, RBRACKET);
+        BY_KIND.put(MoLangTokenKind.SEMICOLON, SEMICOLON);
+        BY_KIND.put(MoLangTokenKind.COMMA, COMMA);
+        BY_KIND.put(MoLangTokenKind.QUESTION, QUESTION);
+        BY_KIND.put(MoLangTokenKind.COLON, COLON);
+        BY_KIND.put(MoLangTokenKind.OPERATOR, OPERATOR);
+        BY_KIND.put(MoLangTokenKind.COMPOUND_OP, COMPOUND_OP);
+        BY_KIND.put(MoLangTokenKind.ARROW, ARROW);
+        BY_KIND.put(MoLangTokenKind.WHITE_SPACE, WHITE_SPACE);
+        BY_KIND.put(MoLangTokenKind.BAD_CHARACTER, BAD_CHARACTER);
+    }
+
+    public static IElementType of(MoLangTokenKind kind) {
+        return BY_KIND.get(kind);
+    }
+
     private static class MoLangTokenType extends IElementType {
         MoLangTokenType(String debugName) {
             super(debugName, MoLangLanguage.INSTANCE);
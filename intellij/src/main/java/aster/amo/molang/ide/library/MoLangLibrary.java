@@ -0,0 +1,51 @@
+package aster.amo.molang.ide.library;
+
+import aster.amo.molang.ide.MoLangIcons;
+import com.intellij.navigation.ItemPresentation;
+import com.intellij.openapi.roots.SyntheticLibrary;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.util.Collection;
+import java.util.List;
+
+/** The {@code data/<namespace>/molang} folders of one mod jar, unpacked mod or datapack, shown under External Libraries. */
+public final class MoLangLibrary extends SyntheticLibrary implements ItemPresentation {
+    private final String name;
+    private final List<VirtualFile> roots;
+
+    MoLangLibrary(@NotNull String name, @NotNull List<VirtualFile> roots) {
+        this.name = name;
+        this.roots = List.copyOf(roots);
+    }
+
+    @NotNull
+    @Override
+    public Collection<VirtualFile> getSourceRoots() {
+        return roots;
+    }
+
+    @Nullable
+    @Override
+    public String getPresentableText() {
+        return "MoLang: " + name;
+    }
+
+    @Nullable
+    @Override
+    public Icon getIcon(boolean unused) {
+        return MoLangIcons.FILE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MoLangLibrary other && name.equals(other.name) && roots.equals(other.roots);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + roots.hashCode();
+    }
+}
@@ -0,0 +1,130 @@
+package aster.amo.molang.ide.library;
+
+import aster.amo.molang.ide.settings.MoLangSettings;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.WriteAction;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.openapi.project.ProjectUtil;
+import com.intellij.openapi.roots.ex.ProjectRootManagerEx;
+import com.intellij.openapi.util.EmptyRunnable;
+import com.intellij.openapi.vfs.JarFileSystem;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.indexing.roots.kind.RootsChangeRescanningInfo;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds the MoLang scripts shipped in mod jars, unpacked mods and datapacks outside the project. Mod folders are
+ * {@code mods} and {@code run/mods} under the project, the instance's {@code mods} folder for a datapack inside
+ * {@code saves/<world>/datapacks}, and the paths listed in {@link MoLangSettings}. Jar scans are cached by jar path
+ * and time stamp and shared by every open project.
+ */
+@Service(Service.Level.APP)
+public final class MoLangLibraryRoots {
+    private final Map<String, JarScan> jarScans = new ConcurrentHashMap<>();
+
+    private record JarScan(long timeStamp, List<VirtualFile> roots) {
+    }
+
+    @NotNull
+    public static MoLangLibraryRoots getInstance() {
+        return ApplicationManager.getApplication().getService(MoLangLibraryRoots.class);
+    }
+
+    @NotNull
+    public List<MoLangLibrary> libraries(@NotNull Project project) {
+        List<MoLangLibrary> libraries = new ArrayList<>();
+        for (VirtualFile location : locations(project)) {
+            if (location.isDirectory() && location.findChild("data") == null) {
+                for (VirtualFile child : location.getChildren()) {
+                    addLibrary(libraries, child);
+                }
+            } else {
+                addLibrary(libraries, location);
+            }
+        }
+        return libraries;
+    }
+
+    /** The configured and detected folders and jars, for the roots provider to watch. */
+    @NotNull
+    public Set<VirtualFile> locations(@NotNull Project project) {
+        Set<VirtualFile> locations = new LinkedHashSet<>();
+        VirtualFile base = ProjectUtil.guessProjectDir(project);
+        if (base != null) {
+            addIfExists(locations, base.findChild("mods"));
+            addIfExists(locations, base.findFileByRelativePath("run/mods"));
+            VirtualFile instance = instanceDir(base);
+            if (instance != null) addIfExists(locations, instance.findChild("mods"));
+        }
+        LocalFileSystem fs = LocalFileSystem.getInstance();
+        for (String line : MoLangSettings.getInstance().getState().libraryPaths.split("\n")) {
+            String path = line.trim();
+            if (!path.isEmpty() && !path.startsWith("#")) addIfExists(locations, fs.findFileByPath(path));
+        }
+        return locations;
+    }
+
+    /** Re-reads the settings and reports the changed roots to every open project. */
+    public void reload() {
+        jarScans.clear();
+        for (Project project : ProjectManager.getInstance().getOpenProjects()) {
+            if (project.isDisposed()) continue;
+            WriteAction.run(() -> ProjectRootManagerEx.getInstanceEx(project)
+                    .makeRootsChange(EmptyRunnable.getInstance(), RootsChangeRescanningInfo.TOTAL_RESCAN));
+        }
+    }
+
+    private void addLibrary(List<MoLangLibrary> libraries, VirtualFile file) {
+        List<VirtualFile> roots = file.isDirectory() ? scan(file) : scanJar(file);
+        if (!roots.isEmpty()) libraries.add(new MoLangLibrary(file.getName(), roots));
+    }
+
+    private List<VirtualFile> scanJar(VirtualFile jar) {
+        if (!"jar".equals(jar.getExtension())) return List.of();
+        JarScan cached = jarScans.get(jar.getPath());
+        if (cached != null && cached.timeStamp() == jar.getTimeStamp()
+                && cached.roots().stream().allMatch(VirtualFile::isValid)) {
+            return cached.roots();
+        }
+        VirtualFile root = JarFileSystem.getInstance().getJarRootForLocalFile(jar);
+        List<VirtualFile> roots = root != null ? scan(root) : List.of();
+        jarScans.put(jar.getPath(), new JarScan(jar.getTimeStamp(), roots));
+        return roots;
+    }
+
+    /** The {@code data/<namespace>/molang} folders under {@code root}. */
+    private static List<VirtualFile> scan(VirtualFile root) {
+        VirtualFile data = root.findChild("data");
+        if (data == null || !data.isDirectory()) return List.of();
+        List<VirtualFile> roots = new ArrayList<>();
+        for (VirtualFile namespace : data.getChildren()) {
+            VirtualFile molang = namespace.isDirectory() ? namespace.findChild("molang") : null;
+            if (molang != null && molang.isDirectory()) roots.add(molang);
+        }
+        return List.copyOf(roots);
+    }
+
+    @Nullable
+    private static VirtualFile instanceDir(VirtualFile base) {
+        for (VirtualFile dir = base; dir != null; dir = dir.getParent()) {
+            VirtualFile parent = dir.getParent();
+            if (parent != null && "saves".equals(parent.getName())) return parent.getParent();
+        }
+        return null;
+    }
+
+    private static void addIfExists(Set<VirtualFile> locations, @Nullable VirtualFile file) {
+        if (file != null && file.isValid()) locations.add(file);
+    }
+}
@@ -0,0 +1,38 @@
+package aster.amo.molang.ide.library;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.AdditionalLibraryRootsProvider;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.roots.SyntheticLibrary;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Adds the MoLang scripts of mod jars and mod folders as read-only library content, so the function, import and
+ * schema usage indexes cover them. Indexed data is stored per file by the platform, so an unchanged jar is indexed
+ * once and reused by every project and across restarts.
+ */
+public class MoLangLibraryRootsProvider extends AdditionalLibraryRootsProvider {
+
+    @NotNull
+    @Override
+    public Collection<SyntheticLibrary> getAdditionalProjectLibraries(@NotNull Project project) {
+        return List.copyOf(CachedValuesManager.getManager(project).getCachedValue(project,
+                () -> CachedValueProvider.Result.create(
+                        MoLangLibraryRoots.getInstance().libraries(project),
+                        VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS,
+                        ProjectRootManager.getInstance(project))));
+    }
+
+    @NotNull
+    @Override
+    public Collection<VirtualFile> getRootsToWatch(@NotNull Project project) {
+        return MoLangLibraryRoots.getInstance().locations(project);
+    }
+}
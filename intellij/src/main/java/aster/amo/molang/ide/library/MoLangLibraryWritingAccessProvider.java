@@ -0,0 +1,55 @@
+package aster.amo.molang.ide.library;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.AdditionalLibraryRootsProvider;
+import com.intellij.openapi.roots.SyntheticLibrary;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.WritingAccessProvider;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/** Keeps scripts in unpacked mod folders read-only, like the ones inside jars. */
+public class MoLangLibraryWritingAccessProvider extends WritingAccessProvider {
+    private final Project project;
+
+    public MoLangLibraryWritingAccessProvider(@NotNull Project project) {
+        this.project = project;
+    }
+
+    @NotNull
+    @Override
+    public Collection<VirtualFile> requestWriting(@NotNull Collection<? extends VirtualFile> files) {
+        List<VirtualFile> denied = new ArrayList<>();
+        for (VirtualFile file : files) {
+            if (isLibraryFile(file)) denied.add(file);
+        }
+        return denied;
+    }
+
+    @Override
+    public boolean isPotentiallyWritable(@NotNull VirtualFile file) {
+        return !isLibraryFile(file);
+    }
+
+    @Override
+    public String getReadOnlyMessage() {
+        return "MoLang library scripts from mods are read-only";
+    }
+
+    private boolean isLibraryFile(VirtualFile file) {
+        if (!"molang".equals(file.getExtension())) return false;
+        MoLangLibraryRootsProvider provider =
+                AdditionalLibraryRootsProvider.EP_NAME.findExtension(MoLangLibraryRootsProvider.class);
+        if (provider == null) return false;
+        for (SyntheticLibrary library : provider.getAdditionalProjectLibraries(project)) {
+            for (VirtualFile root : library.getSourceRoots()) {
+                if (VfsUtilCore.isAncestor(root, file, true)) return true;
+            }
+        }
+        return false;
+    }
+}
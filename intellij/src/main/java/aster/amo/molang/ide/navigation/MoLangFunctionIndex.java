@@ -1,7 +1,8 @@
 package aster.amo.molang.ide.navigation;
 
-import aster.amo.molang.ide.MoLangFileType;
-import com.intellij.openapi.vfs.VirtualFile;
+import aster.amo.molang.ide.analysis.MoLangFunctionExtractor;
+import aster.amo.molang.ide.diagnostics.MoLangMetrics;
+import aster.amo.molang.ide.injection.MoLangIndexInput;
 import com.intellij.util.indexing.*;
 import com.intellij.util.io.DataExternalizer;
 import com.intellij.util.io.EnumeratorStringDescriptor;
@@ -11,15 +12,12 @@ import org.jetbrains.annotations.NotNull;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
-import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
 
 public class MoLangFunctionIndex extends FileBasedIndexExtension<String, List<Integer>> {
     public static final ID<String, List<Integer>> NAME = ID.create("molang.function.index");
 
-    private static final Pattern FN_PATTERN = Pattern.compile("fn\\s*\\(\\s*'([^']+)'");
-
     @NotNull
     @Override
     public ID<String, List<Integer>> getName() {
@@ -30,14 +28,12 @@ public class MoLangFunctionIndex extends FileBasedIndexExtension<String, List<In
     @Override
     public DataIndexer<String, List<Integer>, FileContent> getIndexer() {
         return inputData -> {
-            Map<String, List<Integer>> result = new HashMap<>();
-            String text = inputData.getContentAsText().toString();
-            Matcher m = FN_PATTERN.matcher(text);
-            while (m.find()) {
-                String fnName = m.group(1);
-                result.computeIfAbsent(fnName, k -> new ArrayList<>()).add(m.start());
+            MoLangMetrics.Timer timer = MoLangMetrics.getInstance().start(MoLangMetrics.Operation.FUNCTION_INDEX);
+            try {
+                return MoLangIndexInput.index(inputData, MoLangFunctionExtractor::extract);
+            } finally {
+                timer.stop(inputData.getFileName());
             }
-            return result;
         };
     }
 
@@ -73,18 +69,13 @@ public class MoLangFunctionIndex extends FileBasedIndexExtension<String, List<In
 
     @Override
     public int getVersion() {
-        return 1;
+        return MoLangIndexInput.version(1);
     }
 
     @NotNull
     @Override
     public FileBasedIndex.InputFilter getInputFilter() {
-        return new DefaultFileTypeSpecificInputFilter(MoLangFileType.INSTANCE) {
-            @Override
-            public boolean acceptInput(@NotNull VirtualFile file) {
-                return "molang".equals(file.getExtension());
-            }
-        };
+        return MoLangIndexInput.filter();
     }
 
     @Override
@@ -0,0 +1,114 @@
+package aster.amo.molang.ide.navigation;
+
+import aster.amo.molang.ide.MoLangIcons;
+import com.intellij.navigation.ItemPresentation;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.fileEditor.FileEditor;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.usageView.UsageInfo;
+import com.intellij.usages.Usage;
+import com.intellij.usages.UsageInfo2UsageAdapter;
+import com.intellij.usages.UsageTarget;
+import com.intellij.usages.UsageViewManager;
+import com.intellij.usages.UsageViewPresentation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.util.List;
+
+public class MoLangFunctionUsageTarget implements UsageTarget, ItemPresentation {
+    private final Project project;
+    private final String name;
+
+    public MoLangFunctionUsageTarget(@NotNull Project project, @NotNull String name) {
+        this.project = project;
+        this.name = name;
+    }
+
+    @Override
+    public void findUsages() {
+        List<MoLangFunctionUsages.Occurrence> occurrences = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                () -> ReadAction.compute(() -> MoLangFunctionUsages.find(project, name)),
+                "Finding Usages of f." + name, true, project);
+
+        Usage[] usages = new Usage[occurrences.size()];
+        for (int i = 0; i < usages.length; i++) {
+            UsageInfo info = occurrences.get(i).toUsageInfo();
+            usages[i] = new UsageInfo2UsageAdapter(info);
+        }
+
+        UsageViewPresentation presentation = new UsageViewPresentation();
+        presentation.setTabText("f." + name);
+        presentation.setTargetsNodeText("MoLang function");
+        presentation.setCodeUsagesString("Definitions and calls of f." + name);
+        presentation.setNonCodeUsagesString("Definitions of f." + name);
+        UsageViewManager.getInstance(project).showUsages(new UsageTarget[]{this}, usages, presentation);
+    }
+
+    @Override
+    public void findUsagesInEditor(@NotNull FileEditor editor) {
+        findUsages();
+    }
+
+    @Override
+    public void highlightUsages(@NotNull PsiFile file, @NotNull Editor editor, boolean clearHighlights) {
+    }
+
+    @Override
+    public boolean isValid() {
+        return !project.isDisposed();
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return false;
+    }
+
+    @Override
+    public VirtualFile @Nullable [] getFiles() {
+        return null;
+    }
+
+    @Override
+    public void update() {
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "f." + name;
+    }
+
+    @Override
+    public @NotNull ItemPresentation getPresentation() {
+        return this;
+    }
+
+    @Override
+    public void navigate(boolean requestFocus) {
+    }
+
+    @Override
+    public boolean canNavigate() {
+        return false;
+    }
+
+    @Override
+    public boolean canNavigateToSource() {
+        return false;
+    }
+
+    @Override
+    public @NotNull String getPresentableText() {
+        return "f." + name;
+    }
+
+    @Override
+    public @Nullable Icon getIcon(boolean unused) {
+        return MoLangIcons.FILE;
+    }
+}
@@ -0,0 +1,22 @@
+package aster.amo.molang.ide.navigation;
+
+import aster.amo.molang.ide.analysis.MoLangFunctionExtractor;
+import aster.amo.molang.ide.parser.MoLangFile;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.psi.PsiFile;
+import com.intellij.usages.UsageTarget;
+import com.intellij.usages.UsageTargetProvider;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public class MoLangFunctionUsageTargetProvider implements UsageTargetProvider {
+
+    @Override
+    public UsageTarget @Nullable [] getTargets(@NotNull Editor editor, @NotNull PsiFile file) {
+        if (!(file instanceof MoLangFile)) return null;
+        MoLangFunctionExtractor.FunctionName name = MoLangFunctionExtractor.functionNameAt(
+                editor.getDocument().getCharsSequence(), editor.getCaretModel().getOffset());
+        if (name == null) return null;
+        return new UsageTarget[]{new MoLangFunctionUsageTarget(file.getProject(), name.name())};
+    }
+}
@@ -0,0 +1,78 @@
+package aster.amo.molang.ide.navigation;
+
+import aster.amo.molang.ide.analysis.MoLangFunctionExtractor;
+import aster.amo.molang.ide.diagnostics.MoLangMetrics;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.usageView.UsageInfo;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class MoLangFunctionUsages {
+
+    private MoLangFunctionUsages() {
+    }
+
+    public record Occurrence(@NotNull PsiFile file, @NotNull TextRange range, boolean definition) {
+        @NotNull
+        public UsageInfo toUsageInfo() {
+            return new UsageInfo(file, range.getStartOffset(), range.getEndOffset(), definition);
+        }
+    }
+
+    @NotNull
+    public static List<Occurrence> find(@NotNull Project project, @NotNull String name) {
+        MoLangMetrics.Timer timer = MoLangMetrics.getInstance().start(MoLangMetrics.Operation.FIND_USAGES);
+        try {
+            PsiManager psiManager = PsiManager.getInstance(project);
+            FileBasedIndex index = FileBasedIndex.getInstance();
+            GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+            List<Occurrence> result = new ArrayList<>();
+
+            index.processValues(MoLangFunctionIndex.NAME, name, null, (vFile, offsets) -> {
+                PsiFile psiFile = psiManager.findFile(vFile);
+                if (psiFile == null) return true;
+                CharSequence text = psiFile.getViewProvider().getContents();
+                for (int offset : offsets) {
+                    MoLangFunctionExtractor.FunctionName definition = MoLangFunctionExtractor.definitionName(text, offset);
+                    if (definition != null && definition.name().equals(name)) {
+                        result.add(new Occurrence(psiFile, new TextRange(definition.start(), definition.end()), true));
+                    }
+                }
+                return true;
+            }, scope);
+
+            index.processValues(MoLangCallSiteIndex.NAME, name, null, (vFile, offsets) -> {
+                PsiFile psiFile = psiManager.findFile(vFile);
+                if (psiFile == null) return true;
+                String text = psiFile.getViewProvider().getContents().toString();
+                for (int offset : offsets) {
+                    if (text.startsWith(name, offset)) {
+                        result.add(new Occurrence(psiFile, new TextRange(offset, offset + name.length()), false));
+                    }
+                }
+                return true;
+            }, scope);
+            return result;
+        } finally {
+            timer.stop(name);
+        }
+    }
+
+    @NotNull
+    public static List<VirtualFile> files(@NotNull List<Occurrence> occurrences) {
+        List<VirtualFile> files = new ArrayList<>();
+        for (Occurrence occurrence : occurrences) {
+            VirtualFile vFile = occurrence.file().getVirtualFile();
+            if (vFile != null && !files.contains(vFile)) files.add(vFile);
+        }
+        return files;
+    }
+}
@@ -1,7 +1,7 @@
 package aster.amo.molang.ide.navigation;
 
-import aster.amo.molang.ide.MoLangFileType;
 import aster.amo.molang.ide.MoLangLanguage;
+import aster.amo.molang.ide.diagnostics.MoLangMetrics;
 import com.intellij.codeInsight.navigation.actions.GotoDeclarationHandler;
 import com.intellij.openapi.actionSystem.DataContext;
 import com.intellij.openapi.editor.Document;
@@ -10,7 +10,6 @@ import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.LocalFileSystem;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
-import com.intellij.psi.search.FileTypeIndex;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.util.indexing.FileBasedIndex;
 import org.jetbrains.annotations.NotNull;
@@ -33,83 +32,77 @@ public class MoLangGotoHandler implements GotoDeclarationHandler {
     @Override
     public PsiElement @Nullable [] getGotoDeclarationTargets(@Nullable PsiElement sourceElement,
                                                               int offset,
-                                                              Editor editor) {
+                                                              @Nullable Editor editor) {
         if (sourceElement == null) return null;
         PsiFile file = sourceElement.getContainingFile();
         if (file == null || file.getLanguage() != MoLangLanguage.INSTANCE) return null;
 
-        Project project = sourceElement.getProject();
-        Document doc = editor.getDocument();
-        String fullText = doc.getText();
+        MoLangMetrics.Timer timer = MoLangMetrics.getInstance().start(MoLangMetrics.Operation.GOTO_DECLARATION);
+        try {
+            Project project = sourceElement.getProject();
+            Document doc = editor != null ? editor.getDocument() : file.getViewProvider().getDocument();
+            if (doc == null) return null;
+            CharSequence fullText = doc.getCharsSequence();
 
-        PsiElement fnTarget = resolveFunctionCall(project, fullText, offset);
-        if (fnTarget != null) return new PsiElement[]{fnTarget};
+            PsiElement fnTarget = resolveFunctionCall(project, file, fullText, offset);
+            if (fnTarget != null) return new PsiElement[]{fnTarget};
 
-        PsiElement importTarget = resolveImport(project, fullText, offset);
-        if (importTarget != null) return new PsiElement[]{importTarget};
+            PsiElement importTarget = resolveImport(project, file, fullText, offset);
+            if (importTarget != null) return new PsiElement[]{importTarget};
 
-        return null;
+            return null;
+        } finally {
+            timer.stop(file.getName());
+        }
     }
 
     @Nullable
-    private PsiElement resolveFunctionCall(Project project, String text, int offset) {
+    private PsiElement resolveFunctionCall(Project project, PsiFile file, CharSequence text, int offset) {
         String fnName = findFunctionNameAtOffset(text, offset);
         if (fnName == null) return null;
 
-        FileBasedIndex index = FileBasedIndex.getInstance();
-        Collection<VirtualFile> files = FileTypeIndex.getFiles(
-                MoLangFileType.INSTANCE,
-                GlobalSearchScope.projectScope(project)
-        );
-
-        for (VirtualFile vFile : files) {
-            List<List<Integer>> valueLists = index.getValues(MoLangFunctionIndex.NAME, fnName, GlobalSearchScope.fileScope(project, vFile));
-            for (List<Integer> offsetList : valueLists) {
-                for (int fnOffset : offsetList) {
-                    PsiFile psiFile = PsiManager.getInstance(project).findFile(vFile);
-                    if (psiFile != null) {
-                        PsiElement element = psiFile.findElementAt(fnOffset);
-                        if (element != null) return element;
-                    }
+        MoLangImportClosure.Closure closure = MoLangImportClosure.get(file);
+        VirtualFile definingFile = closure.functions().get(fnName);
+        if (definingFile != null) {
+            PsiElement target = findDefinition(project, fnName, GlobalSearchScope.fileScope(project, definingFile));
+            if (target != null) return target;
+        }
+        return closure.complete() ? null : findDefinition(project, fnName, GlobalSearchScope.allScope(project));
+    }
+
+    @Nullable
+    private PsiElement findDefinition(Project project, String fnName, GlobalSearchScope scope) {
+        PsiManager psiManager = PsiManager.getInstance(project);
+        PsiElement[] target = new PsiElement[1];
+        FileBasedIndex.getInstance().processValues(MoLangFunctionIndex.NAME, fnName, null, (vFile, offsets) -> {
+            PsiFile psiFile = psiManager.findFile(vFile);
+            if (psiFile == null) return true;
+            for (int fnOffset : offsets) {
+                PsiElement element = psiFile.findElementAt(fnOffset);
+                if (element != null) {
+                    target[0] = element;
+                    return false;
                 }
             }
-        }
-        return null;
+            return true;
+        }, scope);
+        return target[0];
     }
 
     @Nullable
-    private PsiElement resolveImport(Project project, String text, int offset) {
+    private PsiElement resolveImport(Project project, PsiFile file, CharSequence text, int offset) {
         String importPath = findImportPathAtOffset(text, offset);
         if (importPath == null) return null;
 
-        int colonIdx = importPath.indexOf(':');
-        if (colonIdx < 0) return null;
-        String namespace = importPath.substring(0, colonIdx);
-        String path = importPath.substring(colonIdx + 1);
-
-        String targetRelPath = "data/" + namespace + "/molang/" + path + ".molang";
-
-        Collection<VirtualFile> files = FileTypeIndex.getFiles(
-                MoLangFileType.INSTANCE,
-                GlobalSearchScope.projectScope(project)
-        );
-
-        for (VirtualFile vFile : files) {
-            String vPath = vFile.getPath().replace('\\', '/');
-            if (vPath.endsWith(targetRelPath) || vPath.contains("/" + targetRelPath)) {
-                PsiFile psiFile = PsiManager.getInstance(project).findFile(vFile);
-                if (psiFile != null) return psiFile;
-            }
-        }
-
-        return null;
+        VirtualFile target = MoLangImportClosure.resolve(project, file.getOriginalFile().getVirtualFile(), importPath);
+        return target != null ? PsiManager.getInstance(project).findFile(target) : null;
     }
 
     @Nullable
-    private String findFunctionNameAtOffset(String text, int offset) {
+    private String findFunctionNameAtOffset(CharSequence text, int offset) {
         int searchStart = Math.max(0, offset - 100);
         int searchEnd = Math.min(text.length(), offset + 50);
-        String region = text.substring(searchStart, searchEnd);
+        CharSequence region = text.subSequence(searchStart, searchEnd);
         int relativeOffset = offset - searchStart;
 
         Matcher m = FN_CALL_PATTERN.matcher(region);
@@ -122,10 +115,10 @@ public class MoLangGotoHandler implements GotoDeclarationHandler {
     }
 
     @Nullable
-    private String findImportPathAtOffset(String text, int offset) {
+    private String findImportPathAtOffset(CharSequence text, int offset) {
         int searchStart = Math.max(0, offset - 200);
         int searchEnd = Math.min(text.length(), offset + 100);
-        String region = text.substring(searchStart, searchEnd);
+        CharSequence region = text.subSequence(searchStart, searchEnd);
         int relativeOffset = offset - searchStart;
 
         Matcher m = IMPORT_PATTERN.matcher(region);
@@ -0,0 +1,151 @@
+package aster.amo.molang.ide.navigation;
+
+import aster.amo.molang.ide.analysis.MoLangFunctionExtractor;
+import aster.amo.molang.ide.analysis.MoLangImports;
+import aster.amo.molang.ide.largefile.MoLangLargeFiles;
+import aster.amo.molang.ide.lint.BatchLinter;
+import com.intellij.lang.injection.InjectedLanguageManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.FilenameIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The script itself plus everything it reaches through {@code import('ns:path')}, resolved from
+ * {@link MoLangImportIndex} and {@link MoLangFunctionIndex}. Cached on the file until the file, any script in the
+ * closure, or the set of files in the project changes. For MoLang injected into datapack JSON, the JSON file is the
+ * root of the closure. In large-file mode the script's own functions and imports also come from the indexes, as of
+ * the last save.
+ */
+public final class MoLangImportClosure {
+    private static final Key<CachedValue<Closure>> KEY = Key.create("molang.import.closure");
+
+    private MoLangImportClosure() {
+    }
+
+    /**
+     * @param files     the script first, then the imported scripts in breadth-first order
+     * @param functions each visible fn name and the first file in {@code files} that defines it
+     * @param complete  false when an import in the closure could not be resolved, or the file is not on disk
+     */
+    public record Closure(@NotNull List<VirtualFile> files, @NotNull Map<String, VirtualFile> functions, boolean complete) {
+
+        @NotNull
+        public GlobalSearchScope scope(@NotNull Project project) {
+            return GlobalSearchScope.filesScope(project, files);
+        }
+    }
+
+    @NotNull
+    public static Closure get(@NotNull PsiFile file) {
+        return CachedValuesManager.getCachedValue(file, KEY, () -> compute(file));
+    }
+
+    /**
+     * The closure of {@code root} read from the indexes alone, as of the last save, without caching or loading PSI.
+     */
+    @NotNull
+    public static Closure indexed(@NotNull Project project, @NotNull VirtualFile root) {
+        FileBasedIndex index = FileBasedIndex.getInstance();
+        return walk(project, root, index.getFileData(MoLangFunctionIndex.NAME, root, project).keySet(),
+                index.getFileData(MoLangImportIndex.NAME, root, project).keySet(), null);
+    }
+
+    private static CachedValueProvider.Result<Closure> compute(PsiFile file) {
+        Project project = file.getProject();
+        CharSequence text = file.getViewProvider().getContents();
+        List<Object> dependencies = new ArrayList<>();
+        dependencies.add(file);
+        dependencies.add(VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS);
+
+        PsiFile topLevel = InjectedLanguageManager.getInstance(project).getTopLevelFile(file);
+        VirtualFile root = (topLevel != null ? topLevel : file).getOriginalFile().getVirtualFile();
+        if (root == null) {
+            return CachedValueProvider.Result.create(new Closure(List.of(), Map.of(), false), dependencies);
+        }
+        if (MoLangLargeFiles.isLarge(text)) {
+            FileBasedIndex index = FileBasedIndex.getInstance();
+            return CachedValueProvider.Result.create(walk(project, root,
+                    index.getFileData(MoLangFunctionIndex.NAME, root, project).keySet(),
+                    index.getFileData(MoLangImportIndex.NAME, root, project).keySet(), dependencies), dependencies);
+        }
+        return CachedValueProvider.Result.create(walk(project, root, MoLangFunctionExtractor.extract(text).keySet(),
+                MoLangImports.extract(text).keySet(), dependencies), dependencies);
+    }
+
+    private static Closure walk(Project project, VirtualFile root, Collection<String> defined, Collection<String> imports,
+                                @Nullable List<Object> dependencies) {
+        Map<String, VirtualFile> functions = new LinkedHashMap<>();
+        for (String name : defined) {
+            functions.put(name, root);
+        }
+
+        FileBasedIndex index = FileBasedIndex.getInstance();
+        PsiManager psiManager = dependencies != null ? PsiManager.getInstance(project) : null;
+        Set<VirtualFile> visited = new LinkedHashSet<>();
+        Deque<VirtualFile> queue = new ArrayDeque<>();
+        visited.add(root);
+        boolean complete = true;
+        VirtualFile importer = root;
+        while (true) {
+            for (String importPath : imports) {
+                VirtualFile target = resolve(project, importer, importPath);
+                if (target == null) {
+                    complete = false;
+                } else if (visited.add(target)) {
+                    queue.add(target);
+                }
+            }
+            importer = queue.poll();
+            if (importer == null) break;
+
+            if (psiManager != null) {
+                PsiFile psiFile = psiManager.findFile(importer);
+                if (psiFile != null) dependencies.add(psiFile);
+            }
+            for (String name : index.getFileData(MoLangFunctionIndex.NAME, importer, project).keySet()) {
+                functions.putIfAbsent(name, importer);
+            }
+            imports = index.getFileData(MoLangImportIndex.NAME, importer, project).keySet();
+        }
+        return new Closure(List.copyOf(visited), functions, complete);
+    }
+
+    @Nullable
+    public static VirtualFile resolve(@NotNull Project project, @Nullable VirtualFile importer, @NotNull String importPath) {
+        String target = importer != null ? BatchLinter.importTarget(importer.getPath(), importPath) : null;
+        if (target != null) {
+            VirtualFile file = importer.getFileSystem().findFileByPath(target);
+            if (file != null && !file.isDirectory()) return file;
+        }
+
+        String relative = MoLangImports.relativePath(importPath);
+        if (relative == null) return null;
+        for (VirtualFile file : FilenameIndex.getVirtualFilesByName(MoLangImports.fileName(importPath),
+                GlobalSearchScope.allScope(project))) {
+            String path = file.getPath().replace('\\', '/');
+            if (path.endsWith("/" + relative) || path.equals(relative)) return file;
+        }
+        return null;
+    }
+}
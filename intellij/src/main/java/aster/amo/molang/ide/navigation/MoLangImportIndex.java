@@ -0,0 +1,77 @@
+package aster.amo.molang.ide.navigation;
+
+import aster.amo.molang.ide.analysis.MoLangImports;
+import aster.amo.molang.ide.injection.MoLangIndexInput;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MoLangImportIndex extends FileBasedIndexExtension<String, List<Integer>> {
+    public static final ID<String, List<Integer>> NAME = ID.create("molang.import.index");
+
+    @NotNull
+    @Override
+    public ID<String, List<Integer>> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, List<Integer>, FileContent> getIndexer() {
+        return inputData -> MoLangIndexInput.index(inputData, MoLangImports::extract);
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<List<Integer>> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, List<Integer> value) throws IOException {
+                out.writeInt(value.size());
+                for (int offset : value) {
+                    out.writeInt(offset);
+                }
+            }
+
+            @Override
+            public List<Integer> read(@NotNull DataInput in) throws IOException {
+                int size = in.readInt();
+                List<Integer> result = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    result.add(in.readInt());
+                }
+                return result;
+            }
+        };
+    }
+
+    @Override
+    public int getVersion() {
+        return MoLangIndexInput.version(1);
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return MoLangIndexInput.filter();
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
@@ -0,0 +1,53 @@
+package aster.amo.molang.ide.navigation;
+
+import aster.amo.molang.ide.analysis.MoLangFunctionExtractor;
+import aster.amo.molang.ide.largefile.MoLangLargeFiles;
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class MoLangUnresolvedFunctionInspection extends LocalInspectionTool {
+
+    @Override
+    public ProblemDescriptor @NotNull [] checkFile(@NotNull PsiFile file, @NotNull InspectionManager manager, boolean isOnTheFly) {
+        CharSequence text = file.getViewProvider().getContents();
+        Map<String, List<Integer>> callSites = MoLangLargeFiles.isLarge(text)
+                ? indexedCallSites(file)
+                : MoLangFunctionExtractor.callSites(text);
+        if (callSites.isEmpty()) return ProblemDescriptor.EMPTY_ARRAY;
+
+        MoLangImportClosure.Closure closure = MoLangImportClosure.get(file);
+        if (!closure.complete()) return ProblemDescriptor.EMPTY_ARRAY;
+
+        List<ProblemDescriptor> problems = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> call : callSites.entrySet()) {
+            if (closure.functions().containsKey(call.getKey())) continue;
+            String message = "Function 'f." + call.getKey() + "' is not defined in this script or its imports";
+            for (int offset : call.getValue()) {
+                int end = offset + call.getKey().length();
+                if (end > text.length() || !call.getKey().contentEquals(text.subSequence(offset, end))) continue;
+                problems.add(manager.createProblemDescriptor(file,
+                        new TextRange(offset, end), message,
+                        ProblemHighlightType.LIKE_UNKNOWN_SYMBOL, isOnTheFly));
+            }
+        }
+        return problems.toArray(ProblemDescriptor.EMPTY_ARRAY);
+    }
+
+    /** Large files are not scanned; their call sites come from the index as of the last save. */
+    private static Map<String, List<Integer>> indexedCallSites(PsiFile file) {
+        VirtualFile vFile = file.getVirtualFile();
+        if (vFile == null) return Map.of();
+        return FileBasedIndex.getInstance().getFileData(MoLangCallSiteIndex.NAME, vFile, file.getProject());
+    }
+}
@@ -0,0 +1,27 @@
+package aster.amo.molang.ide.parser;
+
+import aster.amo.molang.ide.MoLangLanguage;
+import aster.amo.molang.ide.lexer.MoLangChunks;
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.Language;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.tree.IReparseableElementType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A line-aligned slice of a large script. Its tokens are only lexed when something looks inside it, such as
+ * highlighting of the visible range, and an edit inside it re-lexes just this chunk instead of the whole file.
+ */
+public class MoLangChunkElementType extends IReparseableElementType {
+    public static final MoLangChunkElementType CHUNK = new MoLangChunkElementType();
+
+    private MoLangChunkElementType() {
+        super("CHUNK", MoLangLanguage.INSTANCE);
+    }
+
+    @Override
+    public boolean isReparseable(@NotNull ASTNode currentNode, @NotNull CharSequence newText,
+                                 @NotNull Language fileLanguage, @NotNull Project project) {
+        return MoLangChunks.isSelfContained(newText, currentNode.getTreeNext() == null);
+    }
+}
@@ -0,0 +1,29 @@
+package aster.amo.molang.ide.parser;
+
+import aster.amo.molang.ide.ast.MoLangParser;
+import aster.amo.molang.ide.ast.ParseResult;
+import aster.amo.molang.ide.diagnostics.MoLangMetrics;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import org.jetbrains.annotations.NotNull;
+
+public final class MoLangParseCache {
+    private static final Key<CachedValue<ParseResult>> KEY = Key.create("molang.parse.result");
+
+    private MoLangParseCache() {
+    }
+
+    @NotNull
+    public static ParseResult getParseResult(@NotNull PsiFile file) {
+        boolean[] computed = new boolean[1];
+        ParseResult result = CachedValuesManager.getCachedValue(file, KEY, () -> {
+            computed[0] = true;
+            return CachedValueProvider.Result.create(MoLangParser.parse(file.getViewProvider().getContents()), file);
+        });
+        MoLangMetrics.getInstance().recordLookup(MoLangMetrics.Cache.PARSE, !computed[0]);
+        return result;
+    }
+}
@@ -1,8 +1,11 @@
 package aster.amo.molang.ide.parser;
 
 import aster.amo.molang.ide.MoLangLanguage;
+import aster.amo.molang.ide.largefile.MoLangLargeFiles;
+import aster.amo.molang.ide.lexer.MoLangChunkLexer;
 import aster.amo.molang.ide.lexer.MoLangLexer;
 import aster.amo.molang.ide.lexer.MoLangTokenTypes;
+import com.intellij.extapi.psi.ASTWrapperPsiElement;
 import com.intellij.lang.ASTNode;
 import com.intellij.lang.ParserDefinition;
 import com.intellij.lang.PsiParser;
@@ -15,10 +18,20 @@ import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.tree.IFileElementType;
 import com.intellij.psi.tree.TokenSet;
 import com.intellij.lang.PsiBuilder;
+import com.intellij.lang.PsiBuilderFactory;
 import org.jetbrains.annotations.NotNull;
 
 public class MoLangParserDefinition implements ParserDefinition {
-    private static final IFileElementType FILE = new IFileElementType(MoLangLanguage.INSTANCE);
+    private static final IFileElementType FILE = new IFileElementType(MoLangLanguage.INSTANCE) {
+        @Override
+        protected ASTNode doParseContents(@NotNull ASTNode chameleon, @NotNull PsiElement psi) {
+            CharSequence text = chameleon.getChars();
+            Lexer lexer = MoLangLargeFiles.isLarge(text) ? new MoLangChunkLexer() : new MoLangLexer();
+            PsiBuilder builder = PsiBuilderFactory.getInstance()
+                    .createBuilder(psi.getProject(), chameleon, lexer, getLanguage(), text);
+            return parse(this, builder).getFirstChildNode();
+        }
+    };
 
     @NotNull
     @Override
@@ -29,14 +42,16 @@ public class MoLangParserDefinition implements ParserDefinition {
     @NotNull
     @Override
     public PsiParser createParser(Project project) {
-        return (root, builder) -> {
-            PsiBuilder.Marker rootMarker = builder.mark();
-            while (!builder.eof()) {
-                builder.advanceLexer();
-            }
-            rootMarker.done(root);
-            return builder.getTreeBuilt();
-        };
+        return MoLangParserDefinition::parse;
+    }
+
+    private static ASTNode parse(IElementType root, PsiBuilder builder) {
+        PsiBuilder.Marker rootMarker = builder.mark();
+        while (!builder.eof()) {
+            builder.advanceLexer();
+        }
+        rootMarker.done(root);
+        return builder.getTreeBuilt();
     }
 
     @NotNull
@@ -67,6 +82,7 @@ public class MoLangParserDefinition implements ParserDefinition {
     @Override
     public PsiElement createElement(ASTNode node) {
         IElementType type = node.getElementType();
+        if (type == MoLangChunkElementType.CHUNK) return new ASTWrapperPsiElement(node);
         throw new UnsupportedOperationException("Unknown element type: " + type);
     }
 
@@ -0,0 +1,111 @@
+package aster.amo.molang.ide.refactoring;
+
+import aster.amo.molang.ide.analysis.MoLangFunctionExtractor;
+import aster.amo.molang.ide.navigation.MoLangFunctionUsages;
+import aster.amo.molang.ide.parser.MoLangFile;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.actionSystem.DataContext;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.InputValidator;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.ReadonlyStatusHandler;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.refactoring.rename.RenameHandler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MoLangFunctionRenameHandler implements RenameHandler {
+
+    @Override
+    public boolean isAvailableOnDataContext(@NotNull DataContext dataContext) {
+        Editor editor = CommonDataKeys.EDITOR.getData(dataContext);
+        PsiFile file = CommonDataKeys.PSI_FILE.getData(dataContext);
+        return editor != null && file instanceof MoLangFile && nameAtCaret(editor) != null;
+    }
+
+    @Override
+    public void invoke(@NotNull Project project, Editor editor, PsiFile file, DataContext dataContext) {
+        if (editor == null) return;
+        MoLangFunctionExtractor.FunctionName target = nameAtCaret(editor);
+        if (target == null) return;
+        String oldName = target.name();
+
+        String newName = Messages.showInputDialog(project, "Rename function '" + oldName + "' and all its calls to:",
+                "Rename MoLang Function", null, oldName, new InputValidator() {
+                    @Override
+                    public boolean checkInput(String inputString) {
+                        return MoLangFunctionExtractor.isValidName(inputString);
+                    }
+
+                    @Override
+                    public boolean canClose(String inputString) {
+                        return checkInput(inputString);
+                    }
+                });
+        if (newName == null || newName.equals(oldName)) return;
+
+        PsiDocumentManager.getInstance(project).commitAllDocuments();
+        List<MoLangFunctionUsages.Occurrence> occurrences = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                () -> ReadAction.compute(() -> MoLangFunctionUsages.find(project, oldName)),
+                "Finding Usages of f." + oldName, true, project);
+        if (occurrences.isEmpty()) return;
+
+        List<MoLangFunctionUsages.Occurrence> clashes = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                () -> ReadAction.compute(() -> MoLangFunctionUsages.find(project, newName)),
+                "Checking f." + newName, true, project);
+        if (clashes.stream().anyMatch(MoLangFunctionUsages.Occurrence::definition)
+                && Messages.showYesNoDialog(project, "A function named '" + newName + "' is already defined. Rename anyway?",
+                "Rename MoLang Function", Messages.getWarningIcon()) != Messages.YES) {
+            return;
+        }
+
+        if (ReadonlyStatusHandler.getInstance(project)
+                .ensureFilesWritable(MoLangFunctionUsages.files(occurrences)).hasReadonlyFiles()) {
+            return;
+        }
+
+        Map<PsiFile, List<MoLangFunctionUsages.Occurrence>> byFile = new LinkedHashMap<>();
+        for (MoLangFunctionUsages.Occurrence occurrence : occurrences) {
+            byFile.computeIfAbsent(occurrence.file(), k -> new ArrayList<>()).add(occurrence);
+        }
+
+        WriteCommandAction.writeCommandAction(project, byFile.keySet().toArray(PsiFile.EMPTY_ARRAY))
+                .withName("Rename f." + oldName + " to f." + newName)
+                .run(() -> {
+                    PsiDocumentManager documents = PsiDocumentManager.getInstance(project);
+                    for (var entry : byFile.entrySet()) {
+                        Document doc = documents.getDocument(entry.getKey());
+                        if (doc == null) continue;
+                        List<MoLangFunctionUsages.Occurrence> inFile = entry.getValue();
+                        inFile.sort(Comparator.comparingInt((MoLangFunctionUsages.Occurrence o) -> o.range().getStartOffset()).reversed());
+                        for (MoLangFunctionUsages.Occurrence occurrence : inFile) {
+                            doc.replaceString(occurrence.range().getStartOffset(), occurrence.range().getEndOffset(), newName);
+                        }
+                        documents.commitDocument(doc);
+                    }
+                });
+    }
+
+    @Override
+    public void invoke(@NotNull Project project, PsiElement @NotNull [] elements, DataContext dataContext) {
+        invoke(project, CommonDataKeys.EDITOR.getData(dataContext), CommonDataKeys.PSI_FILE.getData(dataContext), dataContext);
+    }
+
+    @Nullable
+    private static MoLangFunctionExtractor.FunctionName nameAtCaret(Editor editor) {
+        return MoLangFunctionExtractor.functionNameAt(editor.getDocument().getCharsSequence(), editor.getCaretModel().getOffset());
+    }
+}
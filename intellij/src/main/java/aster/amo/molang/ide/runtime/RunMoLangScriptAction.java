@@ -0,0 +1,107 @@
+package aster.amo.molang.ide.runtime;
+
+import aster.amo.molang.ide.ast.ParseResult;
+import aster.amo.molang.ide.parser.MoLangFile;
+import aster.amo.molang.ide.parser.MoLangParseCache;
+import aster.amo.molang.ide.schema.MoLangSchemaService;
+import com.google.gson.JsonObject;
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileTypes.PlainTextFileType;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.testFramework.LightVirtualFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class RunMoLangScriptAction extends AnAction {
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        PsiFile file = e.getData(CommonDataKeys.PSI_FILE);
+        e.getPresentation().setEnabledAndVisible(e.getProject() != null && file instanceof MoLangFile
+                && file.getVirtualFile() != null && file.getVirtualFile().isInLocalFileSystem());
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        PsiFile file = e.getData(CommonDataKeys.PSI_FILE);
+        if (project == null || !(file instanceof MoLangFile) || file.getVirtualFile() == null) return;
+
+        MoLangSchemaService schema = project.getService(MoLangSchemaService.class);
+        if (schema == null || !schema.isLoaded()) return;
+
+        FileDocumentManager.getInstance().saveAllDocuments();
+        VirtualFile vFile = file.getVirtualFile();
+        Path scriptPath = vFile.toNioPath();
+
+        new Task.Backgroundable(project, "Running " + file.getName(), true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                ParseResult parsed = ReadAction.compute(() -> MoLangParseCache.getParseResult(file));
+                CharSequence source = ReadAction.compute(() -> file.getViewProvider().getContents());
+                if (!parsed.errors().isEmpty()) {
+                    notify(project, file.getName() + ": " + new MoLangRuntimeException(parsed.errors().get(0).message(),
+                            parsed.errors().get(0).start()).describe(source), NotificationType.ERROR);
+                    return;
+                }
+
+                Path fixturePath = MoLangRunner.defaultFixture(scriptPath);
+                JsonObject fixture = null;
+                try {
+                    if (fixturePath != null) fixture = MoLangRunner.readFixture(fixturePath);
+                } catch (IOException | RuntimeException ex) {
+                    notify(project, "Cannot read fixture " + fixturePath.getFileName() + ": " + ex.getMessage(), NotificationType.ERROR);
+                    return;
+                }
+
+                MockRuntime runtime = new MockRuntime(schema.getSchema(), schema.inferRuntime(source, vFile.getPath()), fixture);
+                indicator.setText("Benchmarking " + file.getName());
+                MoLangBenchmark.Result result;
+                try {
+                    result = MoLangBenchmark.run(parsed.root(), runtime, ImportResolver.forScript(scriptPath),
+                            MoLangBenchmark.DEFAULT_WARMUP, MoLangBenchmark.DEFAULT_ITERATIONS);
+                } catch (MoLangRuntimeException ex) {
+                    notify(project, file.getName() + ": " + ex.describe(source), NotificationType.ERROR);
+                    return;
+                }
+
+                String report = vFile.getPath() + "\n"
+                        + (fixturePath != null ? "Fixture:      " + fixturePath + "\n" : "")
+                        + result.format();
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    if (project.isDisposed()) return;
+                    LightVirtualFile output = new LightVirtualFile(file.getName() + ".run.txt", PlainTextFileType.INSTANCE, report);
+                    output.setWritable(false);
+                    FileEditorManager.getInstance(project).openFile(output, true);
+                });
+            }
+        }.queue();
+    }
+
+    private static void notify(Project project, String content, NotificationType type) {
+        NotificationGroupManager.getInstance()
+                .getNotificationGroup("MoLang")
+                .createNotification(content, type)
+                .notify(project);
+    }
+}
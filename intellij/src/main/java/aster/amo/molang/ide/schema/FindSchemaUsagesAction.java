@@ -0,0 +1,105 @@
+package aster.amo.molang.ide.schema;
+
+import aster.amo.molang.ide.analysis.AccessChain;
+import aster.amo.molang.ide.analysis.MoLangChainExtractor;
+import aster.amo.molang.ide.lexer.MoLangTokenKind;
+import aster.amo.molang.ide.parser.MoLangFile;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.InputValidator;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.usages.Usage;
+import com.intellij.usages.UsageInfo2UsageAdapter;
+import com.intellij.usages.UsageTarget;
+import com.intellij.usages.UsageViewManager;
+import com.intellij.usages.UsageViewPresentation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+public class FindSchemaUsagesAction extends AnAction {
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        e.getPresentation().setEnabledAndVisible(project != null);
+        e.getPresentation().setEnabled(project != null && !DumbService.isDumb(project));
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) return;
+        MoLangSchemaService schema = project.getService(MoLangSchemaService.class);
+        if (schema == null || !schema.isLoaded()) return;
+
+        String initial = chainAtCaret(e.getData(CommonDataKeys.EDITOR), e.getData(CommonDataKeys.PSI_FILE));
+        String query = Messages.showInputDialog(project,
+                "Schema member (q.pokemon.species, math.clamp, pokemon.species or q.pokemon.*):",
+                "Find Schema Usages", null, initial, new InputValidator() {
+                    @Override
+                    public boolean checkInput(String inputString) {
+                        return MoLangSchemaUsages.parseQuery(schema.getSchema(), inputString) != null;
+                    }
+
+                    @Override
+                    public boolean canClose(String inputString) {
+                        return checkInput(inputString);
+                    }
+                });
+        if (query == null) return;
+        Predicate<String> matcher = MoLangSchemaUsages.parseQuery(schema.getSchema(), query);
+        if (matcher == null) return;
+
+        PsiDocumentManager.getInstance(project).commitAllDocuments();
+        List<MoLangSchemaUsages.Occurrence> occurrences = ProgressManager.getInstance().runProcessWithProgressSynchronously(
+                () -> ReadAction.compute(() -> MoLangSchemaUsages.find(project, MoLangSchemaUsages.keys(project, matcher))),
+                "Finding Usages of " + query, true, project);
+
+        Usage[] usages = new Usage[occurrences.size()];
+        for (int i = 0; i < usages.length; i++) {
+            usages[i] = new UsageInfo2UsageAdapter(occurrences.get(i).toUsageInfo());
+        }
+
+        UsageViewPresentation presentation = new UsageViewPresentation();
+        presentation.setTabText(query);
+        presentation.setTargetsNodeText("Schema member");
+        presentation.setCodeUsagesString("Usages of " + query);
+        UsageViewManager.getInstance(project).showUsages(UsageTarget.EMPTY_ARRAY, usages, presentation);
+    }
+
+    @Nullable
+    private static String chainAtCaret(@Nullable Editor editor, @Nullable PsiFile file) {
+        if (editor == null || !(file instanceof MoLangFile)) return null;
+        int offset = editor.getCaretModel().getOffset();
+        List<AccessChain> chains = MoLangChainExtractor.extract(editor.getDocument().getCharsSequence(),
+                EnumSet.of(MoLangTokenKind.PREFIX_Q, MoLangTokenKind.PREFIX_MATH));
+        for (AccessChain chain : chains) {
+            if (offset < chain.getStart() || offset > chain.getEnd()) continue;
+            StringBuilder sb = new StringBuilder(chain.prefix());
+            for (AccessChain.Segment segment : chain.segments()) {
+                sb.append('.').append(segment.name());
+                if (offset <= segment.end()) break;
+            }
+            return sb.toString();
+        }
+        return null;
+    }
+}
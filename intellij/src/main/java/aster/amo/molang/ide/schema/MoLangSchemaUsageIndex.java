@@ -0,0 +1,95 @@
+package aster.amo.molang.ide.schema;
+
+import aster.amo.molang.ide.analysis.SchemaMemberKeys;
+import aster.amo.molang.ide.diagnostics.MoLangMetrics;
+import aster.amo.molang.ide.injection.MoLangIndexInput;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+public class MoLangSchemaUsageIndex extends FileBasedIndexExtension<String, List<Integer>> {
+    public static final ID<String, List<Integer>> NAME = ID.create("molang.schema.usage.index");
+    private static final int FORMAT_VERSION = 1;
+
+    @NotNull
+    @Override
+    public ID<String, List<Integer>> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, List<Integer>, FileContent> getIndexer() {
+        return inputData -> {
+            Project project = inputData.getProject();
+            MoLangSchemaService schema = project != null ? project.getService(MoLangSchemaService.class) : null;
+            if (schema == null || !schema.isLoaded()) return Collections.emptyMap();
+
+            MoLangMetrics.Timer timer = MoLangMetrics.getInstance().start(MoLangMetrics.Operation.SCHEMA_USAGE_INDEX);
+            try {
+                String path = inputData.getFile().getPath();
+                return MoLangIndexInput.index(inputData,
+                        text -> SchemaMemberKeys.extract(schema.getSchema(), schema.inferRuntime(text, path), text));
+            } finally {
+                timer.stop(inputData.getFileName());
+            }
+        };
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<List<Integer>> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, List<Integer> value) throws IOException {
+                out.writeInt(value.size());
+                for (int offset : value) {
+                    out.writeInt(offset);
+                }
+            }
+
+            @Override
+            public List<Integer> read(@NotNull DataInput in) throws IOException {
+                int size = in.readInt();
+                List<Integer> result = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    result.add(in.readInt());
+                }
+                return result;
+            }
+        };
+    }
+
+    @Override
+    public int getVersion() {
+        return Objects.hash(MoLangIndexInput.version(FORMAT_VERSION), MoLangSchema.bundledVersion());
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return MoLangIndexInput.filter();
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
@@ -0,0 +1,98 @@
+package aster.amo.molang.ide.schema;
+
+import aster.amo.molang.ide.analysis.SchemaMemberKeys;
+import aster.amo.molang.ide.diagnostics.MoLangMetrics;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.usageView.UsageInfo;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+public final class MoLangSchemaUsages {
+
+    private MoLangSchemaUsages() {
+    }
+
+    public record Occurrence(@NotNull PsiFile file, @NotNull TextRange range, @NotNull String key) {
+        @NotNull
+        public UsageInfo toUsageInfo() {
+            return new UsageInfo(file, range.getStartOffset(), range.getEndOffset());
+        }
+    }
+
+    @Nullable
+    public static Predicate<String> parseQuery(@NotNull MoLangSchema schema, @NotNull String query) {
+        String trimmed = query.trim();
+        boolean wildcard = trimmed.endsWith(".*");
+        String path = wildcard ? trimmed.substring(0, trimmed.length() - 2) : trimmed;
+        String[] parts = path.split("\\.");
+        if (parts.length == 0 || Arrays.stream(parts).anyMatch(String::isEmpty)) return null;
+
+        String key;
+        if (parts[0].equals("q") || parts[0].equals("query") || parts[0].equals("math")) {
+            String prefix = parts[0].equals("query") ? "q" : parts[0];
+            List<String> keys = SchemaMemberKeys.keys(schema, null, prefix, Arrays.copyOfRange(parts, 1, parts.length));
+            if (keys.size() != parts.length - 1) {
+                if (!wildcard || parts.length != 1) return null;
+                return k -> k.startsWith(prefix + ".");
+            }
+            key = keys.get(keys.size() - 1);
+        } else {
+            key = path;
+        }
+        SchemaEntry entry = SchemaMemberKeys.resolve(schema, key);
+        if (!wildcard) return key::equals;
+
+        String structType = entry != null ? entry.string("struct_type") : null;
+        String memberPrefix = key + ".";
+        String typePrefix = structType != null ? structType + "." : null;
+        return k -> k.equals(key) || k.startsWith(memberPrefix) || (typePrefix != null && k.startsWith(typePrefix));
+    }
+
+    @NotNull
+    public static List<String> keys(@NotNull Project project, @NotNull Predicate<String> query) {
+        TreeSet<String> matching = new TreeSet<>();
+        for (String key : FileBasedIndex.getInstance().getAllKeys(MoLangSchemaUsageIndex.NAME, project)) {
+            if (query.test(key)) matching.add(key);
+        }
+        return new ArrayList<>(matching);
+    }
+
+    @NotNull
+    public static List<Occurrence> find(@NotNull Project project, @NotNull List<String> keys) {
+        MoLangMetrics.Timer timer = MoLangMetrics.getInstance().start(MoLangMetrics.Operation.FIND_USAGES);
+        try {
+            PsiManager psiManager = PsiManager.getInstance(project);
+            FileBasedIndex index = FileBasedIndex.getInstance();
+            GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+            List<Occurrence> result = new ArrayList<>();
+            for (String key : keys) {
+                String member = key.substring(key.lastIndexOf('.') + 1);
+                index.processValues(MoLangSchemaUsageIndex.NAME, key, null, (vFile, offsets) -> {
+                    PsiFile psiFile = psiManager.findFile(vFile);
+                    if (psiFile == null) return true;
+                    String text = psiFile.getViewProvider().getContents().toString();
+                    for (int offset : offsets) {
+                        if (text.startsWith(member, offset)) {
+                            result.add(new Occurrence(psiFile, new TextRange(offset, offset + member.length()), key));
+                        }
+                    }
+                    return true;
+                }, scope);
+            }
+            return result;
+        } finally {
+            timer.stop(keys.size() == 1 ? keys.get(0) : keys.size() + " keys");
+        }
+    }
+}
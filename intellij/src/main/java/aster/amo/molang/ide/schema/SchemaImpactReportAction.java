@@ -0,0 +1,155 @@
+package aster.amo.molang.ide.schema;
+
+import aster.amo.molang.ide.analysis.SchemaMemberKeys;
+import com.google.gson.JsonParseException;
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileChooser.FileChooser;
+import com.intellij.openapi.fileChooser.FileChooserDescriptorFactory;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileTypes.PlainTextFileType;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.testFramework.LightVirtualFile;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+public class SchemaImpactReportAction extends AnAction {
+
+    private enum Impact {
+        REMOVED("Removed"),
+        CHANGED("Changed signature");
+
+        private final String title;
+
+        Impact(String title) {
+            this.title = title;
+        }
+    }
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        e.getPresentation().setEnabledAndVisible(project != null);
+        e.getPresentation().setEnabled(project != null && !DumbService.isDumb(project));
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) return;
+        MoLangSchemaService service = project.getService(MoLangSchemaService.class);
+        if (service == null || !service.isLoaded()) return;
+
+        VirtualFile candidateFile = FileChooser.chooseFile(
+                FileChooserDescriptorFactory.createSingleFileDescriptor("json").withTitle("Select Candidate Schema"),
+                project, null);
+        if (candidateFile == null) return;
+
+        new Task.Backgroundable(project, "Computing MoLang schema impact", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                MoLangSchema candidate;
+                try (Reader reader = new InputStreamReader(candidateFile.getInputStream(), StandardCharsets.UTF_8)) {
+                    candidate = MoLangSchema.load(reader);
+                } catch (IOException | JsonParseException | IllegalStateException ex) {
+                    NotificationGroupManager.getInstance()
+                            .getNotificationGroup("MoLang")
+                            .createNotification("Cannot load " + candidateFile.getName() + ": " + ex.getMessage(), NotificationType.ERROR)
+                            .notify(project);
+                    return;
+                }
+
+                String report = ReadAction.compute(() -> buildReport(project, service.getSchema(), candidate, candidateFile.getName(), indicator));
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    if (project.isDisposed()) return;
+                    LightVirtualFile output = new LightVirtualFile("molang-schema-impact.md", PlainTextFileType.INSTANCE, report);
+                    output.setWritable(false);
+                    FileEditorManager.getInstance(project).openFile(output, true);
+                });
+            }
+        }.queue();
+    }
+
+    private static String buildReport(Project project, MoLangSchema current, MoLangSchema candidate,
+                                      String candidateName, ProgressIndicator indicator) {
+        FileBasedIndex index = FileBasedIndex.getInstance();
+        Map<Impact, Map<String, List<String>>> impacts = new TreeMap<>();
+        for (String key : new TreeSet<>(index.getAllKeys(MoLangSchemaUsageIndex.NAME, project))) {
+            indicator.checkCanceled();
+            SchemaEntry before = SchemaMemberKeys.resolve(current, key);
+            if (before == null) continue;
+            SchemaEntry after = SchemaMemberKeys.resolve(candidate, key);
+            Impact impact = after == null ? Impact.REMOVED : SchemaMemberKeys.sameSignature(before, after) ? null : Impact.CHANGED;
+            if (impact == null) continue;
+
+            List<String> locations = locations(project, index, key);
+            if (!locations.isEmpty()) {
+                impacts.computeIfAbsent(impact, i -> new TreeMap<>()).put(key, locations);
+            }
+        }
+
+        StringBuilder sb = new StringBuilder("# Schema impact: ").append(candidateName).append("\n\n");
+        if (impacts.isEmpty()) {
+            return sb.append("No indexed script uses a removed or changed schema member.\n").toString();
+        }
+        for (Map.Entry<Impact, Map<String, List<String>>> byImpact : impacts.entrySet()) {
+            sb.append("## ").append(byImpact.getKey().title).append("\n\n");
+            for (Map.Entry<String, List<String>> byKey : byImpact.getValue().entrySet()) {
+                sb.append("### `").append(byKey.getKey()).append("`\n\n");
+                for (String location : byKey.getValue()) {
+                    sb.append("- ").append(location).append('\n');
+                }
+                sb.append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static List<String> locations(Project project, FileBasedIndex index, String key) {
+        List<String> locations = new ArrayList<>();
+        FileDocumentManager documents = FileDocumentManager.getInstance();
+        String basePath = project.getBasePath();
+        index.processValues(MoLangSchemaUsageIndex.NAME, key, null, (file, offsets) -> {
+            Document document = documents.getDocument(file);
+            String path = basePath != null && file.getPath().startsWith(basePath + "/")
+                    ? file.getPath().substring(basePath.length() + 1)
+                    : file.getPath();
+            for (int offset : offsets) {
+                if (document == null || offset > document.getTextLength()) {
+                    locations.add(path);
+                    break;
+                }
+                locations.add(path + ":" + (document.getLineNumber(offset) + 1));
+            }
+            return true;
+        }, GlobalSearchScope.allScope(project));
+        return locations;
+    }
+}
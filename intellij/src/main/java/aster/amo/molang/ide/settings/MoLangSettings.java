@@ -0,0 +1,42 @@
+package aster.amo.molang.ide.settings;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import org.jetbrains.annotations.NotNull;
+
+@Service(Service.Level.APP)
+@State(name = "MoLangSettings", storages = @Storage("molang.xml"))
+public final class MoLangSettings implements PersistentStateComponent<MoLangSettings.State> {
+
+    public static final class State {
+        /** Use the {@code json_injections} rules from the bundled schema. */
+        public boolean bundledInjections = true;
+        /** Extra injection rules, one per line: {@code files glob : field, field [: prefix]}. */
+        public String injectionRules = "";
+        /** Mod folders, mod jars and datapacks whose scripts are indexed as libraries, one path per line. */
+        public String libraryPaths = "";
+        /** Scripts longer than this many KB are edited in large-file mode. */
+        public int largeFileThresholdKb = 1024;
+    }
+
+    private State state = new State();
+
+    @NotNull
+    public static MoLangSettings getInstance() {
+        return ApplicationManager.getApplication().getService(MoLangSettings.class);
+    }
+
+    @NotNull
+    @Override
+    public State getState() {
+        return state;
+    }
+
+    @Override
+    public void loadState(@NotNull State state) {
+        this.state = state;
+    }
+}
@@ -0,0 +1,99 @@
+package aster.amo.molang.ide.settings;
+
+import aster.amo.molang.ide.injection.MoLangInjectionRules;
+import aster.amo.molang.ide.library.MoLangLibraryRoots;
+import com.intellij.openapi.options.Configurable;
+import com.intellij.openapi.options.ConfigurationException;
+import com.intellij.ui.JBIntSpinner;
+import com.intellij.ui.components.JBCheckBox;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.components.JBTextArea;
+import com.intellij.util.FileContentUtil;
+import com.intellij.util.ui.FormBuilder;
+import com.intellij.util.ui.JBUI;
+import org.jetbrains.annotations.Nls;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import java.awt.Font;
+
+public class MoLangSettingsConfigurable implements Configurable {
+    private JBCheckBox bundledInjections;
+    private JBTextArea injectionRules;
+    private JBTextArea libraryPaths;
+    private JBIntSpinner largeFileThreshold;
+
+    @Nls
+    @Override
+    public String getDisplayName() {
+        return "MoLang";
+    }
+
+    @Nullable
+    @Override
+    public JComponent createComponent() {
+        bundledInjections = new JBCheckBox("Inject MoLang into the JSON fields listed in the bundled schema");
+        injectionRules = new JBTextArea(8, 60);
+        injectionRules.setFont(JBUI.Fonts.create(Font.MONOSPACED, injectionRules.getFont().getSize()));
+        libraryPaths = new JBTextArea(4, 60);
+        libraryPaths.setFont(injectionRules.getFont());
+        largeFileThreshold = new JBIntSpinner(1024, 64, 1024 * 1024, 64);
+        return FormBuilder.createFormBuilder()
+                .addLabeledComponent("Large file threshold (KB):", largeFileThreshold)
+                .addComponent(new JBLabel("Larger scripts are lexed in chunks, complete from a window around the caret "
+                        + "and skip the inspections that parse the whole file."))
+                .addComponent(bundledInjections)
+                .addLabeledComponentFillVertically("Additional JSON injections:", new JBScrollPane(injectionRules))
+                .addComponent(new JBLabel("One rule per line: files glob : field, field [: prefix]. "
+                        + "Fields are dot-separated keys or array indices; * matches one segment, ** any number."))
+                .addLabeledComponentFillVertically("Library mod folders, jars and datapacks:", new JBScrollPane(libraryPaths))
+                .addComponent(new JBLabel("One path per line. Scripts under data/*/molang are indexed read-only. "
+                        + "The project's mods and run/mods folders are always included."))
+                .getPanel();
+    }
+
+    @Override
+    public boolean isModified() {
+        MoLangSettings.State state = MoLangSettings.getInstance().getState();
+        return bundledInjections.isSelected() != state.bundledInjections
+                || !injectionRules.getText().equals(state.injectionRules)
+                || !libraryPaths.getText().equals(state.libraryPaths)
+                || largeFileThreshold.getNumber() != state.largeFileThresholdKb;
+    }
+
+    @Override
+    public void apply() throws ConfigurationException {
+        String error = MoLangInjectionRules.validate(injectionRules.getText());
+        if (error != null) throw new ConfigurationException(error);
+        MoLangSettings.State state = MoLangSettings.getInstance().getState();
+        state.bundledInjections = bundledInjections.isSelected();
+        state.injectionRules = injectionRules.getText();
+        MoLangInjectionRules.getInstance().reload();
+        if (!libraryPaths.getText().equals(state.libraryPaths)) {
+            state.libraryPaths = libraryPaths.getText();
+            MoLangLibraryRoots.getInstance().reload();
+        }
+        if (largeFileThreshold.getNumber() != state.largeFileThresholdKb) {
+            state.largeFileThresholdKb = largeFileThreshold.getNumber();
+            FileContentUtil.reparseOpenedFiles();
+        }
+    }
+
+    @Override
+    public void reset() {
+        MoLangSettings.State state = MoLangSettings.getInstance().getState();
+        bundledInjections.setSelected(state.bundledInjections);
+        injectionRules.setText(state.injectionRules);
+        libraryPaths.setText(state.libraryPaths);
+        largeFileThreshold.setNumber(state.largeFileThresholdKb);
+    }
+
+    @Override
+    public void disposeUIResources() {
+        bundledInjections = null;
+        injectionRules = null;
+        libraryPaths = null;
+        largeFileThreshold = null;
+    }
+}
@@ -0,0 +1,94 @@
+package aster.amo.molang.ide.perf;
+
+import org.jetbrains.annotations.NotNull;
+
+/** Generates the synthetic datapack that {@link MoLangPerformanceTest} measures against. */
+public final class MoLangPerfPack {
+    public static final String NAMESPACE = "perf";
+    public static final String RUNTIME = "event:POKEMON_LEVEL_UP";
+    public static final int DEFAULT_FILES = 10_000;
+    public static final int DEFAULT_CHAINS = 8;
+    public static final int DEFAULT_DEPTH = 25;
+    public static final int FUNCTIONS_PER_LIBRARY = 2;
+    private static final int FILES_PER_DIRECTORY = 200;
+
+    private final int files;
+    private final int chains;
+    private final int depth;
+
+    public MoLangPerfPack(int files, int chains, int depth) {
+        if (files < 1 || chains < 1 || depth < 1) throw new IllegalArgumentException("Pack sizes must be positive");
+        this.files = files;
+        this.chains = chains;
+        this.depth = depth;
+    }
+
+    /** Receives each generated file as a path relative to the pack root and its text. */
+    @FunctionalInterface
+    public interface Sink {
+        void write(@NotNull String path, @NotNull String text);
+    }
+
+    /** @return the number of files written; callback scripts come after the libraries, in index order */
+    public int write(@NotNull Sink sink) {
+        String molang = "data/" + NAMESPACE + "/molang/";
+        for (int c = 0; c < chains; c++) {
+            for (int d = 0; d < depth; d++) {
+                sink.write(molang + "lib/chain" + c + "/l" + d + ".molang", library(c, d));
+            }
+        }
+        for (int i = 0; i < files; i++) {
+            sink.write(molang + "callbacks/pokemon_level_up/g" + (i / FILES_PER_DIRECTORY) + "/s" + i + ".molang", script(i));
+        }
+        return files + chains * depth;
+    }
+
+    public int functionCount() {
+        return chains * depth * FUNCTIONS_PER_LIBRARY;
+    }
+
+    @NotNull
+    public String library(int chain, int level) {
+        StringBuilder sb = new StringBuilder();
+        if (level > 0) sb.append("import('").append(libraryPath(chain, level - 1)).append("');\n");
+        for (int k = 0; k < FUNCTIONS_PER_LIBRARY; k++) {
+            sb.append("fn('").append(functionName(chain, level, k)).append("', (a) -> {\n");
+            if (level > 0) {
+                sb.append("    return f.").append(functionName(chain, level - 1, k)).append("(a) + ").append(k + 1).append(";\n");
+            } else {
+                sb.append("    return math.clamp(a, 0, ").append(100 + chain).append(");\n");
+            }
+            sb.append("});\n");
+        }
+        return sb.toString();
+    }
+
+    @NotNull
+    public String script(int index) {
+        int chain = index % chains;
+        String top = functionName(chain, depth - 1, index % FUNCTIONS_PER_LIBRARY);
+        return """
+                // @context %s
+                import('%s');
+                fn('local%d', (level) -> {
+                    return level * 2 + math.clamp(q.pokemon.friendship, 0, 255);
+                });
+                t.base = f.%s(q.pokemon.level);
+                v.counter_%d = (v.counter_%d ?? 0) + 1;
+                if (q.pokemon.level > %d) {
+                    t.base = t.base + f.local%d(q.pokemon.level) * math.sin(%d);
+                }
+                return t.base;
+                """.formatted(RUNTIME, libraryPath(chain, depth - 1), index, top, index % 50, index % 50, index % 100, index, index % 360);
+    }
+
+    @NotNull
+    public static String libraryPath(int chain, int level) {
+        return NAMESPACE + ":lib/chain" + chain + "/l" + level;
+    }
+
+    @NotNull
+    public static String functionName(int chain, int level, int k) {
+        return "c" + chain + "_d" + level + "_k" + k;
+    }
+}
@@ -0,0 +1,191 @@
+package aster.amo.molang.ide.perf;
+
+import aster.amo.molang.ide.analysis.AccessChain;
+import aster.amo.molang.ide.analysis.MoLangChainExtractor;
+import aster.amo.molang.ide.analysis.MoLangFunctionExtractor;
+import aster.amo.molang.ide.analysis.MoLangImports;
+import aster.amo.molang.ide.callgraph.MoLangCallGraphIndex;
+import aster.amo.molang.ide.completion.MoLangCompletionContributor;
+import aster.amo.molang.ide.cost.MoLangScriptMetricsIndex;
+import aster.amo.molang.ide.documentation.MoLangDocumentationProvider;
+import aster.amo.molang.ide.lexer.MoLangTokenKind;
+import aster.amo.molang.ide.navigation.MoLangCallSiteIndex;
+import aster.amo.molang.ide.navigation.MoLangFunctionIndex;
+import aster.amo.molang.ide.navigation.MoLangGotoHandler;
+import aster.amo.molang.ide.navigation.MoLangImportIndex;
+import aster.amo.molang.ide.schema.MoLangSchemaService;
+import aster.amo.molang.ide.schema.MoLangSchemaUsageIndex;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.EditorFactory;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import com.intellij.tools.ide.metrics.benchmark.Benchmark;
+import com.intellij.util.ThrowableRunnable;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.ID;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Times completion, documentation, go-to-declaration and indexing over a synthetic datapack generated by
+ * {@link MoLangPerfPack}. The checks share one test method so the pack is written once; an operation that finds
+ * nothing fails at once, and every check whose median is over budget is reported together at the end. Set
+ * {@code molang.perf.budgetScale} to scale every budget on slower machines, and {@code molang.perf.files} to change
+ * the number of callback scripts.
+ */
+public class MoLangPerformanceTest extends BasePlatformTestCase {
+    private static final double BUDGET_SCALE = Double.parseDouble(System.getProperty("molang.perf.budgetScale", "1"));
+    private static final int FILES = Integer.getInteger("molang.perf.files", MoLangPerfPack.DEFAULT_FILES);
+    private static final int SAMPLES = 20;
+    private static final int WARMUP = 3;
+    private static final int ATTEMPTS = 10;
+    private static final List<ID<?, ?>> INDEXES = List.of(
+            MoLangFunctionIndex.NAME,
+            MoLangCallSiteIndex.NAME,
+            MoLangImportIndex.NAME,
+            MoLangCallGraphIndex.NAME,
+            MoLangSchemaUsageIndex.NAME,
+            MoLangScriptMetricsIndex.NAME);
+
+    private final List<VirtualFile> files = new ArrayList<>();
+    private final List<Sample> samples = new ArrayList<>();
+    private final List<String> overBudget = new ArrayList<>();
+
+    private record Sample(PsiFile file, int callOffset, int importOffset, int queryOffset) {}
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        MoLangPerfPack pack = new MoLangPerfPack(FILES, MoLangPerfPack.DEFAULT_CHAINS, MoLangPerfPack.DEFAULT_DEPTH);
+        pack.write((path, text) -> files.add(myFixture.getTempDirFixture().createFile(path, text)));
+
+        List<VirtualFile> scripts = files.subList(files.size() - FILES, files.size());
+        int step = Math.max(1, scripts.size() / SAMPLES);
+        for (int i = 0; i < scripts.size() && samples.size() < SAMPLES; i += step) {
+            samples.add(sample(scripts.get(i)));
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        files.clear();
+        samples.clear();
+        overBudget.clear();
+        super.tearDown();
+    }
+
+    public void testPerformance() {
+        checkCompletion();
+        checkDocumentation();
+        checkGotoDeclaration();
+        checkIndexing();
+        assertTrue(String.join("\n", overBudget), overBudget.isEmpty());
+    }
+
+    private void checkCompletion() {
+        MoLangSchemaService schema = getProject().getService(MoLangSchemaService.class);
+        MoLangCompletionContributor contributor = new MoLangCompletionContributor();
+        EditorFactory editors = EditorFactory.getInstance();
+        measure("completion", 150, () -> {
+            for (Sample sample : samples) {
+                for (String suffix : new String[]{"\nt.perf = q.pokemon.", "\nt.perf = f."}) {
+                    Document doc = editors.createDocument(sample.file().getText() + suffix);
+                    int[] found = new int[1];
+                    contributor.addCompletions(schema, doc, doc.getTextLength(), sample.file(), item -> found[0]++);
+                    assertTrue("No completions after '" + suffix.trim() + "' in " + sample.file().getName(), found[0] > 0);
+                }
+            }
+        });
+    }
+
+    private void checkDocumentation() {
+        MoLangDocumentationProvider documentation = new MoLangDocumentationProvider();
+        measure("documentation", 100, () -> {
+            for (Sample sample : samples) {
+                PsiElement element = sample.file().findElementAt(sample.queryOffset());
+                assertNotNull(element);
+                assertNotNull("No documentation in " + sample.file().getName(), documentation.generateDoc(element, element));
+            }
+        });
+    }
+
+    private void checkGotoDeclaration() {
+        MoLangGotoHandler gotoHandler = new MoLangGotoHandler();
+        measure("goto-declaration", 250, () -> {
+            for (Sample sample : samples) {
+                for (int offset : new int[]{sample.callOffset(), sample.importOffset()}) {
+                    PsiElement element = sample.file().findElementAt(offset);
+                    assertNotNull(element);
+                    PsiElement[] targets = gotoHandler.getGotoDeclarationTargets(element, offset, null);
+                    assertTrue("Unresolved at " + offset + " in " + sample.file().getName(), targets != null && targets.length > 0);
+                }
+            }
+        });
+    }
+
+    private void checkIndexing() {
+        FileBasedIndex index = FileBasedIndex.getInstance();
+        GlobalSearchScope scope = GlobalSearchScope.allScope(getProject());
+        measure("indexing", 60_000, 1, 3, () -> {
+            for (VirtualFile file : files) {
+                index.requestReindex(file);
+            }
+            for (ID<?, ?> id : INDEXES) {
+                index.ensureUpToDate(id, getProject(), scope);
+            }
+        });
+        for (ID<?, ?> id : INDEXES) {
+            assertFalse("Nothing indexed in " + id.getName(), index.getAllKeys(id, getProject()).isEmpty());
+        }
+    }
+
+    private void measure(String name, long budgetMillis, ThrowableRunnable<? extends Throwable> body) {
+        measure(name, budgetMillis, WARMUP, ATTEMPTS, body);
+    }
+
+    private void measure(String name, long budgetMillis, int warmup, int attempts, ThrowableRunnable<? extends Throwable> body) {
+        List<Long> millis = new ArrayList<>();
+        Benchmark.newBenchmark("MoLang " + name, () -> {
+                    long start = System.nanoTime();
+                    body.run();
+                    millis.add((System.nanoTime() - start) / 1_000_000);
+                })
+                .warmupIterations(warmup)
+                .attempts(attempts)
+                .start();
+
+        List<Long> timed = new ArrayList<>(millis.subList(Math.max(0, millis.size() - attempts), millis.size()));
+        timed.sort(null);
+        long median = timed.get(timed.size() / 2);
+        long budget = Math.round(budgetMillis * BUDGET_SCALE);
+        if (median > budget) {
+            overBudget.add(name + ": median " + median + " ms over " + timed.size() + " attempts, budget " + budget + " ms");
+        }
+    }
+
+    private Sample sample(VirtualFile file) {
+        PsiFile psiFile = PsiManager.getInstance(getProject()).findFile(file);
+        assertNotNull(psiFile);
+        String text = psiFile.getText();
+
+        Map<String, List<Integer>> calls = MoLangFunctionExtractor.callSites(text);
+        Map<String, List<Integer>> imports = MoLangImports.extract(text);
+        AccessChain query = MoLangChainExtractor.extract(text, EnumSet.of(MoLangTokenKind.PREFIX_Q)).stream()
+                .filter(chain -> chain.segments().size() > 1)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No q. member chain in " + file.getPath()));
+        assertFalse(calls.isEmpty());
+        assertFalse(imports.isEmpty());
+        return new Sample(psiFile,
+                calls.values().iterator().next().get(0),
+                imports.values().iterator().next().get(0),
+                query.segments().get(1).start());
+    }
+}
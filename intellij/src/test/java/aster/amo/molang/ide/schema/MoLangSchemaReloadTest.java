@@ -0,0 +1,155 @@
+package aster.amo.molang.ide.schema;
+
+import aster.amo.molang.ide.analysis.ChainChecker;
+import aster.amo.molang.ide.analysis.MoLangChainValidator;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves schema chains through {@link MoLangSchemaService} from several threads while the test thread keeps calling
+ * {@link MoLangSchemaService#reload()}. Every reload publishes the bundled schema again, so every read must match the
+ * first snapshot exactly, every view must refuse changes, and one snapshot must hand out the same entry instance on
+ * every lookup. Set
+ * {@code molang.schema.stressSeconds} to run for longer.
+ */
+public class MoLangSchemaReloadTest extends BasePlatformTestCase {
+    private static final long NANOS = TimeUnit.SECONDS.toNanos(Long.getLong("molang.schema.stressSeconds", 3));
+    private static final int READERS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+    private static final int MAX_CHAINS = 2_000;
+    private static final String PROBE = "reload_probe";
+
+    private record Chain(String runtime, String[] names, int size) {}
+
+    public void testReloadWhileResolving() throws Exception {
+        MoLangSchemaService service = getProject().getService(MoLangSchemaService.class);
+        assertTrue(service.isLoaded());
+        List<Chain> chains = collectChains(service.getSchema());
+        assertFalse(chains.isEmpty());
+
+        long deadline = System.nanoTime() + NANOS;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong reads = new AtomicLong();
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < READERS; t++) {
+            int seed = t * 31;
+            Thread reader = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = seed; System.nanoTime() < deadline && failures.isEmpty(); i++) {
+                        read(service, chains.get(Math.floorMod(i, chains.size())), failures);
+                        reads.incrementAndGet();
+                    }
+                } catch (Throwable e) {
+                    failures.add(e + " [" + Thread.currentThread().getName() + "]");
+                }
+            }, "molang-schema-reader-" + t);
+            reader.start();
+            readers.add(reader);
+        }
+
+        start.countDown();
+        int reloads = 0;
+        MoLangSchema previous = service.getSchema();
+        while (System.nanoTime() < deadline && failures.isEmpty()) {
+            service.reload();
+            MoLangSchema next = service.getSchema();
+            assertNotSame("reload() did not publish a new snapshot", previous, next);
+            previous = next;
+            reloads++;
+        }
+        for (Thread reader : readers) reader.join();
+
+        assertTrue("Failures after " + reads.get() + " reads and " + reloads + " reloads: " + failures,
+                failures.isEmpty());
+        assertTrue(reloads > 0);
+        assertTrue(reads.get() > 0);
+    }
+
+    public void testValidatorFollowsReload() {
+        MoLangSchemaService service = getProject().getService(MoLangSchemaService.class);
+        MoLangChainValidator validator = MoLangChainValidator.getInstance(getProject());
+        ChainChecker before = validator.checker();
+        assertSame(before, validator.checker());
+
+        service.reload();
+        ChainChecker after = validator.checker();
+        assertNotSame(before, after);
+        assertSame(after, validator.checker());
+    }
+
+    private static void read(MoLangSchemaService service, Chain chain, Queue<String> failures) {
+        String label = String.join(".", chain.names()) + " in " + chain.runtime();
+        MoLangSchema.SchemaResolution resolution = service.resolveChain(chain.runtime(), chain.names());
+        int size = resolution != null ? resolution.functions().size() : -1;
+        if (size != chain.size()) {
+            failures.add(label + " resolved to " + size + " members, expected " + chain.size());
+            return;
+        }
+
+        Map<String, SchemaEntry> queries = service.getQueryVariables(chain.runtime());
+        expectReadOnly(() -> queries.put(PROBE, null), "query variables", failures);
+        expectReadOnly(() -> service.getStructNames().add(PROBE), "struct names", failures);
+        expectReadOnly(() -> service.getRuntimeNames().add(PROBE), "runtime names", failures);
+        if (resolution == null) return;
+        expectReadOnly(() -> resolution.functions().put(PROBE, null), "resolution members", failures);
+
+        MoLangSchema schema = service.getSchema();
+        MoLangSchema.SchemaResolution first = schema.resolveChain(chain.runtime(), chain.names());
+        MoLangSchema.SchemaResolution again = schema.resolveChain(chain.runtime(), chain.names());
+        for (String member : first.functions().keySet()) {
+            if (first.functions().get(member) != again.functions().get(member)) {
+                failures.add(member + " of " + label + " resolved to a different entry within one snapshot");
+            }
+            break;
+        }
+    }
+
+    private static void expectReadOnly(Runnable mutation, String what, Queue<String> failures) {
+        try {
+            mutation.run();
+            failures.add("The " + what + " view accepted a change");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    private static List<Chain> collectChains(MoLangSchema schema) {
+        List<Chain> chains = new ArrayList<>();
+        for (String struct : schema.getStructNames()) {
+            chains.add(chain(schema, null, new String[]{struct}));
+        }
+        collect:
+        for (String runtime : schema.getRuntimeNames()) {
+            for (String query : schema.getRuntimeQueryVariables(runtime).keySet()) {
+                if (chains.size() >= MAX_CHAINS) break collect;
+                String[] names = {query};
+                chains.add(chain(schema, runtime, names));
+                MoLangSchema.SchemaResolution resolution = schema.resolveChain(runtime, names);
+                if (resolution == null) continue;
+                for (Map.Entry<String, SchemaEntry> member : resolution.functions().entrySet()) {
+                    if (chains.size() >= MAX_CHAINS) break collect;
+                    if (MoLangSchema.isStructEntry(member.getValue())) {
+                        chains.add(chain(schema, runtime, new String[]{query, member.getKey()}));
+                    }
+                }
+            }
+        }
+        Collections.shuffle(chains, new Random(42));
+        return chains;
+    }
+
+    private static Chain chain(MoLangSchema schema, String runtime, String[] names) {
+        MoLangSchema.SchemaResolution resolution = schema.resolveChain(runtime, names);
+        return new Chain(runtime, names, resolution != null ? resolution.functions().size() : -1);
+    }
+}
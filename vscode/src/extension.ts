@@ -1,41 +1,32 @@
+import * as path from 'path';
 import * as vscode from 'vscode';
-import { MoLangSchemaService } from './schema';
-import { MoLangCompletionProvider } from './completionProvider';
-import { MoLangHoverProvider } from './hoverProvider';
-import { MoLangDefinitionProvider } from './definitionProvider';
+import { LanguageClient, LanguageClientOptions, ServerOptions } from 'vscode-languageclient/node';
 
-const MOLANG_SELECTOR: vscode.DocumentSelector = { language: 'molang', scheme: 'file' };
+let client: LanguageClient | undefined;
 
 export function activate(context: vscode.ExtensionContext) {
-    context.subscriptions.push(
-        vscode.languages.registerDefinitionProvider(
-            MOLANG_SELECTOR,
-            new MoLangDefinitionProvider()
-        )
-    );
+    const config = vscode.workspace.getConfiguration('molang.server');
+    const java = config.get<string>('java') || 'java';
+    const jar = config.get<string>('path') || context.asAbsolutePath(path.join('server', 'molang-lsp.jar'));
 
-    const schema = new MoLangSchemaService();
-    schema.load(context.extensionPath);
+    const serverOptions: ServerOptions = {
+        command: java,
+        args: ['-XX:+UseSerialGC', '-jar', jar]
+    };
 
-    if (!schema.isLoaded()) {
-        console.warn('MoLang schema failed to load — completions/hover will be unavailable');
-        return;
-    }
+    const clientOptions: LanguageClientOptions = {
+        documentSelector: [{ language: 'molang', scheme: 'file' }],
+        synchronize: {
+            fileEvents: vscode.workspace.createFileSystemWatcher('**/*.molang')
+        }
+    };
 
-    context.subscriptions.push(
-        vscode.languages.registerCompletionItemProvider(
-            MOLANG_SELECTOR,
-            new MoLangCompletionProvider(schema),
-            '.'
-        ),
-        vscode.languages.registerHoverProvider(
-            MOLANG_SELECTOR,
-            new MoLangHoverProvider(schema)
-        )
-    );
-
-    console.log('MoLang extension activated with schema (' +
-        schema.getRuntimeNames().length + ' runtimes)');
+    client = new LanguageClient('molang', 'MoLang Language Server', serverOptions, clientOptions);
+    client.start().catch(e => {
+        vscode.window.showErrorMessage('MoLang language server failed to start: ' + e);
+    });
 }
 
-export function deactivate() {}
+export function deactivate(): Thenable<void> | undefined {
+    return client?.stop();
+}